@@ -0,0 +1,88 @@
+package com.alibaba.cloud.ai.common;
+
+import com.alibaba.cloud.ai.tool.ToolArguments;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.ToolResponseMessage;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * 消息内容摘要
+ *
+ * 只取决定内容的部分：消息类型、文本、工具调用的名称和参数、工具结果。
+ * 工具调用 id 每次运行都不同（Ollama 甚至总是为空），不参与摘要。
+ */
+public final class MessageDigests {
+
+    private MessageDigests() {
+    }
+
+    /**
+     * 消息列表的 SHA-256 摘要（前 16 字节的十六进制）
+     */
+    public static String digest(List<Message> messages) {
+        StringBuilder builder = new StringBuilder();
+        for (Message message : messages) {
+            appendContent(builder, message);
+            builder.append('\u0000');
+        }
+        return sha256(builder.toString());
+    }
+
+    /**
+     * 单条消息的 32 位指纹，在内容之外还包含工具调用和工具结果的 id，用于判断某个位置的消息是否被替换
+     */
+    public static int fingerprint(Message message) {
+        StringBuilder builder = new StringBuilder();
+        appendContent(builder, message);
+        if (message instanceof AssistantMessage assistantMessage && assistantMessage.getToolCalls() != null) {
+            for (AssistantMessage.ToolCall toolCall : assistantMessage.getToolCalls()) {
+                builder.append('\u0004').append(toolCall.id());
+            }
+        }
+        if (message instanceof ToolResponseMessage toolResponseMessage) {
+            for (ToolResponseMessage.ToolResponse response : toolResponseMessage.getResponses()) {
+                builder.append('\u0004').append(response.id());
+            }
+        }
+        return builder.toString().hashCode();
+    }
+
+    static void appendContent(StringBuilder builder, Message message) {
+        builder.append(message.getMessageType().getValue()).append('\u0001');
+        if (message.getText() != null) {
+            builder.append(message.getText());
+        }
+        if (message instanceof AssistantMessage assistantMessage && assistantMessage.getToolCalls() != null) {
+            for (AssistantMessage.ToolCall toolCall : assistantMessage.getToolCalls()) {
+                builder.append('\u0002').append(toolCall.name())
+                        .append('\u0003').append(ToolArguments.canonicalize(toolCall.arguments()));
+            }
+        }
+        if (message instanceof ToolResponseMessage toolResponseMessage) {
+            for (ToolResponseMessage.ToolResponse response : toolResponseMessage.getResponses()) {
+                builder.append('\u0002').append(response.name())
+                        .append('\u0003').append(response.responseData());
+            }
+        }
+    }
+
+    /**
+     * SHA-256 的前 16 字节，用于区分内容足够
+     */
+    public static String sha256(String text) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] bytes = digest.digest(text.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(bytes, 0, 16);
+        }
+        catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.alibaba.cloud.ai.common;
+
+import org.springframework.ai.chat.messages.Message;
+
+/**
+ * 消息 token 估算器
+ *
+ * 默认实现与 MessageSummarizationHook 中的估算方式一致：文本长度 / 4
+ */
+@FunctionalInterface
+public interface TokenEstimator {
+
+    TokenEstimator DEFAULT = message -> {
+        String text = message.getText();
+        return text == null ? 0 : text.length() / 4;
+    };
+
+    int estimate(Message message);
+}
@@ -0,0 +1,184 @@
+package com.alibaba.cloud.ai.hook;
+
+import com.alibaba.cloud.ai.graph.RunnableConfig;
+import com.alibaba.cloud.ai.graph.agent.hook.HookPosition;
+import com.alibaba.cloud.ai.graph.agent.hook.messages.AgentCommand;
+import com.alibaba.cloud.ai.graph.agent.hook.messages.MessagesModelHook;
+import com.alibaba.cloud.ai.graph.agent.hook.messages.UpdatePolicy;
+import org.springframework.ai.chat.messages.Message;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.Set;
+
+/**
+ * 融合多个 MessagesModelHook
+ *
+ * 分别注册时，每个 MessagesModelHook 都会产生一次 AgentCommand 和一次状态合并。
+ * 融合后按注册顺序在同一个写时复制的消息视图上依次执行，最后只提交一次：
+ * <ul>
+ *     <li>所有 Hook 都原样返回输入：提交空的 APPEND，不改动状态</li>
+ *     <li>只有追加：只提交追加的消息</li>
+ *     <li>发生过替换：物化一次最终列表并 REPLACE</li>
+ * </ul>
+ */
+public class FusedMessagesModelHook extends MessagesModelHook {
+
+    private final String name;
+    private final List<MessagesModelHook> beforeHooks;
+    private final List<MessagesModelHook> afterHooks;
+
+    public FusedMessagesModelHook(String name, List<MessagesModelHook> hooks) {
+        this.name = name;
+        this.beforeHooks = hooks.stream().filter(hook -> Hooks.hasPosition(hook, HookPosition.BEFORE_MODEL)).toList();
+        this.afterHooks = hooks.stream().filter(hook -> Hooks.hasPosition(hook, HookPosition.AFTER_MODEL)).toList();
+    }
+
+    public static FusedMessagesModelHook of(MessagesModelHook... hooks) {
+        return new FusedMessagesModelHook("fused_messages_hook", Arrays.asList(hooks));
+    }
+
+    /**
+     * 表示 "不修改消息" 的命令，不会触发整表替换
+     */
+    public static AgentCommand unchanged() {
+        return new AgentCommand(List.of(), UpdatePolicy.APPEND);
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public HookPosition[] getHookPositions() {
+        Set<HookPosition> positions = EnumSet.noneOf(HookPosition.class);
+        if (!beforeHooks.isEmpty()) {
+            positions.add(HookPosition.BEFORE_MODEL);
+        }
+        if (!afterHooks.isEmpty()) {
+            positions.add(HookPosition.AFTER_MODEL);
+        }
+        return positions.toArray(new HookPosition[0]);
+    }
+
+    @Override
+    public AgentCommand beforeModel(List<Message> previousMessages, RunnableConfig config) {
+        return run(beforeHooks, previousMessages, config, MessagesModelHook::beforeModel);
+    }
+
+    @Override
+    public AgentCommand afterModel(List<Message> previousMessages, RunnableConfig config) {
+        return run(afterHooks, previousMessages, config, MessagesModelHook::afterModel);
+    }
+
+    private interface HookCall {
+        AgentCommand call(MessagesModelHook hook, List<Message> messages, RunnableConfig config);
+    }
+
+    private static AgentCommand run(List<MessagesModelHook> hooks, List<Message> previousMessages,
+                                    RunnableConfig config, HookCall call) {
+        CopyOnWriteMessages messages = new CopyOnWriteMessages(previousMessages);
+        for (MessagesModelHook hook : hooks) {
+            List<Message> current = messages.view();
+            AgentCommand command = call.call(hook, current, config);
+            if (command == null || command.getMessages() == null) {
+                continue;
+            }
+            if (command.getUpdatePolicy() == UpdatePolicy.APPEND) {
+                messages.append(command.getMessages());
+            }
+            else if (!sameElements(command.getMessages(), current)) {
+                messages.replace(command.getMessages());
+            }
+        }
+        return messages.toCommand();
+    }
+
+    private static boolean sameElements(List<Message> a, List<Message> b) {
+        if (a == b) {
+            return true;
+        }
+        if (a.size() != b.size()) {
+            return false;
+        }
+        for (int i = 0; i < a.size(); i++) {
+            if (a.get(i) != b.get(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 写时复制的消息列表：追加只记录增量，替换只切换引用，直到提交时才物化
+     */
+    private static final class CopyOnWriteMessages {
+
+        private List<Message> base;
+        private List<Message> appended;
+        private boolean replaced;
+
+        private CopyOnWriteMessages(List<Message> base) {
+            this.base = base;
+        }
+
+        private List<Message> view() {
+            return appended == null ? base : new ConcatView(base, appended);
+        }
+
+        private void append(List<Message> messages) {
+            if (messages.isEmpty()) {
+                return;
+            }
+            if (appended == null) {
+                appended = new ArrayList<>(messages);
+            }
+            else {
+                appended.addAll(messages);
+            }
+        }
+
+        private void replace(List<Message> messages) {
+            base = messages;
+            appended = null;
+            replaced = true;
+        }
+
+        private AgentCommand toCommand() {
+            if (replaced) {
+                List<Message> result = appended == null ? base : new ArrayList<>(view());
+                return new AgentCommand(result, UpdatePolicy.REPLACE);
+            }
+            if (appended != null) {
+                return new AgentCommand(appended, UpdatePolicy.APPEND);
+            }
+            return unchanged();
+        }
+    }
+
+    private static final class ConcatView extends AbstractList<Message> implements RandomAccess {
+
+        private final List<Message> head;
+        private final List<Message> tail;
+
+        private ConcatView(List<Message> head, List<Message> tail) {
+            this.head = head;
+            this.tail = tail;
+        }
+
+        @Override
+        public Message get(int index) {
+            return index < head.size() ? head.get(index) : tail.get(index - head.size());
+        }
+
+        @Override
+        public int size() {
+            return head.size() + tail.size();
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.alibaba.cloud.ai.hook;
+
+import com.alibaba.cloud.ai.graph.agent.hook.Hook;
+import com.alibaba.cloud.ai.graph.agent.hook.HookPosition;
+
+import java.util.Arrays;
+
+final class Hooks {
+
+    private Hooks() {
+    }
+
+    static boolean hasPosition(Hook hook, HookPosition position) {
+        HookPosition[] positions = hook.getHookPositions();
+        return positions != null && Arrays.asList(positions).contains(position);
+    }
+}
@@ -0,0 +1,66 @@
+package com.alibaba.cloud.ai.hook;
+
+import com.alibaba.cloud.ai.graph.OverAllState;
+import com.alibaba.cloud.ai.graph.RunnableConfig;
+import com.alibaba.cloud.ai.graph.agent.hook.AgentHook;
+import com.alibaba.cloud.ai.graph.agent.hook.HookPosition;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * 并行执行多个 AgentHook，规则与 ParallelModelHook 相同
+ */
+public class ParallelAgentHook extends AgentHook {
+
+    private final String name;
+    private final ParallelHookRunner<AgentHook> beforeRunner;
+    private final ParallelHookRunner<AgentHook> afterRunner;
+
+    public ParallelAgentHook(String name, List<AgentHook> hooks, Executor executor) {
+        this.name = name;
+        this.beforeRunner = new ParallelHookRunner<>(
+                hooks.stream().filter(hook -> Hooks.hasPosition(hook, HookPosition.BEFORE_AGENT)).toList(),
+                executor);
+        this.afterRunner = new ParallelHookRunner<>(
+                hooks.stream().filter(hook -> Hooks.hasPosition(hook, HookPosition.AFTER_AGENT)).toList(),
+                executor);
+    }
+
+    public static ParallelAgentHook of(AgentHook... hooks) {
+        return new ParallelAgentHook("parallel_agent_hook", Arrays.asList(hooks), ForkJoinPool.commonPool());
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public HookPosition[] getHookPositions() {
+        Set<HookPosition> positions = EnumSet.noneOf(HookPosition.class);
+        if (!beforeRunner.isEmpty()) {
+            positions.add(HookPosition.BEFORE_AGENT);
+        }
+        if (!afterRunner.isEmpty()) {
+            positions.add(HookPosition.AFTER_AGENT);
+        }
+        return positions.toArray(new HookPosition[0]);
+    }
+
+    @Override
+    public CompletableFuture<Map<String, Object>> beforeAgent(OverAllState state, RunnableConfig config) {
+        return beforeRunner.run(state, (hook, view) -> hook.beforeAgent(view, config));
+    }
+
+    @Override
+    public CompletableFuture<Map<String, Object>> afterAgent(OverAllState state, RunnableConfig config) {
+        return afterRunner.run(state, (hook, view) -> hook.afterAgent(view, config));
+    }
+}
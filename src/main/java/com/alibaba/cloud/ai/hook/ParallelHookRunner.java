@@ -0,0 +1,113 @@
+package com.alibaba.cloud.ai.hook;
+
+import com.alibaba.cloud.ai.graph.OverAllState;
+import com.alibaba.cloud.ai.graph.agent.hook.Hook;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * 按读写冲突把 Hook 分成若干批次：同一批内的 Hook 并发执行，批次之间按顺序执行。
+ *
+ * 每个 Hook 放在最后一个与它冲突的批次之后，因此相对注册顺序的依赖关系不变。
+ * 后续批次看到的是合并了前面批次结果的状态快照。结果按注册顺序合并，messages 按追加语义拼接。
+ */
+final class ParallelHookRunner<H extends Hook> {
+
+    private static final String MESSAGES_KEY = "messages";
+
+    private final List<List<H>> waves;
+    private final Executor executor;
+
+    ParallelHookRunner(List<H> hooks, Executor executor) {
+        this.waves = plan(hooks);
+        this.executor = executor;
+    }
+
+    boolean isEmpty() {
+        return waves.isEmpty();
+    }
+
+    CompletableFuture<Map<String, Object>> run(OverAllState state,
+            BiFunction<H, OverAllState, CompletableFuture<Map<String, Object>>> call) {
+        CompletableFuture<Map<String, Object>> result = CompletableFuture.completedFuture(new LinkedHashMap<>());
+        for (List<H> wave : waves) {
+            result = result.thenCompose(merged -> runWave(wave, merged.isEmpty() ? state : snapshot(state, merged), call)
+                    .thenApply(updates -> {
+                        merge(merged, updates);
+                        return merged;
+                    }));
+        }
+        return result;
+    }
+
+    private CompletableFuture<Map<String, Object>> runWave(List<H> wave, OverAllState state,
+            BiFunction<H, OverAllState, CompletableFuture<Map<String, Object>>> call) {
+        if (wave.size() == 1) {
+            return call.apply(wave.get(0), state);
+        }
+        List<CompletableFuture<Map<String, Object>>> futures = new ArrayList<>(wave.size());
+        for (H hook : wave) {
+            futures.add(CompletableFuture.supplyAsync(() -> call.apply(hook, state), executor)
+                    .thenCompose(Function.identity()));
+        }
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]))
+                .thenApply(ignored -> {
+                    Map<String, Object> updates = new LinkedHashMap<>();
+                    for (CompletableFuture<Map<String, Object>> future : futures) {
+                        merge(updates, future.join());
+                    }
+                    return updates;
+                });
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void merge(Map<String, Object> target, Map<String, Object> updates) {
+        if (updates == null) {
+            return;
+        }
+        for (Map.Entry<String, Object> entry : updates.entrySet()) {
+            Object existing = target.get(entry.getKey());
+            if (MESSAGES_KEY.equals(entry.getKey()) && existing instanceof List<?> previous
+                    && entry.getValue() instanceof List<?> appended) {
+                List<Object> messages = new ArrayList<>(previous);
+                messages.addAll(appended);
+                target.put(MESSAGES_KEY, messages);
+            }
+            else {
+                target.put(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    private static OverAllState snapshot(OverAllState state, Map<String, Object> updates) {
+        Map<String, Object> data = new HashMap<>(state.data());
+        merge(data, updates);
+        return new OverAllState(data);
+    }
+
+    private static <H> List<List<H>> plan(List<H> hooks) {
+        List<List<H>> waves = new ArrayList<>();
+        for (H hook : hooks) {
+            int target = 0;
+            for (int w = waves.size() - 1; w >= 0; w--) {
+                if (waves.get(w).stream().anyMatch(other -> StateAccess.conflicts(hook, other))) {
+                    target = w + 1;
+                    break;
+                }
+            }
+            if (target == waves.size()) {
+                waves.add(new ArrayList<>());
+            }
+            waves.get(target).add(hook);
+        }
+        return waves;
+    }
+}
@@ -0,0 +1,67 @@
+package com.alibaba.cloud.ai.hook;
+
+import com.alibaba.cloud.ai.graph.OverAllState;
+import com.alibaba.cloud.ai.graph.RunnableConfig;
+import com.alibaba.cloud.ai.graph.agent.hook.HookPosition;
+import com.alibaba.cloud.ai.graph.agent.hook.ModelHook;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * 并行执行多个 ModelHook
+ *
+ * 实现了 StateAccess 且读写不冲突的 Hook 在 executor 上并发执行，结果按注册顺序合并后一次返回。
+ * 做 I/O 的 Hook（审计日志、远程策略查询、记忆检索）建议传入独立的线程池。
+ */
+public class ParallelModelHook extends ModelHook {
+
+    private final String name;
+    private final ParallelHookRunner<ModelHook> beforeRunner;
+    private final ParallelHookRunner<ModelHook> afterRunner;
+
+    public ParallelModelHook(String name, List<ModelHook> hooks, Executor executor) {
+        this.name = name;
+        this.beforeRunner = new ParallelHookRunner<>(
+                hooks.stream().filter(hook -> Hooks.hasPosition(hook, HookPosition.BEFORE_MODEL)).toList(), executor);
+        this.afterRunner = new ParallelHookRunner<>(
+                hooks.stream().filter(hook -> Hooks.hasPosition(hook, HookPosition.AFTER_MODEL)).toList(), executor);
+    }
+
+    public static ParallelModelHook of(ModelHook... hooks) {
+        return new ParallelModelHook("parallel_model_hook", Arrays.asList(hooks), ForkJoinPool.commonPool());
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public HookPosition[] getHookPositions() {
+        Set<HookPosition> positions = EnumSet.noneOf(HookPosition.class);
+        if (!beforeRunner.isEmpty()) {
+            positions.add(HookPosition.BEFORE_MODEL);
+        }
+        if (!afterRunner.isEmpty()) {
+            positions.add(HookPosition.AFTER_MODEL);
+        }
+        return positions.toArray(new HookPosition[0]);
+    }
+
+    @Override
+    public CompletableFuture<Map<String, Object>> beforeModel(OverAllState state, RunnableConfig config) {
+        return beforeRunner.run(state, (hook, view) -> hook.beforeModel(view, config));
+    }
+
+    @Override
+    public CompletableFuture<Map<String, Object>> afterModel(OverAllState state, RunnableConfig config) {
+        return afterRunner.run(state, (hook, view) -> hook.afterModel(view, config));
+    }
+}
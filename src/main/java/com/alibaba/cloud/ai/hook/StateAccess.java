@@ -0,0 +1,36 @@
+package com.alibaba.cloud.ai.hook;
+
+import java.util.Set;
+
+/**
+ * Hook 声明自己读写的状态 key
+ *
+ * 只有实现了该接口的 Hook 才会和其他 Hook 并行执行；未声明的 Hook 视为读写全部状态，总是单独执行。
+ */
+public interface StateAccess {
+
+    Set<String> readKeys();
+
+    Set<String> writeKeys();
+
+    /**
+     * a 写入的 key 被 b 读写，或 b 写入的 key 被 a 读取时冲突
+     */
+    static boolean conflicts(Object a, Object b) {
+        if (!(a instanceof StateAccess left) || !(b instanceof StateAccess right)) {
+            return true;
+        }
+        return intersects(left.writeKeys(), right.readKeys())
+                || intersects(left.writeKeys(), right.writeKeys())
+                || intersects(right.writeKeys(), left.readKeys());
+    }
+
+    private static boolean intersects(Set<String> a, Set<String> b) {
+        for (String key : a) {
+            if (b.contains(key)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
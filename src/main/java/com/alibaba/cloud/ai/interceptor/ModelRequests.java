@@ -0,0 +1,57 @@
+package com.alibaba.cloud.ai.interceptor;
+
+import com.alibaba.cloud.ai.graph.RunnableConfig;
+import com.alibaba.cloud.ai.graph.agent.interceptor.ModelRequest;
+import com.alibaba.cloud.ai.graph.agent.tools.ToolContextConstants;
+
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * 从 ModelRequest 的上下文中读取会话信息
+ *
+ * ModelRequest 的上下文取自 RunnableConfig 的元数据，不包含 threadId 本身。
+ * 按会话维护状态的 ModelInterceptor 要求调用方用 {@link #runnableConfig(String)} 构建 RunnableConfig，
+ * 它同时设置 threadId 和 thread_id 元数据；拿不到 threadId 时 {@link #requireThreadId} 直接抛出异常，
+ * 不会让所有会话悄悄共用同一份状态。
+ */
+public final class ModelRequests {
+
+    public static final String THREAD_ID_METADATA_KEY = "thread_id";
+
+    private ModelRequests() {
+    }
+
+    /**
+     * 设置了 threadId 和对应元数据的 RunnableConfig.Builder
+     */
+    public static RunnableConfig.Builder runnableConfig(String threadId) {
+        return RunnableConfig.builder()
+                .threadId(threadId)
+                .addMetadata(THREAD_ID_METADATA_KEY, threadId);
+    }
+
+    /**
+     * 同 {@link #threadId}，拿不到时抛出 IllegalStateException
+     */
+    public static String requireThreadId(ModelRequest request) {
+        return threadId(request).orElseThrow(() -> new IllegalStateException(
+                "No threadId in ModelRequest context, build the RunnableConfig with ModelRequests.runnableConfig(threadId)"));
+    }
+
+    /**
+     * 上下文中携带的 RunnableConfig 的 threadId，没有时取 thread_id 元数据
+     */
+    public static Optional<String> threadId(ModelRequest request) {
+        Map<String, Object> context = request.getContext();
+        if (context == null) {
+            return Optional.empty();
+        }
+        if (context.get(ToolContextConstants.AGENT_CONFIG_CONTEXT_KEY) instanceof RunnableConfig config
+                && config.threadId().isPresent()) {
+            return config.threadId();
+        }
+        Object threadId = context.get(THREAD_ID_METADATA_KEY);
+        return threadId == null ? Optional.empty() : Optional.of(String.valueOf(threadId));
+    }
+}
@@ -0,0 +1,37 @@
+package com.alibaba.cloud.ai.interceptor.context;
+
+/**
+ * 一次模型调用的上下文规划结果
+ *
+ * @param strategy           实际采用的策略
+ * @param contextWindow      模型上下文长度
+ * @param reservedOutput     为输出预留的 token
+ * @param systemTokens       系统提示词 token
+ * @param toolTokens         工具定义 token
+ * @param memoryTokens       长期记忆召回消息 token
+ * @param historyBudget      分配给对话历史的 token
+ * @param historyTokensBefore 规划前对话历史 token
+ * @param historyTokensAfter 规划后对话历史 token
+ * @param clearedToolOutputs 被清空的工具输出条数
+ * @param removedMessages    被移除的历史消息条数
+ */
+public record ContextPlan(ContextStrategy strategy,
+                          int contextWindow,
+                          int reservedOutput,
+                          int systemTokens,
+                          int toolTokens,
+                          int memoryTokens,
+                          int historyBudget,
+                          int historyTokensBefore,
+                          int historyTokensAfter,
+                          int clearedToolOutputs,
+                          int removedMessages) {
+
+    public int promptTokens() {
+        return systemTokens + toolTokens + memoryTokens + historyTokensAfter;
+    }
+
+    public int removedTokens() {
+        return historyTokensBefore - historyTokensAfter;
+    }
+}
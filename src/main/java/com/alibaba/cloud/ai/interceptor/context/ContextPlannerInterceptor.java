@@ -0,0 +1,476 @@
+package com.alibaba.cloud.ai.interceptor.context;
+
+import com.alibaba.cloud.ai.common.MessageDigests;
+import com.alibaba.cloud.ai.common.TokenEstimator;
+import com.alibaba.cloud.ai.graph.agent.interceptor.ModelCallHandler;
+import com.alibaba.cloud.ai.graph.agent.interceptor.ModelInterceptor;
+import com.alibaba.cloud.ai.graph.agent.interceptor.ModelRequest;
+import com.alibaba.cloud.ai.graph.agent.interceptor.ModelResponse;
+import com.alibaba.cloud.ai.interceptor.ModelRequests;
+import com.alibaba.cloud.ai.memory.longterm.LongTermMemoryHook;
+import com.alibaba.cloud.ai.memory.window.MessageWindow;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.MessageType;
+import org.springframework.ai.chat.messages.SystemMessage;
+import org.springframework.ai.chat.messages.ToolResponseMessage;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.prompt.ChatOptions;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.definition.ToolDefinition;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+
+/**
+ * 上下文规划拦截器
+ *
+ * 替代 ContextEditingInterceptor 固定的 trigger / clearAtLeast：每次模型调用前按
+ * "上下文长度 - 输出预留 - 系统提示词 - 工具定义 - 长期记忆" 计算对话历史可用的 token，
+ * 超出时依次尝试代价更高的策略，直到放得下：
+ * 清空较早的工具输出 -> 移除最早的历史消息 -> 对移除部分生成摘要（需配置 summaryModel）。
+ *
+ * 超出预算时一次性裁剪到 targetRatio，并按 threadId 记录裁剪边界和摘要。之后几轮沿用同一边界，
+ * 边界之后只追加，提示词前缀和摘要都不变，不会再次调用摘要模型；直到再次超出预算才移动边界。
+ * 只修改发送给模型的请求，不修改状态中的消息，所以边界保存在拦截器上（按会话 LRU），
+ * 需要裁剪时必须能拿到 threadId（传入方式见 {@link ModelRequests}），否则抛出 IllegalStateException。
+ */
+public class ContextPlannerInterceptor extends ModelInterceptor {
+
+    static final String SUMMARY_METADATA_KEY = "context_summary";
+
+    private static final String CLEARED_TOOL_OUTPUT = "[工具输出已清理]";
+    private static final int SUMMARY_CACHE_SIZE = 128;
+    private static final int BOUNDARY_CACHE_SIZE = 1024;
+
+    private final int contextWindow;
+    private final int reservedOutput;
+    private final double targetRatio;
+    private final int pinnedMessages;
+    private final TokenEstimator tokenEstimator;
+    private final Map<String, Integer> toolTokens;
+    private final int defaultToolTokens;
+    private final ChatModel summaryModel;
+    private final int summaryMaxTokens;
+    private final int summarizeMinTokens;
+    private final Consumer<ContextPlan> planListener;
+
+    /** (threadId, 被移除内容的摘要) -> 摘要结果，同一个 key 只调用一次模型 */
+    private final Map<String, CompletableFuture<String>> summaries = lruMap(SUMMARY_CACHE_SIZE);
+    private final Map<String, TrimBoundary> boundaries = lruMap(BOUNDARY_CACHE_SIZE);
+
+    private ContextPlannerInterceptor(Builder builder) {
+        this.contextWindow = builder.contextWindow;
+        this.reservedOutput = builder.reservedOutput;
+        this.targetRatio = builder.targetRatio;
+        this.pinnedMessages = builder.pinnedMessages;
+        this.tokenEstimator = builder.tokenEstimator;
+        this.toolTokens = builder.toolTokens;
+        this.defaultToolTokens = builder.defaultToolTokens;
+        this.summaryModel = builder.summaryModel;
+        this.summaryMaxTokens = builder.summaryMaxTokens;
+        this.summarizeMinTokens = builder.summarizeMinTokens;
+        this.planListener = builder.planListener;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    @Override
+    public String getName() {
+        return "context_planner";
+    }
+
+    @Override
+    public ModelResponse interceptModel(ModelRequest request, ModelCallHandler handler) {
+        List<Message> messages = request.getMessages();
+
+        int reserved = reservedOutput(request.getOptions());
+        int systemTokens = request.getSystemMessage() == null ? 0 : tokenEstimator.estimate(request.getSystemMessage());
+        int toolTokens = toolTokens(request.getTools());
+        int memoryTokens = 0;
+        int historyTokens = 0;
+        for (Message message : messages) {
+            if (LongTermMemoryHook.isRecallMessage(message)) {
+                memoryTokens += tokenEstimator.estimate(message);
+            }
+            else {
+                historyTokens += tokenEstimator.estimate(message);
+            }
+        }
+        int historyBudget = Math.max(0, contextWindow - reserved - systemTokens - toolTokens - memoryTokens);
+
+        if (historyTokens <= historyBudget) {
+            report(ContextStrategy.NONE, reserved, systemTokens, toolTokens, memoryTokens,
+                    historyBudget, historyTokens, historyTokens, 0, 0);
+            return handler.call(request);
+        }
+
+        // 1. 清空较早的工具输出
+        List<Message> planned = new ArrayList<>(messages);
+        int cleared = clearToolOutputs(planned);
+        int plannedTokens = historyTokens(planned);
+        ContextStrategy strategy = ContextStrategy.DROP_TOOL_OUTPUTS;
+        int removed = 0;
+
+        if (plannedTokens > historyBudget) {
+            String threadId = ModelRequests.requireThreadId(request);
+            TrimBoundary boundary = boundaries.get(threadId);
+            List<Message> kept = boundary == null ? null : boundary.apply(planned, this);
+            if (kept == null || historyTokens(kept) > historyBudget) {
+                boundary = plan(threadId, planned, plannedTokens, historyBudget);
+                kept = boundary.apply(planned, this);
+                boundaries.put(threadId, boundary);
+            }
+            removed = boundary.removed;
+            strategy = boundary.summary == null ? ContextStrategy.TRIM : ContextStrategy.SUMMARIZE;
+            planned = kept;
+            plannedTokens = historyTokens(planned);
+        }
+
+        report(strategy, reserved, systemTokens, toolTokens, memoryTokens,
+                historyBudget, historyTokens, plannedTokens, cleared, removed);
+        return handler.call(ModelRequest.builder(request).messages(planned).build());
+    }
+
+    /**
+     * 重新确定裁剪边界：一次性裁剪到 targetRatio，留出后续几轮的增长空间
+     */
+    private TrimBoundary plan(String threadId, List<Message> planned, int plannedTokens, int historyBudget) {
+        int target = (int) (historyBudget * targetRatio);
+        List<Message> kept = trim(planned, target);
+
+        // 移除的内容足够多时才值得额外一次模型调用
+        int removedTokens = plannedTokens - historyTokens(kept);
+        boolean summarize = summaryModel != null && removedTokens >= summarizeMinTokens;
+        if (summarize) {
+            kept = trim(planned, Math.max(0, target - summaryMaxTokens));
+        }
+        int end = boundaryOf(planned, kept);
+        List<Message> removedMessages = removedBefore(planned, end);
+        String digest = MessageDigests.digest(removedMessages);
+        String summary = summarize ? summarize(threadId + ":" + digest, removedMessages) : null;
+        return new TrimBoundary(end, digest, removedMessages.size(), summary);
+    }
+
+    /**
+     * 保留部分中第一条非固定、非召回消息的位置，之前的历史消息都被移除
+     */
+    private int boundaryOf(List<Message> planned, List<Message> kept) {
+        for (int i = Math.min(pinnedMessages, planned.size()); i < planned.size(); i++) {
+            Message message = planned.get(i);
+            if (!LongTermMemoryHook.isRecallMessage(message) && containsIdentity(kept, message)) {
+                return i;
+            }
+        }
+        return planned.size();
+    }
+
+    private List<Message> removedBefore(List<Message> planned, int end) {
+        List<Message> removed = new ArrayList<>();
+        for (int i = Math.min(pinnedMessages, end); i < end; i++) {
+            if (!LongTermMemoryHook.isRecallMessage(planned.get(i))) {
+                removed.add(planned.get(i));
+            }
+        }
+        return removed;
+    }
+
+    private int reservedOutput(ChatOptions options) {
+        Integer maxTokens = options == null ? null : options.getMaxTokens();
+        return maxTokens == null ? reservedOutput : Math.max(maxTokens, reservedOutput);
+    }
+
+    private int toolTokens(List<String> tools) {
+        if (tools == null) {
+            return 0;
+        }
+        int total = 0;
+        for (String tool : tools) {
+            total += toolTokens.getOrDefault(tool, defaultToolTokens);
+        }
+        return total;
+    }
+
+    private int historyTokens(List<Message> messages) {
+        int total = 0;
+        for (Message message : messages) {
+            if (!LongTermMemoryHook.isRecallMessage(message)) {
+                total += tokenEstimator.estimate(message);
+            }
+        }
+        return total;
+    }
+
+    /**
+     * 清空最后一条非工具消息之前的工具输出，最近一轮工具输出保留
+     */
+    private int clearToolOutputs(List<Message> messages) {
+        int lastRound = messages.size();
+        while (lastRound > 0 && messages.get(lastRound - 1).getMessageType() == MessageType.TOOL) {
+            lastRound--;
+        }
+        int cleared = 0;
+        for (int i = 0; i < lastRound; i++) {
+            if (messages.get(i) instanceof ToolResponseMessage toolMessage) {
+                List<ToolResponseMessage.ToolResponse> responses = new ArrayList<>(toolMessage.getResponses().size());
+                boolean changed = false;
+                for (ToolResponseMessage.ToolResponse response : toolMessage.getResponses()) {
+                    String data = response.responseData();
+                    if (data != null && data.length() > CLEARED_TOOL_OUTPUT.length()) {
+                        responses.add(new ToolResponseMessage.ToolResponse(response.id(), response.name(),
+                                CLEARED_TOOL_OUTPUT));
+                        changed = true;
+                    }
+                    else {
+                        responses.add(response);
+                    }
+                }
+                if (changed) {
+                    messages.set(i, new ToolResponseMessage(responses, toolMessage.getMetadata()));
+                    cleared++;
+                }
+            }
+        }
+        return cleared;
+    }
+
+    /**
+     * 保留前 pinnedMessages 条、长期记忆召回消息和最近不超过 target 个 token 的历史消息
+     */
+    private List<Message> trim(List<Message> messages, int target) {
+        TokenEstimator historyEstimator = message ->
+                LongTermMemoryHook.isRecallMessage(message) ? 0 : tokenEstimator.estimate(message);
+        int pinnedTokens = 0;
+        for (int i = 0; i < Math.min(pinnedMessages, messages.size()); i++) {
+            pinnedTokens += historyEstimator.estimate(messages.get(i));
+        }
+        List<Message> window = MessageWindow.lastTokens(messages, pinnedMessages,
+                Math.max(0, target - pinnedTokens), historyEstimator);
+        List<Message> kept = new ArrayList<>(window);
+        // 窗口之外的召回消息仍然保留
+        for (int i = 0; i < messages.size() && kept.size() < messages.size(); i++) {
+            Message message = messages.get(i);
+            if (LongTermMemoryHook.isRecallMessage(message) && !containsIdentity(kept, message)) {
+                kept.add(Math.min(pinnedMessages, kept.size()), message);
+            }
+        }
+        return kept;
+    }
+
+    private static boolean containsIdentity(List<Message> messages, Message target) {
+        for (Message message : messages) {
+            if (message == target) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private List<Message> withSummary(List<Message> kept, String summary) {
+        List<Message> messages = new ArrayList<>(kept.size() + 1);
+        int insertAt = Math.min(pinnedMessages, kept.size());
+        messages.addAll(kept.subList(0, insertAt));
+        messages.add(SystemMessage.builder()
+                .text("以下是较早对话的摘要：\n" + summary)
+                .metadata(Map.of(SUMMARY_METADATA_KEY, true))
+                .build());
+        messages.addAll(kept.subList(insertAt, kept.size()));
+        return messages;
+    }
+
+    /**
+     * 同一个 key 只调用一次模型；模型调用在锁外进行，并发的相同请求等待同一个结果，不同会话互不阻塞
+     */
+    private String summarize(String key, List<Message> removedMessages) {
+        CompletableFuture<String> created = new CompletableFuture<>();
+        CompletableFuture<String> existing = summaries.putIfAbsent(key, created);
+        if (existing != null) {
+            try {
+                return existing.join();
+            }
+            catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+        }
+        StringBuilder prompt = new StringBuilder()
+                .append("请将以下对话压缩为不超过 ").append(summaryMaxTokens * 2)
+                .append(" 字的摘要，保留事实、结论和未完成的事项：\n");
+        for (Message message : removedMessages) {
+            prompt.append(message.getMessageType().getValue()).append(": ").append(message.getText()).append('\n');
+        }
+        try {
+            String summary = summaryModel.call(prompt.toString());
+            created.complete(summary);
+            return summary;
+        }
+        catch (RuntimeException e) {
+            summaries.remove(key, created);
+            created.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private static <V> Map<String, V> lruMap(int maxSize) {
+        return Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, V> eldest) {
+                return size() > maxSize;
+            }
+        });
+    }
+
+    private void report(ContextStrategy strategy, int reserved, int systemTokens, int toolTokens, int memoryTokens,
+                        int historyBudget, int before, int after, int cleared, int removed) {
+        if (planListener != null) {
+            planListener.accept(new ContextPlan(strategy, contextWindow, reserved, systemTokens, toolTokens,
+                    memoryTokens, historyBudget, before, after, cleared, removed));
+        }
+    }
+
+    /**
+     * 一个会话的裁剪边界：[pinnedMessages, end) 内的历史消息被移除（召回消息除外），digest 为被移除内容的摘要
+     */
+    private record TrimBoundary(int end, String digest, int removed, String summary) {
+
+        /**
+         * 被移除的部分没有变化时按同一边界裁剪，否则返回 null
+         */
+        private List<Message> apply(List<Message> planned, ContextPlannerInterceptor planner) {
+            if (planned.size() < end) {
+                return null;
+            }
+            List<Message> removedMessages = planner.removedBefore(planned, end);
+            if (removedMessages.size() != removed || !MessageDigests.digest(removedMessages).equals(digest)) {
+                return null;
+            }
+            int pinned = Math.min(planner.pinnedMessages, end);
+            List<Message> kept = new ArrayList<>(planned.size() - removed);
+            kept.addAll(planned.subList(0, pinned));
+            for (int i = pinned; i < end; i++) {
+                if (LongTermMemoryHook.isRecallMessage(planned.get(i))) {
+                    kept.add(planned.get(i));
+                }
+            }
+            kept.addAll(planned.subList(end, planned.size()));
+            return summary == null ? kept : planner.withSummary(kept, summary);
+        }
+    }
+
+    public static class Builder {
+
+        private int contextWindow = 8192;
+        private int reservedOutput = 1024;
+        private double targetRatio = 0.75;
+        private int pinnedMessages = 1;
+        private TokenEstimator tokenEstimator = TokenEstimator.DEFAULT;
+        private final Map<String, Integer> toolTokens = new HashMap<>();
+        private int defaultToolTokens = 100;
+        private ChatModel summaryModel;
+        private int summaryMaxTokens = 300;
+        private int summarizeMinTokens = 2000;
+        private Consumer<ContextPlan> planListener;
+
+        /**
+         * 模型上下文长度，Ollama 对应 num_ctx
+         */
+        public Builder contextWindow(int contextWindow) {
+            this.contextWindow = contextWindow;
+            return this;
+        }
+
+        /**
+         * 为输出预留的 token，请求中 maxTokens 更大时以 maxTokens 为准
+         */
+        public Builder reservedOutput(int reservedOutput) {
+            this.reservedOutput = reservedOutput;
+            return this;
+        }
+
+        /**
+         * 超出预算时裁剪到历史预算的比例，默认 0.75
+         */
+        public Builder targetRatio(double targetRatio) {
+            this.targetRatio = targetRatio;
+            return this;
+        }
+
+        /**
+         * 始终保留的开头消息条数，默认保留第一条（通常是最初的用户问题）
+         */
+        public Builder pinnedMessages(int pinnedMessages) {
+            this.pinnedMessages = pinnedMessages;
+            return this;
+        }
+
+        public Builder tokenEstimator(TokenEstimator tokenEstimator) {
+            this.tokenEstimator = tokenEstimator;
+            return this;
+        }
+
+        /**
+         * 按工具描述和参数 schema 的长度估算每个工具定义占用的 token
+         */
+        public Builder tools(List<ToolCallback> tools) {
+            for (ToolCallback tool : tools) {
+                ToolDefinition definition = tool.getToolDefinition();
+                int length = definition.name().length()
+                        + (definition.description() == null ? 0 : definition.description().length())
+                        + (definition.inputSchema() == null ? 0 : definition.inputSchema().length());
+                toolTokens.put(definition.name(), length / 4);
+            }
+            return this;
+        }
+
+        /**
+         * 未通过 tools 注册的工具按该值估算
+         */
+        public Builder defaultToolTokens(int defaultToolTokens) {
+            this.defaultToolTokens = defaultToolTokens;
+            return this;
+        }
+
+        /**
+         * 用于生成摘要的模型，不设置时只裁剪不摘要
+         */
+        public Builder summaryModel(ChatModel summaryModel) {
+            this.summaryModel = summaryModel;
+            return this;
+        }
+
+        public Builder summaryMaxTokens(int summaryMaxTokens) {
+            this.summaryMaxTokens = summaryMaxTokens;
+            return this;
+        }
+
+        /**
+         * 裁剪掉的 token 少于该值时不生成摘要
+         */
+        public Builder summarizeMinTokens(int summarizeMinTokens) {
+            this.summarizeMinTokens = summarizeMinTokens;
+            return this;
+        }
+
+        /**
+         * 每次规划完成后的回调，可用于记录日志或指标
+         */
+        public Builder planListener(Consumer<ContextPlan> planListener) {
+            this.planListener = planListener;
+            return this;
+        }
+
+        public ContextPlannerInterceptor build() {
+            if (targetRatio <= 0 || targetRatio > 1) {
+                throw new IllegalArgumentException("targetRatio must be in (0, 1]");
+            }
+            return new ContextPlannerInterceptor(this);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.alibaba.cloud.ai.interceptor.context;
+
+/**
+ * 上下文超出预算时的处理策略，按代价从低到高排列
+ */
+public enum ContextStrategy {
+
+    /**
+     * 未超出预算，原样发送
+     */
+    NONE,
+
+    /**
+     * 清空较早轮次的工具输出，保留调用结构
+     */
+    DROP_TOOL_OUTPUTS,
+
+    /**
+     * 移除最早的历史消息
+     */
+    TRIM,
+
+    /**
+     * 移除最早的历史消息，并用一次模型调用生成摘要替代
+     */
+    SUMMARIZE
+}
@@ -0,0 +1,227 @@
+package com.alibaba.cloud.ai.interceptor.direct;
+
+import com.alibaba.cloud.ai.graph.agent.interceptor.ModelCallHandler;
+import com.alibaba.cloud.ai.graph.agent.interceptor.ModelInterceptor;
+import com.alibaba.cloud.ai.graph.agent.interceptor.ModelRequest;
+import com.alibaba.cloud.ai.graph.agent.interceptor.ModelResponse;
+import com.alibaba.cloud.ai.tool.ToolMethods;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.ToolResponseMessage;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.annotation.Tool;
+import org.springframework.ai.tool.resolution.ToolCallbackResolver;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * returnDirect 工具的快速返回
+ *
+ * 工具结果之后的那次模型调用，如果上一条 AI 消息的工具调用全部是 returnDirect 工具（与 Spring AI 的判断一致），
+ * 不再调用模型，直接把工具结果（多个时按调用顺序换行拼接）作为最终的 AI 消息返回，本轮随之结束。
+ * 返回的消息 metadata 中 {@link #METADATA_KEY} 为 true，流式调用时作为最后一条消息输出。
+ *
+ * 需要放在 interceptors 中其他 ModelInterceptor 的前面，这样上下文规划、提示词改写等拦截器也一并跳过。
+ */
+public class ReturnDirectInterceptor extends ModelInterceptor implements MeterBinder {
+
+    public static final String METADATA_KEY = "return_direct";
+
+    private final Set<String> returnDirectTools;
+    private final ToolCallbackResolver resolver;
+
+    private final LongAdder savedCalls = new LongAdder();
+
+    private ReturnDirectInterceptor(Builder builder) {
+        this.returnDirectTools = Set.copyOf(builder.returnDirectTools);
+        this.resolver = builder.resolver;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    @Override
+    public ModelResponse interceptModel(ModelRequest request, ModelCallHandler handler) {
+        String result = directResult(request.getMessages());
+        if (result == null) {
+            return handler.call(request);
+        }
+        savedCalls.increment();
+        return ModelResponse.of(new AssistantMessage(result, Map.of(METADATA_KEY, true), List.of()));
+    }
+
+    /**
+     * 消息以工具结果结尾、且对应的工具调用都是 returnDirect 时返回拼接后的结果，否则返回 null
+     */
+    private String directResult(List<Message> messages) {
+        int index = messages.size() - 1;
+        while (index >= 0 && messages.get(index) instanceof ToolResponseMessage) {
+            index--;
+        }
+        if (index < 0 || index == messages.size() - 1 || !(messages.get(index) instanceof AssistantMessage assistantMessage)) {
+            return null;
+        }
+        List<AssistantMessage.ToolCall> toolCalls = assistantMessage.getToolCalls();
+        if (toolCalls == null || toolCalls.isEmpty()) {
+            return null;
+        }
+        List<ToolResponseMessage.ToolResponse> responses = new ArrayList<>();
+        for (Message message : messages.subList(index + 1, messages.size())) {
+            responses.addAll(((ToolResponseMessage) message).getResponses());
+        }
+        List<String> matched = match(toolCalls, responses);
+        if (matched == null) {
+            return null;
+        }
+        StringBuilder result = new StringBuilder();
+        for (int i = 0; i < toolCalls.size(); i++) {
+            if (!isReturnDirect(toolCalls.get(i).name())) {
+                return null;
+            }
+            if (i > 0) {
+                result.append('\n');
+            }
+            result.append(matched.get(i));
+        }
+        return result.toString();
+    }
+
+    /**
+     * 按调用顺序取出每个工具调用的结果，缺少结果时返回 null
+     *
+     * 调用 id 都非空且互不相同时按 id 对应；否则（例如 Ollama 的工具调用 id 为空）按位置对应，
+     * 工具结果与工具调用的顺序一致
+     */
+    private static List<String> match(List<AssistantMessage.ToolCall> toolCalls,
+                                      List<ToolResponseMessage.ToolResponse> responses) {
+        Map<String, String> byId = new HashMap<>();
+        for (ToolResponseMessage.ToolResponse response : responses) {
+            if (response.id() == null || response.id().isBlank() || byId.put(response.id(), response.responseData()) != null) {
+                byId = null;
+                break;
+            }
+        }
+        Set<String> callIds = new HashSet<>();
+        for (AssistantMessage.ToolCall toolCall : toolCalls) {
+            if (toolCall.id() == null || toolCall.id().isBlank() || !callIds.add(toolCall.id())) {
+                byId = null;
+                break;
+            }
+        }
+        List<String> matched = new ArrayList<>(toolCalls.size());
+        if (byId != null) {
+            for (AssistantMessage.ToolCall toolCall : toolCalls) {
+                String response = byId.get(toolCall.id());
+                if (response == null) {
+                    return null;
+                }
+                matched.add(response);
+            }
+            return matched;
+        }
+        if (responses.size() != toolCalls.size()) {
+            return null;
+        }
+        for (ToolResponseMessage.ToolResponse response : responses) {
+            if (response.responseData() == null) {
+                return null;
+            }
+            matched.add(response.responseData());
+        }
+        return matched;
+    }
+
+    private boolean isReturnDirect(String toolName) {
+        if (returnDirectTools.contains(toolName)) {
+            return true;
+        }
+        if (resolver == null) {
+            return false;
+        }
+        ToolCallback callback = resolver.resolve(toolName);
+        return callback != null && callback.getToolMetadata() != null && callback.getToolMetadata().returnDirect();
+    }
+
+    /**
+     * 省下的模型调用次数
+     */
+    public long savedCalls() {
+        return savedCalls.sum();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("agent.model.calls.saved", savedCalls, LongAdder::sum)
+                .tag("reason", "return_direct")
+                .description("returnDirect 工具省下的模型调用次数")
+                .register(registry);
+    }
+
+    @Override
+    public String getName() {
+        return "return_direct";
+    }
+
+    public static class Builder {
+
+        private final Set<String> returnDirectTools = new HashSet<>();
+        private ToolCallbackResolver resolver;
+
+        /**
+         * 从工具元数据读取 returnDirect
+         */
+        public Builder tools(ToolCallback... tools) {
+            for (ToolCallback tool : tools) {
+                if (tool.getToolMetadata() != null && tool.getToolMetadata().returnDirect()) {
+                    returnDirectTools.add(tool.getToolDefinition().name());
+                }
+            }
+            return this;
+        }
+
+        /**
+         * 扫描 @Tool(returnDirect = true) 方法
+         */
+        public Builder toolObjects(Object... toolObjects) {
+            for (Object toolObject : toolObjects) {
+                for (Map.Entry<String, Method> entry : ToolMethods.toolMethods(toolObject).entrySet()) {
+                    if (entry.getValue().getAnnotation(Tool.class).returnDirect()) {
+                        returnDirectTools.add(entry.getKey());
+                    }
+                }
+            }
+            return this;
+        }
+
+        /**
+         * 直接声明 returnDirect 的工具名
+         */
+        public Builder toolNames(String... toolNames) {
+            returnDirectTools.addAll(List.of(toolNames));
+            return this;
+        }
+
+        /**
+         * 运行时变化的工具（例如 DynamicToolCallbackProvider）按名称解析后读取元数据
+         */
+        public Builder resolver(ToolCallbackResolver resolver) {
+            this.resolver = resolver;
+            return this;
+        }
+
+        public ReturnDirectInterceptor build() {
+            return new ReturnDirectInterceptor(this);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.alibaba.cloud.ai.interceptor.guardrail;
+
+import com.alibaba.cloud.ai.graph.agent.interceptor.ModelCallHandler;
+import com.alibaba.cloud.ai.graph.agent.interceptor.ModelInterceptor;
+import com.alibaba.cloud.ai.graph.agent.interceptor.ModelRequest;
+import com.alibaba.cloud.ai.graph.agent.interceptor.ModelResponse;
+import com.alibaba.cloud.ai.pii.PiiBlockedException;
+import com.alibaba.cloud.ai.pii.PiiRedactor;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.UserMessage;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 基于 PiiRedactor 的护栏拦截器（非流式）
+ *
+ * 前置：脱敏发给模型的用户消息，命中 BLOCK 策略时不调用模型直接返回提示；
+ * 后置：脱敏完整的 AI 消息。流式输出由 StreamingGuardrail 处理，两者共享同一个 PiiRedactor。
+ */
+public class PiiGuardrailInterceptor extends ModelInterceptor {
+
+    public static final String DEFAULT_BLOCKED_MESSAGE = "检测到不适当的内容";
+
+    private final PiiRedactor redactor;
+    private final String blockedMessage;
+
+    public PiiGuardrailInterceptor(PiiRedactor redactor) {
+        this(redactor, DEFAULT_BLOCKED_MESSAGE);
+    }
+
+    public PiiGuardrailInterceptor(PiiRedactor redactor, String blockedMessage) {
+        this.redactor = redactor;
+        this.blockedMessage = blockedMessage;
+    }
+
+    @Override
+    public String getName() {
+        return "pii_guardrail";
+    }
+
+    @Override
+    public ModelResponse interceptModel(ModelRequest request, ModelCallHandler handler) {
+        List<Message> messages = request.getMessages();
+        List<Message> redacted;
+        try {
+            redacted = redactInput(messages);
+        }
+        catch (PiiBlockedException e) {
+            return ModelResponse.of(new AssistantMessage(blockedMessage));
+        }
+        ModelRequest effectiveRequest = redacted == messages ? request
+                : ModelRequest.builder(request).messages(redacted).build();
+        return sanitize(handler.call(effectiveRequest));
+    }
+
+    private List<Message> redactInput(List<Message> messages) {
+        List<Message> redacted = null;
+        for (int i = 0; i < messages.size(); i++) {
+            Message message = messages.get(i);
+            if (!(message instanceof UserMessage)) {
+                continue;
+            }
+            String text = redactor.redact(message.getText());
+            if (text != message.getText()) {
+                if (redacted == null) {
+                    redacted = new ArrayList<>(messages);
+                }
+                redacted.set(i, UserMessage.builder().text(text).metadata(message.getMetadata()).build());
+            }
+        }
+        return redacted == null ? messages : redacted;
+    }
+
+    private ModelResponse sanitize(ModelResponse response) {
+        if (!(response.getMessage() instanceof AssistantMessage message)) {
+            return response;
+        }
+        String text;
+        try {
+            text = redactor.redact(message.getText());
+        }
+        catch (PiiBlockedException e) {
+            return ModelResponse.of(new AssistantMessage(blockedMessage));
+        }
+        if (text == message.getText()) {
+            return response;
+        }
+        return ModelResponse.of(new AssistantMessage(text, message.getMetadata(), message.getToolCalls()),
+                response.getChatResponse());
+    }
+}
@@ -0,0 +1,105 @@
+package com.alibaba.cloud.ai.interceptor.guardrail;
+
+import com.alibaba.cloud.ai.graph.NodeOutput;
+import com.alibaba.cloud.ai.graph.streaming.OutputType;
+import com.alibaba.cloud.ai.graph.streaming.StreamingOutput;
+import com.alibaba.cloud.ai.pii.PiiRedactor;
+import com.alibaba.cloud.ai.pii.StreamingRedactor;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.Message;
+import reactor.core.publisher.Flux;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 流式护栏
+ *
+ * 作用在 agent.stream() 返回的 Flux&lt;NodeOutput&gt; 上：AGENT_MODEL_STREAMING 分块逐块交给 StreamingRedactor，
+ * 只在可能的敏感信息末尾延迟输出（不超过 maxHoldChars 个字符），不缓冲整条消息；
+ * AGENT_MODEL_FINISHED 时先补发保留的尾部，再输出脱敏后的完整消息。
+ * 命中 BLOCK 策略时流以 PiiBlockedException 结束，可以用 onErrorResume 替换为提示信息。
+ */
+public class StreamingGuardrail {
+
+    private final PiiRedactor redactor;
+    private final int maxHoldChars;
+
+    public StreamingGuardrail(PiiRedactor redactor) {
+        this(redactor, StreamingRedactor.DEFAULT_MAX_HOLD_CHARS);
+    }
+
+    public StreamingGuardrail(PiiRedactor redactor, int maxHoldChars) {
+        this.redactor = redactor;
+        this.maxHoldChars = maxHoldChars;
+    }
+
+    public Flux<NodeOutput> guard(Flux<NodeOutput> outputs) {
+        return Flux.defer(() -> {
+            // 每次订阅独立的状态，按 agent + 节点区分并发的模型输出
+            Map<String, StreamingRedactor> redactors = new HashMap<>();
+            return outputs.concatMapIterable(output -> process(redactors, output));
+        });
+    }
+
+    /**
+     * 纯文本流（例如 ChatClient.stream().content()）的脱敏
+     */
+    public Flux<String> guardText(Flux<String> chunks) {
+        return Flux.defer(() -> {
+            StreamingRedactor streamingRedactor = new StreamingRedactor(redactor, maxHoldChars);
+            return chunks.concatMapIterable(chunk -> nonEmpty(streamingRedactor.push(chunk)))
+                    .concatWith(Flux.defer(() -> Flux.fromIterable(nonEmpty(streamingRedactor.flush()))));
+        });
+    }
+
+    private List<NodeOutput> process(Map<String, StreamingRedactor> redactors, NodeOutput output) {
+        if (!(output instanceof StreamingOutput<?> streamingOutput)) {
+            return List.of(output);
+        }
+        String key = streamingOutput.agent() + "/" + streamingOutput.node();
+        OutputType type = streamingOutput.getOutputType();
+        if (type == OutputType.AGENT_MODEL_STREAMING) {
+            Message message = streamingOutput.message();
+            String chunk = message != null ? message.getText() : streamingOutput.chunk();
+            String safe = redactors.computeIfAbsent(key, k -> new StreamingRedactor(redactor, maxHoldChars)).push(chunk);
+            return safe.isEmpty() ? List.of() : List.of(streamingChunk(streamingOutput, safe));
+        }
+        if (type == OutputType.AGENT_MODEL_FINISHED) {
+            List<NodeOutput> result = new ArrayList<>(2);
+            StreamingRedactor streamingRedactor = redactors.remove(key);
+            if (streamingRedactor != null) {
+                String tail = streamingRedactor.flush();
+                if (!tail.isEmpty()) {
+                    result.add(streamingChunk(streamingOutput, tail));
+                }
+            }
+            result.add(finished(streamingOutput));
+            return result;
+        }
+        return List.of(output);
+    }
+
+    private static NodeOutput streamingChunk(StreamingOutput<?> source, String text) {
+        return new StreamingOutput<>(new AssistantMessage(text), source.node(), source.agent(), source.state(),
+                OutputType.AGENT_MODEL_STREAMING);
+    }
+
+    private NodeOutput finished(StreamingOutput<?> source) {
+        if (!(source.message() instanceof AssistantMessage message)) {
+            return source;
+        }
+        String text = redactor.redact(message.getText());
+        if (text == message.getText()) {
+            return source;
+        }
+        return new StreamingOutput<>(new AssistantMessage(text, message.getMetadata(), message.getToolCalls()),
+                source.node(), source.agent(), source.state(), OutputType.AGENT_MODEL_FINISHED);
+    }
+
+    private static List<String> nonEmpty(String text) {
+        return text.isEmpty() ? List.of() : List.of(text);
+    }
+}
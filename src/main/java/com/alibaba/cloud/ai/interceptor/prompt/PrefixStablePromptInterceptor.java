@@ -0,0 +1,222 @@
+package com.alibaba.cloud.ai.interceptor.prompt;
+
+import com.alibaba.cloud.ai.common.TokenEstimator;
+import com.alibaba.cloud.ai.graph.agent.interceptor.ModelCallHandler;
+import com.alibaba.cloud.ai.graph.agent.interceptor.ModelInterceptor;
+import com.alibaba.cloud.ai.graph.agent.interceptor.ModelRequest;
+import com.alibaba.cloud.ai.graph.agent.interceptor.ModelResponse;
+import com.alibaba.cloud.ai.interceptor.ModelRequests;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.MessageType;
+import org.springframework.ai.chat.messages.SystemMessage;
+import org.springframework.ai.chat.metadata.ChatResponseMetadata;
+import org.springframework.ai.chat.model.ChatResponse;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * 前缀稳定的提示词组装
+ *
+ * Ollama 只能复用与上一次请求相同的提示词前缀的 KV cache。本拦截器保证：
+ * system prompt 原样不动、工具按名称排序，动态内容（volatileContext）作为一条 SystemMessage
+ * 放到最后一条用户消息之前，而不是拼接到 system prompt 上。
+ * 同时按 threadId 记录上一次请求的消息指纹估算可复用的前缀，并另外记录 Ollama 的 prompt-eval 计数和耗时（见 {@link PromptCacheStats}）。
+ * 必须能拿到 threadId（传入方式见 {@link ModelRequests}），否则抛出 IllegalStateException。
+ *
+ * 配合 MessageWindowHook.batchEviction / ContextPlannerInterceptor.targetRatio 使用，
+ * 让历史裁剪成批发生，前缀不会每轮都变化。
+ */
+public class PrefixStablePromptInterceptor extends ModelInterceptor {
+
+    static final String VOLATILE_METADATA_KEY = "volatile_context";
+
+    private static final String PROMPT_EVAL_DURATION = "prompt-eval-duration";
+    private static final String PROMPT_EVAL_COUNT = "prompt-eval-count";
+    private static final int MAX_CONVERSATIONS = 1024;
+
+    private final Function<ModelRequest, String> volatileContext;
+    private final boolean sortTools;
+    private final TokenEstimator tokenEstimator;
+    private final PromptCacheStats stats = new PromptCacheStats();
+
+    private final Map<String, Fingerprints> lastFingerprints = Collections.synchronizedMap(
+            new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Fingerprints> eldest) {
+                    return size() > MAX_CONVERSATIONS;
+                }
+            });
+
+    private PrefixStablePromptInterceptor(Builder builder) {
+        this.volatileContext = builder.volatileContext;
+        this.sortTools = builder.sortTools;
+        this.tokenEstimator = builder.tokenEstimator;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    @Override
+    public String getName() {
+        return "prefix_stable_prompt";
+    }
+
+    @Override
+    public ModelResponse interceptModel(ModelRequest request, ModelCallHandler handler) {
+        ModelRequest.Builder builder = ModelRequest.builder(request);
+        List<String> tools = request.getTools();
+        if (sortTools && tools != null && tools.size() > 1) {
+            List<String> sortedTools = new ArrayList<>(tools);
+            Collections.sort(sortedTools);
+            tools = sortedTools;
+            builder.tools(sortedTools);
+        }
+
+        List<Message> messages = request.getMessages();
+        String dynamic = volatileContext == null ? null : volatileContext.apply(request);
+        if (dynamic != null && !dynamic.isBlank()) {
+            messages = withVolatileContext(messages, dynamic);
+            builder.messages(messages);
+        }
+
+        trackPrefix(ModelRequests.requireThreadId(request), request.getSystemMessage(), tools, messages);
+        ModelResponse response = handler.call(builder.build());
+        recordEvaluation(response.getChatResponse());
+        return response;
+    }
+
+    public PromptCacheStats.Snapshot stats() {
+        return stats.snapshot();
+    }
+
+    /**
+     * 动态内容插入到最后一条用户消息之前，前面的消息在下一轮仍然是稳定前缀
+     */
+    private static List<Message> withVolatileContext(List<Message> messages, String dynamic) {
+        int lastUser = messages.size();
+        for (int i = messages.size() - 1; i >= 0; i--) {
+            if (messages.get(i).getMessageType() == MessageType.USER) {
+                lastUser = i;
+                break;
+            }
+        }
+        List<Message> result = new ArrayList<>(messages.size() + 1);
+        result.addAll(messages.subList(0, lastUser));
+        result.add(SystemMessage.builder()
+                .text(dynamic)
+                .metadata(Map.of(VOLATILE_METADATA_KEY, true))
+                .build());
+        result.addAll(messages.subList(lastUser, messages.size()));
+        return result;
+    }
+
+    /**
+     * 指纹序列：system prompt、工具列表、每条消息；与同一会话上一次请求比较公共前缀
+     */
+    private void trackPrefix(String threadId, SystemMessage systemMessage, List<String> tools, List<Message> messages) {
+        long[] fingerprints = new long[messages.size() + 2];
+        int[] tokens = new int[fingerprints.length];
+        int stableLength = fingerprints.length;
+        fingerprints[0] = systemMessage == null ? 0 : fingerprint(systemMessage);
+        tokens[0] = systemMessage == null ? 0 : tokenEstimator.estimate(systemMessage);
+        fingerprints[1] = tools == null ? 0 : tools.hashCode();
+        for (int i = 0; i < messages.size(); i++) {
+            Message message = messages.get(i);
+            fingerprints[i + 2] = fingerprint(message);
+            tokens[i + 2] = tokenEstimator.estimate(message);
+            if (stableLength == fingerprints.length && isVolatile(message)) {
+                stableLength = i + 2;
+            }
+        }
+
+        Fingerprints previous = lastFingerprints.put(threadId, new Fingerprints(fingerprints, stableLength));
+
+        int common = 0;
+        if (previous != null) {
+            int limit = Math.min(previous.values().length, fingerprints.length);
+            while (common < limit && previous.values()[common] == fingerprints[common]) {
+                common++;
+            }
+        }
+        int total = 0;
+        int reused = 0;
+        for (int i = 0; i < tokens.length; i++) {
+            total += tokens[i];
+            if (i < common) {
+                reused += tokens[i];
+            }
+        }
+        // 上一次请求中动态内容之前的部分仍是本次的前缀，才算前缀未变化
+        boolean prefixChanged = previous != null && common < previous.stableLength();
+        stats.recordRequest(total, reused, prefixChanged);
+    }
+
+    private static boolean isVolatile(Message message) {
+        return message.getMetadata() != null && Boolean.TRUE.equals(message.getMetadata().get(VOLATILE_METADATA_KEY));
+    }
+
+    private static long fingerprint(Message message) {
+        String text = message.getText();
+        return ((long) message.getMessageType().ordinal() << 32) ^ (text == null ? 0 : text.hashCode());
+    }
+
+    private void recordEvaluation(ChatResponse chatResponse) {
+        if (chatResponse == null || chatResponse.getMetadata() == null) {
+            return;
+        }
+        ChatResponseMetadata metadata = chatResponse.getMetadata();
+        Object duration = metadata.get(PROMPT_EVAL_DURATION);
+        Object count = metadata.get(PROMPT_EVAL_COUNT);
+        if (count == null && metadata.getUsage() != null) {
+            count = metadata.getUsage().getPromptTokens();
+        }
+        long evalNanos = duration instanceof Duration d ? d.toNanos()
+                : duration instanceof Number n ? n.longValue() : 0;
+        long evalCount = count instanceof Number n ? n.longValue() : 0;
+        if (evalNanos > 0 || evalCount > 0) {
+            stats.recordEvaluation(evalCount, evalNanos);
+        }
+    }
+
+    private record Fingerprints(long[] values, int stableLength) {
+    }
+
+    public static class Builder {
+
+        private Function<ModelRequest, String> volatileContext;
+        private boolean sortTools = true;
+        private TokenEstimator tokenEstimator = TokenEstimator.DEFAULT;
+
+        /**
+         * 每次请求变化的内容（用户角色、当前时间等），不要直接拼接到 system prompt 上
+         */
+        public Builder volatileContext(Function<ModelRequest, String> volatileContext) {
+            this.volatileContext = volatileContext;
+            return this;
+        }
+
+        /**
+         * 按名称排序工具，避免工具定义顺序变化导致前缀失效，默认开启
+         */
+        public Builder sortTools(boolean sortTools) {
+            this.sortTools = sortTools;
+            return this;
+        }
+
+        public Builder tokenEstimator(TokenEstimator tokenEstimator) {
+            this.tokenEstimator = tokenEstimator;
+            return this;
+        }
+
+        public PrefixStablePromptInterceptor build() {
+            return new PrefixStablePromptInterceptor(this);
+        }
+    }
+}
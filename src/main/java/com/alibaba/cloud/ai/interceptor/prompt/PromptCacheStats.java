@@ -0,0 +1,75 @@
+package com.alibaba.cloud.ai.interceptor.prompt;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 提示词前缀复用统计
+ *
+ * 两组数字来源不同，不能互相换算：
+ * estimatedPromptTokens / expectedReusedTokens 是本地 TokenEstimator 按与上一次请求的公共前缀估算的（不含工具定义），
+ * 只用于看前缀是否稳定；promptEvalCount / promptEvalNanos 是 Ollama 返回的实际计算量，
+ * Ollama 命中 KV cache 时 prompt-eval-count 只包含实际重新计算的 token，Spring AI 的 usage.promptTokens 也取自这个字段。
+ */
+public class PromptCacheStats {
+
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder prefixChanges = new LongAdder();
+    private final LongAdder estimatedPromptTokens = new LongAdder();
+    private final LongAdder expectedReusedTokens = new LongAdder();
+    private final LongAdder evaluations = new LongAdder();
+    private final LongAdder promptEvalCount = new LongAdder();
+    private final LongAdder promptEvalNanos = new LongAdder();
+
+    void recordRequest(int estimatedTokens, int reusedTokens, boolean prefixChanged) {
+        calls.increment();
+        estimatedPromptTokens.add(estimatedTokens);
+        expectedReusedTokens.add(reusedTokens);
+        if (prefixChanged) {
+            prefixChanges.increment();
+        }
+    }
+
+    void recordEvaluation(long evalCount, long evalNanos) {
+        evaluations.increment();
+        promptEvalCount.add(evalCount);
+        promptEvalNanos.add(evalNanos);
+    }
+
+    public Snapshot snapshot() {
+        return new Snapshot(calls.sum(), prefixChanges.sum(), estimatedPromptTokens.sum(),
+                expectedReusedTokens.sum(), evaluations.sum(), promptEvalCount.sum(), promptEvalNanos.sum());
+    }
+
+    public record Snapshot(long calls, long prefixChanges, long estimatedPromptTokens, long expectedReusedTokens,
+                           long evaluations, long promptEvalCount, long promptEvalNanos) {
+
+        /**
+         * 估算值：提示词中与同一会话上一次请求相同的前缀所占比例，分子分母都来自 TokenEstimator
+         */
+        public double estimatedReuseRatio() {
+            return estimatedPromptTokens == 0 ? 0 : (double) expectedReusedTokens / estimatedPromptTokens;
+        }
+
+        /**
+         * Ollama 每次调用实际计算的提示词 token 数，前缀命中 KV cache 时明显低于提示词长度
+         */
+        public double promptEvalCountPerCall() {
+            return evaluations == 0 ? 0 : (double) promptEvalCount / evaluations;
+        }
+
+        /**
+         * Ollama 每次调用的 prompt eval 耗时
+         */
+        public long promptEvalNanosPerCall() {
+            return evaluations == 0 ? 0 : promptEvalNanos / evaluations;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("calls=%d prefixChanges=%d estimatedPromptTokens=%d estimatedReused=%d "
+                            + "(estimate %.0f%%) ollamaPromptEval=%.1f tokens / %.1fms per call",
+                    calls, prefixChanges, estimatedPromptTokens, expectedReusedTokens, estimatedReuseRatio() * 100,
+                    promptEvalCountPerCall(), promptEvalNanosPerCall() / 1e6);
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.alibaba.cloud.ai.interceptor.selection;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 工具名称和描述的 BM25 倒排索引
+ *
+ * 英文按单词切分，并拆开 camelCase / snake_case（getWeather -> get, weather）；
+ * 中文按单字和相邻双字切分。名称中的词权重加倍。索引构建后只读，可以并发查询。
+ */
+public class Bm25Index {
+
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+    private static final int NAME_BOOST = 2;
+    private static final Set<String> STOP_WORDS = Set.of("a", "an", "the", "of", "to", "for", "and", "or", "in",
+            "on", "is", "are", "be", "it", "with", "by", "me", "my", "i", "you", "please", "can", "what", "get");
+
+    private final String[] documents;
+    private final Map<String, int[][]> postings;
+    private final float[] lengthNorms;
+    private final int[] documentLengths;
+
+    public Bm25Index(Map<String, String> documentsByName) {
+        this.documents = documentsByName.keySet().toArray(new String[0]);
+        this.documentLengths = new int[documents.length];
+        Map<String, Map<Integer, Integer>> termFrequencies = new HashMap<>();
+        long totalLength = 0;
+        for (int doc = 0; doc < documents.length; doc++) {
+            List<String> terms = new ArrayList<>();
+            List<String> nameTerms = tokenize(documents[doc]);
+            for (int i = 0; i < NAME_BOOST; i++) {
+                terms.addAll(nameTerms);
+            }
+            terms.addAll(tokenize(documentsByName.get(documents[doc])));
+            documentLengths[doc] = terms.size();
+            totalLength += terms.size();
+            for (String term : terms) {
+                termFrequencies.computeIfAbsent(term, key -> new HashMap<>()).merge(doc, 1, Integer::sum);
+            }
+        }
+        float averageLength = documents.length == 0 ? 1 : Math.max(1, (float) totalLength / documents.length);
+        this.lengthNorms = new float[documents.length];
+        for (int doc = 0; doc < documents.length; doc++) {
+            lengthNorms[doc] = K1 * (1 - B + B * documentLengths[doc] / averageLength);
+        }
+        this.postings = new HashMap<>(termFrequencies.size() * 2);
+        termFrequencies.forEach((term, frequencies) -> {
+            int[][] posting = new int[2][frequencies.size()];
+            int i = 0;
+            for (Map.Entry<Integer, Integer> entry : frequencies.entrySet()) {
+                posting[0][i] = entry.getKey();
+                posting[1][i] = entry.getValue();
+                i++;
+            }
+            postings.put(term, posting);
+        });
+    }
+
+    public int size() {
+        return documents.length;
+    }
+
+    public String document(int doc) {
+        return documents[doc];
+    }
+
+    /**
+     * 每个文档对 query 的 BM25 分数，下标与 document(int) 对应
+     */
+    public float[] score(String query) {
+        float[] scores = new float[documents.length];
+        if (documents.length == 0) {
+            return scores;
+        }
+        for (String term : new LinkedHashSet<>(tokenize(query))) {
+            int[][] posting = postings.get(term);
+            if (posting == null) {
+                continue;
+            }
+            int documentFrequency = posting[0].length;
+            float idf = (float) Math.log(1 + (documents.length - documentFrequency + 0.5) / (documentFrequency + 0.5));
+            for (int i = 0; i < documentFrequency; i++) {
+                int doc = posting[0][i];
+                int tf = posting[1][i];
+                scores[doc] += idf * tf * (K1 + 1) / (tf + lengthNorms[doc]);
+            }
+        }
+        return scores;
+    }
+
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return tokens;
+        }
+        int wordStart = -1;
+        char previousCjk = 0;
+        for (int i = 0; i <= text.length(); i++) {
+            char c = i < text.length() ? text.charAt(i) : ' ';
+            boolean ascii = Character.isLetterOrDigit(c) && c < 0x2E80;
+            boolean boundary = ascii && wordStart >= 0 && Character.isUpperCase(c)
+                    && Character.isLowerCase(text.charAt(i - 1));
+            if (wordStart >= 0 && (!ascii || boundary)) {
+                addWord(tokens, text.substring(wordStart, i));
+                wordStart = -1;
+            }
+            if (ascii) {
+                if (wordStart < 0) {
+                    wordStart = i;
+                }
+                previousCjk = 0;
+            }
+            else if (Character.isLetterOrDigit(c)) {
+                tokens.add(String.valueOf(c));
+                if (previousCjk != 0) {
+                    tokens.add(new String(new char[] {previousCjk, c}));
+                }
+                previousCjk = c;
+            }
+            else {
+                previousCjk = 0;
+            }
+        }
+        return tokens;
+    }
+
+    private static void addWord(List<String> tokens, String word) {
+        String lower = word.toLowerCase(Locale.ROOT);
+        if (!STOP_WORDS.contains(lower)) {
+            tokens.add(lower);
+        }
+    }
+}
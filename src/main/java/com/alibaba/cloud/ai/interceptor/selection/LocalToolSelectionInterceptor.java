@@ -0,0 +1,297 @@
+package com.alibaba.cloud.ai.interceptor.selection;
+
+import com.alibaba.cloud.ai.graph.agent.interceptor.ModelCallHandler;
+import com.alibaba.cloud.ai.graph.agent.interceptor.ModelInterceptor;
+import com.alibaba.cloud.ai.graph.agent.interceptor.ModelRequest;
+import com.alibaba.cloud.ai.graph.agent.interceptor.ModelResponse;
+import com.alibaba.cloud.ai.memory.longterm.EmbeddingFunction;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.MessageType;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.definition.ToolDefinition;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * 本地工具预选拦截器
+ *
+ * 不额外调用模型，用 BM25（可选叠加本地向量相似度）按最后一条用户消息给工具排序，
+ * 只把 topK 个工具放进 ModelRequest。以下工具始终保留：alwaysInclude 中的工具、
+ * 本轮已经调用过的工具、未通过 builder.tools 建立索引的工具。
+ * 最高分低于阈值（置信度不足）时交给 fallback（例如 ToolSelectionInterceptor），没有 fallback 时保留全部工具。
+ */
+public class LocalToolSelectionInterceptor extends ModelInterceptor {
+
+    private final Bm25Index index;
+    private final Map<String, Integer> documentIds;
+    private final float[][] toolVectors;
+    private final EmbeddingFunction embeddingFunction;
+    private final float embeddingWeight;
+    private final float minSimilarity;
+    private final int topK;
+    private final float minScore;
+    private final Set<String> alwaysInclude;
+    private final ModelInterceptor fallback;
+    private final Consumer<ToolSelection> selectionListener;
+
+    private LocalToolSelectionInterceptor(Builder builder) {
+        this.index = new Bm25Index(builder.documents);
+        this.documentIds = new HashMap<>();
+        for (int doc = 0; doc < index.size(); doc++) {
+            documentIds.put(index.document(doc), doc);
+        }
+        this.embeddingFunction = builder.embeddingFunction;
+        this.embeddingWeight = builder.embeddingWeight;
+        this.minSimilarity = builder.minSimilarity;
+        if (embeddingFunction != null) {
+            this.toolVectors = new float[index.size()][];
+            for (int doc = 0; doc < index.size(); doc++) {
+                String name = index.document(doc);
+                toolVectors[doc] = normalize(embeddingFunction.embed(name + " " + builder.documents.get(name)));
+            }
+        }
+        else {
+            this.toolVectors = null;
+        }
+        this.topK = builder.topK;
+        this.minScore = builder.minScore;
+        this.alwaysInclude = Set.copyOf(builder.alwaysInclude);
+        this.fallback = builder.fallback;
+        this.selectionListener = builder.selectionListener;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    @Override
+    public String getName() {
+        return "local_tool_selection";
+    }
+
+    @Override
+    public ModelResponse interceptModel(ModelRequest request, ModelCallHandler handler) {
+        List<String> tools = request.getTools();
+        if (tools == null || tools.size() <= topK) {
+            return handler.call(request);
+        }
+        List<Message> messages = request.getMessages();
+        int lastUser = lastUserIndex(messages);
+        if (lastUser < 0) {
+            return handler.call(request);
+        }
+
+        long start = System.nanoTime();
+        String query = messages.get(lastUser).getText();
+        Set<String> keep = new HashSet<>(alwaysInclude);
+        keep.addAll(calledTools(messages, lastUser));
+
+        float[] scores = index.score(query);
+        float topScore = 0;
+        for (float score : scores) {
+            topScore = Math.max(topScore, score);
+        }
+        boolean confident = topScore >= minScore;
+        if (toolVectors != null) {
+            float[] similarities = similarities(query);
+            float topSimilarity = 0;
+            for (int doc = 0; doc < scores.length; doc++) {
+                topSimilarity = Math.max(topSimilarity, similarities[doc]);
+                // BM25 按最高分归一化后与余弦相似度加权
+                float bm25 = topScore == 0 ? 0 : scores[doc] / topScore;
+                scores[doc] = (1 - embeddingWeight) * bm25 + embeddingWeight * similarities[doc];
+            }
+            confident |= topSimilarity >= minSimilarity;
+        }
+
+        if (!confident) {
+            report(query, tools.size(), tools, topScore, false, start);
+            return fallback != null ? fallback.interceptModel(request, handler) : handler.call(request);
+        }
+
+        List<String> selected = select(tools, scores, keep);
+        report(query, tools.size(), selected, topScore, true, start);
+        return handler.call(ModelRequest.builder(request).tools(selected).build());
+    }
+
+    /**
+     * 保持工具在原请求中的顺序（对前缀缓存友好），只去掉排名靠后的工具
+     */
+    private List<String> select(List<String> tools, float[] scores, Set<String> keep) {
+        List<Integer> ranked = new ArrayList<>();
+        for (String tool : tools) {
+            Integer doc = documentIds.get(tool);
+            if (doc != null && !keep.contains(tool) && scores[doc] > 0) {
+                ranked.add(doc);
+            }
+        }
+        ranked.sort((a, b) -> Float.compare(scores[b], scores[a]));
+        Set<String> chosen = new HashSet<>();
+        for (int i = 0; i < Math.min(topK, ranked.size()); i++) {
+            chosen.add(index.document(ranked.get(i)));
+        }
+        List<String> selected = new ArrayList<>();
+        for (String tool : tools) {
+            if (chosen.contains(tool) || keep.contains(tool) || !documentIds.containsKey(tool)) {
+                selected.add(tool);
+            }
+        }
+        return selected;
+    }
+
+    private float[] similarities(String query) {
+        float[] queryVector = normalize(embeddingFunction.embed(query));
+        float[] similarities = new float[toolVectors.length];
+        for (int doc = 0; doc < toolVectors.length; doc++) {
+            float dot = 0;
+            float[] toolVector = toolVectors[doc];
+            for (int i = 0; i < queryVector.length; i++) {
+                dot += queryVector[i] * toolVector[i];
+            }
+            similarities[doc] = Math.max(0, dot);
+        }
+        return similarities;
+    }
+
+    private void report(String query, int candidates, List<String> selected, float topScore, boolean confident,
+                        long start) {
+        if (selectionListener != null) {
+            selectionListener.accept(new ToolSelection(query, candidates, selected, topScore, confident,
+                    System.nanoTime() - start));
+        }
+    }
+
+    private static int lastUserIndex(List<Message> messages) {
+        for (int i = messages.size() - 1; i >= 0; i--) {
+            if (messages.get(i).getMessageType() == MessageType.USER) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 最后一条用户消息之后模型已经调用过的工具，ReAct 循环中间不能把它们去掉
+     */
+    private static Set<String> calledTools(List<Message> messages, int lastUser) {
+        Set<String> called = new HashSet<>();
+        for (int i = lastUser + 1; i < messages.size(); i++) {
+            if (messages.get(i) instanceof AssistantMessage assistant && assistant.hasToolCalls()) {
+                assistant.getToolCalls().forEach(toolCall -> called.add(toolCall.name()));
+            }
+        }
+        return called;
+    }
+
+    private static float[] normalize(float[] vector) {
+        float norm = 0;
+        for (float value : vector) {
+            norm += value * value;
+        }
+        if (norm == 0) {
+            return vector;
+        }
+        float scale = (float) (1 / Math.sqrt(norm));
+        float[] normalized = new float[vector.length];
+        for (int i = 0; i < vector.length; i++) {
+            normalized[i] = vector[i] * scale;
+        }
+        return normalized;
+    }
+
+    public static class Builder {
+
+        private final Map<String, String> documents = new LinkedHashMap<>();
+        private EmbeddingFunction embeddingFunction;
+        private float embeddingWeight = 0.3f;
+        private float minSimilarity = 0.35f;
+        private int topK = 5;
+        private float minScore = 1.0f;
+        private final Set<String> alwaysInclude = new HashSet<>();
+        private ModelInterceptor fallback;
+        private Consumer<ToolSelection> selectionListener;
+
+        /**
+         * 为工具名称和描述建立索引，没有建立索引的工具不参与筛选、始终保留
+         */
+        public Builder tools(List<ToolCallback> tools) {
+            for (ToolCallback tool : tools) {
+                ToolDefinition definition = tool.getToolDefinition();
+                documents.put(definition.name(), definition.description() == null ? "" : definition.description());
+            }
+            return this;
+        }
+
+        public Builder tool(String name, String description) {
+            documents.put(name, description == null ? "" : description);
+            return this;
+        }
+
+        /**
+         * 叠加本地向量相似度，例如 HashingEmbeddingFunction 或包装 Ollama 的 EmbeddingModel
+         */
+        public Builder embeddingFunction(EmbeddingFunction embeddingFunction) {
+            this.embeddingFunction = embeddingFunction;
+            return this;
+        }
+
+        /**
+         * 向量相似度在综合分数中的权重，默认 0.3
+         */
+        public Builder embeddingWeight(float embeddingWeight) {
+            this.embeddingWeight = embeddingWeight;
+            return this;
+        }
+
+        /**
+         * BM25 不够时，最高相似度达到该值也视为置信
+         */
+        public Builder minSimilarity(float minSimilarity) {
+            this.minSimilarity = minSimilarity;
+            return this;
+        }
+
+        public Builder topK(int topK) {
+            this.topK = topK;
+            return this;
+        }
+
+        /**
+         * 最高 BM25 分数低于该值时认为置信度不足
+         */
+        public Builder minScore(float minScore) {
+            this.minScore = minScore;
+            return this;
+        }
+
+        public Builder alwaysInclude(String... toolNames) {
+            alwaysInclude.addAll(List.of(toolNames));
+            return this;
+        }
+
+        /**
+         * 置信度不足时使用的拦截器，例如 ToolSelectionInterceptor
+         */
+        public Builder fallback(ModelInterceptor fallback) {
+            this.fallback = fallback;
+            return this;
+        }
+
+        public Builder selectionListener(Consumer<ToolSelection> selectionListener) {
+            this.selectionListener = selectionListener;
+            return this;
+        }
+
+        public LocalToolSelectionInterceptor build() {
+            return new LocalToolSelectionInterceptor(this);
+        }
+    }
+}
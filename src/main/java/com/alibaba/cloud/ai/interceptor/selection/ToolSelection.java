@@ -0,0 +1,17 @@
+package com.alibaba.cloud.ai.interceptor.selection;
+
+import java.util.List;
+
+/**
+ * 一次工具预选的结果
+ *
+ * @param query      用于排序的用户消息
+ * @param candidates 请求中原有的工具数
+ * @param selected   保留下来的工具
+ * @param topScore   最高的 BM25 分数
+ * @param confident  置信度是否足够，不足时交给 fallback（或保留全部工具）
+ * @param nanos      排序耗时
+ */
+public record ToolSelection(String query, int candidates, List<String> selected, float topScore,
+                            boolean confident, long nanos) {
+}
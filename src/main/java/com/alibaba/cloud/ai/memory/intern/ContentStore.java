@@ -0,0 +1,14 @@
+package com.alibaba.cloud.ai.memory.intern;
+
+/**
+ * 按内容哈希保存的不可变文本
+ */
+public interface ContentStore {
+
+    /**
+     * @return 哈希对应的内容，不存在时返回 null
+     */
+    String get(String hash);
+
+    void putIfAbsent(String hash, String content);
+}
@@ -0,0 +1,22 @@
+package com.alibaba.cloud.ai.memory.intern;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 进程内内容存储，配合 MemorySaver 使用
+ */
+public class InMemoryContentStore implements ContentStore {
+
+    private final Map<String, String> contents = new ConcurrentHashMap<>();
+
+    @Override
+    public String get(String hash) {
+        return contents.get(hash);
+    }
+
+    @Override
+    public void putIfAbsent(String hash, String content) {
+        contents.putIfAbsent(hash, content);
+    }
+}
@@ -0,0 +1,97 @@
+package com.alibaba.cloud.ai.memory.intern;
+
+import com.alibaba.cloud.ai.graph.RunnableConfig;
+import com.alibaba.cloud.ai.graph.checkpoint.BaseCheckpointSaver;
+import com.alibaba.cloud.ai.graph.checkpoint.Checkpoint;
+import org.springframework.ai.chat.messages.Message;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.UnaryOperator;
+
+/**
+ * 对 checkpoint 中的消息做内容驻留的 Saver 包装
+ *
+ * 写入前把 messages 中的大段 SystemMessage 替换为引用，读取后还原，
+ * 同一个 Agent 的上千个会话只在 ContentStore 中保存一份系统提示词正文。
+ *
+ * <pre>
+ * new InterningCheckpointSaver(redisSaver(), new MessageInterner(new RedisContentStore(redisCli()), 256))
+ * </pre>
+ */
+public class InterningCheckpointSaver implements BaseCheckpointSaver {
+
+    private static final String MESSAGES_KEY = "messages";
+
+    private final BaseCheckpointSaver delegate;
+    private final MessageInterner interner;
+
+    public InterningCheckpointSaver(BaseCheckpointSaver delegate, MessageInterner interner) {
+        this.delegate = delegate;
+        this.interner = interner;
+    }
+
+    @Override
+    public Collection<Checkpoint> list(RunnableConfig config) {
+        Collection<Checkpoint> checkpoints = delegate.list(config);
+        List<Checkpoint> resolved = new ArrayList<>(checkpoints.size());
+        for (Checkpoint checkpoint : checkpoints) {
+            resolved.add(rewrite(checkpoint, interner::resolve));
+        }
+        return resolved;
+    }
+
+    @Override
+    public Optional<Checkpoint> get(RunnableConfig config) {
+        return delegate.get(config).map(checkpoint -> rewrite(checkpoint, interner::resolve));
+    }
+
+    @Override
+    public RunnableConfig put(RunnableConfig config, Checkpoint checkpoint) throws Exception {
+        return delegate.put(config, rewrite(checkpoint, interner::toReference));
+    }
+
+    @Override
+    public boolean clear(RunnableConfig config) {
+        return delegate.clear(config);
+    }
+
+    @Override
+    public Tag release(RunnableConfig config) throws Exception {
+        return delegate.release(config);
+    }
+
+    private static Checkpoint rewrite(Checkpoint checkpoint, UnaryOperator<Message> mapper) {
+        Object value = checkpoint.getState().get(MESSAGES_KEY);
+        if (!(value instanceof List<?> messages)) {
+            return checkpoint;
+        }
+        List<Object> rewritten = null;
+        for (int i = 0; i < messages.size(); i++) {
+            Object original = messages.get(i);
+            Object mapped = original instanceof Message message ? mapper.apply(message) : original;
+            if (mapped != original && rewritten == null) {
+                rewritten = new ArrayList<>(messages.subList(0, i));
+            }
+            if (rewritten != null) {
+                rewritten.add(mapped);
+            }
+        }
+        if (rewritten == null) {
+            // 没有需要驻留的消息，沿用原 checkpoint
+            return checkpoint;
+        }
+        Map<String, Object> state = new HashMap<>(checkpoint.getState());
+        state.put(MESSAGES_KEY, rewritten);
+        return Checkpoint.builder()
+                .id(checkpoint.getId())
+                .nodeId(checkpoint.getNodeId())
+                .nextNodeId(checkpoint.getNextNodeId())
+                .state(state)
+                .build();
+    }
+}
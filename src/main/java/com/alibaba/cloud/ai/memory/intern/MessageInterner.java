@@ -0,0 +1,96 @@
+package com.alibaba.cloud.ai.memory.intern;
+
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.SystemMessage;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 消息内容驻留
+ *
+ * 长度不小于 minLength 的 SystemMessage 正文按 SHA-256 存入 ContentStore，checkpoint 中只保留
+ * 带 intern_ref 元数据的空正文引用消息；还原时所有会话共享同一个正文 String 实例。
+ * 本地缓存不做淘汰，适用于系统提示词、摘要等数量有限的大段文本。
+ */
+public class MessageInterner {
+
+    public static final String REFERENCE_METADATA_KEY = "intern_ref";
+
+    private final ContentStore contentStore;
+    private final int minLength;
+    private final Map<String, String> bodies = new ConcurrentHashMap<>();
+
+    public MessageInterner(ContentStore contentStore, int minLength) {
+        this.contentStore = contentStore;
+        this.minLength = minLength;
+    }
+
+    /**
+     * 返回与 text 内容相同的共享实例
+     */
+    public String intern(String text) {
+        return store(hash(text), text);
+    }
+
+    /**
+     * 把大段 SystemMessage 替换为引用消息，其余消息原样返回
+     */
+    public Message toReference(Message message) {
+        if (!(message instanceof SystemMessage) || isReference(message)) {
+            return message;
+        }
+        String text = message.getText();
+        if (text == null || text.length() < minLength) {
+            return message;
+        }
+        String hash = hash(text);
+        store(hash, text);
+        Map<String, Object> metadata = new HashMap<>(message.getMetadata());
+        metadata.put(REFERENCE_METADATA_KEY, hash);
+        return SystemMessage.builder().text("").metadata(metadata).build();
+    }
+
+    /**
+     * 把引用消息还原为共享正文的 SystemMessage，其余消息原样返回
+     */
+    public Message resolve(Message message) {
+        if (!isReference(message)) {
+            return message;
+        }
+        String hash = (String) message.getMetadata().get(REFERENCE_METADATA_KEY);
+        String text = bodies.computeIfAbsent(hash, contentStore::get);
+        if (text == null) {
+            throw new IllegalStateException("Interned content not found: " + hash);
+        }
+        Map<String, Object> metadata = new HashMap<>(message.getMetadata());
+        metadata.remove(REFERENCE_METADATA_KEY);
+        return SystemMessage.builder().text(text).metadata(metadata).build();
+    }
+
+    private String store(String hash, String text) {
+        return bodies.computeIfAbsent(hash, key -> {
+            contentStore.putIfAbsent(key, text);
+            return text;
+        });
+    }
+
+    public static boolean isReference(Message message) {
+        return message.getMetadata() != null && message.getMetadata().containsKey(REFERENCE_METADATA_KEY);
+    }
+
+    static String hash(String text) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(text.getBytes(StandardCharsets.UTF_8)));
+        }
+        catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
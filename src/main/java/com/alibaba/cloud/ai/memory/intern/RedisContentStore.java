@@ -0,0 +1,31 @@
+package com.alibaba.cloud.ai.memory.intern;
+
+import org.redisson.api.RMap;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+
+/**
+ * Redis 内容存储，所有内容放在一个 hash 中，配合 RedisSaver 使用
+ */
+public class RedisContentStore implements ContentStore {
+
+    private final RMap<String, String> contents;
+
+    public RedisContentStore(RedissonClient redisson) {
+        this(redisson, "agent:interned_content");
+    }
+
+    public RedisContentStore(RedissonClient redisson, String key) {
+        this.contents = redisson.getMap(key, StringCodec.INSTANCE);
+    }
+
+    @Override
+    public String get(String hash) {
+        return contents.get(hash);
+    }
+
+    @Override
+    public void putIfAbsent(String hash, String content) {
+        contents.putIfAbsent(hash, content);
+    }
+}
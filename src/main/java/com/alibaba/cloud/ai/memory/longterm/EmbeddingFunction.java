@@ -0,0 +1,30 @@
+package com.alibaba.cloud.ai.memory.longterm;
+
+import org.springframework.ai.embedding.EmbeddingModel;
+
+/**
+ * 本地向量化函数
+ *
+ * 可以是 HashingEmbeddingFunction 这样的纯本地实现，也可以包装 Ollama 等 EmbeddingModel。
+ */
+public interface EmbeddingFunction {
+
+    float[] embed(String text);
+
+    int dimensions();
+
+    static EmbeddingFunction of(EmbeddingModel embeddingModel) {
+        int dimensions = embeddingModel.dimensions();
+        return new EmbeddingFunction() {
+            @Override
+            public float[] embed(String text) {
+                return embeddingModel.embed(text);
+            }
+
+            @Override
+            public int dimensions() {
+                return dimensions;
+            }
+        };
+    }
+}
@@ -0,0 +1,50 @@
+package com.alibaba.cloud.ai.memory.longterm;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * 本地文件持久化，每个用户一个文件，先写临时文件再原子替换
+ */
+public class FileMemoryPersistence implements MemoryPersistence {
+
+    private final Path directory;
+
+    public FileMemoryPersistence(Path directory) {
+        this.directory = directory;
+    }
+
+    @Override
+    public byte[] load(String userId) {
+        Path file = file(userId);
+        if (!Files.exists(file)) {
+            return null;
+        }
+        try {
+            return Files.readAllBytes(file);
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void save(String userId, byte[] data) {
+        try {
+            Files.createDirectories(directory);
+            Path temp = Files.createTempFile(directory, "memory", ".tmp");
+            Files.write(temp, data);
+            Files.move(temp, file(userId), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Path file(String userId) {
+        return directory.resolve(userId.replaceAll("[^a-zA-Z0-9_.-]", "_") + ".hnsw");
+    }
+}
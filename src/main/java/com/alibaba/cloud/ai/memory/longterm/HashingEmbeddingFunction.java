@@ -0,0 +1,68 @@
+package com.alibaba.cloud.ai.memory.longterm;
+
+/**
+ * 基于字符 n-gram 特征哈希的本地向量化函数
+ *
+ * 不依赖任何模型，中文按单字和相邻双字、英文按单词切分后哈希到固定维度。
+ * 语义能力有限，适合关键词重合度较高的历史召回，或作为没有 EmbeddingModel 时的默认实现。
+ */
+public class HashingEmbeddingFunction implements EmbeddingFunction {
+
+    private final int dimensions;
+
+    public HashingEmbeddingFunction() {
+        this(256);
+    }
+
+    public HashingEmbeddingFunction(int dimensions) {
+        this.dimensions = dimensions;
+    }
+
+    @Override
+    public float[] embed(String text) {
+        float[] vector = new float[dimensions];
+        if (text == null || text.isEmpty()) {
+            return vector;
+        }
+        String normalized = text.toLowerCase();
+        int wordStart = -1;
+        char previous = 0;
+        for (int i = 0; i <= normalized.length(); i++) {
+            char c = i < normalized.length() ? normalized.charAt(i) : ' ';
+            if (Character.isLetterOrDigit(c) && c < 0x2E80) {
+                if (wordStart < 0) {
+                    wordStart = i;
+                }
+                previous = 0;
+                continue;
+            }
+            if (wordStart >= 0) {
+                add(vector, normalized.substring(wordStart, i).hashCode());
+                wordStart = -1;
+            }
+            if (Character.isLetterOrDigit(c)) {
+                // CJK 字符：单字 + 与前一个字组成的双字
+                add(vector, c);
+                if (previous != 0) {
+                    add(vector, previous * 31 + c);
+                }
+                previous = c;
+            }
+            else {
+                previous = 0;
+            }
+        }
+        return vector;
+    }
+
+    private void add(float[] vector, int hash) {
+        int mixed = hash * 0x9E3779B9;
+        int index = Math.floorMod(mixed, dimensions);
+        vector[index] += (mixed & 0x10000) == 0 ? 1 : -1;
+    }
+
+    @Override
+    public int dimensions() {
+        return dimensions;
+    }
+}
@@ -0,0 +1,404 @@
+package com.alibaba.cloud.ai.memory.longterm;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.SplittableRandom;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 进程内 HNSW 向量索引（余弦相似度）
+ *
+ * 写入时对向量做归一化，距离 = 1 - 点积。节点编号从 0 开始连续分配，调用方按编号保存对应的原文。
+ * 写入使用写锁串行化，查询使用读锁并发执行。
+ */
+public class HnswIndex {
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final int dimension;
+    private final int m;
+    private final int maxM0;
+    private final int efConstruction;
+    private final double levelMultiplier;
+    private final SplittableRandom random;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ThreadLocal<VisitedSet> visitedSets = ThreadLocal.withInitial(VisitedSet::new);
+
+    private volatile int efSearch;
+
+    private float[][] vectors = new float[INITIAL_CAPACITY][];
+    /** links[node][level] 为邻居数组，linkCounts[node][level] 为实际邻居数 */
+    private int[][][] links = new int[INITIAL_CAPACITY][][];
+    private int[][] linkCounts = new int[INITIAL_CAPACITY][];
+    private int size;
+    private int entryPoint = -1;
+    private int maxLevel = -1;
+
+    public HnswIndex(int dimension, int m, int efConstruction, int efSearch) {
+        this(dimension, m, efConstruction, efSearch, 42L);
+    }
+
+    HnswIndex(int dimension, int m, int efConstruction, int efSearch, long seed) {
+        if (dimension <= 0 || m < 2) {
+            throw new IllegalArgumentException("dimension must be positive and m must be at least 2");
+        }
+        this.dimension = dimension;
+        this.m = m;
+        this.maxM0 = m * 2;
+        this.efConstruction = Math.max(efConstruction, m);
+        this.efSearch = efSearch;
+        this.levelMultiplier = 1 / Math.log(m);
+        this.random = new SplittableRandom(seed);
+    }
+
+    /**
+     * 写入一个向量，返回节点编号
+     */
+    public int add(float[] vector) {
+        float[] normalized = normalize(vector);
+        lock.writeLock().lock();
+        try {
+            int node = size;
+            ensureCapacity(node + 1);
+            int level = randomLevel();
+            vectors[node] = normalized;
+            links[node] = new int[level + 1][];
+            linkCounts[node] = new int[level + 1];
+            for (int l = 0; l <= level; l++) {
+                links[node][l] = new int[l == 0 ? maxM0 : m];
+            }
+            size++;
+
+            if (entryPoint < 0) {
+                entryPoint = node;
+                maxLevel = level;
+                return node;
+            }
+
+            int current = entryPoint;
+            for (int l = maxLevel; l > level; l--) {
+                current = greedyClosest(normalized, current, l);
+            }
+            for (int l = Math.min(level, maxLevel); l >= 0; l--) {
+                List<Candidate> candidates = searchLayer(normalized, current, efConstruction, l);
+                int[] selected = selectNeighbors(candidates, l == 0 ? maxM0 : m);
+                for (int neighbor : selected) {
+                    connect(node, neighbor, l);
+                    connect(neighbor, node, l);
+                }
+                current = candidates.get(0).node;
+            }
+            if (level > maxLevel) {
+                maxLevel = level;
+                entryPoint = node;
+            }
+            return node;
+        }
+        finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 查询与 query 最相似的 k 个节点，按相似度降序
+     */
+    public List<SearchResult> search(float[] query, int k) {
+        float[] normalized = normalize(query);
+        lock.readLock().lock();
+        try {
+            if (entryPoint < 0 || k <= 0) {
+                return List.of();
+            }
+            int current = entryPoint;
+            for (int l = maxLevel; l > 0; l--) {
+                current = greedyClosest(normalized, current, l);
+            }
+            List<Candidate> candidates = searchLayer(normalized, current, Math.max(efSearch, k), 0);
+            int count = Math.min(k, candidates.size());
+            List<SearchResult> results = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                Candidate candidate = candidates.get(i);
+                results.add(new SearchResult(candidate.node, 1 - candidate.distance));
+            }
+            return results;
+        }
+        finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        }
+        finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int dimension() {
+        return dimension;
+    }
+
+    public void setEfSearch(int efSearch) {
+        this.efSearch = efSearch;
+    }
+
+    private int greedyClosest(float[] query, int start, int level) {
+        int current = start;
+        float currentDistance = distance(query, vectors[current]);
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            int[] neighbors = links[current][level];
+            int count = linkCounts[current][level];
+            for (int i = 0; i < count; i++) {
+                float d = distance(query, vectors[neighbors[i]]);
+                if (d < currentDistance) {
+                    currentDistance = d;
+                    current = neighbors[i];
+                    changed = true;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * 在某一层做 ef 宽度的最佳优先搜索，返回按距离升序排列的候选
+     */
+    private List<Candidate> searchLayer(float[] query, int start, int ef, int level) {
+        VisitedSet visited = visitedSets.get();
+        visited.reset(size);
+        PriorityQueue<Candidate> frontier = new PriorityQueue<>(Comparator.comparingDouble(Candidate::distance));
+        PriorityQueue<Candidate> nearest = new PriorityQueue<>(Comparator.comparingDouble(Candidate::distance).reversed());
+
+        Candidate first = new Candidate(start, distance(query, vectors[start]));
+        visited.add(start);
+        frontier.add(first);
+        nearest.add(first);
+
+        while (!frontier.isEmpty()) {
+            Candidate closest = frontier.poll();
+            if (closest.distance > nearest.peek().distance && nearest.size() >= ef) {
+                break;
+            }
+            int[] neighbors = links[closest.node][level];
+            int count = linkCounts[closest.node][level];
+            for (int i = 0; i < count; i++) {
+                int neighbor = neighbors[i];
+                if (!visited.add(neighbor)) {
+                    continue;
+                }
+                float d = distance(query, vectors[neighbor]);
+                if (nearest.size() < ef || d < nearest.peek().distance) {
+                    Candidate candidate = new Candidate(neighbor, d);
+                    frontier.add(candidate);
+                    nearest.add(candidate);
+                    if (nearest.size() > ef) {
+                        nearest.poll();
+                    }
+                }
+            }
+        }
+
+        Candidate[] sorted = nearest.toArray(new Candidate[0]);
+        Arrays.sort(sorted, Comparator.comparingDouble(Candidate::distance));
+        return Arrays.asList(sorted);
+    }
+
+    /**
+     * 启发式邻居选择：候选只有在比已选邻居更靠近新节点时才保留，用剩余候选补足数量
+     */
+    private int[] selectNeighbors(List<Candidate> candidates, int maxNeighbors) {
+        int[] selected = new int[Math.min(maxNeighbors, candidates.size())];
+        int count = 0;
+        List<Candidate> pruned = new ArrayList<>();
+        for (Candidate candidate : candidates) {
+            if (count == selected.length) {
+                break;
+            }
+            boolean diverse = true;
+            for (int i = 0; i < count; i++) {
+                if (distance(vectors[candidate.node], vectors[selected[i]]) < candidate.distance) {
+                    diverse = false;
+                    break;
+                }
+            }
+            if (diverse) {
+                selected[count++] = candidate.node;
+            }
+            else {
+                pruned.add(candidate);
+            }
+        }
+        for (int i = 0; i < pruned.size() && count < selected.length; i++) {
+            selected[count++] = pruned.get(i).node;
+        }
+        return count == selected.length ? selected : Arrays.copyOf(selected, count);
+    }
+
+    private void connect(int from, int to, int level) {
+        int[] neighbors = links[from][level];
+        int count = linkCounts[from][level];
+        if (count < neighbors.length) {
+            neighbors[count] = to;
+            linkCounts[from][level] = count + 1;
+            return;
+        }
+        // 邻居已满：和新邻居一起重新选择
+        float[] base = vectors[from];
+        List<Candidate> candidates = new ArrayList<>(count + 1);
+        for (int i = 0; i < count; i++) {
+            candidates.add(new Candidate(neighbors[i], distance(base, vectors[neighbors[i]])));
+        }
+        candidates.add(new Candidate(to, distance(base, vectors[to])));
+        candidates.sort(Comparator.comparingDouble(Candidate::distance));
+        int[] selected = selectNeighbors(candidates, neighbors.length);
+        System.arraycopy(selected, 0, neighbors, 0, selected.length);
+        linkCounts[from][level] = selected.length;
+    }
+
+    private int randomLevel() {
+        return (int) (-Math.log(1 - random.nextDouble()) * levelMultiplier);
+    }
+
+    private void ensureCapacity(int required) {
+        if (required <= vectors.length) {
+            return;
+        }
+        int newCapacity = Math.max(required, vectors.length * 2);
+        vectors = Arrays.copyOf(vectors, newCapacity);
+        links = Arrays.copyOf(links, newCapacity);
+        linkCounts = Arrays.copyOf(linkCounts, newCapacity);
+    }
+
+    private float[] normalize(float[] vector) {
+        if (vector.length != dimension) {
+            throw new IllegalArgumentException("Expected dimension " + dimension + " but got " + vector.length);
+        }
+        double norm = 0;
+        for (float v : vector) {
+            norm += v * v;
+        }
+        float[] normalized = new float[dimension];
+        if (norm == 0) {
+            return normalized;
+        }
+        float scale = (float) (1 / Math.sqrt(norm));
+        for (int i = 0; i < dimension; i++) {
+            normalized[i] = vector[i] * scale;
+        }
+        return normalized;
+    }
+
+    private static float distance(float[] a, float[] b) {
+        float dot = 0;
+        for (int i = 0; i < a.length; i++) {
+            dot += a[i] * b[i];
+        }
+        return 1 - dot;
+    }
+
+    // ==================== 持久化 ====================
+
+    public void writeTo(DataOutputStream out) throws IOException {
+        lock.readLock().lock();
+        try {
+            out.writeInt(dimension);
+            out.writeInt(m);
+            out.writeInt(efConstruction);
+            out.writeInt(efSearch);
+            out.writeInt(size);
+            out.writeInt(entryPoint);
+            out.writeInt(maxLevel);
+            for (int node = 0; node < size; node++) {
+                for (float v : vectors[node]) {
+                    out.writeFloat(v);
+                }
+                out.writeInt(links[node].length);
+                for (int l = 0; l < links[node].length; l++) {
+                    int count = linkCounts[node][l];
+                    out.writeInt(count);
+                    for (int i = 0; i < count; i++) {
+                        out.writeInt(links[node][l][i]);
+                    }
+                }
+            }
+        }
+        finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public static HnswIndex readFrom(DataInputStream in) throws IOException {
+        HnswIndex index = new HnswIndex(in.readInt(), in.readInt(), in.readInt(), in.readInt());
+        int size = in.readInt();
+        index.ensureCapacity(size);
+        index.entryPoint = in.readInt();
+        index.maxLevel = in.readInt();
+        for (int node = 0; node < size; node++) {
+            float[] vector = new float[index.dimension];
+            for (int i = 0; i < vector.length; i++) {
+                vector[i] = in.readFloat();
+            }
+            index.vectors[node] = vector;
+            int levels = in.readInt();
+            index.links[node] = new int[levels][];
+            index.linkCounts[node] = new int[levels];
+            for (int l = 0; l < levels; l++) {
+                int[] neighbors = new int[l == 0 ? index.maxM0 : index.m];
+                int count = in.readInt();
+                for (int i = 0; i < count; i++) {
+                    neighbors[i] = in.readInt();
+                }
+                index.links[node][l] = neighbors;
+                index.linkCounts[node][l] = count;
+            }
+        }
+        index.size = size;
+        return index;
+    }
+
+    public record SearchResult(int node, float score) {
+    }
+
+    private record Candidate(int node, float distance) {
+    }
+
+    /**
+     * 按代数标记的已访问集合，查询之间复用数组
+     */
+    private static final class VisitedSet {
+
+        private int[] marks = new int[INITIAL_CAPACITY];
+        private int generation;
+
+        private void reset(int size) {
+            if (marks.length < size) {
+                marks = new int[Math.max(size, marks.length * 2)];
+                generation = 0;
+            }
+            generation++;
+            if (generation == Integer.MAX_VALUE) {
+                Arrays.fill(marks, 0);
+                generation = 1;
+            }
+        }
+
+        private boolean add(int node) {
+            if (marks[node] == generation) {
+                return false;
+            }
+            marks[node] = generation;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.alibaba.cloud.ai.memory.longterm;
+
+import com.alibaba.cloud.ai.graph.RunnableConfig;
+import com.alibaba.cloud.ai.graph.agent.hook.HookPosition;
+import com.alibaba.cloud.ai.graph.agent.hook.HookPositions;
+import com.alibaba.cloud.ai.graph.agent.hook.messages.AgentCommand;
+import com.alibaba.cloud.ai.graph.agent.hook.messages.MessagesModelHook;
+import com.alibaba.cloud.ai.graph.agent.hook.messages.UpdatePolicy;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.MessageType;
+import org.springframework.ai.chat.messages.SystemMessage;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 长期记忆召回 Hook
+ *
+ * 模型调用前用最后一条用户消息检索 LongTermMemoryStore，把 topK 条相关历史片段
+ * 作为一条 SystemMessage 插入到最后一条用户消息之前。上一轮插入的召回消息会被替换，不会累积。
+ */
+@HookPositions({HookPosition.BEFORE_MODEL})
+public class LongTermMemoryHook extends MessagesModelHook {
+
+    static final String RECALL_METADATA_KEY = "long_term_memory";
+
+    private final LongTermMemoryStore store;
+    private final int topK;
+    private final float minScore;
+
+    public LongTermMemoryHook(LongTermMemoryStore store, int topK, float minScore) {
+        this.store = store;
+        this.topK = topK;
+        this.minScore = minScore;
+    }
+
+    @Override
+    public String getName() {
+        return "long_term_memory";
+    }
+
+    @Override
+    public AgentCommand beforeModel(List<Message> previousMessages, RunnableConfig config) {
+        int lastUser = -1;
+        boolean hasRecall = false;
+        for (int i = 0; i < previousMessages.size(); i++) {
+            Message message = previousMessages.get(i);
+            if (message.getMessageType() == MessageType.USER) {
+                lastUser = i;
+            }
+            hasRecall |= isRecallMessage(message);
+        }
+        if (lastUser < 0) {
+            return new AgentCommand(previousMessages);
+        }
+
+        String query = previousMessages.get(lastUser).getText();
+        List<MemorySnippet> snippets = store.recall(LongTermMemoryStore.userId(config), query, topK, minScore);
+        if (snippets.isEmpty() && !hasRecall) {
+            // 没有召回结果，也没有需要清理的旧召回消息，无需更改
+            return new AgentCommand(previousMessages);
+        }
+
+        List<Message> newMessages = new ArrayList<>(previousMessages.size() + 1);
+        for (int i = 0; i < previousMessages.size(); i++) {
+            Message message = previousMessages.get(i);
+            if (i == lastUser && !snippets.isEmpty()) {
+                newMessages.add(recallMessage(snippets));
+            }
+            if (!isRecallMessage(message)) {
+                newMessages.add(message);
+            }
+        }
+        return new AgentCommand(newMessages, UpdatePolicy.REPLACE);
+    }
+
+    /**
+     * 是否为本 Hook 插入的召回消息
+     */
+    public static boolean isRecallMessage(Message message) {
+        return message.getMessageType() == MessageType.SYSTEM
+                && message.getMetadata() != null
+                && Boolean.TRUE.equals(message.getMetadata().get(RECALL_METADATA_KEY));
+    }
+
+    private static Message recallMessage(List<MemorySnippet> snippets) {
+        StringBuilder text = new StringBuilder("## 相关历史记忆:\n");
+        for (MemorySnippet snippet : snippets) {
+            text.append("- [").append(snippet.role()).append("] ").append(snippet.text()).append("\n");
+        }
+        return SystemMessage.builder()
+                .text(text.toString())
+                .metadata(Map.of(RECALL_METADATA_KEY, true))
+                .build();
+    }
+}
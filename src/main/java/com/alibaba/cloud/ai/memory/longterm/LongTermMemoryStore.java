@@ -0,0 +1,258 @@
+package com.alibaba.cloud.ai.memory.longterm;
+
+import com.alibaba.cloud.ai.graph.RunnableConfig;
+import com.alibaba.cloud.ai.memory.window.EvictionListener;
+import org.springframework.ai.chat.messages.Message;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 长期记忆存储
+ *
+ * 每个用户一个 HnswIndex，节点编号与 snippets 下标一一对应。
+ * 用户维度取 RunnableConfig 元数据中的 user_id，没有时退化为 threadId。
+ * 首次访问某个用户时从 MemoryPersistence 加载，调用 save / saveAll 时写回。
+ */
+public class LongTermMemoryStore {
+
+    public static final String USER_ID_METADATA_KEY = "user_id";
+
+    private static final String DEFAULT_USER = "__default__";
+
+    private final EmbeddingFunction embeddingFunction;
+    private final MemoryPersistence persistence;
+    private final int m;
+    private final int efConstruction;
+    private final int efSearch;
+    private final int minTextLength;
+
+    private final Map<String, UserMemory> memories = new ConcurrentHashMap<>();
+
+    private LongTermMemoryStore(Builder builder) {
+        this.embeddingFunction = builder.embeddingFunction;
+        this.persistence = builder.persistence;
+        this.m = builder.m;
+        this.efConstruction = builder.efConstruction;
+        this.efSearch = builder.efSearch;
+        this.minTextLength = builder.minTextLength;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static String userId(RunnableConfig config) {
+        return config.metadata(USER_ID_METADATA_KEY)
+                .map(String::valueOf)
+                .or(config::threadId)
+                .orElse(DEFAULT_USER);
+    }
+
+    /**
+     * 写入被移出上下文的消息，召回消息本身和过短的消息不写入
+     */
+    public void remember(String userId, List<Message> messages) {
+        UserMemory memory = memory(userId);
+        for (Message message : messages) {
+            String text = message.getText();
+            if (text == null || text.length() < minTextLength || LongTermMemoryHook.isRecallMessage(message)) {
+                continue;
+            }
+            float[] vector = embeddingFunction.embed(text);
+            MemorySnippet snippet = new MemorySnippet(message.getMessageType().getValue(), text,
+                    System.currentTimeMillis(), 0);
+            memory.add(vector, snippet);
+        }
+    }
+
+    /**
+     * 召回与 query 最相关的 topK 条片段，过滤掉相似度低于 minScore 的结果
+     */
+    public List<MemorySnippet> recall(String userId, String query, int topK, float minScore) {
+        UserMemory memory = memory(userId);
+        if (memory.index.size() == 0 || query == null || query.isBlank()) {
+            return List.of();
+        }
+        List<HnswIndex.SearchResult> results = memory.index.search(embeddingFunction.embed(query), topK);
+        List<MemorySnippet> snippets = new ArrayList<>(results.size());
+        for (HnswIndex.SearchResult result : results) {
+            if (result.score() < minScore) {
+                continue;
+            }
+            MemorySnippet snippet = memory.snippet(result.node());
+            if (snippet != null) {
+                snippets.add(snippet.withScore(result.score()));
+            }
+        }
+        return snippets;
+    }
+
+    /**
+     * 作为 MessageWindowHook 的淘汰回调使用
+     */
+    public EvictionListener evictionListener() {
+        return (config, evictedMessages) -> remember(userId(config), evictedMessages);
+    }
+
+    public int size(String userId) {
+        return memory(userId).index.size();
+    }
+
+    public void save(String userId) {
+        UserMemory memory = memories.get(userId);
+        if (memory != null && persistence != null) {
+            persistence.save(userId, memory.serialize());
+        }
+    }
+
+    public void saveAll() {
+        memories.keySet().forEach(this::save);
+    }
+
+    private UserMemory memory(String userId) {
+        return memories.computeIfAbsent(userId, this::loadOrCreate);
+    }
+
+    private UserMemory loadOrCreate(String userId) {
+        byte[] data = persistence == null ? null : persistence.load(userId);
+        if (data != null) {
+            return UserMemory.deserialize(data);
+        }
+        return new UserMemory(new HnswIndex(embeddingFunction.dimensions(), m, efConstruction, efSearch));
+    }
+
+    private static final class UserMemory {
+
+        private final HnswIndex index;
+        private final List<MemorySnippet> snippets;
+
+        private UserMemory(HnswIndex index) {
+            this(index, new ArrayList<>());
+        }
+
+        private UserMemory(HnswIndex index, List<MemorySnippet> snippets) {
+            this.index = index;
+            this.snippets = snippets;
+        }
+
+        /**
+         * 节点编号和片段下标需要保持一致，写入串行化
+         * 查询不获取该锁，所以先追加片段再写入索引，节点可被搜索到时对应的片段一定已经存在
+         */
+        private synchronized void add(float[] vector, MemorySnippet snippet) {
+            snippets.add(snippet);
+            try {
+                index.add(vector);
+            }
+            catch (RuntimeException e) {
+                snippets.remove(snippets.size() - 1);
+                throw e;
+            }
+        }
+
+        private synchronized MemorySnippet snippet(int node) {
+            return node < snippets.size() ? snippets.get(node) : null;
+        }
+
+        private synchronized byte[] serialize() {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (DataOutputStream out = new DataOutputStream(bytes)) {
+                index.writeTo(out);
+                out.writeInt(snippets.size());
+                for (MemorySnippet snippet : snippets) {
+                    out.writeUTF(snippet.role());
+                    byte[] text = snippet.text().getBytes(StandardCharsets.UTF_8);
+                    out.writeInt(text.length);
+                    out.write(text);
+                    out.writeLong(snippet.timestamp());
+                }
+            }
+            catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return bytes.toByteArray();
+        }
+
+        private static UserMemory deserialize(byte[] data) {
+            try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data))) {
+                HnswIndex index = HnswIndex.readFrom(in);
+                int count = in.readInt();
+                List<MemorySnippet> snippets = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) {
+                    String role = in.readUTF();
+                    byte[] text = new byte[in.readInt()];
+                    in.readFully(text);
+                    snippets.add(new MemorySnippet(role, new String(text, StandardCharsets.UTF_8),
+                            in.readLong(), 0));
+                }
+                return new UserMemory(index, snippets);
+            }
+            catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    public static class Builder {
+
+        private EmbeddingFunction embeddingFunction = new HashingEmbeddingFunction();
+        private MemoryPersistence persistence;
+        private int m = 16;
+        private int efConstruction = 200;
+        private int efSearch = 64;
+        private int minTextLength = 4;
+
+        public Builder embeddingFunction(EmbeddingFunction embeddingFunction) {
+            this.embeddingFunction = embeddingFunction;
+            return this;
+        }
+
+        /**
+         * 持久化方式：FileMemoryPersistence / RedisMemoryPersistence，不设置时只保存在内存
+         */
+        public Builder persistence(MemoryPersistence persistence) {
+            this.persistence = persistence;
+            return this;
+        }
+
+        /**
+         * HNSW 每层邻居数
+         */
+        public Builder m(int m) {
+            this.m = m;
+            return this;
+        }
+
+        public Builder efConstruction(int efConstruction) {
+            this.efConstruction = efConstruction;
+            return this;
+        }
+
+        public Builder efSearch(int efSearch) {
+            this.efSearch = efSearch;
+            return this;
+        }
+
+        /**
+         * 少于该长度的消息不写入长期记忆
+         */
+        public Builder minTextLength(int minTextLength) {
+            this.minTextLength = minTextLength;
+            return this;
+        }
+
+        public LongTermMemoryStore build() {
+            return new LongTermMemoryStore(this);
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.alibaba.cloud.ai.memory.longterm;
+
+/**
+ * 按用户持久化长期记忆索引
+ */
+public interface MemoryPersistence {
+
+    /**
+     * @return 序列化后的索引，不存在时返回 null
+     */
+    byte[] load(String userId);
+
+    void save(String userId, byte[] data);
+}
@@ -0,0 +1,16 @@
+package com.alibaba.cloud.ai.memory.longterm;
+
+/**
+ * 长期记忆中的一条历史片段
+ *
+ * @param role      原消息类型（user / assistant / tool）
+ * @param text      原文
+ * @param timestamp 写入时间（毫秒）
+ * @param score     查询时的相似度，存储时为 0
+ */
+public record MemorySnippet(String role, String text, long timestamp, float score) {
+
+    MemorySnippet withScore(float score) {
+        return new MemorySnippet(role, text, timestamp, score);
+    }
+}
@@ -0,0 +1,37 @@
+package com.alibaba.cloud.ai.memory.longterm;
+
+import org.redisson.api.RBucket;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.ByteArrayCodec;
+
+/**
+ * Redis 持久化，每个用户一个二进制 key
+ */
+public class RedisMemoryPersistence implements MemoryPersistence {
+
+    private final RedissonClient redisson;
+    private final String keyPrefix;
+
+    public RedisMemoryPersistence(RedissonClient redisson) {
+        this(redisson, "agent:long_term_memory:");
+    }
+
+    public RedisMemoryPersistence(RedissonClient redisson, String keyPrefix) {
+        this.redisson = redisson;
+        this.keyPrefix = keyPrefix;
+    }
+
+    @Override
+    public byte[] load(String userId) {
+        return bucket(userId).get();
+    }
+
+    @Override
+    public void save(String userId, byte[] data) {
+        bucket(userId).set(data);
+    }
+
+    private RBucket<byte[]> bucket(String userId) {
+        return redisson.getBucket(keyPrefix + userId, ByteArrayCodec.INSTANCE);
+    }
+}
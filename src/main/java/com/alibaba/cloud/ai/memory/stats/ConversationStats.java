@@ -0,0 +1,208 @@
+package com.alibaba.cloud.ai.memory.stats;
+
+import com.alibaba.cloud.ai.common.MessageDigests;
+import com.alibaba.cloud.ai.common.TokenEstimator;
+import com.alibaba.cloud.ai.graph.OverAllState;
+import com.alibaba.cloud.ai.graph.agent.tools.ToolContextConstants;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.MessageType;
+import org.springframework.ai.chat.model.ToolContext;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 会话统计，保存在状态的 {@link #STATE_KEY} 下
+ *
+ * 由 ConversationStatsHook 随消息追加增量维护，读取时不需要扫描消息历史。
+ * 对象不可变，每次更新生成新实例，可以安全地随检查点保存。
+ */
+public final class ConversationStats implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    public static final String STATE_KEY = "conversation_stats";
+
+    public static final ConversationStats EMPTY =
+            new ConversationStats(0, 0, 0, 0, 0, Map.of(), 0, 0, 0);
+
+    private final int userMessages;
+    private final int assistantMessages;
+    private final int toolMessages;
+    private final int systemMessages;
+    private final long totalTokens;
+    private final Map<String, Integer> toolCalls;
+    private final long lastActivity;
+
+    // 已统计到的消息位置，用于判断状态中的消息列表是否只在末尾追加
+    private final int syncedSize;
+    private final int syncedTail;
+
+    private ConversationStats(int userMessages, int assistantMessages, int toolMessages, int systemMessages,
+                              long totalTokens, Map<String, Integer> toolCalls, long lastActivity,
+                              int syncedSize, int syncedTail) {
+        this.userMessages = userMessages;
+        this.assistantMessages = assistantMessages;
+        this.toolMessages = toolMessages;
+        this.systemMessages = systemMessages;
+        this.totalTokens = totalTokens;
+        this.toolCalls = toolCalls;
+        this.lastActivity = lastActivity;
+        this.syncedSize = syncedSize;
+        this.syncedTail = syncedTail;
+    }
+
+    /**
+     * 状态中的统计，没有时返回 EMPTY
+     */
+    public static ConversationStats from(OverAllState state) {
+        return state.value(STATE_KEY)
+                .filter(ConversationStats.class::isInstance)
+                .map(ConversationStats.class::cast)
+                .orElse(EMPTY);
+    }
+
+    /**
+     * 工具中读取当前会话的统计
+     */
+    public static ConversationStats from(ToolContext toolContext) {
+        Object state = toolContext.getContext().get(ToolContextConstants.AGENT_STATE_CONTEXT_KEY);
+        return state instanceof OverAllState overAllState ? from(overAllState) : EMPTY;
+    }
+
+    /**
+     * 按当前消息列表更新统计
+     *
+     * 上次统计到的末尾消息仍在原位置时只统计新增部分；消息被替换（例如窗口裁剪、摘要）时重新统计。
+     * 消息没有变化时返回当前实例。
+     */
+    public ConversationStats update(List<Message> messages, TokenEstimator tokenEstimator, long now) {
+        int size = messages.size();
+        boolean appendOnly = syncedSize > 0 && size >= syncedSize
+                && fingerprint(messages.get(syncedSize - 1)) == syncedTail;
+        if (appendOnly && size == syncedSize) {
+            return this;
+        }
+        Counter counter = appendOnly ? new Counter(this) : new Counter(EMPTY);
+        for (int i = appendOnly ? syncedSize : 0; i < size; i++) {
+            counter.add(messages.get(i), tokenEstimator);
+        }
+        int tail = size > 0 ? fingerprint(messages.get(size - 1)) : 0;
+        return counter.toStats(now, size, tail);
+    }
+
+    public int messages(MessageType type) {
+        return switch (type) {
+            case USER -> userMessages;
+            case ASSISTANT -> assistantMessages;
+            case TOOL -> toolMessages;
+            case SYSTEM -> systemMessages;
+        };
+    }
+
+    public int userMessages() {
+        return userMessages;
+    }
+
+    public int assistantMessages() {
+        return assistantMessages;
+    }
+
+    public int toolMessages() {
+        return toolMessages;
+    }
+
+    public int systemMessages() {
+        return systemMessages;
+    }
+
+    public int totalMessages() {
+        return userMessages + assistantMessages + toolMessages + systemMessages;
+    }
+
+    /**
+     * 当前消息列表的估算 token 数
+     */
+    public long totalTokens() {
+        return totalTokens;
+    }
+
+    /**
+     * 当前消息列表中各工具被模型调用的次数
+     */
+    public Map<String, Integer> toolCalls() {
+        return toolCalls;
+    }
+
+    public int toolCalls(String toolName) {
+        return toolCalls.getOrDefault(toolName, 0);
+    }
+
+    /**
+     * 最后一次消息变化的时间（epoch 毫秒），没有消息时为 0
+     */
+    public long lastActivity() {
+        return lastActivity;
+    }
+
+    @Override
+    public String toString() {
+        return "ConversationStats{user=" + userMessages + ", assistant=" + assistantMessages
+                + ", tool=" + toolMessages + ", system=" + systemMessages + ", tokens=" + totalTokens
+                + ", toolCalls=" + toolCalls + ", lastActivity=" + lastActivity + "}";
+    }
+
+    /**
+     * 只依赖消息内容（含工具调用和工具结果），检查点恢复后仍然一致；
+     * 工具调用和工具结果消息的文本通常为空，只比较文本会让它们的指纹全部相同
+     */
+    private static int fingerprint(Message message) {
+        return MessageDigests.fingerprint(message);
+    }
+
+    private static final class Counter {
+
+        private int userMessages;
+        private int assistantMessages;
+        private int toolMessages;
+        private int systemMessages;
+        private long totalTokens;
+        private final Map<String, Integer> toolCalls;
+
+        private Counter(ConversationStats base) {
+            this.userMessages = base.userMessages;
+            this.assistantMessages = base.assistantMessages;
+            this.toolMessages = base.toolMessages;
+            this.systemMessages = base.systemMessages;
+            this.totalTokens = base.totalTokens;
+            this.toolCalls = new LinkedHashMap<>(base.toolCalls);
+        }
+
+        private void add(Message message, TokenEstimator tokenEstimator) {
+            switch (message.getMessageType()) {
+                case USER -> userMessages++;
+                case ASSISTANT -> {
+                    assistantMessages++;
+                    if (message instanceof AssistantMessage assistantMessage) {
+                        for (AssistantMessage.ToolCall toolCall : assistantMessage.getToolCalls()) {
+                            toolCalls.merge(toolCall.name(), 1, Integer::sum);
+                        }
+                    }
+                }
+                case TOOL -> toolMessages++;
+                case SYSTEM -> systemMessages++;
+            }
+            totalTokens += tokenEstimator.estimate(message);
+        }
+
+        private ConversationStats toStats(long now, int syncedSize, int syncedTail) {
+            return new ConversationStats(userMessages, assistantMessages, toolMessages, systemMessages,
+                    totalTokens, Collections.unmodifiableMap(toolCalls), syncedSize > 0 ? now : 0,
+                    syncedSize, syncedTail);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.alibaba.cloud.ai.memory.stats;
+
+import com.alibaba.cloud.ai.common.TokenEstimator;
+import com.alibaba.cloud.ai.graph.OverAllState;
+import com.alibaba.cloud.ai.graph.RunnableConfig;
+import com.alibaba.cloud.ai.graph.agent.hook.HookPosition;
+import com.alibaba.cloud.ai.graph.agent.hook.HookPositions;
+import com.alibaba.cloud.ai.graph.agent.hook.ModelHook;
+import com.alibaba.cloud.ai.hook.StateAccess;
+import org.springframework.ai.chat.messages.Message;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 会话统计 Hook
+ *
+ * 模型调用前统计新增的用户消息和工具结果，模型调用后统计新的 AI 消息，结果写入状态的
+ * {@link ConversationStats#STATE_KEY}。每次只处理上次之后追加的消息，消息被替换时才重新统计。
+ * 工具通过 {@link ConversationStats#from(org.springframework.ai.chat.model.ToolContext)}、
+ * Hook 通过 {@link ConversationStats#from(OverAllState)} 读取，不需要扫描消息历史。
+ *
+ * 只读写 messages 和统计 key，可以放进 ParallelModelHook 与其他 Hook 并行执行。
+ */
+@HookPositions({HookPosition.BEFORE_MODEL, HookPosition.AFTER_MODEL})
+public class ConversationStatsHook extends ModelHook implements StateAccess {
+
+    private final TokenEstimator tokenEstimator;
+
+    public ConversationStatsHook() {
+        this(TokenEstimator.DEFAULT);
+    }
+
+    public ConversationStatsHook(TokenEstimator tokenEstimator) {
+        this.tokenEstimator = tokenEstimator;
+    }
+
+    @Override
+    public String getName() {
+        return "conversation_stats";
+    }
+
+    @Override
+    public HookPosition[] getHookPositions() {
+        return new HookPosition[] {HookPosition.BEFORE_MODEL, HookPosition.AFTER_MODEL};
+    }
+
+    @Override
+    public Set<String> readKeys() {
+        return Set.of("messages", ConversationStats.STATE_KEY);
+    }
+
+    @Override
+    public Set<String> writeKeys() {
+        return Set.of(ConversationStats.STATE_KEY);
+    }
+
+    @Override
+    public CompletableFuture<Map<String, Object>> beforeModel(OverAllState state, RunnableConfig config) {
+        return CompletableFuture.completedFuture(update(state));
+    }
+
+    @Override
+    public CompletableFuture<Map<String, Object>> afterModel(OverAllState state, RunnableConfig config) {
+        return CompletableFuture.completedFuture(update(state));
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> update(OverAllState state) {
+        List<Message> messages = state.value("messages")
+                .map(value -> (List<Message>) value)
+                .orElse(List.of());
+        ConversationStats current = ConversationStats.from(state);
+        ConversationStats updated = current.update(messages, tokenEstimator, System.currentTimeMillis());
+        return updated == current ? Map.of() : Map.of(ConversationStats.STATE_KEY, updated);
+    }
+}
@@ -0,0 +1,15 @@
+package com.alibaba.cloud.ai.memory.window;
+
+import com.alibaba.cloud.ai.graph.RunnableConfig;
+import org.springframework.ai.chat.messages.Message;
+
+import java.util.List;
+
+/**
+ * 消息被移出上下文窗口时的回调
+ */
+@FunctionalInterface
+public interface EvictionListener {
+
+    void onEvict(RunnableConfig config, List<Message> evictedMessages);
+}
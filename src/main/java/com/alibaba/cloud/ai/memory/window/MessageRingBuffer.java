@@ -0,0 +1,180 @@
+package com.alibaba.cloud.ai.memory.window;
+
+import com.alibaba.cloud.ai.common.TokenEstimator;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.MessageType;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.Set;
+
+/**
+ * 消息环形缓冲区
+ *
+ * 按追加顺序保存最近 capacity 条消息，超出容量时覆盖最早的消息。
+ * 开头连续的 pinTypes 消息（每种类型只取第一条，例如开头的 system / user 消息）会被固定，不参与淘汰；
+ * 出现第一条不固定的消息后不再固定，之后出现的同类型消息（对话中途的 system 消息、召回的记忆等）按原位置保存，
+ * 不会被提到前面。固定的 AI 消息带有工具调用时，紧随其后的工具响应一并固定。
+ * 每条消息的 token 数在追加时计算一次并缓存，按 token 截取窗口时不再重复估算。
+ *
+ * 非线程安全，由调用方按会话加锁。
+ */
+public class MessageRingBuffer extends AbstractList<Message> implements RandomAccess {
+
+    private final Message[] slots;
+    private final int[] slotTokens;
+    private Message[] pinned;
+    private int[] pinnedTokens;
+    private final Set<MessageType> pinTypes;
+    private final Set<MessageType> remainingPinTypes;
+    private final TokenEstimator estimator;
+
+    private int head;
+    private int count;
+    private int pinnedCount;
+    private boolean pinnedToolCalls;
+
+    public MessageRingBuffer(int capacity, Set<MessageType> pinTypes, TokenEstimator estimator) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        this.slots = new Message[capacity];
+        this.slotTokens = new int[capacity];
+        this.pinTypes = pinTypes.isEmpty() ? EnumSet.noneOf(MessageType.class) : EnumSet.copyOf(pinTypes);
+        this.remainingPinTypes = EnumSet.copyOf(this.pinTypes);
+        this.pinned = new Message[this.pinTypes.size()];
+        this.pinnedTokens = new int[this.pinTypes.size()];
+        this.estimator = estimator;
+    }
+
+    /**
+     * 追加一条消息
+     *
+     * @return 被覆盖淘汰的消息，没有淘汰时返回 null
+     */
+    public Message append(Message message) {
+        int tokens = estimator.estimate(message);
+        if (count == 0 && isPinned(message)) {
+            if (pinnedCount == pinned.length) {
+                pinned = Arrays.copyOf(pinned, pinnedCount + 4);
+                pinnedTokens = Arrays.copyOf(pinnedTokens, pinnedCount + 4);
+            }
+            pinned[pinnedCount] = message;
+            pinnedTokens[pinnedCount] = tokens;
+            pinnedCount++;
+            return null;
+        }
+        int tail = (head + count) % slots.length;
+        Message evicted = null;
+        if (count == slots.length) {
+            evicted = slots[head];
+            head = (head + 1) % slots.length;
+        }
+        else {
+            count++;
+        }
+        slots[tail] = message;
+        slotTokens[tail] = tokens;
+        return evicted;
+    }
+
+    /**
+     * 还没有不固定的消息时才会调用：工具响应跟随固定的工具调用，其余消息按类型固定
+     */
+    private boolean isPinned(Message message) {
+        if (message.getMessageType() == MessageType.TOOL) {
+            return pinnedToolCalls;
+        }
+        if (!remainingPinTypes.remove(message.getMessageType())) {
+            return false;
+        }
+        pinnedToolCalls = message instanceof AssistantMessage assistantMessage && assistantMessage.hasToolCalls();
+        return true;
+    }
+
+    public void appendAll(List<Message> messages) {
+        for (int i = 0; i < messages.size(); i++) {
+            append(messages.get(i));
+        }
+    }
+
+    @Override
+    public void clear() {
+        for (int i = 0; i < slots.length; i++) {
+            slots[i] = null;
+        }
+        for (int i = 0; i < pinned.length; i++) {
+            pinned[i] = null;
+        }
+        head = 0;
+        count = 0;
+        pinnedCount = 0;
+        pinnedToolCalls = false;
+        remainingPinTypes.addAll(pinTypes);
+    }
+
+    /**
+     * 固定消息 + 最近 maxMessages 条消息的视图
+     */
+    public List<Message> lastMessages(int maxMessages) {
+        return MessageWindow.lastMessages(this, pinnedCount, maxMessages);
+    }
+
+    /**
+     * 固定消息 + 最近不超过 maxTokens 个 token 的消息视图，使用缓存的 token 数
+     * 最新一条消息（及其对应的工具调用）总是保留，即使单独超出预算
+     */
+    public List<Message> lastTokens(int maxTokens) {
+        int start = size();
+        int budget = maxTokens;
+        while (start > pinnedCount) {
+            int tokens = tokensAt(start - 1);
+            if (tokens > budget) {
+                break;
+            }
+            budget -= tokens;
+            start--;
+        }
+        return MessageWindow.view(this, pinnedCount, MessageWindow.keepNewest(this, pinnedCount, start));
+    }
+
+    public int pinnedCount() {
+        return pinnedCount;
+    }
+
+    public int capacity() {
+        return slots.length;
+    }
+
+    /**
+     * 当前保存的全部消息（含固定消息）的 token 总数
+     */
+    public int totalTokens() {
+        int total = 0;
+        for (int i = 0; i < size(); i++) {
+            total += tokensAt(i);
+        }
+        return total;
+    }
+
+    int tokensAt(int index) {
+        return index < pinnedCount ? pinnedTokens[index] : slotTokens[(head + index - pinnedCount) % slots.length];
+    }
+
+    @Override
+    public Message get(int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+        }
+        return index < pinnedCount ? pinned[index] : slots[(head + index - pinnedCount) % slots.length];
+    }
+
+    @Override
+    public int size() {
+        return pinnedCount + count;
+    }
+}
@@ -0,0 +1,121 @@
+package com.alibaba.cloud.ai.memory.window;
+
+import com.alibaba.cloud.ai.common.TokenEstimator;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.MessageType;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * 消息窗口
+ *
+ * 在任意 RandomAccess 消息列表上计算 "固定消息 + 最近 N 条 / 最近 T 个 token" 的零拷贝视图。
+ * 窗口起点会跳过开头的 ToolResponseMessage，固定消息以工具调用结尾时固定范围延伸到紧随其后的工具响应，
+ * 保证工具调用和工具响应不会被拆开。
+ */
+public final class MessageWindow {
+
+    private MessageWindow() {
+    }
+
+    /**
+     * 保留前 pinnedCount 条消息和最近 maxMessages 条消息
+     */
+    public static List<Message> lastMessages(List<Message> source, int pinnedCount, int maxMessages) {
+        int pinned = pinnedEnd(source, pinnedCount);
+        int start = Math.max(pinned, source.size() - Math.max(maxMessages, 0));
+        return view(source, pinned, start);
+    }
+
+    /**
+     * 保留前 pinnedCount 条消息和最近不超过 maxTokens 个 token 的消息（固定消息不计入预算），
+     * 最新一条消息总是保留
+     */
+    public static List<Message> lastTokens(List<Message> source, int pinnedCount, int maxTokens,
+                                           TokenEstimator estimator) {
+        int pinned = pinnedEnd(source, pinnedCount);
+        int start = source.size();
+        int budget = maxTokens;
+        while (start > pinned) {
+            int tokens = estimator.estimate(source.get(start - 1));
+            if (tokens > budget) {
+                break;
+            }
+            budget -= tokens;
+            start--;
+        }
+        return view(source, pinned, keepNewest(source, pinned, start));
+    }
+
+    /**
+     * 固定范围的终点：最后一条固定消息是工具调用时，把紧随其后的工具响应也算作固定消息
+     */
+    static int pinnedEnd(List<Message> source, int pinnedCount) {
+        int pinned = Math.min(Math.max(pinnedCount, 0), source.size());
+        return pinned == 0 ? 0 : alignStart(source, pinned);
+    }
+
+    /**
+     * 构建 [0, pinned) + [start, size) 的视图，start 会对齐到工具调用边界
+     */
+    static List<Message> view(List<Message> source, int pinned, int start) {
+        int aligned = alignStart(source, Math.max(start, pinned));
+        if (pinned == 0 && aligned == 0) {
+            return source;
+        }
+        return new View(source, pinned, aligned);
+    }
+
+    /**
+     * 最新一条消息单独就超出预算时仍然保留它；最新消息是工具响应时连同发起调用的 AI 消息一起保留
+     */
+    static int keepNewest(List<Message> source, int pinned, int start) {
+        if (source.size() <= pinned || alignStart(source, Math.max(start, pinned)) < source.size()) {
+            return start;
+        }
+        int newest = source.size() - 1;
+        while (newest > pinned && source.get(newest).getMessageType() == MessageType.TOOL) {
+            newest--;
+        }
+        return newest;
+    }
+
+    /**
+     * 窗口不能以 ToolResponseMessage 开头，否则对应的工具调用消息已经被移出窗口
+     */
+    static int alignStart(List<Message> source, int start) {
+        int aligned = start;
+        while (aligned < source.size() && source.get(aligned).getMessageType() == MessageType.TOOL) {
+            aligned++;
+        }
+        return aligned;
+    }
+
+    private static final class View extends AbstractList<Message> implements RandomAccess {
+
+        private final List<Message> source;
+        private final int pinned;
+        private final int start;
+
+        private View(List<Message> source, int pinned, int start) {
+            this.source = source;
+            this.pinned = pinned;
+            this.start = start;
+        }
+
+        @Override
+        public Message get(int index) {
+            if (index < 0 || index >= size()) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+            }
+            return index < pinned ? source.get(index) : source.get(start + index - pinned);
+        }
+
+        @Override
+        public int size() {
+            return pinned + source.size() - start;
+        }
+    }
+}
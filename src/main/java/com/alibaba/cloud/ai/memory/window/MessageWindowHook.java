@@ -0,0 +1,275 @@
+package com.alibaba.cloud.ai.memory.window;
+
+import com.alibaba.cloud.ai.common.TokenEstimator;
+import com.alibaba.cloud.ai.graph.RunnableConfig;
+import com.alibaba.cloud.ai.graph.agent.hook.HookPosition;
+import com.alibaba.cloud.ai.graph.agent.hook.HookPositions;
+import com.alibaba.cloud.ai.graph.agent.hook.messages.AgentCommand;
+import com.alibaba.cloud.ai.graph.agent.hook.messages.MessagesModelHook;
+import com.alibaba.cloud.ai.graph.agent.hook.messages.UpdatePolicy;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.MessageType;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 消息窗口 Hook
+ *
+ * 每个 threadId 维护一个 MessageRingBuffer，模型调用前只增量追加新消息，
+ * 然后按 maxMessages 或 maxTokens 截取窗口。窗口未发生变化时直接返回原始消息，不触发状态替换。
+ * 被移出窗口的消息会交给 EvictionListener（例如写入长期记忆）。
+ * 设置 batchEviction 后超出上限时一次多移出一批，之后几轮只追加，提示词前缀保持不变，便于复用 KV cache。
+ *
+ * 环形缓冲区只是状态中消息列表的增量缓存（MessagesModelHook 拿不到 OverAllState，无法放进状态），
+ * 超过 idleTimeout 未使用的会话缓存会被清理，会话再次活跃时从状态中的消息重建，结果不变。
+ */
+@HookPositions({HookPosition.BEFORE_MODEL})
+public class MessageWindowHook extends MessagesModelHook {
+
+    private static final String DEFAULT_THREAD = "__default__";
+
+    private final int capacity;
+    private final int maxMessages;
+    private final int maxTokens;
+    private final double batchEviction;
+    private final Set<MessageType> pinTypes;
+    private final TokenEstimator tokenEstimator;
+    private final EvictionListener evictionListener;
+    private final long idleTimeoutNanos;
+
+    private final Map<String, ThreadWindow> windows = new ConcurrentHashMap<>();
+    private final AtomicLong nextSweep;
+
+    private MessageWindowHook(Builder builder) {
+        this.capacity = builder.capacity;
+        this.maxMessages = builder.maxMessages;
+        this.maxTokens = builder.maxTokens;
+        this.batchEviction = builder.batchEviction;
+        this.pinTypes = builder.pinTypes;
+        this.tokenEstimator = builder.tokenEstimator;
+        this.evictionListener = builder.evictionListener;
+        this.idleTimeoutNanos = builder.idleTimeout.toNanos();
+        this.nextSweep = new AtomicLong(System.nanoTime() + idleTimeoutNanos);
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    @Override
+    public String getName() {
+        return "message_window";
+    }
+
+    @Override
+    public AgentCommand beforeModel(List<Message> previousMessages, RunnableConfig config) {
+        String threadId = config.threadId().orElse(DEFAULT_THREAD);
+        long now = System.nanoTime();
+        sweepIdle(now);
+        ThreadWindow window = windows.computeIfAbsent(threadId,
+                key -> new ThreadWindow(new MessageRingBuffer(capacity, pinTypes, tokenEstimator)));
+        window.lastAccess = now;
+
+        List<Message> trimmedMessages;
+        synchronized (window) {
+            window.sync(previousMessages);
+            List<Message> view = window(window.buffer, 1.0);
+
+            if (view.size() == previousMessages.size()) {
+                // 窗口覆盖全部消息，无需更改
+                return new AgentCommand(previousMessages);
+            }
+            if (batchEviction > 0) {
+                view = window(window.buffer, 1 - batchEviction);
+            }
+
+            // 写回状态时只物化一次
+            trimmedMessages = new ArrayList<>(view);
+            window.reset(trimmedMessages);
+        }
+        // 回调可能调用远程 EmbeddingModel，在锁外执行
+        if (evictionListener != null) {
+            evictionListener.onEvict(config, evicted(previousMessages, trimmedMessages));
+        }
+        return new AgentCommand(trimmedMessages, UpdatePolicy.REPLACE);
+    }
+
+    private List<Message> window(MessageRingBuffer buffer, double ratio) {
+        return maxTokens > 0
+                ? buffer.lastTokens((int) (maxTokens * ratio))
+                : buffer.lastMessages((int) (maxMessages * ratio));
+    }
+
+    private static List<Message> evicted(List<Message> previousMessages, List<Message> keptMessages) {
+        Set<Message> kept = Collections.newSetFromMap(new IdentityHashMap<>());
+        kept.addAll(keptMessages);
+        List<Message> evicted = new ArrayList<>(previousMessages.size() - keptMessages.size());
+        for (Message message : previousMessages) {
+            if (!kept.contains(message)) {
+                evicted.add(message);
+            }
+        }
+        return evicted;
+    }
+
+    /**
+     * 每隔 idleTimeout 扫描一次，清理期间没有使用的会话缓存
+     */
+    private void sweepIdle(long now) {
+        long due = nextSweep.get();
+        if (now - due < 0 || !nextSweep.compareAndSet(due, now + idleTimeoutNanos)) {
+            return;
+        }
+        windows.values().removeIf(window -> now - window.lastAccess > idleTimeoutNanos);
+    }
+
+    /**
+     * 当前缓存的会话数
+     */
+    public int cachedThreads() {
+        return windows.size();
+    }
+
+    /**
+     * 丢弃某个会话的窗口缓存
+     */
+    public void evict(String threadId) {
+        windows.remove(threadId);
+    }
+
+    private static final class ThreadWindow {
+
+        private final MessageRingBuffer buffer;
+        private volatile long lastAccess;
+        private int syncedSize;
+        private Message syncedTail;
+
+        private ThreadWindow(MessageRingBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        /**
+         * 状态中的消息列表通常只在末尾追加；如果上次同步的末尾消息仍在原位置，只追加新增部分，否则重建
+         */
+        private void sync(List<Message> messages) {
+            int size = messages.size();
+            if (syncedSize > 0 && size >= syncedSize && Objects.equals(messages.get(syncedSize - 1), syncedTail)) {
+                for (int i = syncedSize; i < size; i++) {
+                    buffer.append(messages.get(i));
+                }
+            }
+            else {
+                buffer.clear();
+                buffer.appendAll(messages);
+            }
+            mark(messages);
+        }
+
+        private void reset(List<Message> messages) {
+            buffer.clear();
+            buffer.appendAll(messages);
+            mark(messages);
+        }
+
+        private void mark(List<Message> messages) {
+            syncedSize = messages.size();
+            syncedTail = syncedSize > 0 ? messages.get(syncedSize - 1) : null;
+        }
+    }
+
+    public static class Builder {
+
+        private int capacity = 256;
+        private int maxMessages = 20;
+        private int maxTokens;
+        private double batchEviction;
+        private Set<MessageType> pinTypes = EnumSet.of(MessageType.SYSTEM, MessageType.USER);
+        private TokenEstimator tokenEstimator = TokenEstimator.DEFAULT;
+        private EvictionListener evictionListener;
+        private Duration idleTimeout = Duration.ofMinutes(30);
+
+        /**
+         * 环形缓冲区容量，需不小于 maxMessages
+         */
+        public Builder capacity(int capacity) {
+            this.capacity = capacity;
+            return this;
+        }
+
+        /**
+         * 保留最近的消息条数（不含固定消息）
+         */
+        public Builder maxMessages(int maxMessages) {
+            this.maxMessages = maxMessages;
+            return this;
+        }
+
+        /**
+         * 保留最近消息的 token 上限，设置后优先于 maxMessages
+         */
+        public Builder maxTokens(int maxTokens) {
+            this.maxTokens = maxTokens;
+            return this;
+        }
+
+        /**
+         * 超出上限时一次裁剪到上限的 (1 - batchEviction)，取值 [0, 1)，默认 0 即每轮只移出超出的部分
+         */
+        public Builder batchEviction(double batchEviction) {
+            this.batchEviction = batchEviction;
+            return this;
+        }
+
+        /**
+         * 固定开头连续的这些类型的消息（每种类型第一条），默认固定开头的 system 和 user 消息
+         */
+        public Builder pin(MessageType... types) {
+            this.pinTypes = types.length == 0 ? EnumSet.noneOf(MessageType.class) : EnumSet.of(types[0], types);
+            return this;
+        }
+
+        public Builder tokenEstimator(TokenEstimator tokenEstimator) {
+            this.tokenEstimator = tokenEstimator;
+            return this;
+        }
+
+        /**
+         * 消息被移出窗口时的回调
+         */
+        public Builder evictionListener(EvictionListener evictionListener) {
+            this.evictionListener = evictionListener;
+            return this;
+        }
+
+        /**
+         * 会话缓存的空闲过期时间，默认 30 分钟
+         */
+        public Builder idleTimeout(Duration idleTimeout) {
+            this.idleTimeout = idleTimeout;
+            return this;
+        }
+
+        public MessageWindowHook build() {
+            if (batchEviction < 0 || batchEviction >= 1) {
+                throw new IllegalArgumentException("batchEviction must be in [0, 1)");
+            }
+            if (idleTimeout == null || idleTimeout.isNegative() || idleTimeout.isZero()) {
+                throw new IllegalArgumentException("idleTimeout must be positive");
+            }
+            if (maxTokens <= 0 && capacity < maxMessages) {
+                throw new IllegalArgumentException("capacity must not be less than maxMessages");
+            }
+            return new MessageWindowHook(this);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.alibaba.cloud.ai.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 单个 Hook / Interceptor 的调用次数、错误次数和延迟分布
+ */
+public class ComponentMetrics {
+
+    private final String kind;
+    private final String name;
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final LongAdder invocations = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+
+    ComponentMetrics(String kind, String name) {
+        this.kind = kind;
+        this.name = name;
+    }
+
+    public void record(long nanos, boolean error) {
+        invocations.increment();
+        if (error) {
+            errors.increment();
+        }
+        latency.record(nanos);
+    }
+
+    public String kind() {
+        return kind;
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public LatencyHistogram latency() {
+        return latency;
+    }
+
+    public long invocations() {
+        return invocations.sum();
+    }
+
+    public long errors() {
+        return errors.sum();
+    }
+
+    public Snapshot snapshot() {
+        return new Snapshot(kind, name, invocations(), errors(), latency.snapshot());
+    }
+
+    public record Snapshot(String kind, String name, long invocations, long errors,
+                           LatencyHistogram.Snapshot latency) {
+
+        @Override
+        public String toString() {
+            return String.format("%s[%s] calls=%d errors=%d p50=%.3fms p99=%.3fms max=%.3fms",
+                    kind, name, invocations, errors,
+                    latency.p50Nanos() / 1e6, latency.p99Nanos() / 1e6, latency.maxNanos() / 1e6);
+        }
+    }
+}
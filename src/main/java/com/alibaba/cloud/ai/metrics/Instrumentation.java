@@ -0,0 +1,211 @@
+package com.alibaba.cloud.ai.metrics;
+
+import com.alibaba.cloud.ai.graph.OverAllState;
+import com.alibaba.cloud.ai.graph.RunnableConfig;
+import com.alibaba.cloud.ai.graph.agent.hook.AgentHook;
+import com.alibaba.cloud.ai.graph.agent.hook.HookPosition;
+import com.alibaba.cloud.ai.graph.agent.hook.ModelHook;
+import com.alibaba.cloud.ai.graph.agent.hook.messages.AgentCommand;
+import com.alibaba.cloud.ai.graph.agent.hook.messages.MessagesModelHook;
+import com.alibaba.cloud.ai.graph.agent.interceptor.ModelCallHandler;
+import com.alibaba.cloud.ai.graph.agent.interceptor.ModelInterceptor;
+import com.alibaba.cloud.ai.graph.agent.interceptor.ModelRequest;
+import com.alibaba.cloud.ai.graph.agent.interceptor.ModelResponse;
+import com.alibaba.cloud.ai.graph.agent.interceptor.ToolCallHandler;
+import com.alibaba.cloud.ai.graph.agent.interceptor.ToolCallRequest;
+import com.alibaba.cloud.ai.graph.agent.interceptor.ToolCallResponse;
+import com.alibaba.cloud.ai.graph.agent.interceptor.ToolInterceptor;
+import org.springframework.ai.chat.messages.Message;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * 为 Hook / Interceptor 套上计时包装，名称、HookPosition 保持不变
+ *
+ * 异步 Hook 的耗时统计到 CompletableFuture 完成为止。
+ * HumanInTheLoopHook 等框架按类型识别的内置 Hook 不要包装。
+ */
+public final class Instrumentation {
+
+    public static final String MODEL_HOOK = "model_hook";
+    public static final String MESSAGES_MODEL_HOOK = "messages_model_hook";
+    public static final String AGENT_HOOK = "agent_hook";
+    public static final String MODEL_INTERCEPTOR = "model_interceptor";
+    public static final String TOOL_INTERCEPTOR = "tool_interceptor";
+
+    private Instrumentation() {
+    }
+
+    public static ModelHook instrument(ModelHook hook, AgentMetrics metrics) {
+        ComponentMetrics component = metrics.component(MODEL_HOOK, hook.getName());
+        return new ModelHook() {
+            @Override
+            public String getName() {
+                return hook.getName();
+            }
+
+            @Override
+            public HookPosition[] getHookPositions() {
+                return hook.getHookPositions();
+            }
+
+            @Override
+            public CompletableFuture<Map<String, Object>> beforeModel(OverAllState state, RunnableConfig config) {
+                return timeAsync(metrics, component, () -> hook.beforeModel(state, config));
+            }
+
+            @Override
+            public CompletableFuture<Map<String, Object>> afterModel(OverAllState state, RunnableConfig config) {
+                return timeAsync(metrics, component, () -> hook.afterModel(state, config));
+            }
+        };
+    }
+
+    public static AgentHook instrument(AgentHook hook, AgentMetrics metrics) {
+        ComponentMetrics component = metrics.component(AGENT_HOOK, hook.getName());
+        return new AgentHook() {
+            @Override
+            public String getName() {
+                return hook.getName();
+            }
+
+            @Override
+            public HookPosition[] getHookPositions() {
+                return hook.getHookPositions();
+            }
+
+            @Override
+            public CompletableFuture<Map<String, Object>> beforeAgent(OverAllState state, RunnableConfig config) {
+                return timeAsync(metrics, component, () -> hook.beforeAgent(state, config));
+            }
+
+            @Override
+            public CompletableFuture<Map<String, Object>> afterAgent(OverAllState state, RunnableConfig config) {
+                return timeAsync(metrics, component, () -> hook.afterAgent(state, config));
+            }
+        };
+    }
+
+    public static MessagesModelHook instrument(MessagesModelHook hook, AgentMetrics metrics) {
+        ComponentMetrics component = metrics.component(MESSAGES_MODEL_HOOK, hook.getName());
+        return new MessagesModelHook() {
+            @Override
+            public String getName() {
+                return hook.getName();
+            }
+
+            @Override
+            public HookPosition[] getHookPositions() {
+                return hook.getHookPositions();
+            }
+
+            @Override
+            public AgentCommand beforeModel(List<Message> previousMessages, RunnableConfig config) {
+                return time(metrics, component, () -> hook.beforeModel(previousMessages, config));
+            }
+
+            @Override
+            public AgentCommand afterModel(List<Message> previousMessages, RunnableConfig config) {
+                return time(metrics, component, () -> hook.afterModel(previousMessages, config));
+            }
+        };
+    }
+
+    public static ModelInterceptor instrument(ModelInterceptor interceptor, AgentMetrics metrics) {
+        ComponentMetrics component = metrics.component(MODEL_INTERCEPTOR, interceptor.getName());
+        return new ModelInterceptor() {
+            @Override
+            public ModelResponse interceptModel(ModelRequest request, ModelCallHandler handler) {
+                // 只统计拦截器自身，不含下游模型调用
+                if (!metrics.isEnabled()) {
+                    return interceptor.interceptModel(request, handler);
+                }
+                long[] downstream = new long[1];
+                ModelCallHandler timedHandler = downstreamRequest -> {
+                    long start = System.nanoTime();
+                    try {
+                        return handler.call(downstreamRequest);
+                    }
+                    finally {
+                        downstream[0] += System.nanoTime() - start;
+                    }
+                };
+                return time(metrics, component, downstream, () -> interceptor.interceptModel(request, timedHandler));
+            }
+
+            @Override
+            public String getName() {
+                return interceptor.getName();
+            }
+        };
+    }
+
+    public static ToolInterceptor instrument(ToolInterceptor interceptor, AgentMetrics metrics) {
+        ComponentMetrics component = metrics.component(TOOL_INTERCEPTOR, interceptor.getName());
+        return new ToolInterceptor() {
+            @Override
+            public ToolCallResponse interceptToolCall(ToolCallRequest request, ToolCallHandler handler) {
+                // 只统计拦截器自身，不含下游工具执行
+                if (!metrics.isEnabled()) {
+                    return interceptor.interceptToolCall(request, handler);
+                }
+                long[] downstream = new long[1];
+                ToolCallHandler timedHandler = downstreamRequest -> {
+                    long start = System.nanoTime();
+                    try {
+                        return handler.call(downstreamRequest);
+                    }
+                    finally {
+                        downstream[0] += System.nanoTime() - start;
+                    }
+                };
+                return time(metrics, component, downstream, () -> interceptor.interceptToolCall(request, timedHandler));
+            }
+
+            @Override
+            public String getName() {
+                return interceptor.getName();
+            }
+        };
+    }
+
+    private static <T> T time(AgentMetrics metrics, ComponentMetrics component, Supplier<T> call) {
+        if (!metrics.isEnabled()) {
+            return call.get();
+        }
+        return time(metrics, component, new long[1], call);
+    }
+
+    private static <T> T time(AgentMetrics metrics, ComponentMetrics component, long[] excludedNanos, Supplier<T> call) {
+        long start = System.nanoTime();
+        boolean error = true;
+        try {
+            T result = call.get();
+            error = false;
+            return result;
+        }
+        finally {
+            component.record(System.nanoTime() - start - excludedNanos[0], error);
+        }
+    }
+
+    private static CompletableFuture<Map<String, Object>> timeAsync(AgentMetrics metrics, ComponentMetrics component,
+            Supplier<CompletableFuture<Map<String, Object>>> call) {
+        if (!metrics.isEnabled()) {
+            return call.get();
+        }
+        long start = System.nanoTime();
+        CompletableFuture<Map<String, Object>> future;
+        try {
+            future = call.get();
+        }
+        catch (RuntimeException e) {
+            component.record(System.nanoTime() - start, true);
+            throw e;
+        }
+        return future.whenComplete((result, error) -> component.record(System.nanoTime() - start, error != null));
+    }
+}
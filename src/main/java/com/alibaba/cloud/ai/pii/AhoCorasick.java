@@ -0,0 +1,162 @@
+package com.alibaba.cloud.ai.pii;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 不区分大小写的 Aho-Corasick 词典自动机
+ *
+ * 构建后转换为紧凑数组：每个状态的出边按字符排序，查找用二分。构建后只读，可多线程共享。
+ */
+final class AhoCorasick {
+
+    private static final char[] NO_CHARS = new char[0];
+    private static final int[] NO_TARGETS = new int[0];
+
+    private final char[][] edgeChars;
+    private final int[][] edgeTargets;
+    private final int[] fail;
+    private final int[] output;
+    private final int[] outputLink;
+    private final int[] depth;
+    private final int[] patternLengths;
+    private final String[] patternLabels;
+
+    private AhoCorasick(char[][] edgeChars, int[][] edgeTargets, int[] fail, int[] output, int[] outputLink,
+                        int[] depth, int[] patternLengths, String[] patternLabels) {
+        this.edgeChars = edgeChars;
+        this.edgeTargets = edgeTargets;
+        this.fail = fail;
+        this.output = output;
+        this.outputLink = outputLink;
+        this.depth = depth;
+        this.patternLengths = patternLengths;
+        this.patternLabels = patternLabels;
+    }
+
+    static AhoCorasick build(List<String> patterns, List<String> labels) {
+        List<TreeMap<Character, Integer>> trie = new ArrayList<>();
+        List<Integer> outputs = new ArrayList<>();
+        List<Integer> depths = new ArrayList<>();
+        trie.add(new TreeMap<>());
+        outputs.add(-1);
+        depths.add(0);
+
+        int[] patternLengths = new int[patterns.size()];
+        for (int p = 0; p < patterns.size(); p++) {
+            String pattern = patterns.get(p);
+            patternLengths[p] = pattern.length();
+            int state = 0;
+            for (int i = 0; i < pattern.length(); i++) {
+                char c = fold(pattern.charAt(i));
+                Integer next = trie.get(state).get(c);
+                if (next == null) {
+                    next = trie.size();
+                    trie.add(new TreeMap<>());
+                    outputs.add(-1);
+                    depths.add(i + 1);
+                    trie.get(state).put(c, next);
+                }
+                state = next;
+            }
+            // 重复词条保留第一个
+            if (outputs.get(state) < 0 && !pattern.isEmpty()) {
+                outputs.set(state, p);
+            }
+        }
+
+        int size = trie.size();
+        char[][] edgeChars = new char[size][];
+        int[][] edgeTargets = new int[size][];
+        int[] output = new int[size];
+        int[] depth = new int[size];
+        for (int s = 0; s < size; s++) {
+            TreeMap<Character, Integer> edges = trie.get(s);
+            edgeChars[s] = edges.isEmpty() ? NO_CHARS : new char[edges.size()];
+            edgeTargets[s] = edges.isEmpty() ? NO_TARGETS : new int[edges.size()];
+            int i = 0;
+            for (Map.Entry<Character, Integer> edge : edges.entrySet()) {
+                edgeChars[s][i] = edge.getKey();
+                edgeTargets[s][i] = edge.getValue();
+                i++;
+            }
+            output[s] = outputs.get(s);
+            depth[s] = depths.get(s);
+        }
+
+        int[] fail = new int[size];
+        int[] outputLink = new int[size];
+        Arrays.fill(outputLink, -1);
+        Deque<Integer> queue = new ArrayDeque<>();
+        for (int target : edgeTargets[0]) {
+            queue.add(target);
+        }
+        AhoCorasick automaton = new AhoCorasick(edgeChars, edgeTargets, fail, output, outputLink, depth,
+                patternLengths, labels.toArray(new String[0]));
+        while (!queue.isEmpty()) {
+            int s = queue.poll();
+            for (int i = 0; i < edgeChars[s].length; i++) {
+                int child = edgeTargets[s][i];
+                fail[child] = s == 0 ? 0 : automaton.next(fail[s], edgeChars[s][i]);
+                int f = fail[child];
+                outputLink[child] = output[f] >= 0 ? f : outputLink[f];
+                queue.add(child);
+            }
+        }
+        return automaton;
+    }
+
+    static char fold(char c) {
+        return c < 128 ? (c >= 'A' && c <= 'Z' ? (char) (c + 32) : c) : Character.toLowerCase(c);
+    }
+
+    int next(int state, char c) {
+        char folded = fold(c);
+        int s = state;
+        while (true) {
+            int i = Arrays.binarySearch(edgeChars[s], folded);
+            if (i >= 0) {
+                return edgeTargets[s][i];
+            }
+            if (s == 0) {
+                return 0;
+            }
+            s = fail[s];
+        }
+    }
+
+    /**
+     * 当前状态对应的最长未完成前缀长度，流式扫描时用于确定可以安全输出的位置
+     */
+    int depth(int state) {
+        return depth[state];
+    }
+
+    /**
+     * 当前状态命中的第一个词条下标，没有时返回 -1，之后用 nextOutput 遍历
+     */
+    int firstOutput(int state) {
+        return output[state] >= 0 ? state : outputLink[state];
+    }
+
+    int nextOutput(int outputState) {
+        return outputLink[outputState];
+    }
+
+    int pattern(int outputState) {
+        return output[outputState];
+    }
+
+    int patternLength(int pattern) {
+        return patternLengths[pattern];
+    }
+
+    String patternLabel(int pattern) {
+        return patternLabels[pattern];
+    }
+}
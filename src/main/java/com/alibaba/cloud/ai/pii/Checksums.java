@@ -0,0 +1,53 @@
+package com.alibaba.cloud.ai.pii;
+
+/**
+ * 卡号、证件号校验
+ */
+final class Checksums {
+
+    private static final int[] ID_WEIGHTS = {7, 9, 10, 5, 8, 4, 2, 1, 6, 3, 7, 9, 10, 5, 8, 4, 2};
+    private static final char[] ID_CHECK_CODES = {'1', '0', 'X', '9', '8', '7', '6', '5', '4', '3', '2'};
+
+    private Checksums() {
+    }
+
+    /**
+     * Luhn 校验，digits 只含数字
+     */
+    static boolean luhn(char[] digits, int length) {
+        int sum = 0;
+        boolean doubleIt = false;
+        for (int i = length - 1; i >= 0; i--) {
+            int d = digits[i] - '0';
+            if (doubleIt) {
+                d *= 2;
+                if (d > 9) {
+                    d -= 9;
+                }
+            }
+            sum += d;
+            doubleIt = !doubleIt;
+        }
+        return sum % 10 == 0;
+    }
+
+    /**
+     * GB 11643 身份证号：前 17 位为数字，出生月日合法，第 18 位为 ISO 7064 MOD 11-2 校验码
+     */
+    static boolean chineseIdCard(char[] chars, int length) {
+        if (length != 18) {
+            return false;
+        }
+        int month = (chars[10] - '0') * 10 + (chars[11] - '0');
+        int day = (chars[12] - '0') * 10 + (chars[13] - '0');
+        if (month < 1 || month > 12 || day < 1 || day > 31) {
+            return false;
+        }
+        int sum = 0;
+        for (int i = 0; i < 17; i++) {
+            sum += (chars[i] - '0') * ID_WEIGHTS[i];
+        }
+        char check = chars[17] == 'x' ? 'X' : chars[17];
+        return ID_CHECK_CODES[sum % 11] == check;
+    }
+}
@@ -0,0 +1,18 @@
+package com.alibaba.cloud.ai.pii;
+
+/**
+ * 命中了 BLOCK 策略的敏感信息
+ */
+public class PiiBlockedException extends RuntimeException {
+
+    private final PiiKind kind;
+
+    public PiiBlockedException(PiiKind kind) {
+        super("Blocked content containing " + kind);
+        this.kind = kind;
+    }
+
+    public PiiKind getKind() {
+        return kind;
+    }
+}
@@ -0,0 +1,29 @@
+package com.alibaba.cloud.ai.pii;
+
+/**
+ * PiiScanner 支持的敏感信息类型
+ */
+public enum PiiKind {
+
+    EMAIL,
+
+    /**
+     * 中国大陆手机号，允许以空格或短横线分组
+     */
+    PHONE,
+
+    /**
+     * 18 位居民身份证号，校验出生日期和校验码
+     */
+    ID_CARD,
+
+    /**
+     * 13~19 位银行卡号，Luhn 校验
+     */
+    BANK_CARD,
+
+    /**
+     * 自定义词典
+     */
+    DICTIONARY
+}
@@ -0,0 +1,13 @@
+package com.alibaba.cloud.ai.pii;
+
+/**
+ * 一次命中，区间为 [start, end)
+ *
+ * @param label 词典命中时为词条所属的标签，其他类型为 null
+ */
+public record PiiMatch(PiiKind kind, int start, int end, String label) {
+
+    public int length() {
+        return end - start;
+    }
+}
@@ -0,0 +1,392 @@
+package com.alibaba.cloud.ai.pii;
+
+import java.util.function.Consumer;
+
+/**
+ * 单次扫描的状态机
+ *
+ * 所有启用的检测器在同一个循环里逐字符推进，不回溯：数字串（手机号 / 身份证 / 银行卡）、
+ * 邮箱（本地部分 + 域名两段状态）、词典（Aho-Corasick 状态）。
+ * 数字串中的空格和 '-' 只在已知的分组格式中才算号码内部的分隔符：手机号 3-4-4（可带 +86 前缀）、
+ * 银行卡 4-4-4-4(-3)、身份证 6-8-4；不符合时在分隔符处结束，只检查分隔符之前的部分。
+ * 状态可以跨多次 feed 保留，流式输出按块喂入即可，偏移量为累计的绝对位置。
+ * 命中按发现顺序回调，可能重叠，由调用方按需消解。非线程安全。
+ */
+public final class PiiMatcher {
+
+    private static final int MAX_DIGITS = 19;
+    private static final int MAX_GROUPS = 5;
+    private static final int[] PHONE_GROUPS = {3, 4, 4};
+    private static final int[] ID_CARD_GROUPS = {6, 8, 4};
+    private static final int[] BANK_CARD_GROUPS = {4, 4, 4, 4};
+    private static final int[] BANK_CARD_19_GROUPS = {4, 4, 4, 4, 3};
+    private static final int[][] LAYOUTS = {PHONE_GROUPS, ID_CARD_GROUPS, BANK_CARD_GROUPS, BANK_CARD_19_GROUPS};
+    /** +86 之后的手机号：86 3-4-4 或 86 11 */
+    private static final int[] PLUS_PHONE_GROUPS = {2, 3, 4, 4};
+    private static final int[] PLUS_PHONE_11_GROUPS = {2, 11};
+    private static final int[][] PLUS_LAYOUTS = {PLUS_PHONE_GROUPS, PLUS_PHONE_11_GROUPS};
+
+    private final PiiScanner scanner;
+    private final Consumer<PiiMatch> sink;
+    private final boolean digitsEnabled;
+    private final boolean emailEnabled;
+    private final AhoCorasick dictionary;
+
+    private int position;
+    private char previous;
+
+    private int runStart = -1;
+    private int runEnd;
+    /** 分组格式内的分组之和不超过 19 位，当前分组超长时会拆分，32 位足够 */
+    private final char[] runChars = new char[32];
+    private int runLength;
+    private final int[] groupLengths = new int[MAX_GROUPS];
+    private final int[] groupEnds = new int[MAX_GROUPS];
+    private int groupCount;
+    private boolean pendingSeparator;
+    private boolean runClosed;
+    private boolean runOverflow;
+    private boolean runPlus;
+
+    private int localStart = -1;
+    private int emailStart = -1;
+    private int emailEnd = -1;
+    private int labelLength;
+    private boolean labelLettersOnly;
+    private boolean domainHasDot;
+
+    private int dictionaryState;
+
+    PiiMatcher(PiiScanner scanner, Consumer<PiiMatch> sink) {
+        this.scanner = scanner;
+        this.sink = sink;
+        this.digitsEnabled = scanner.isEnabled(PiiKind.PHONE) || scanner.isEnabled(PiiKind.ID_CARD)
+                || scanner.isEnabled(PiiKind.BANK_CARD);
+        this.emailEnabled = scanner.isEnabled(PiiKind.EMAIL);
+        this.dictionary = scanner.dictionary();
+    }
+
+    public void feed(CharSequence chunk) {
+        for (int i = 0; i < chunk.length(); i++) {
+            feed(chunk.charAt(i));
+        }
+    }
+
+    public void feed(char c) {
+        int index = position++;
+        if (digitsEnabled) {
+            digitStep(c, index);
+        }
+        if (emailEnabled) {
+            emailStep(c, index);
+        }
+        if (dictionary != null) {
+            dictionaryStep(c, index);
+        }
+        previous = c;
+    }
+
+    /**
+     * 输入结束，结算未完成的数字串和邮箱，之后可以继续复用
+     */
+    public void finish() {
+        if (runStart >= 0) {
+            endRun(true);
+        }
+        if (emailStart >= 0) {
+            endEmail();
+        }
+        position = 0;
+        previous = 0;
+        localStart = -1;
+        dictionaryState = 0;
+    }
+
+    /**
+     * 已喂入的字符数
+     */
+    public int position() {
+        return position;
+    }
+
+    /**
+     * 最早的未完成候选的起点；在此之前的文本不会再产生新的命中
+     */
+    public int pendingStart() {
+        int pending = position;
+        if (runStart >= 0) {
+            pending = Math.min(pending, runPlus ? runStart - 1 : runStart);
+        }
+        if (emailStart >= 0) {
+            pending = Math.min(pending, emailStart);
+        }
+        if (emailEnabled && localStart >= 0) {
+            pending = Math.min(pending, localStart);
+        }
+        if (dictionary != null) {
+            pending = Math.min(pending, position - dictionary.depth(dictionaryState));
+        }
+        return pending;
+    }
+
+    private void digitStep(char c, int index) {
+        boolean digit = c >= '0' && c <= '9';
+        if (runStart >= 0) {
+            if (digit && !runClosed) {
+                if (pendingSeparator) {
+                    pendingSeparator = false;
+                    groupLengths[groupCount++] = 0;
+                }
+                appendDigit(c, index);
+                if (groupCount > 1 && !fitsLayout(false)) {
+                    // 分隔符之后的分组超出了所有格式，分隔符之前的部分单独检查，当前分组作为新的数字串
+                    splitRun(index);
+                }
+                return;
+            }
+            if ((c == 'X' || c == 'x') && !runClosed && !pendingSeparator && runLength == 17
+                    && (groupCount == 1 || fitsLayout(false))) {
+                appendDigit(c, index);
+                runClosed = true;
+                return;
+            }
+            if ((c == ' ' || c == '-') && !runClosed && !pendingSeparator && groupCount < MAX_GROUPS
+                    && fitsLayout(true)) {
+                pendingSeparator = true;
+                return;
+            }
+            // 数字串后紧跟字母或数字不算独立的号码；不在分组格式中的分隔符结束数字串
+            endRun(!isAsciiLetterOrDigit(c));
+            return;
+        }
+        if (digit && !isAsciiLetterOrDigit(previous)) {
+            runStart = index;
+            runLength = 0;
+            groupCount = 1;
+            groupLengths[0] = 0;
+            pendingSeparator = false;
+            runClosed = false;
+            runOverflow = false;
+            runPlus = previous == '+';
+            appendDigit(c, index);
+        }
+    }
+
+    private void appendDigit(char c, int index) {
+        if (runLength < runChars.length) {
+            runChars[runLength++] = c;
+        }
+        else {
+            runOverflow = true;
+        }
+        groupLengths[groupCount - 1]++;
+        groupEnds[groupCount - 1] = index + 1;
+        runEnd = index + 1;
+    }
+
+    /**
+     * 当前的分组是否仍可能是某个分组格式的前缀；beforeSeparator 时要求当前分组已经完整，且格式后面还有分组
+     */
+    private boolean fitsLayout(boolean beforeSeparator) {
+        for (int[] layout : LAYOUTS) {
+            if (fits(layout, beforeSeparator)) {
+                return true;
+            }
+        }
+        if (isPlus86()) {
+            for (int[] layout : PLUS_LAYOUTS) {
+                if (fits(layout, beforeSeparator)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private boolean fits(int[] layout, boolean beforeSeparator) {
+        int current = groupCount - 1;
+        if (layout.length <= current || (beforeSeparator && layout.length == groupCount)) {
+            return false;
+        }
+        for (int i = 0; i < current; i++) {
+            if (groupLengths[i] != layout[i]) {
+                return false;
+            }
+        }
+        return beforeSeparator ? groupLengths[current] == layout[current] : groupLengths[current] <= layout[current];
+    }
+
+    /**
+     * 分组恰好是 layout，只有一个分组（没有分隔符）时不限格式
+     */
+    private boolean shapeIs(int[] layout, int groups) {
+        if (groups == 1) {
+            return true;
+        }
+        if (groups != layout.length) {
+            return false;
+        }
+        for (int i = 0; i < groups; i++) {
+            if (groupLengths[i] != layout[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean isPlus86() {
+        return runPlus && runLength >= 2 && runChars[0] == '8' && runChars[1] == '6';
+    }
+
+    private void splitRun(int index) {
+        int prefixGroups = groupCount - 1;
+        int currentLength = groupLengths[prefixGroups];
+        int prefixLength = runLength - currentLength;
+        check(runStart, prefixLength, prefixGroups, groupEnds[prefixGroups - 1]);
+
+        System.arraycopy(runChars, prefixLength, runChars, 0, currentLength);
+        runStart = index + 1 - currentLength;
+        runLength = currentLength;
+        groupCount = 1;
+        groupLengths[0] = currentLength;
+        groupEnds[0] = index + 1;
+        runPlus = false;
+    }
+
+    private void endRun(boolean boundary) {
+        int start = runStart;
+        runStart = -1;
+        if (runOverflow) {
+            return;
+        }
+        // 最后一个分组紧跟字母数字，或分组不完整时，只检查最后一个分隔符之前的部分
+        if (boundary && (groupCount == 1 || isExactLayout())) {
+            check(start, runLength, groupCount, runEnd);
+        }
+        else if (groupCount > 1) {
+            int prefixGroups = groupCount - 1;
+            check(start, runLength - groupLengths[prefixGroups], prefixGroups, groupEnds[prefixGroups - 1]);
+        }
+    }
+
+    private boolean isExactLayout() {
+        for (int[] layout : LAYOUTS) {
+            if (shapeIs(layout, groupCount)) {
+                return true;
+            }
+        }
+        if (isPlus86()) {
+            for (int[] layout : PLUS_LAYOUTS) {
+                if (shapeIs(layout, groupCount)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 按长度和分组格式判断 runChars 的前 length 位
+     */
+    private void check(int start, int length, int groups, int end) {
+        if (runPlus) {
+            // 带 + 的号码只可能是手机号
+            if (isPlus86() && scanner.isEnabled(PiiKind.PHONE) && length == 13
+                    && (shapeIs(PLUS_PHONE_GROUPS, groups) || shapeIs(PLUS_PHONE_11_GROUPS, groups))
+                    && isMobilePrefix(2)) {
+                sink.accept(new PiiMatch(PiiKind.PHONE, start - 1, end, null));
+            }
+            return;
+        }
+        if (length == 11 && scanner.isEnabled(PiiKind.PHONE) && shapeIs(PHONE_GROUPS, groups) && isMobilePrefix(0)) {
+            sink.accept(new PiiMatch(PiiKind.PHONE, start, end, null));
+        }
+        else if (length == 18 && scanner.isEnabled(PiiKind.ID_CARD) && shapeIs(ID_CARD_GROUPS, groups)
+                && Checksums.chineseIdCard(runChars, length)) {
+            sink.accept(new PiiMatch(PiiKind.ID_CARD, start, end, null));
+        }
+        else if (length >= 13 && length <= MAX_DIGITS && !runClosed && scanner.isEnabled(PiiKind.BANK_CARD)
+                && (shapeIs(BANK_CARD_GROUPS, groups) || shapeIs(BANK_CARD_19_GROUPS, groups))
+                && Checksums.luhn(runChars, length)) {
+            sink.accept(new PiiMatch(PiiKind.BANK_CARD, start, end, null));
+        }
+    }
+
+    private boolean isMobilePrefix(int offset) {
+        return runChars[offset] == '1' && runChars[offset + 1] >= '3' && runChars[offset + 1] <= '9';
+    }
+
+    private void emailStep(char c, int index) {
+        if (c == '@') {
+            if (emailStart >= 0) {
+                endEmail();
+            }
+            else if (localStart >= 0) {
+                emailStart = localStart;
+                emailEnd = -1;
+                labelLength = 0;
+                labelLettersOnly = true;
+                domainHasDot = false;
+            }
+            localStart = -1;
+            return;
+        }
+        if (emailStart >= 0) {
+            if (isAsciiLetterOrDigit(c)) {
+                labelLength++;
+                labelLettersOnly &= c > '9';
+                // 顶级域名至少两个字母
+                if (domainHasDot && labelLength >= 2 && labelLettersOnly) {
+                    emailEnd = index + 1;
+                }
+            }
+            else if ((c == '.' || c == '-') && labelLength > 0) {
+                if (c == '.') {
+                    domainHasDot = true;
+                    labelLength = 0;
+                    labelLettersOnly = true;
+                }
+                else {
+                    labelLength++;
+                    labelLettersOnly = false;
+                }
+            }
+            else {
+                endEmail();
+            }
+        }
+        if (isLocalPartChar(c)) {
+            if (localStart < 0) {
+                localStart = index;
+            }
+        }
+        else {
+            localStart = -1;
+        }
+    }
+
+    private void endEmail() {
+        if (emailEnd > 0) {
+            sink.accept(new PiiMatch(PiiKind.EMAIL, emailStart, emailEnd, null));
+        }
+        emailStart = -1;
+        emailEnd = -1;
+    }
+
+    private void dictionaryStep(char c, int index) {
+        dictionaryState = dictionary.next(dictionaryState, c);
+        for (int o = dictionary.firstOutput(dictionaryState); o >= 0; o = dictionary.nextOutput(o)) {
+            int pattern = dictionary.pattern(o);
+            sink.accept(new PiiMatch(PiiKind.DICTIONARY, index + 1 - dictionary.patternLength(pattern), index + 1,
+                    dictionary.patternLabel(pattern)));
+        }
+    }
+
+    private static boolean isAsciiLetterOrDigit(char c) {
+        return (c >= '0' && c <= '9') || (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+
+    private static boolean isLocalPartChar(char c) {
+        return isAsciiLetterOrDigit(c) || c == '.' || c == '_' || c == '%' || c == '+' || c == '-';
+    }
+}
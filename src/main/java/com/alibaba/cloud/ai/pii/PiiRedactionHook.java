@@ -0,0 +1,141 @@
+package com.alibaba.cloud.ai.pii;
+
+import com.alibaba.cloud.ai.graph.RunnableConfig;
+import com.alibaba.cloud.ai.graph.agent.hook.HookPosition;
+import com.alibaba.cloud.ai.graph.agent.hook.HookPositions;
+import com.alibaba.cloud.ai.graph.agent.hook.messages.AgentCommand;
+import com.alibaba.cloud.ai.graph.agent.hook.messages.MessagesModelHook;
+import com.alibaba.cloud.ai.graph.agent.hook.messages.UpdatePolicy;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.MessageType;
+import org.springframework.ai.chat.messages.ToolResponseMessage;
+import org.springframework.ai.chat.messages.UserMessage;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 基于 PiiScanner 的脱敏 Hook
+ *
+ * 与 PIIDetectionHook 每种 PIIType 单独匹配不同，所有类型和自定义词典在一次遍历中完成。
+ * 模型调用前只处理上一条 AI 消息之后新增的输入，模型调用后只处理最新的 AI 消息，已处理过的历史不会重复扫描。
+ */
+@HookPositions({HookPosition.BEFORE_MODEL, HookPosition.AFTER_MODEL})
+public class PiiRedactionHook extends MessagesModelHook {
+
+    private final PiiRedactor redactor;
+    private final boolean applyToInput;
+    private final boolean applyToOutput;
+    private final boolean applyToToolResults;
+
+    private PiiRedactionHook(Builder builder) {
+        this.redactor = builder.redactor;
+        this.applyToInput = builder.applyToInput;
+        this.applyToOutput = builder.applyToOutput;
+        this.applyToToolResults = builder.applyToToolResults;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    @Override
+    public String getName() {
+        return "pii_redaction";
+    }
+
+    @Override
+    public AgentCommand beforeModel(List<Message> previousMessages, RunnableConfig config) {
+        if (!applyToInput && !applyToToolResults) {
+            return new AgentCommand(previousMessages);
+        }
+        int from = previousMessages.size();
+        while (from > 0 && previousMessages.get(from - 1).getMessageType() != MessageType.ASSISTANT) {
+            from--;
+        }
+        return redactFrom(previousMessages, from);
+    }
+
+    @Override
+    public AgentCommand afterModel(List<Message> previousMessages, RunnableConfig config) {
+        if (!applyToOutput || previousMessages.isEmpty()) {
+            return new AgentCommand(previousMessages);
+        }
+        return redactFrom(previousMessages, previousMessages.size() - 1);
+    }
+
+    private AgentCommand redactFrom(List<Message> messages, int from) {
+        List<Message> redacted = null;
+        for (int i = from; i < messages.size(); i++) {
+            Message message = messages.get(i);
+            Message replaced = redact(message);
+            if (replaced != message) {
+                if (redacted == null) {
+                    redacted = new ArrayList<>(messages);
+                }
+                redacted.set(i, replaced);
+            }
+        }
+        return redacted == null ? new AgentCommand(messages) : new AgentCommand(redacted, UpdatePolicy.REPLACE);
+    }
+
+    private Message redact(Message message) {
+        if (message instanceof UserMessage && applyToInput) {
+            String text = redactor.redact(message.getText());
+            return text == message.getText() ? message
+                    : UserMessage.builder().text(text).metadata(message.getMetadata()).build();
+        }
+        if (message instanceof AssistantMessage assistantMessage && applyToOutput) {
+            String text = redactor.redact(message.getText());
+            return text == message.getText() ? message
+                    : new AssistantMessage(text, message.getMetadata(), assistantMessage.getToolCalls());
+        }
+        if (message instanceof ToolResponseMessage toolMessage && applyToToolResults) {
+            List<ToolResponseMessage.ToolResponse> responses = new ArrayList<>(toolMessage.getResponses().size());
+            boolean changed = false;
+            for (ToolResponseMessage.ToolResponse response : toolMessage.getResponses()) {
+                String data = redactor.redact(response.responseData());
+                changed |= data != response.responseData();
+                responses.add(new ToolResponseMessage.ToolResponse(response.id(), response.name(), data));
+            }
+            return changed ? new ToolResponseMessage(responses, message.getMetadata()) : message;
+        }
+        return message;
+    }
+
+    public static class Builder {
+
+        private PiiRedactor redactor;
+        private boolean applyToInput = true;
+        private boolean applyToOutput = true;
+        private boolean applyToToolResults;
+
+        public Builder redactor(PiiRedactor redactor) {
+            this.redactor = redactor;
+            return this;
+        }
+
+        public Builder applyToInput(boolean applyToInput) {
+            this.applyToInput = applyToInput;
+            return this;
+        }
+
+        public Builder applyToOutput(boolean applyToOutput) {
+            this.applyToOutput = applyToOutput;
+            return this;
+        }
+
+        public Builder applyToToolResults(boolean applyToToolResults) {
+            this.applyToToolResults = applyToToolResults;
+            return this;
+        }
+
+        public PiiRedactionHook build() {
+            if (redactor == null) {
+                throw new IllegalArgumentException("redactor must not be null");
+            }
+            return new PiiRedactionHook(this);
+        }
+    }
+}
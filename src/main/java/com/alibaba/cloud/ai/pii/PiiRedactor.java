@@ -0,0 +1,111 @@
+package com.alibaba.cloud.ai.pii;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.EnumMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 按 PiiKind 配置 PiiStrategy 的脱敏器
+ */
+public class PiiRedactor {
+
+    private final PiiScanner scanner;
+    private final Map<PiiKind, PiiStrategy> strategies;
+    private final PiiStrategy defaultStrategy;
+
+    private PiiRedactor(Builder builder) {
+        this.scanner = builder.scanner;
+        this.strategies = builder.strategies;
+        this.defaultStrategy = builder.defaultStrategy;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public PiiScanner scanner() {
+        return scanner;
+    }
+
+    /**
+     * 脱敏文本，没有命中时返回原对象
+     */
+    public String redact(String text) {
+        if (text == null || text.isEmpty()) {
+            return text;
+        }
+        List<PiiMatch> matches = scanner.scan(text);
+        if (matches.isEmpty()) {
+            return text;
+        }
+        StringBuilder redacted = new StringBuilder(text.length());
+        int last = 0;
+        for (PiiMatch match : matches) {
+            redacted.append(text, last, match.start());
+            redacted.append(replacement(match, text.substring(match.start(), match.end())));
+            last = match.end();
+        }
+        return redacted.append(text, last, text.length()).toString();
+    }
+
+    /**
+     * 单个命中的替换文本，BLOCK 策略抛出 PiiBlockedException
+     */
+    public String replacement(PiiMatch match, String original) {
+        PiiStrategy strategy = strategies.getOrDefault(match.kind(), defaultStrategy);
+        String name = match.label() != null ? match.label() : match.kind().name();
+        return switch (strategy) {
+            case REDACT -> "[REDACTED_" + name + "]";
+            case MASK -> "*".repeat(Math.max(0, original.length() - 4))
+                    + original.substring(Math.max(0, original.length() - 4));
+            case HASH -> "<" + name.toLowerCase() + "_hash:" + sha256(original).substring(0, 8) + ">";
+            case BLOCK -> throw new PiiBlockedException(match.kind());
+        };
+    }
+
+    private static String sha256(String text) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(text.getBytes(StandardCharsets.UTF_8)));
+        }
+        catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public static class Builder {
+
+        private PiiScanner scanner;
+        private final Map<PiiKind, PiiStrategy> strategies = new EnumMap<>(PiiKind.class);
+        private PiiStrategy defaultStrategy = PiiStrategy.REDACT;
+
+        public Builder scanner(PiiScanner scanner) {
+            this.scanner = scanner;
+            return this;
+        }
+
+        public Builder strategy(PiiKind kind, PiiStrategy strategy) {
+            this.strategies.put(kind, strategy);
+            return this;
+        }
+
+        /**
+         * 未单独配置的类型使用的策略，默认 REDACT
+         */
+        public Builder defaultStrategy(PiiStrategy defaultStrategy) {
+            this.defaultStrategy = defaultStrategy;
+            return this;
+        }
+
+        public PiiRedactor build() {
+            if (scanner == null) {
+                throw new IllegalArgumentException("scanner must not be null");
+            }
+            return new PiiRedactor(this);
+        }
+    }
+}
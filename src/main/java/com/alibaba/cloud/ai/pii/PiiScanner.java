@@ -0,0 +1,116 @@
+package com.alibaba.cloud.ai.pii;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * 单次遍历的敏感信息扫描器
+ *
+ * 启用的检测器编译为一个 PiiMatcher 状态机：手机号、身份证、银行卡、邮箱用手写状态机识别，
+ * 身份证和银行卡分别做校验码和 Luhn 校验；自定义词典编译为 Aho-Corasick 自动机。
+ * 整个文本只遍历一次，没有正则回溯。构建后只读，可以在多个 Hook / Interceptor 之间共享。
+ */
+public final class PiiScanner {
+
+    private final Set<PiiKind> kinds;
+    private final AhoCorasick dictionary;
+
+    private PiiScanner(Builder builder) {
+        this.kinds = builder.kinds.isEmpty() ? EnumSet.noneOf(PiiKind.class) : EnumSet.copyOf(builder.kinds);
+        this.dictionary = builder.words.isEmpty() ? null : AhoCorasick.build(builder.words, builder.labels);
+        if (dictionary != null) {
+            kinds.add(PiiKind.DICTIONARY);
+        }
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public boolean isEnabled(PiiKind kind) {
+        return kinds.contains(kind);
+    }
+
+    AhoCorasick dictionary() {
+        return dictionary;
+    }
+
+    /**
+     * 扫描完整文本，返回按起点排序、互不重叠的命中（重叠时保留起点更早、其次更长的）
+     */
+    public List<PiiMatch> scan(CharSequence text) {
+        List<PiiMatch> matches = new ArrayList<>();
+        PiiMatcher matcher = matcher(matches::add);
+        matcher.feed(text);
+        matcher.finish();
+        return resolveOverlaps(matches);
+    }
+
+    /**
+     * 创建一个有状态的匹配器，用于分块 / 流式扫描
+     */
+    public PiiMatcher matcher(Consumer<PiiMatch> sink) {
+        return new PiiMatcher(this, sink);
+    }
+
+    static List<PiiMatch> resolveOverlaps(List<PiiMatch> matches) {
+        if (matches.size() < 2) {
+            return matches;
+        }
+        matches.sort((a, b) -> a.start() != b.start() ? Integer.compare(a.start(), b.start())
+                : Integer.compare(b.end(), a.end()));
+        List<PiiMatch> resolved = new ArrayList<>(matches.size());
+        int end = -1;
+        for (PiiMatch match : matches) {
+            if (match.start() >= end) {
+                resolved.add(match);
+                end = match.end();
+            }
+        }
+        return resolved;
+    }
+
+    public static class Builder {
+
+        private final Set<PiiKind> kinds = EnumSet.noneOf(PiiKind.class);
+        private final List<String> words = new ArrayList<>();
+        private final List<String> labels = new ArrayList<>();
+
+        public Builder detect(PiiKind... kinds) {
+            for (PiiKind kind : kinds) {
+                if (kind != PiiKind.DICTIONARY) {
+                    this.kinds.add(kind);
+                }
+            }
+            return this;
+        }
+
+        /**
+         * 启用除词典外的全部内置检测器
+         */
+        public Builder detectAll() {
+            return detect(PiiKind.EMAIL, PiiKind.PHONE, PiiKind.ID_CARD, PiiKind.BANK_CARD);
+        }
+
+        /**
+         * 添加自定义词典，按子串匹配、不区分大小写，label 会出现在 PiiMatch 中
+         */
+        public Builder dictionary(String label, Collection<String> words) {
+            for (String word : words) {
+                if (word != null && !word.isEmpty()) {
+                    this.words.add(word);
+                    this.labels.add(label);
+                }
+            }
+            return this;
+        }
+
+        public PiiScanner build() {
+            return new PiiScanner(this);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.alibaba.cloud.ai.pii;
+
+/**
+ * 命中后的处理方式
+ */
+public enum PiiStrategy {
+
+    /**
+     * 替换为 [REDACTED_类型]
+     */
+    REDACT,
+
+    /**
+     * 只保留最后 4 个字符
+     */
+    MASK,
+
+    /**
+     * 替换为内容的 SHA-256 前缀，相同内容得到相同结果
+     */
+    HASH,
+
+    /**
+     * 抛出 PiiBlockedException，终止本次调用
+     */
+    BLOCK
+}
@@ -0,0 +1,89 @@
+package com.alibaba.cloud.ai.pii;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 流式脱敏
+ *
+ * 每个分块直接喂给同一个 PiiMatcher，匹配状态跨分块保留，不需要缓冲完整消息。
+ * 只输出 pendingStart 之前的文本：其后可能是尚未结束的号码、邮箱或词条，先保留到下一个分块。
+ * 保留的字符数不超过 maxHoldChars，超出时强制输出，保证延迟有上界。
+ * 命中 BLOCK 策略时 push 抛出 PiiBlockedException，由调用方中止输出。非线程安全，每条流一个实例。
+ */
+public class StreamingRedactor {
+
+    public static final int DEFAULT_MAX_HOLD_CHARS = 128;
+
+    private final PiiRedactor redactor;
+    private final int maxHoldChars;
+    private final List<PiiMatch> matches = new ArrayList<>();
+    private final PiiMatcher matcher;
+
+    private final StringBuilder held = new StringBuilder();
+    private int heldOffset;
+
+    public StreamingRedactor(PiiRedactor redactor) {
+        this(redactor, DEFAULT_MAX_HOLD_CHARS);
+    }
+
+    public StreamingRedactor(PiiRedactor redactor, int maxHoldChars) {
+        this.redactor = redactor;
+        this.maxHoldChars = maxHoldChars;
+        this.matcher = redactor.scanner().matcher(matches::add);
+    }
+
+    /**
+     * 追加一个分块，返回现在可以安全输出的文本（可能为空串）
+     */
+    public String push(String chunk) {
+        if (chunk == null || chunk.isEmpty()) {
+            return "";
+        }
+        matcher.feed(chunk);
+        held.append(chunk);
+        int safe = Math.max(matcher.pendingStart(), matcher.position() - maxHoldChars);
+        return emit(safe);
+    }
+
+    /**
+     * 流结束，输出剩余文本
+     */
+    public String flush() {
+        int end = heldOffset + held.length();
+        matcher.finish();
+        return emit(end);
+    }
+
+    private String emit(int safe) {
+        if (safe <= heldOffset) {
+            return "";
+        }
+        StringBuilder out = new StringBuilder();
+        int cursor = heldOffset;
+        if (!matches.isEmpty()) {
+            List<PiiMatch> resolved = PiiScanner.resolveOverlaps(new ArrayList<>(matches));
+            matches.clear();
+            for (PiiMatch match : resolved) {
+                if (match.start() < cursor) {
+                    // 与已输出的命中重叠
+                    continue;
+                }
+                if (match.start() >= safe) {
+                    matches.add(match);
+                    continue;
+                }
+                out.append(held, cursor - heldOffset, match.start() - heldOffset);
+                out.append(redactor.replacement(match, held.substring(match.start() - heldOffset, match.end() - heldOffset)));
+                cursor = match.end();
+            }
+        }
+        int end = Math.max(cursor, safe);
+        if (end > cursor) {
+            out.append(held, cursor - heldOffset, end - heldOffset);
+        }
+        held.delete(0, end - heldOffset);
+        heldOffset = end;
+        return out.toString();
+    }
+}
@@ -0,0 +1,259 @@
+package com.alibaba.cloud.ai.replay;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONArray;
+import com.alibaba.fastjson.JSONObject;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.metadata.ChatResponseMetadata;
+import org.springframework.ai.chat.metadata.DefaultUsage;
+import org.springframework.ai.chat.metadata.Usage;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.ChatOptions;
+import org.springframework.ai.chat.prompt.Prompt;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 可录制/回放的 ChatModel
+ *
+ * RECORD 模式包装真实模型，把每次调用的结果（文本、工具调用、token 用量）按请求哈希写入 RecordingStore；
+ * REPLAY 模式不访问模型，直接从录制文件构造 ChatResponse，并按 SimulatedLatency 模拟首 token 延迟和输出速率。
+ * 回放结果只取决于消息内容，可以在没有 Ollama 的环境里高并发压测 ReactAgent、Hook 和 Saver。
+ */
+public class RecordReplayChatModel implements ChatModel {
+
+    private final ChatModel delegate;
+    private final RecordingStore store;
+    private final ReplayMode mode;
+    private final SimulatedLatency latency;
+
+    private RecordReplayChatModel(Builder builder) {
+        this.delegate = builder.delegate;
+        this.store = builder.store;
+        this.mode = builder.mode;
+        this.latency = builder.latency;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    @Override
+    public ChatResponse call(Prompt prompt) {
+        String key = RequestKeys.chat(prompt.getInstructions());
+        if (mode != ReplayMode.RECORD) {
+            String payload = store.next(key);
+            if (payload != null) {
+                JSONObject recorded = JSON.parseObject(payload);
+                latency.await(completionTokens(recorded));
+                return response(recorded, text(recorded), true);
+            }
+            requireDelegate(key);
+        }
+        ChatResponse response = delegate.call(prompt);
+        store.record(key, toPayload(response));
+        return response;
+    }
+
+    @Override
+    public Flux<ChatResponse> stream(Prompt prompt) {
+        String key = RequestKeys.chat(prompt.getInstructions());
+        if (mode != ReplayMode.RECORD) {
+            String payload = store.next(key);
+            if (payload != null) {
+                return replayStream(JSON.parseObject(payload));
+            }
+            requireDelegate(key);
+        }
+        StreamRecorder recorder = new StreamRecorder();
+        return delegate.stream(prompt)
+                .doOnNext(recorder::add)
+                .doOnComplete(() -> store.record(key, recorder.toPayload()));
+    }
+
+    @Override
+    public ChatOptions getDefaultOptions() {
+        return delegate != null ? delegate.getDefaultOptions() : null;
+    }
+
+    private void requireDelegate(String key) {
+        if (mode == ReplayMode.REPLAY) {
+            throw new IllegalStateException("No recording for chat request " + key);
+        }
+    }
+
+    /**
+     * 按空白切分文本，最后一个分片携带工具调用和 token 用量
+     */
+    private Flux<ChatResponse> replayStream(JSONObject recorded) {
+        List<String> chunks = chunks(text(recorded));
+        int last = chunks.size() - 1;
+        List<ChatResponse> responses = new ArrayList<>(chunks.size());
+        for (int i = 0; i < chunks.size(); i++) {
+            responses.add(response(recorded, chunks.get(i), i == last));
+        }
+        Flux<ChatResponse> flux = Flux.fromIterable(responses);
+        long perChunk = latency.perTokenNanos() * completionTokens(recorded) / chunks.size();
+        if (perChunk > 0) {
+            flux = flux.delayElements(Duration.ofNanos(perChunk));
+        }
+        if (!latency.firstToken().isZero()) {
+            flux = flux.delaySubscription(latency.firstToken());
+        }
+        return flux;
+    }
+
+    private static List<String> chunks(String text) {
+        List<String> chunks = new ArrayList<>();
+        int start = 0;
+        for (int i = 1; i < text.length(); i++) {
+            if (Character.isWhitespace(text.charAt(i - 1)) && !Character.isWhitespace(text.charAt(i))) {
+                chunks.add(text.substring(start, i));
+                start = i;
+            }
+        }
+        chunks.add(text.substring(start));
+        return chunks;
+    }
+
+    private static ChatResponse response(JSONObject recorded, String text, boolean complete) {
+        List<AssistantMessage.ToolCall> toolCalls = new ArrayList<>();
+        JSONArray calls = recorded.getJSONArray("toolCalls");
+        if (complete && calls != null) {
+            for (int i = 0; i < calls.size(); i++) {
+                JSONObject call = calls.getJSONObject(i);
+                toolCalls.add(new AssistantMessage.ToolCall(call.getString("id"), call.getString("type"),
+                        call.getString("name"), call.getString("arguments")));
+            }
+        }
+        AssistantMessage message = new AssistantMessage(text, Map.of(), toolCalls);
+        ChatResponseMetadata.Builder metadata = ChatResponseMetadata.builder();
+        if (recorded.getString("model") != null) {
+            metadata.model(recorded.getString("model"));
+        }
+        if (complete) {
+            metadata.usage(new DefaultUsage(recorded.getInteger("promptTokens"), recorded.getInteger("completionTokens")));
+        }
+        return new ChatResponse(List.of(new Generation(message)), metadata.build());
+    }
+
+    private static String text(JSONObject recorded) {
+        String text = recorded.getString("text");
+        return text == null ? "" : text;
+    }
+
+    private static int completionTokens(JSONObject recorded) {
+        Integer tokens = recorded.getInteger("completionTokens");
+        return tokens != null && tokens > 0 ? tokens : text(recorded).length() / 4;
+    }
+
+    private static String toPayload(ChatResponse response) {
+        StreamRecorder recorder = new StreamRecorder();
+        recorder.add(response);
+        return recorder.toPayload();
+    }
+
+    /**
+     * 合并流式分片：拼接文本，收集工具调用，保留最后的模型名和用量
+     */
+    private static final class StreamRecorder {
+
+        private final StringBuilder text = new StringBuilder();
+        private final JSONArray toolCalls = new JSONArray();
+        private String model;
+        private Integer promptTokens;
+        private Integer completionTokens;
+
+        private synchronized void add(ChatResponse response) {
+            if (response.getResult() != null && response.getResult().getOutput() != null) {
+                AssistantMessage message = response.getResult().getOutput();
+                if (message.getText() != null) {
+                    text.append(message.getText());
+                }
+                if (message.getToolCalls() != null) {
+                    for (AssistantMessage.ToolCall toolCall : message.getToolCalls()) {
+                        JSONObject call = new JSONObject(true);
+                        call.put("id", toolCall.id());
+                        call.put("type", toolCall.type());
+                        call.put("name", toolCall.name());
+                        call.put("arguments", toolCall.arguments());
+                        toolCalls.add(call);
+                    }
+                }
+            }
+            ChatResponseMetadata metadata = response.getMetadata();
+            if (metadata != null) {
+                if (metadata.getModel() != null && !metadata.getModel().isEmpty()) {
+                    model = metadata.getModel();
+                }
+                Usage usage = metadata.getUsage();
+                if (usage != null && usage.getCompletionTokens() != null && usage.getCompletionTokens() > 0) {
+                    promptTokens = usage.getPromptTokens();
+                    completionTokens = usage.getCompletionTokens();
+                }
+            }
+        }
+
+        private synchronized String toPayload() {
+            JSONObject payload = new JSONObject(true);
+            payload.put("text", text.toString());
+            if (!toolCalls.isEmpty()) {
+                payload.put("toolCalls", toolCalls);
+            }
+            payload.put("model", model);
+            payload.put("promptTokens", promptTokens);
+            payload.put("completionTokens", completionTokens);
+            return payload.toJSONString();
+        }
+    }
+
+    public static class Builder {
+
+        private ChatModel delegate;
+        private RecordingStore store;
+        private ReplayMode mode = ReplayMode.REPLAY;
+        private SimulatedLatency latency = SimulatedLatency.NONE;
+
+        /**
+         * 真实模型，RECORD 和 REPLAY_OR_RECORD 模式必填
+         */
+        public Builder delegate(ChatModel delegate) {
+            this.delegate = delegate;
+            return this;
+        }
+
+        public Builder store(RecordingStore store) {
+            this.store = store;
+            return this;
+        }
+
+        public Builder mode(ReplayMode mode) {
+            this.mode = mode;
+            return this;
+        }
+
+        /**
+         * 回放时模拟的延迟，默认不模拟
+         */
+        public Builder latency(SimulatedLatency latency) {
+            this.latency = latency;
+            return this;
+        }
+
+        public RecordReplayChatModel build() {
+            if (store == null) {
+                throw new IllegalArgumentException("store must not be null");
+            }
+            if (mode != ReplayMode.REPLAY && delegate == null) {
+                throw new IllegalArgumentException("delegate is required in " + mode + " mode");
+            }
+            return new RecordReplayChatModel(this);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.alibaba.cloud.ai.replay;
+
+import com.alibaba.cloud.ai.graph.agent.interceptor.ToolCallHandler;
+import com.alibaba.cloud.ai.graph.agent.interceptor.ToolCallRequest;
+import com.alibaba.cloud.ai.graph.agent.interceptor.ToolCallResponse;
+import com.alibaba.cloud.ai.graph.agent.interceptor.ToolInterceptor;
+import com.alibaba.fastjson.JSON;
+
+/**
+ * 可录制/回放的工具拦截器，替代用 LLM 模拟工具的 ToolEmulatorInterceptor
+ *
+ * RECORD 模式执行真实工具并按 工具名 + 规范化参数 的哈希录制结果；REPLAY 模式直接返回录制结果，
+ * 不执行工具，结果确定且不依赖模型。回放延迟由 SimulatedLatency 的首 token 延迟模拟。
+ * 放在 interceptors 的最后，这样前面的拦截器（缓存、重试、熔断）在压测时仍然完整执行。
+ */
+public class RecordReplayToolInterceptor extends ToolInterceptor {
+
+    private final RecordingStore store;
+    private final ReplayMode mode;
+    private final SimulatedLatency latency;
+
+    private RecordReplayToolInterceptor(Builder builder) {
+        this.store = builder.store;
+        this.mode = builder.mode;
+        this.latency = builder.latency;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    @Override
+    public ToolCallResponse interceptToolCall(ToolCallRequest request, ToolCallHandler handler) {
+        String key = RequestKeys.tool(request.getToolName(), request.getArguments());
+        if (mode != ReplayMode.RECORD) {
+            String payload = store.next(key);
+            if (payload != null) {
+                latency.await(0);
+                return ToolCallResponse.of(request.getToolCallId(), request.getToolName(), JSON.parseObject(payload, String.class));
+            }
+            if (mode == ReplayMode.REPLAY) {
+                throw new IllegalStateException("No recording for tool call " + request.getToolName()
+                        + " " + request.getArguments());
+            }
+        }
+        ToolCallResponse response = handler.call(request);
+        store.record(key, JSON.toJSONString(response.getResult()));
+        return response;
+    }
+
+    @Override
+    public String getName() {
+        return "record_replay_tool";
+    }
+
+    public static class Builder {
+
+        private RecordingStore store;
+        private ReplayMode mode = ReplayMode.REPLAY;
+        private SimulatedLatency latency = SimulatedLatency.NONE;
+
+        public Builder store(RecordingStore store) {
+            this.store = store;
+            return this;
+        }
+
+        public Builder mode(ReplayMode mode) {
+            this.mode = mode;
+            return this;
+        }
+
+        /**
+         * 回放时每次工具调用的延迟，通常用 SimulatedLatency.fixed
+         */
+        public Builder latency(SimulatedLatency latency) {
+            this.latency = latency;
+            return this;
+        }
+
+        public RecordReplayToolInterceptor build() {
+            if (store == null) {
+                throw new IllegalArgumentException("store must not be null");
+            }
+            return new RecordReplayToolInterceptor(this);
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.alibaba.cloud.ai.replay;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 录制文件
+ *
+ * 每行一条记录：请求哈希 + TAB + 单行 JSON，只追加写入。打开时整个文件读入内存，回放时不再读盘。
+ * 同一请求录制了多次时按录制顺序依次返回，用完后从头循环，多轮对话和压测都能得到确定的结果。
+ */
+public class RecordingStore implements Closeable {
+
+    private final Path file;
+    private final Map<String, Recordings> recordings = new ConcurrentHashMap<>();
+    private BufferedWriter writer;
+
+    private RecordingStore(Path file) {
+        this.file = file;
+    }
+
+    /**
+     * 打开录制文件，不存在时在第一次录制时创建
+     */
+    public static RecordingStore open(Path file) {
+        RecordingStore store = new RecordingStore(file);
+        if (Files.exists(file)) {
+            store.load();
+        }
+        return store;
+    }
+
+    /**
+     * 只在内存中保存，不写文件
+     */
+    public static RecordingStore inMemory() {
+        return new RecordingStore(null);
+    }
+
+    private void load() {
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                int tab = line.indexOf('\t');
+                if (tab > 0) {
+                    recordings(line.substring(0, tab)).values.add(line.substring(tab + 1));
+                }
+            }
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * 下一条录制结果，没有录制时返回 null
+     */
+    public String next(String key) {
+        Recordings entry = recordings.get(key);
+        if (entry == null || entry.values.isEmpty()) {
+            return null;
+        }
+        int index = Math.floorMod(entry.cursor.getAndIncrement(), entry.values.size());
+        return entry.values.get(index);
+    }
+
+    public boolean contains(String key) {
+        return recordings.containsKey(key);
+    }
+
+    /**
+     * 追加一条录制结果，payload 不能包含换行
+     */
+    public synchronized void record(String key, String payload) {
+        if (payload.indexOf('\n') >= 0 || payload.indexOf('\r') >= 0) {
+            throw new IllegalArgumentException("payload must be a single line");
+        }
+        recordings(key).values.add(payload);
+        if (file == null) {
+            return;
+        }
+        try {
+            if (writer == null) {
+                Path parent = file.toAbsolutePath().getParent();
+                if (parent != null) {
+                    Files.createDirectories(parent);
+                }
+                writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                        StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            }
+            writer.write(key);
+            writer.write('\t');
+            writer.write(payload);
+            writer.newLine();
+            writer.flush();
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * 已录制的请求数
+     */
+    public int size() {
+        return recordings.size();
+    }
+
+    /**
+     * 重置回放位置，每轮压测开始前调用可以得到相同的回放序列
+     */
+    public void rewind() {
+        recordings.values().forEach(entry -> entry.cursor.set(0));
+    }
+
+    private Recordings recordings(String key) {
+        return recordings.computeIfAbsent(key, k -> new Recordings());
+    }
+
+    @Override
+    public synchronized void close() {
+        if (writer == null) {
+            return;
+        }
+        try {
+            writer.close();
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        finally {
+            writer = null;
+        }
+    }
+
+    private static final class Recordings {
+
+        private final List<String> values = new CopyOnWriteArrayList<>();
+        private final AtomicInteger cursor = new AtomicInteger();
+    }
+}
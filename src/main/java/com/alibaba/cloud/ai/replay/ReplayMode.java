@@ -0,0 +1,22 @@
+package com.alibaba.cloud.ai.replay;
+
+/**
+ * 录制/回放模式
+ */
+public enum ReplayMode {
+
+    /**
+     * 调用真实的模型或工具，并把结果写入录制文件
+     */
+    RECORD,
+
+    /**
+     * 只从录制文件返回结果，未录制的请求直接失败
+     */
+    REPLAY,
+
+    /**
+     * 优先回放，未录制的请求调用真实的模型或工具并补录
+     */
+    REPLAY_OR_RECORD
+}
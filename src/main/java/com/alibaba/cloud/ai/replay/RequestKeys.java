@@ -0,0 +1,27 @@
+package com.alibaba.cloud.ai.replay;
+
+import com.alibaba.cloud.ai.common.MessageDigests;
+import com.alibaba.cloud.ai.tool.ToolArguments;
+import org.springframework.ai.chat.messages.Message;
+
+import java.util.List;
+
+/**
+ * 录制文件中请求的哈希
+ *
+ * 只取决定结果的内容：消息类型、文本、工具调用的名称和参数、工具结果。
+ * 工具调用 id 每次运行都不同，不参与哈希，否则第二轮之后的请求永远无法命中。
+ */
+public final class RequestKeys {
+
+    private RequestKeys() {
+    }
+
+    public static String chat(List<Message> messages) {
+        return MessageDigests.digest(messages);
+    }
+
+    public static String tool(String toolName, String arguments) {
+        return MessageDigests.sha256(toolName + '\u0003' + ToolArguments.canonicalize(arguments));
+    }
+}
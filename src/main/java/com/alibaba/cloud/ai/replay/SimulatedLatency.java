@@ -0,0 +1,52 @@
+package com.alibaba.cloud.ai.replay;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 回放时模拟的延迟：首 token 延迟 + 按输出 token 速率计算的生成时间
+ *
+ * @param firstToken      首 token 延迟
+ * @param tokensPerSecond 输出速率，小于等于 0 表示不模拟生成时间
+ */
+public record SimulatedLatency(Duration firstToken, double tokensPerSecond) {
+
+    public static final SimulatedLatency NONE = new SimulatedLatency(Duration.ZERO, 0);
+
+    public static SimulatedLatency of(Duration firstToken, double tokensPerSecond) {
+        return new SimulatedLatency(firstToken, tokensPerSecond);
+    }
+
+    /**
+     * 固定延迟，不按 token 计算，用于工具
+     */
+    public static SimulatedLatency fixed(Duration latency) {
+        return new SimulatedLatency(latency, 0);
+    }
+
+    /**
+     * 生成 tokens 个 token 的总耗时
+     */
+    public long nanos(int tokens) {
+        return firstToken.toNanos() + perTokenNanos() * Math.max(tokens, 0);
+    }
+
+    public long perTokenNanos() {
+        return tokensPerSecond > 0 ? (long) (TimeUnit.SECONDS.toNanos(1) / tokensPerSecond) : 0;
+    }
+
+    /**
+     * 在当前线程上等待 tokens 个 token 的生成时间
+     */
+    public void await(int tokens) {
+        long deadline = System.nanoTime() + nanos(tokens);
+        long remaining;
+        while ((remaining = deadline - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+            if (Thread.currentThread().isInterrupted()) {
+                return;
+            }
+        }
+    }
+}
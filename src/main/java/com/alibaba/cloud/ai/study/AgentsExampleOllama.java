@@ -36,6 +36,17 @@ import com.alibaba.cloud.ai.graph.agent.interceptor.ToolCallResponse;
 import com.alibaba.cloud.ai.graph.agent.interceptor.ToolInterceptor;
 import com.alibaba.cloud.ai.graph.checkpoint.savers.MemorySaver;
 import com.alibaba.cloud.ai.graph.exception.GraphRunnerException;
+import com.alibaba.cloud.ai.interceptor.ModelRequests;
+import com.alibaba.cloud.ai.interceptor.guardrail.PiiGuardrailInterceptor;
+import com.alibaba.cloud.ai.interceptor.guardrail.StreamingGuardrail;
+import com.alibaba.cloud.ai.interceptor.prompt.PrefixStablePromptInterceptor;
+import com.alibaba.cloud.ai.memory.window.MessageWindow;
+import com.alibaba.cloud.ai.memory.window.MessageWindowHook;
+import com.alibaba.cloud.ai.pii.PiiBlockedException;
+import com.alibaba.cloud.ai.pii.PiiRedactor;
+import com.alibaba.cloud.ai.pii.PiiScanner;
+import com.alibaba.cloud.ai.web.AgentStreamEndpoints;
+import com.alibaba.cloud.ai.web.AgentStreamService;
 
 import com.alibaba.cloud.ai.graph.streaming.OutputType;
 import com.alibaba.cloud.ai.graph.streaming.StreamingOutput;
@@ -56,7 +67,16 @@ import org.springframework.ai.ollama.api.OllamaChatOptions;
 import org.springframework.ai.tool.ToolCallback;
 import org.springframework.ai.tool.annotation.ToolParam;
 import org.springframework.ai.tool.function.FunctionToolCallback;
-
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.http.server.reactive.HttpHandler;
+import org.springframework.http.server.reactive.ReactorHttpHandlerAdapter;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+import java.time.Duration;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
 import java.util.function.BiFunction;
@@ -183,6 +203,37 @@ public class AgentsExampleOllama {
                 .build();
     }
 
+    /**
+     * 示例7.1：前缀稳定的动态提示词
+     * DynamicPromptInterceptor 把角色提示拼接到 system prompt 上，每轮前缀都会变化，Ollama 需要重新计算整个提示词。
+     * 这里把角色提示放到最后一条用户消息之前，并让历史窗口成批裁剪，前缀在多轮之间保持不变
+     */
+    @SneakyThrows
+    @Test
+    public void prefixStablePrompt() {
+        ChatModel chatModel = getChatModel();
+
+        PrefixStablePromptInterceptor promptInterceptor = PrefixStablePromptInterceptor.builder()
+                .volatileContext(request -> "当前用户角色：" + request.getContext().getOrDefault("user_role", "default"))
+                .build();
+
+        ReactAgent agent = ReactAgent.builder()
+                .name("prefix_stable_agent")
+                .model(chatModel)
+                .systemPrompt("你是一个专业的助手，根据问题复杂度调整回答，保持友好和专业。")
+                .hooks(MessageWindowHook.builder().maxMessages(20).batchEviction(0.5).build())
+                .interceptors(promptInterceptor)
+                .saver(new MemorySaver())
+                .build();
+
+        RunnableConfig config = ModelRequests.runnableConfig("prefix_stable").build();
+        for (String question : List.of("什么是 KV cache？", "为什么提示词前缀变化会让它失效？", "举个例子说明")) {
+            agent.call(question, config);
+        }
+        // 本地估算的前缀复用比例（估算值），以及 Ollama 每次调用实际计算的 token 数和耗时，前缀稳定时后者明显下降
+        log.info(promptInterceptor.stats());
+    }
+
     /**
      * 示例8：基础调用
      */
@@ -454,6 +505,86 @@ public class AgentsExampleOllama {
 
     }
 
+    /**
+     * 示例13.1：流式护栏
+     * 非流式调用由 PiiGuardrailInterceptor 脱敏，流式输出由 StreamingGuardrail 逐块脱敏，两者共享同一个 PiiRedactor
+     */
+    @SneakyThrows
+    @Test
+    public void streamingGuardrail() {
+        ChatModel chatModel = getChatModel();
+
+        PiiRedactor redactor = PiiRedactor.builder()
+                .scanner(PiiScanner.builder().detectAll().build())
+                .build();
+
+        ReactAgent agent = ReactAgent.builder()
+                .name("guarded_agent")
+                .model(chatModel)
+                .interceptors(new PiiGuardrailInterceptor(redactor))
+                .build();
+
+        StreamingGuardrail guardrail = new StreamingGuardrail(redactor);
+        guardrail.guard(agent.stream("随便编一个示例手机号和邮箱，用来演示表单填写"))
+                .onErrorResume(PiiBlockedException.class,
+                        e -> Flux.error(new IllegalStateException(PiiGuardrailInterceptor.DEFAULT_BLOCKED_MESSAGE)))
+                .subscribe(
+                        output -> {
+                            if (output instanceof StreamingOutput streamingOutput
+                                    && streamingOutput.getOutputType() == OutputType.AGENT_MODEL_STREAMING) {
+                                System.out.print(streamingOutput.message().getText());
+                            }
+                        },
+                        error -> System.err.println("错误: " + error.getMessage()),
+                        () -> System.out.println("\nAgent 执行完成")
+                );
+
+        Thread.sleep(10000);
+    }
+
+    /**
+     * 示例13.2：SSE / WebSocket 流式端点
+     * 在 8080 端口启动 WebFlux 服务，/agent/stream 以 SSE 推送 agent.stream 的输出，再用 WebClient 读取；
+     * 客户端断开时订阅被取消，Ollama 的生成随之停止。Spring Boot 应用中把 AgentStreamEndpoints 的路由注册为 Bean 即可
+     */
+    @SneakyThrows
+    @Test
+    public void streamingEndpoint() {
+        ReactAgent agent = ReactAgent.builder()
+                .name("sse_agent")
+                .model(getChatModel())
+                .saver(new MemorySaver())
+                .build();
+
+        AgentStreamService streamService = AgentStreamService.builder(agent::stream)
+                .bufferSize(256)
+                .heartbeat(Duration.ofSeconds(15))
+                .build();
+
+        HttpHandler httpHandler = RouterFunctions.toHttpHandler(AgentStreamEndpoints.sse("/agent/stream", streamService));
+        DisposableServer server = HttpServer.create()
+                .port(8080)
+                .handle(new ReactorHttpHandlerAdapter(httpHandler))
+                .bindNow();
+        try {
+            // 等价于 curl -N "http://localhost:8080/agent/stream?threadId=sse_1&message=..."
+            WebClient.create("http://localhost:8080")
+                    .get()
+                    .uri(uri -> uri.path("/agent/stream")
+                            .queryParam("threadId", "sse_1")
+                            .queryParam("message", "用三句话介绍一下杭州")
+                            .build())
+                    .retrieve()
+                    .bodyToFlux(new ParameterizedTypeReference<ServerSentEvent<String>>() {
+                    })
+                    .doOnNext(event -> log.info("{}: {}", event.event(), event.data()))
+                    .blockLast(Duration.ofMinutes(2));
+        }
+        finally {
+            server.disposeNow();
+        }
+    }
+
     // ==================== 结构化输出 ====================
 
     // 注释掉main方法，改为测试方法
@@ -701,14 +832,11 @@ public class AgentsExampleOllama {
 
         @Override
         public AgentCommand beforeModel(List<Message> previousMessages, RunnableConfig config) {
-            // 如果消息数量超过限制，只保留最后 MAX_MESSAGES 条消息
+            // 如果消息数量超过限制，只保留最后 MAX_MESSAGES 条消息（不拆开工具调用和工具响应）
             if (previousMessages.size() > MAX_MESSAGES) {
-                List<Message> trimmedMessages = previousMessages.subList(
-                        previousMessages.size() - MAX_MESSAGES,
-                        previousMessages.size()
-                );
+                List<Message> trimmedMessages = MessageWindow.lastMessages(previousMessages, 0, MAX_MESSAGES);
                 // 使用 REPLACE 策略替换所有消息
-                return new AgentCommand(trimmedMessages, UpdatePolicy.REPLACE);
+                return new AgentCommand(new ArrayList<>(trimmedMessages), UpdatePolicy.REPLACE);
             }
             // 如果消息数量未超过限制，返回原始消息（不进行修改）
             return new AgentCommand(previousMessages);
@@ -25,6 +25,30 @@ import com.alibaba.cloud.ai.graph.agent.interceptor.toolemulator.ToolEmulatorInt
 import com.alibaba.cloud.ai.graph.agent.interceptor.toolretry.ToolRetryInterceptor;
 import com.alibaba.cloud.ai.graph.agent.interceptor.toolselection.ToolSelectionInterceptor;
 import com.alibaba.cloud.ai.graph.checkpoint.savers.MemorySaver;
+import com.alibaba.cloud.ai.hook.ParallelModelHook;
+import com.alibaba.cloud.ai.interceptor.ModelRequests;
+import com.alibaba.cloud.ai.interceptor.context.ContextPlannerInterceptor;
+import com.alibaba.cloud.ai.interceptor.selection.LocalToolSelectionInterceptor;
+import com.alibaba.cloud.ai.hook.StateAccess;
+import com.alibaba.cloud.ai.memory.longterm.HashingEmbeddingFunction;
+import com.alibaba.cloud.ai.memory.window.MessageWindow;
+import com.alibaba.cloud.ai.metrics.AgentMetrics;
+import com.alibaba.cloud.ai.metrics.Instrumentation;
+import com.alibaba.cloud.ai.pii.PiiKind;
+import com.alibaba.cloud.ai.pii.PiiRedactionHook;
+import com.alibaba.cloud.ai.pii.PiiRedactor;
+import com.alibaba.cloud.ai.pii.PiiScanner;
+import com.alibaba.cloud.ai.pii.PiiStrategy;
+import com.alibaba.cloud.ai.replay.RecordReplayChatModel;
+import com.alibaba.cloud.ai.replay.RecordReplayToolInterceptor;
+import com.alibaba.cloud.ai.replay.RecordingStore;
+import com.alibaba.cloud.ai.replay.ReplayMode;
+import com.alibaba.cloud.ai.replay.SimulatedLatency;
+import com.alibaba.cloud.ai.tool.resilience.ResiliencePolicy;
+import com.alibaba.cloud.ai.tool.retry.BudgetedRetryInterceptor;
+import com.alibaba.cloud.ai.tool.retry.RetryBudget;
+import com.alibaba.cloud.ai.tool.retry.RetryPolicy;
+import com.alibaba.cloud.ai.tool.resilience.ToolResilienceInterceptor;
 import lombok.SneakyThrows;
 import lombok.extern.log4j.Log4j2;
 import org.junit.jupiter.api.Test;
@@ -34,10 +58,21 @@ import org.springframework.ai.chat.model.ChatModel;
 import org.springframework.ai.tool.ToolCallback;
 import org.springframework.ai.tool.function.FunctionToolCallback;
 
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 import static com.alibaba.cloud.ai.common.CommonUtils.getChatModel;
 
@@ -190,6 +225,87 @@ public class HooksExampleOllama {
                 .build();
     }
 
+    /**
+     * 示例6.1：单次遍历的 PII 脱敏
+     * 邮箱、手机号、身份证、银行卡和自定义词典在一次遍历中检测，输入和输出都脱敏
+     */
+    @SneakyThrows
+    @Test
+    public void piiRedaction() {
+        ChatModel chatModel = getChatModel();
+
+        PiiScanner scanner = PiiScanner.builder()
+                .detectAll()
+                .dictionary("PROJECT", List.of("星河计划", "Apollo"))
+                .build();
+        PiiRedactor redactor = PiiRedactor.builder()
+                .scanner(scanner)
+                .strategy(PiiKind.BANK_CARD, PiiStrategy.MASK)
+                .strategy(PiiKind.ID_CARD, PiiStrategy.BLOCK)
+                .build();
+
+        ReactAgent agent = ReactAgent.builder()
+                .name("secure_agent")
+                .model(chatModel)
+                .hooks(PiiRedactionHook.builder().redactor(redactor).build())
+                .build();
+
+        AssistantMessage response = agent.call("我的邮箱是 zhangsan@example.com，手机 13812345678，帮我写一封星河计划的周报");
+        log.info(response.getText());
+    }
+
+    /**
+     * 示例6.2：PiiScanner 与逐类型正则的吞吐对比（MB/s）
+     */
+    @Test
+    public void piiScannerBenchmark() {
+        String[] samples = {
+                "请联系 zhang.san@example.com 获取报价，",
+                "客户手机 13812345678，备用 138-1234-5678，",
+                "身份证 11010519491231002X 已登记，",
+                "付款卡号 4111 1111 1111 1111，",
+                "星河计划下周上线，Apollo 延期，",
+                "这是一段普通的对话内容，没有任何敏感信息，只是用来填充文本。The quick brown fox jumps over the lazy dog. "
+        };
+        Random random = new Random(42);
+        StringBuilder text = new StringBuilder();
+        while (text.length() < 4_000_000) {
+            text.append(samples[random.nextInt(samples.length)]);
+        }
+        String corpus = text.toString();
+        double megabytes = corpus.getBytes(StandardCharsets.UTF_8).length / 1024.0 / 1024.0;
+
+        PiiScanner scanner = PiiScanner.builder()
+                .detectAll()
+                .dictionary("PROJECT", List.of("星河计划", "Apollo"))
+                .build();
+        List<Pattern> patterns = List.of(
+                Pattern.compile("[A-Za-z0-9._%+-]+@[A-Za-z0-9.-]+\\.[A-Za-z]{2,}"),
+                Pattern.compile("(?<![0-9])1[3-9][0-9](?:[ -]?[0-9]{4}){2}(?![0-9])"),
+                Pattern.compile("(?<![0-9])[0-9]{17}[0-9Xx](?![0-9])"),
+                Pattern.compile("(?<![0-9])[0-9]{4}(?:[ -]?[0-9]{3,4}){2,4}(?![0-9])"),
+                Pattern.compile("星河计划|(?i:apollo)"));
+
+        for (int round = 0; round < 5; round++) {
+            long start = System.nanoTime();
+            int scannerHits = scanner.scan(corpus).size();
+            double scannerSeconds = (System.nanoTime() - start) / 1e9;
+
+            start = System.nanoTime();
+            int regexHits = 0;
+            for (Pattern pattern : patterns) {
+                Matcher matcher = pattern.matcher(corpus);
+                while (matcher.find()) {
+                    regexHits++;
+                }
+            }
+            double regexSeconds = (System.nanoTime() - start) / 1e9;
+
+            System.out.printf("第 %d 轮: PiiScanner %.1f MB/s (%d 处), 逐类型正则 %.1f MB/s (%d 处)%n", round + 1,
+                    megabytes / scannerSeconds, scannerHits, megabytes / regexSeconds, regexHits);
+        }
+    }
+
 
     // ==================== 工具重试 ====================
 
@@ -215,6 +331,83 @@ public class HooksExampleOllama {
                 .build();
     }
 
+    /**
+     * 示例7.1：工具超时、舱壁隔离与熔断
+     * databaseTool 使用独立线程池，最多 4 个并发，超过 2 秒放弃；其余工具共用默认策略（信号量舱壁，不限超时，在调用线程上执行）。
+     * 熔断打开后直接返回提示，模型可以改用其他工具，不会一直等待失败的工具
+     */
+    @SneakyThrows
+    @Test
+    public void toolResilience() {
+        ChatModel chatModel = getChatModel();
+
+        ToolCallback searchTool = createSearchTool();
+        ToolCallback databaseTool = createDatabaseTool();
+
+        ToolResilienceInterceptor resilience = ToolResilienceInterceptor.builder()
+                .defaultPolicy(ResiliencePolicy.builder()
+                        .semaphoreBulkhead(8, Duration.ofMillis(100))
+                        .build())
+                .policy("databaseTool", ResiliencePolicy.builder()
+                        .timeout(Duration.ofSeconds(2))
+                        .threadPoolBulkhead(4, 0)
+                        .failureRateThreshold(0.5)
+                        .openDuration(Duration.ofSeconds(15))
+                        .build())
+                .build();
+
+        ReactAgent agent = ReactAgent.builder()
+                .name("resilient_agent")
+                .model(chatModel)
+                .tools(searchTool, databaseTool)
+                .interceptors(resilience)
+                .build();
+
+        AssistantMessage call = agent.call("Query the database for the latest orders, then search the web for context.");
+        System.out.println(call.getText());
+        resilience.snapshot().forEach((tool, snapshot) -> log.info("{}: {}", tool, snapshot));
+        resilience.shutdown();
+    }
+
+    /**
+     * 示例7.2：带重试预算的指数退避重试
+     * 只重试暂时性错误（I/O、超时、429/5xx），等待时间为 random(0, min(maxDelay, baseDelay * 2^n))；
+     * 下游持续故障时预算很快耗尽，重试被抑制，不会把故障放大成重试风暴。
+     * 放在 ToolResilienceInterceptor 之后（更靠近工具），超时统计覆盖所有重试
+     */
+    @SneakyThrows
+    @Test
+    public void toolRetryBudget() {
+        ChatModel chatModel = getChatModel();
+
+        ToolCallback searchTool = createSearchTool();
+        ToolCallback databaseTool = createDatabaseTool();
+
+        BudgetedRetryInterceptor retry = BudgetedRetryInterceptor.builder()
+                .defaultPolicy(RetryPolicy.builder()
+                        .maxRetries(3)
+                        .baseDelay(Duration.ofMillis(100))
+                        .maxDelay(Duration.ofSeconds(2))
+                        .build())
+                .globalBudget(new RetryBudget(0.1, 50))
+                .toolBudget(0.2, 5)
+                .returnErrorMessage(true)
+                .build();
+
+        ReactAgent agent = ReactAgent.builder()
+                .name("retry_budget_agent")
+                .model(chatModel)
+                .tools(searchTool, databaseTool)
+                .interceptors(ToolResilienceInterceptor.builder()
+                        .defaultPolicy(ResiliencePolicy.builder().timeout(Duration.ofSeconds(30)).build())
+                        .build(), retry)
+                .build();
+
+        AssistantMessage call = agent.call("Query the database for the latest orders.");
+        System.out.println(call.getText());
+        retry.snapshot().forEach((tool, snapshot) -> log.info("{}: {}", tool, snapshot));
+    }
+
 
 
     // ==================== Planning ====================
@@ -268,6 +461,51 @@ public class HooksExampleOllama {
                 .build();
     }
 
+    /**
+     * 示例9.1：本地工具预选
+     * 用 BM25 + 本地向量按用户消息给工具排序，只把前 3 个工具发给模型，不额外调用模型；
+     * 分数太低（例如闲聊）时才交给 ToolSelectionInterceptor 用模型选择
+     */
+    @SneakyThrows
+    @Test
+    public void localToolSelector() {
+        ChatModel chatModel = getChatModel();
+
+        List<ToolCallback> tools = new ArrayList<>();
+        tools.add(createSearchTool());
+        tools.add(createDatabaseTool());
+        tools.add(createSendEmailTool());
+        tools.add(createDeleteDataTool());
+        for (int i = 0; i < 100; i++) {
+            String name = "inventoryTool" + i;
+            tools.add(FunctionToolCallback.builder(name, (String input) -> "Inventory result")
+                    .description("Manage inventory items and suppliers, variant " + i)
+                    .inputType(String.class)
+                    .build());
+        }
+
+        LocalToolSelectionInterceptor selector = LocalToolSelectionInterceptor.builder()
+                .tools(tools)
+                .embeddingFunction(new HashingEmbeddingFunction())
+                .topK(3)
+                .alwaysInclude("searchTool")
+                .fallback(ToolSelectionInterceptor.builder().selectionModel(chatModel).build())
+                .selectionListener(selection -> log.info("工具预选: {}/{} 个工具, 置信={}, 耗时 {} us: {}",
+                        selection.selected().size(), selection.candidates(), selection.confident(),
+                        selection.nanos() / 1000, selection.selected()))
+                .build();
+
+        ReactAgent agent = ReactAgent.builder()
+                .name("local_selector_agent")
+                .model(chatModel)
+                .tools(tools)
+                .interceptors(selector)
+                .build();
+
+        AssistantMessage response = agent.call("Query the database for yesterday's orders and email the summary to bob");
+        System.out.println(response.getText());
+    }
+
 
     // ==================== LLM Tool Emulator ====================
 
@@ -290,6 +528,58 @@ public class HooksExampleOllama {
                 .build();
     }
 
+    /**
+     * 示例10.1：录制/回放模型和工具，离线压测
+     * 第一次运行时 REPLAY_OR_RECORD 访问 Ollama 并录制到文件；之后同样的对话直接回放，
+     * 按 300ms 首 token 延迟、50 token/s 模拟模型耗时，不需要 Ollama 也能并发压测 Agent、Hook 和 Saver
+     */
+    @SneakyThrows
+    @Test
+    public void recordReplay() {
+        try (RecordingStore store = RecordingStore.open(Path.of("target", "recordings", "hooks_example.jsonl"))) {
+            ChatModel chatModel = RecordReplayChatModel.builder()
+                    .delegate(getChatModel())
+                    .store(store)
+                    .mode(ReplayMode.REPLAY_OR_RECORD)
+                    .latency(SimulatedLatency.of(Duration.ofMillis(300), 50))
+                    .build();
+
+            ReactAgent agent = ReactAgent.builder()
+                    .name("replay_agent")
+                    .model(chatModel)
+                    .tools(createSearchTool())
+                    .interceptors(RecordReplayToolInterceptor.builder()
+                            .store(store)
+                            .mode(ReplayMode.REPLAY_OR_RECORD)
+                            .latency(SimulatedLatency.fixed(Duration.ofMillis(50)))
+                            .build())
+                    .saver(new MemorySaver())
+                    .build();
+
+            // 录制（已有录制时直接回放）
+            agent.call("搜索一下杭州的天气", RunnableConfig.builder().threadId("replay_0").build());
+
+            // 并发回放
+            int sessions = 200;
+            ExecutorService executor = Executors.newFixedThreadPool(32);
+            long start = System.nanoTime();
+            List<CompletableFuture<AssistantMessage>> futures = new ArrayList<>();
+            for (int i = 1; i <= sessions; i++) {
+                RunnableConfig config = RunnableConfig.builder().threadId("replay_" + i).build();
+                futures.add(CompletableFuture.supplyAsync(() -> callQuietly(agent, config), executor));
+            }
+            futures.forEach(CompletableFuture::join);
+            long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+            log.info("回放 {} 个会话耗时 {}ms，约 {} 会话/秒", sessions, elapsedMs, sessions * 1000L / Math.max(elapsedMs, 1));
+            executor.shutdown();
+        }
+    }
+
+    @SneakyThrows
+    private static AssistantMessage callQuietly(ReactAgent agent, RunnableConfig config) {
+        return agent.call("搜索一下杭州的天气", config);
+    }
+
 
     // ==================== Context Editing ====================
 
@@ -307,6 +597,98 @@ public class HooksExampleOllama {
                 .build();
     }
 
+    /**
+     * 示例11.3：按 token 预算规划上下文
+     * 根据模型上下文长度和输出预留计算历史可用的 token，超出时依次尝试：清空旧工具输出 -> 裁剪 -> 摘要
+     */
+    @SneakyThrows
+    @Test
+    public void contextPlanner() {
+        ChatModel chatModel = getChatModel();
+        ToolCallback searchTool = createSearchTool();
+
+        ContextPlannerInterceptor contextPlanner = ContextPlannerInterceptor.builder()
+                .contextWindow(8192)
+                .reservedOutput(1024)
+                .tools(List.of(searchTool))
+                .summaryModel(chatModel)
+                .planListener(plan -> log.info("上下文规划: {}", plan))
+                .build();
+
+        ReactAgent agent = ReactAgent.builder()
+                .name("context_planner_agent")
+                .model(chatModel)
+                .tools(searchTool)
+                .interceptors(contextPlanner)
+                .saver(new MemorySaver())
+                .build();
+
+        // 裁剪边界按会话记录，ModelRequest 的上下文里没有 threadId，用 ModelRequests.runnableConfig 同时以元数据传入
+        RunnableConfig config = ModelRequests.runnableConfig("context_planner").build();
+        agent.call("搜索一下杭州的旅游景点", config);
+        AssistantMessage response = agent.call("根据刚才的结果帮我规划一日游路线", config);
+        log.info(response.getText());
+    }
+
+
+
+
+
+    // ==================== 并行 Hooks ====================
+
+    /**
+     * 示例11.1：并行执行互不冲突的 Hook
+     * 审计日志和远程策略查询读写的状态 key 不冲突，在独立线程池上并发执行，耗时不再叠加
+     */
+    @SneakyThrows
+    @Test
+    public void parallelHooks() {
+        ChatModel chatModel = getChatModel();
+
+        ExecutorService hookExecutor = Executors.newFixedThreadPool(4);
+        ParallelModelHook parallelHook = new ParallelModelHook("parallel_io_hooks",
+                List.of(new AuditLogHook(), new PolicyLookupHook()), hookExecutor);
+
+        ReactAgent agent = ReactAgent.builder()
+                .name("parallel_hook_agent")
+                .model(chatModel)
+                .hooks(parallelHook)
+                .build();
+
+        AssistantMessage response = agent.call("帮我写一首适合秋高气爽的诗词");
+        log.info(response.getText());
+        hookExecutor.shutdown();
+    }
+
+    /**
+     * 示例11.2：Hook / Interceptor 耗时统计
+     * 包装后按 getName() 统计调用次数、异常次数和 p50/p99 耗时；Interceptor 只统计自身耗时，不含下游模型或工具调用
+     */
+    @SneakyThrows
+    @Test
+    public void instrumentedHooks() {
+        ChatModel chatModel = getChatModel();
+
+        AgentMetrics metrics = new AgentMetrics();
+        // 需要接入监控时：metrics.bindTo(meterRegistry);
+
+        ReactAgent agent = ReactAgent.builder()
+                .name("instrumented_agent")
+                .model(chatModel)
+                .hooks(Instrumentation.instrument(new LoggingModelHook(), metrics),
+                        Instrumentation.instrument(new MessageTrimmingHook(), metrics))
+                .interceptors(Instrumentation.instrument(new GuardrailInterceptor(), metrics))
+                .build();
+
+        for (int i = 0; i < 3; i++) {
+            agent.call("用一句话介绍一下杭州");
+        }
+        metrics.snapshot().forEach(snapshot -> log.info(snapshot));
+
+        // 关闭后包装类直接透传
+        metrics.setEnabled(false);
+    }
+
 
 
 
@@ -483,6 +865,64 @@ public class HooksExampleOllama {
     }
 
 
+    /**
+     * 审计日志 Hook：模拟写审计日志的 I/O，只写 audit_id
+     */
+    @HookPositions({HookPosition.BEFORE_MODEL})
+    private static class AuditLogHook extends ModelHook implements StateAccess {
+
+        @Override
+        public String getName() {
+            return "audit_log_hook";
+        }
+
+        @Override
+        public Set<String> readKeys() {
+            return Set.of("messages");
+        }
+
+        @Override
+        public Set<String> writeKeys() {
+            return Set.of("audit_id");
+        }
+
+        @SneakyThrows
+        @Override
+        public CompletableFuture<Map<String, Object>> beforeModel(OverAllState state, RunnableConfig config) {
+            Thread.sleep(200);
+            return CompletableFuture.completedFuture(Map.of("audit_id", UUID.randomUUID().toString()));
+        }
+    }
+
+    /**
+     * 策略查询 Hook：模拟远程策略查询，只写 policy
+     */
+    @HookPositions({HookPosition.BEFORE_MODEL})
+    private static class PolicyLookupHook extends ModelHook implements StateAccess {
+
+        @Override
+        public String getName() {
+            return "policy_lookup_hook";
+        }
+
+        @Override
+        public Set<String> readKeys() {
+            return Set.of();
+        }
+
+        @Override
+        public Set<String> writeKeys() {
+            return Set.of("policy");
+        }
+
+        @SneakyThrows
+        @Override
+        public CompletableFuture<Map<String, Object>> beforeModel(OverAllState state, RunnableConfig config) {
+            Thread.sleep(200);
+            return CompletableFuture.completedFuture(Map.of("policy", "default"));
+        }
+    }
+
     /**
      * 日志记录 ModelHook
      */
@@ -526,14 +966,11 @@ public class HooksExampleOllama {
 
         @Override
         public AgentCommand beforeModel(List<Message> previousMessages, RunnableConfig config) {
-            // 如果消息数量超过限制，只保留最后 MAX_MESSAGES 条消息
+            // 如果消息数量超过限制，只保留最后 MAX_MESSAGES 条消息（不拆开工具调用和工具响应）
             if (previousMessages.size() > MAX_MESSAGES) {
-                List<Message> trimmedMessages = previousMessages.subList(
-                        previousMessages.size() - MAX_MESSAGES,
-                        previousMessages.size()
-                );
+                List<Message> trimmedMessages = MessageWindow.lastMessages(previousMessages, 0, MAX_MESSAGES);
                 // 使用 REPLACE 策略替换所有消息
-                return new AgentCommand(trimmedMessages, UpdatePolicy.REPLACE);
+                return new AgentCommand(new ArrayList<>(trimmedMessages), UpdatePolicy.REPLACE);
             }
             // 如果消息数量未超过限制，返回原始消息（不进行修改）
             return new AgentCommand(previousMessages);
@@ -562,10 +999,13 @@ public class HooksExampleOllama {
      * 重试工具拦截器
      */
     private static class RetryToolInterceptor extends ToolInterceptor {
+
+        private final BudgetedRetryInterceptor delegate = BudgetedRetryInterceptor.builder().build();
+
         @Override
         public ToolCallResponse interceptToolCall(ToolCallRequest request, ToolCallHandler handler) {
-            // 简化的实现
-            return handler.call(request);
+            // 指数退避 + 重试预算，见示例7.2
+            return delegate.interceptToolCall(request, handler);
         }
 
         @Override
@@ -14,10 +14,22 @@ import com.alibaba.cloud.ai.graph.agent.tools.ToolContextConstants;
 import com.alibaba.cloud.ai.graph.checkpoint.savers.MemorySaver;
 import com.alibaba.cloud.ai.graph.checkpoint.savers.redis.RedisSaver;
 import com.alibaba.cloud.ai.graph.exception.GraphRunnerException;
+import com.alibaba.cloud.ai.hook.FusedMessagesModelHook;
+import com.alibaba.cloud.ai.memory.intern.InterningCheckpointSaver;
+import com.alibaba.cloud.ai.memory.intern.MessageInterner;
+import com.alibaba.cloud.ai.memory.intern.RedisContentStore;
+import com.alibaba.cloud.ai.memory.longterm.FileMemoryPersistence;
+import com.alibaba.cloud.ai.memory.longterm.HashingEmbeddingFunction;
+import com.alibaba.cloud.ai.memory.longterm.HnswIndex;
+import com.alibaba.cloud.ai.memory.longterm.LongTermMemoryHook;
+import com.alibaba.cloud.ai.memory.longterm.LongTermMemoryStore;
+import com.alibaba.cloud.ai.memory.window.MessageWindow;
+import com.alibaba.cloud.ai.memory.window.MessageWindowHook;
 import com.alibaba.fastjson.JSONObject;
 import org.junit.jupiter.api.Test;
 import org.springframework.ai.chat.messages.AssistantMessage;
 import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.MessageType;
 import org.springframework.ai.chat.messages.SystemMessage;
 import org.springframework.ai.chat.messages.UserMessage;
 import org.springframework.ai.chat.model.ChatModel;
@@ -27,8 +39,15 @@ import org.springframework.ai.chat.prompt.Prompt;
 import org.springframework.ai.tool.ToolCallback;
 import org.springframework.ai.tool.function.FunctionToolCallback;
 
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.Set;
 import java.util.function.BiFunction;
 
 import static com.alibaba.cloud.ai.common.CommonUtils.*;
@@ -106,6 +125,35 @@ public class MemoryExampleOllama {
 
 
 
+    /**
+     * 示例2.1：checkpoint 内容驻留
+     * 大段 SystemMessage（例如摘要、角色提示词）按内容哈希只在 Redis 中保存一份，checkpoint 中只保留引用
+     */
+    @Test
+    public void internedCheckpointConfiguration() throws GraphRunnerException {
+        ChatModel chatModel = getChatModel();
+
+        MessageInterner interner = new MessageInterner(new RedisContentStore(redisCli()), 256);
+        InterningCheckpointSaver saver = new InterningCheckpointSaver(redisSaver(), interner);
+
+        ReactAgent agent = ReactAgent.builder()
+                .name("my_agent")
+                .model(chatModel)
+                .saver(saver)
+                .build();
+
+        String rolePrompt = "你是一个专业的技术助手。请准确、简洁地回答问题。".repeat(20);
+        for (String threadId : List.of("user_1", "user_2", "user_3")) {
+            RunnableConfig config = RunnableConfig.builder()
+                    .threadId(threadId)
+                    .build();
+            AssistantMessage call = agent.call(List.of(new SystemMessage(rolePrompt), new UserMessage("你好")), config);
+            System.out.println(call.getText());
+        }
+    }
+
+
+
     // ==================== 自定义 Agent 记忆 ====================
 
     /**
@@ -144,6 +192,73 @@ public class MemoryExampleOllama {
 
 
 
+    /**
+     * 示例5.1：使用环形缓冲消息窗口
+     * 固定第一条 system / user 消息，保留最近 6 条消息，工具调用和工具响应不会被拆开
+     */
+    @Test
+    public void useMessageWindow() throws GraphRunnerException {
+        ChatModel chatModel = getChatModel();
+
+        MessageWindowHook windowHook = MessageWindowHook.builder()
+                .capacity(64)
+                .maxMessages(6)
+                .pin(MessageType.SYSTEM, MessageType.USER)
+                .build();
+
+        ReactAgent agent = ReactAgent.builder()
+                .name("my_agent")
+                .model(chatModel)
+                .hooks(windowHook)
+                .saver(new MemorySaver())
+                .build();
+
+        RunnableConfig config = RunnableConfig.builder()
+                .threadId("1")
+                .build();
+
+        AssistantMessage call = agent.call("你好，我叫 bob", config);
+        System.out.println(call.getText());
+        AssistantMessage call1 = agent.call("写一首关于猫的短诗", config);
+        System.out.println(call1.getText());
+        AssistantMessage call2 = agent.call("现在对狗做同样的事情", config);
+        System.out.println(call2.getText());
+        AssistantMessage finalResponse = agent.call("我叫什么名字？", config);
+
+        System.out.println(finalResponse.getText());
+    }
+
+
+
+    /**
+     * 示例5.2：融合多个 MessagesModelHook
+     * CustomMemoryHook 原样返回消息，MessageTrimmingHook 按需替换，融合后每次模型调用最多只提交一次状态更新
+     */
+    @Test
+    public void useFusedMessagesHooks() throws GraphRunnerException {
+        ChatModel chatModel = getChatModel();
+
+        ReactAgent agent = ReactAgent.builder()
+                .name("my_agent")
+                .model(chatModel)
+                .hooks(FusedMessagesModelHook.of(new CustomMemoryHook(), new MessageTrimmingHook()))
+                .saver(new MemorySaver())
+                .build();
+
+        RunnableConfig config = RunnableConfig.builder()
+                .threadId("1")
+                .build();
+
+        AssistantMessage call = agent.call("你好，我叫 bob", config);
+        System.out.println(call.getText());
+        AssistantMessage call1 = agent.call("写一首关于猫的短诗", config);
+        System.out.println(call1.getText());
+        AssistantMessage finalResponse = agent.call("我叫什么名字？", config);
+        System.out.println(finalResponse.getText());
+    }
+
+
+
     // ==================== 修剪消息 ====================
 
     /**
@@ -255,6 +370,117 @@ public class MemoryExampleOllama {
     }
 
 
+    /**
+     * 示例12.1：长期记忆
+     * 消息窗口淘汰的消息写入按用户划分的本地 HNSW 索引，模型调用前召回最相关的 3 条历史片段
+     */
+    @Test
+    public void useLongTermMemory() throws GraphRunnerException {
+        ChatModel chatModel = getChatModel();
+
+        LongTermMemoryStore memoryStore = LongTermMemoryStore.builder()
+                .embeddingFunction(new HashingEmbeddingFunction())
+                .persistence(new FileMemoryPersistence(Path.of("target", "long-term-memory")))
+//                .persistence(new RedisMemoryPersistence(redisCli()))
+                .build();
+
+        MessageWindowHook windowHook = MessageWindowHook.builder()
+                .maxMessages(4)
+                .evictionListener(memoryStore.evictionListener())
+                .build();
+
+        // 先裁剪窗口，再召回长期记忆
+        ReactAgent agent = ReactAgent.builder()
+                .name("my_agent")
+                .model(chatModel)
+                .hooks(windowHook, new LongTermMemoryHook(memoryStore, 3, 0.2f))
+                .saver(new MemorySaver())
+                .build();
+
+        RunnableConfig config = RunnableConfig.builder()
+                .threadId("1")
+                .addMetadata("user_id", "user_123")
+                .build();
+
+        agent.call("我最喜欢的城市是杭州，我养了一只叫 Tom 的猫", config);
+        agent.call("写一首关于秋天的短诗", config);
+        agent.call("现在写一首关于冬天的短诗", config);
+        AssistantMessage response = agent.call("我的猫叫什么名字？", config);
+        System.out.println(response.getText());
+
+        memoryStore.saveAll();
+    }
+
+    /**
+     * 示例12.2：长期记忆索引的召回率和延迟
+     * 随机向量上对比 HNSW 与暴力检索的 recall@10，vectorCount 调到 1_000_000 时需要 -Xmx4g 以上
+     */
+    @Test
+    public void longTermMemoryBenchmark() {
+        int vectorCount = 100_000;
+        int dimensions = 128;
+        int queries = 100;
+        int topK = 10;
+
+        Random random = new Random(7);
+        float[][] vectors = new float[vectorCount][dimensions];
+        HnswIndex index = new HnswIndex(dimensions, 16, 200, 128);
+
+        long buildStart = System.nanoTime();
+        for (float[] vector : vectors) {
+            for (int i = 0; i < dimensions; i++) {
+                vector[i] = (float) random.nextGaussian();
+            }
+            index.add(vector);
+        }
+        System.out.printf("写入 %d 条向量耗时: %dms%n", vectorCount, (System.nanoTime() - buildStart) / 1_000_000);
+
+        long[] latencies = new long[queries];
+        int hits = 0;
+        for (int q = 0; q < queries; q++) {
+            float[] query = vectors[random.nextInt(vectorCount)].clone();
+            for (int i = 0; i < dimensions; i++) {
+                query[i] += (float) random.nextGaussian() * 0.5f;
+            }
+
+            long start = System.nanoTime();
+            List<HnswIndex.SearchResult> results = index.search(query, topK);
+            latencies[q] = System.nanoTime() - start;
+
+            Set<Integer> expected = bruteForceTopK(vectors, query, topK);
+            for (HnswIndex.SearchResult result : results) {
+                if (expected.contains(result.node())) {
+                    hits++;
+                }
+            }
+        }
+        Arrays.sort(latencies);
+        System.out.printf("recall@%d: %.3f, p50: %dus, p99: %dus%n", topK, hits / (double) (queries * topK),
+                latencies[queries / 2] / 1000, latencies[queries * 99 / 100] / 1000);
+    }
+
+    private static Set<Integer> bruteForceTopK(float[][] vectors, float[] query, int k) {
+        PriorityQueue<double[]> top = new PriorityQueue<>(Comparator.comparingDouble(entry -> entry[1]));
+        for (int n = 0; n < vectors.length; n++) {
+            double dot = 0;
+            double norm = 0;
+            for (int i = 0; i < query.length; i++) {
+                dot += query[i] * vectors[n][i];
+                norm += vectors[n][i] * vectors[n][i];
+            }
+            top.add(new double[] {n, dot / Math.sqrt(norm)});
+            if (top.size() > k) {
+                top.poll();
+            }
+        }
+        Set<Integer> ids = new HashSet<>();
+        for (double[] entry : top) {
+            ids.add((int) entry[0]);
+        }
+        return ids;
+    }
+
+
     /**
      * 创建示例工具
      */
@@ -297,11 +523,13 @@ public class MemoryExampleOllama {
     /**
      * 示例4：消息修剪 Hook
      * 使用 MessagesModelHook 实现，在模型调用前修剪消息列表
-     * 保留第一条消息和最后 keepCount 条消息，删除中间的消息
+     * 保留前两条消息和最后 MAX_MESSAGES 条消息，删除中间的消息
+     * MessageWindow 会跳过窗口开头的工具响应，不会把工具调用和工具响应拆开
      */
     @HookPositions({HookPosition.BEFORE_MODEL})
     public static class MessageTrimmingHook extends MessagesModelHook {
 
+        private static final int PINNED_MESSAGES = 2;
         private static final int MAX_MESSAGES = 3;
 
         @Override
@@ -311,30 +539,15 @@ public class MemoryExampleOllama {
 
         @Override
         public AgentCommand beforeModel(List<Message> previousMessages, RunnableConfig config) {
-            if (previousMessages.size() <= MAX_MESSAGES) {
+            // 前两条消息 + 最后 MAX_MESSAGES 条消息的视图，不复制列表
+            List<Message> window = MessageWindow.lastMessages(previousMessages, PINNED_MESSAGES, MAX_MESSAGES);
+            if (window.size() == previousMessages.size()) {
                 // 如果消息数量未超过限制，无需更改
                 return new AgentCommand(previousMessages);
             }
 
-            int keepCount = previousMessages.size() % 2 == 0 ? 3 : 4;
-
-            // 构建要保留的消息列表：第一条消息 + 最后 keepCount 条消息
-            List<Message> trimmedMessages = new ArrayList<>();
-            // 保留第一条消息
-            if (!previousMessages.isEmpty()) {
-                trimmedMessages.add(previousMessages.get(0));
-                trimmedMessages.add(previousMessages.get(1));
-            }
-            // 保留最后 keepCount 条消息
-            if (previousMessages.size() - keepCount > 0) {
-                trimmedMessages.addAll(previousMessages.subList(
-                        previousMessages.size() - keepCount,
-                        previousMessages.size()
-                ));
-            }
-
             // 使用 REPLACE 策略替换所有消息
-            return new AgentCommand(trimmedMessages, UpdatePolicy.REPLACE);
+            return new AgentCommand(new ArrayList<>(window), UpdatePolicy.REPLACE);
         }
     }
 
@@ -359,11 +572,11 @@ public class MemoryExampleOllama {
                 return new AgentCommand(previousMessages);
             }
 
-            // 删除最早的两条消息，保留其余消息
-            List<Message> remainingMessages = previousMessages.subList(2, previousMessages.size());
+            // 删除最早的两条消息，保留其余消息（开头的工具响应会一并删除）
+            List<Message> remainingMessages = MessageWindow.lastMessages(previousMessages, 0, previousMessages.size() - 2);
 
             // 使用 REPLACE 策略替换所有消息
-            return new AgentCommand(remainingMessages, UpdatePolicy.REPLACE);
+            return new AgentCommand(new ArrayList<>(remainingMessages), UpdatePolicy.REPLACE);
         }
     }
 
@@ -1,15 +1,40 @@
 package com.alibaba.cloud.ai.study;
 
 
-import com.alibaba.cloud.ai.graph.OverAllState;
 import com.alibaba.cloud.ai.graph.RunnableConfig;
 import com.alibaba.cloud.ai.graph.agent.ReactAgent;
 import com.alibaba.cloud.ai.graph.agent.tools.ToolContextConstants;
 import com.alibaba.cloud.ai.graph.checkpoint.savers.MemorySaver;
 import com.alibaba.cloud.ai.graph.exception.GraphRunnerException;
+import com.alibaba.cloud.ai.interceptor.direct.ReturnDirectInterceptor;
+import com.alibaba.cloud.ai.memory.stats.ConversationStats;
+import com.alibaba.cloud.ai.memory.stats.ConversationStatsHook;
+import com.alibaba.cloud.ai.tool.binding.ArgumentBinder;
+import com.alibaba.cloud.ai.tool.binding.ArgumentBinders;
+import com.alibaba.cloud.ai.tool.binding.BoundToolCallbacks;
+import com.alibaba.cloud.ai.tool.cache.CacheableTool;
+import com.alibaba.cloud.ai.tool.cache.ToolResultCacheInterceptor;
+import com.alibaba.cloud.ai.tool.loader.DataLoader;
+import com.alibaba.cloud.ai.tool.loader.DataLoaderInterceptor;
+import com.alibaba.cloud.ai.tool.loader.DataLoaderRegistry;
+import com.alibaba.cloud.ai.tool.mcp.McpConnectionPool;
+import com.alibaba.cloud.ai.tool.parallel.ParallelToolExecution;
+import com.alibaba.cloud.ai.tool.parallel.SequentialTool;
+import com.alibaba.cloud.ai.tool.provider.DynamicToolCallbackProvider;
+import com.alibaba.cloud.ai.tool.resolver.IndexedToolCallbackResolver;
+import com.alibaba.cloud.ai.tool.resolver.ToolSource;
+import com.alibaba.cloud.ai.tool.resolver.ToolView;
+import com.alibaba.cloud.ai.tool.schema.SchemaCompactor;
+import com.alibaba.cloud.ai.tool.schema.ToolSchemaRegistry;
+import com.alibaba.fastjson.JSON;
 import com.alibaba.fastjson.JSONObject;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.JsonPropertyDescription;
+import io.modelcontextprotocol.client.transport.HttpClientSseClientTransport;
+import io.modelcontextprotocol.server.McpServer;
+import io.modelcontextprotocol.server.McpSyncServer;
+import io.modelcontextprotocol.server.transport.WebFluxSseServerTransportProvider;
+import io.modelcontextprotocol.spec.McpSchema;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -17,23 +42,34 @@ import lombok.SneakyThrows;
 import lombok.extern.log4j.Log4j2;
 import org.junit.jupiter.api.Test;
 import org.springframework.ai.chat.messages.AssistantMessage;
-import org.springframework.ai.chat.messages.Message;
 import org.springframework.ai.chat.model.ChatModel;
 import org.springframework.ai.chat.model.ToolContext;
+import org.springframework.ai.support.ToolCallbacks;
 import org.springframework.ai.tool.ToolCallback;
 import org.springframework.ai.tool.ToolCallbackProvider;
 import org.springframework.ai.tool.annotation.Tool;
 import org.springframework.ai.tool.annotation.ToolParam;
 import org.springframework.ai.tool.function.FunctionToolCallback;
 import org.springframework.ai.tool.resolution.StaticToolCallbackResolver;
+import org.springframework.ai.util.json.JsonParser;
+import org.springframework.http.server.reactive.ReactorHttpHandlerAdapter;
+import org.springframework.web.reactive.function.server.RouterFunctions;
 import reactor.core.publisher.Flux;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
 
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.function.BiFunction;
 import java.util.function.Function;
+import java.util.function.Supplier;
 
 import static com.alibaba.cloud.ai.common.CommonUtils.getChatModel;
 
@@ -190,6 +226,8 @@ public class ToolsExampleOllama {
                 .model(chatModel)
                 .saver(new MemorySaver())
                 .tools(summaryTool)
+                // 增量维护会话统计，工具直接读取，不再扫描消息历史
+                .hooks(new ConversationStatsHook())
                 .build();
 
         // 使用 thread_id 维护对话上下文
@@ -430,6 +468,283 @@ public class ToolsExampleOllama {
         System.out.println(call.getText());
     }
 
+    /**
+     * 示例12.1：并行执行同一轮的多个工具调用
+     * 模型一次返回多个工具调用（例如三个城市的天气）时并发执行，结果仍按原顺序返回；
+     * CalculatorTools 有可变的 callCount，标注了 @SequentialTool，不参与并发
+     */
+    @Test
+    public void parallelToolCallsExample() throws GraphRunnerException {
+        ChatModel chatModel = getChatModel();
+
+        CalculatorTools calculatorTools = new CalculatorTools();
+        WeatherTools weatherTools = new WeatherTools();
+
+        ExecutorService toolExecutor = Executors.newFixedThreadPool(4);
+        ParallelToolExecution parallelTools = ParallelToolExecution.builder()
+                .executor(toolExecutor)
+                .toolObjects(calculatorTools, weatherTools)
+                .build();
+
+        ReactAgent agent = ReactAgent.builder()
+                .name("parallel_tool_agent")
+                .model(chatModel)
+                .instruction("You are a helpful assistant with calculator and weather tools.")
+                .methodTools(calculatorTools, weatherTools)
+                // toolInterceptor 放在最前面，其余 ToolInterceptor 对每个调用仍完整执行
+                .interceptors(parallelTools.toolInterceptor(), parallelTools.modelInterceptor())
+                .saver(new MemorySaver())
+                .build();
+
+        RunnableConfig config = RunnableConfig.builder()
+                .threadId("parallel_tools_session")
+                .build();
+
+        AssistantMessage call = agent.call("What's the weather in Beijing, Shanghai and Hangzhou?", config);
+        System.out.println(call.getText());
+        toolExecutor.shutdown();
+    }
+
+    /**
+     * 示例12.2：工具结果缓存
+     * WeatherTools.getWeather 标注了 @CacheableTool，相同城市在有效期内直接返回缓存结果；
+     * FunctionToolCallback 没有方法注解，通过 cacheable 声明，get_account_info 的结果与用户相关，按 user_id 隔离
+     */
+    @Test
+    public void toolResultCacheExample() throws GraphRunnerException {
+        ChatModel chatModel = getChatModel();
+
+        WeatherTools weatherTools = new WeatherTools();
+        ToolCallback searchTool = FunctionToolCallback
+                .builder("web_search", new SearchFunction())
+                .description("Search the web for information")
+                .inputType(JSONObject.class)
+                .build();
+        ToolCallback accountTool = FunctionToolCallback
+                .builder("get_account_info", new AccountInfoTool())
+                .description("Get the current user's account information")
+                .inputType(JSONObject.class)
+                .build();
+
+        ToolResultCacheInterceptor toolCache = ToolResultCacheInterceptor.builder()
+                .toolObjects(weatherTools)
+                .cacheable("web_search", Duration.ofMinutes(10))
+                .cacheable("get_account_info", Duration.ofSeconds(30), true)
+                .maxEntries(1000)
+                .build();
+
+        ReactAgent agent = ReactAgent.builder()
+                .name("cached_tool_agent")
+                .model(chatModel)
+                .instruction("You are a helpful assistant with weather, search and account tools.")
+                .methodTools(weatherTools)
+                .tools(searchTool, accountTool)
+                .interceptors(toolCache)
+                .saver(new MemorySaver())
+                .build();
+
+        RunnableConfig config = RunnableConfig.builder()
+                .threadId("tool_cache_session")
+                .addMetadata("user_id", "user123")
+                .build();
+
+        agent.call("What's the weather in Beijing?", config);
+        AssistantMessage call = agent.call("Check the weather in Beijing again, and show my account info.", config);
+        System.out.println(call.getText());
+        toolCache.stats().forEach((tool, stats) -> log.info("{}: {}", tool, stats));
+    }
+
+    /**
+     * 示例12.3：缓存并压缩工具 schema
+     * 工具定义（含参数 schema）会随每次请求发给模型。注册表对每个工具只压缩一次并缓存，
+     * 去掉冗余关键字和空白、截断过长的参数描述，report 列出每个工具压缩前后的 token 估算
+     */
+    @Test
+    public void toolSchemaRegistryExample() throws GraphRunnerException {
+        ChatModel chatModel = getChatModel();
+
+        ToolSchemaRegistry schemaRegistry = ToolSchemaRegistry.builder()
+                .compactor(SchemaCompactor.builder().maxDescriptionChars(80).build())
+                .build();
+
+        List<ToolCallback> tools = new ArrayList<>();
+        tools.add(FunctionToolCallback.builder("currentWeather", new WeatherService())
+                .description("Get the weather in location")
+                .inputType(WeatherRequest.class)
+                .build());
+        tools.add(FunctionToolCallback.builder("calculator", new CalculatorFunctionWithRequest())
+                .description("Perform arithmetic calculations")
+                .inputType(CalculatorRequest.class)
+                .build());
+        // @Tool 方法先转换成 ToolCallback 再注册，代替 methodTools
+        tools.addAll(List.of(ToolCallbacks.from(new CalculatorTools(), new WeatherTools())));
+
+        List<ToolCallback> compactTools = schemaRegistry.register(tools);
+        schemaRegistry.report().forEach(cost -> log.info("{}", cost));
+
+        ReactAgent agent = ReactAgent.builder()
+                .name("compact_schema_agent")
+                .model(chatModel)
+                .instruction("You are a helpful assistant with calculator and weather tools.")
+                .tools(compactTools)
+                .saver(new MemorySaver())
+                .build();
+
+        RunnableConfig config = RunnableConfig.builder()
+                .threadId("compact_schema_session")
+                .build();
+
+        AssistantMessage call = agent.call("What is 12 * 7 and what's the weather in Hangzhou?", config);
+        System.out.println(call.getText());
+    }
+
+    /**
+     * 示例12.4：预生成的参数绑定与 MethodHandle 调用
+     * BoundToolCallbacks 与 ToolCallbacks.from / FunctionToolCallback 生成相同的工具定义，
+     * 参数 JSON 直接读入构造器参数，不经过 Map / JSONObject；下面对比每次调用的耗时和分配字节数
+     */
+    @Test
+    public void boundToolCallbackBenchmark() {
+        String weatherJson = "{\"location\": \"Hangzhou\", \"unit\": \"C\"}";
+        String calculatorJson = "{\"a\": 12, \"b\": 7}";
+
+        ArgumentBinder<WeatherRequest> weatherBinder = ArgumentBinders.binder(WeatherRequest.class);
+        ArgumentBinder<CalculatorRequest> calculatorBinder = ArgumentBinders.binder(CalculatorRequest.class);
+
+        WeatherTools weatherTools = new WeatherTools();
+        ToolCallback reflectiveTool = findTool(ToolCallbacks.from(weatherTools), "getWeather");
+        ToolCallback boundTool = findTool(BoundToolCallbacks.from(weatherTools), "getWeather");
+        // 参数名与 schema 一致（未开启 -parameters 编译时为 arg0）
+        String weatherToolJson = reflectiveTool.getToolDefinition().inputSchema().contains("\"city\"")
+                ? "{\"city\": \"Hangzhou\"}" : "{\"arg0\": \"Hangzhou\"}";
+
+        for (int round = 0; round < 3; round++) {
+            System.out.printf("第 %d 轮%n", round + 1);
+            measure("Jackson WeatherRequest", () -> JsonParser.fromJson(weatherJson, WeatherRequest.class));
+            measure("fastjson JSONObject", () -> JSON.parseObject(weatherJson));
+            measure("binder WeatherRequest", () -> weatherBinder.bind(weatherJson));
+            measure("Jackson CalculatorRequest", () -> JsonParser.fromJson(calculatorJson, CalculatorRequest.class));
+            measure("binder CalculatorRequest", () -> calculatorBinder.bind(calculatorJson));
+            measure("MethodToolCallback.call", () -> reflectiveTool.call(weatherToolJson));
+            measure("BoundToolCallback.call", () -> boundTool.call(weatherToolJson));
+        }
+    }
+
+    /**
+     * 示例12.5：批量数据加载
+     * 模型一次查询多个用户时，并行执行的 get_user_profile 调用把 user_id 交给同一个批量队列，
+     * 5ms 窗口内的查询合并成一次批量查询；同一会话内重复的 user_id 直接使用 memo
+     */
+    @Test
+    public void dataLoaderExample() throws GraphRunnerException {
+        ChatModel chatModel = getChatModel();
+
+        DataLoaderInterceptor dataLoaders = DataLoaderInterceptor.builder()
+                .loader("users", (Set<String> userIds) -> {
+                    log.info("批量查询用户: {}", userIds);
+                    Map<String, String> users = new HashMap<>();
+                    userIds.forEach(userId -> users.put(userId, "User " + userId + " (Premium)"));
+                    return users;
+                })
+                .batchWindow(Duration.ofMillis(5))
+                .build();
+
+        ToolCallback userProfileTool = FunctionToolCallback.builder("get_user_profile", new UserProfileTool())
+                .description("Get a user's profile by user_id")
+                .inputType(JSONObject.class)
+                .build();
+
+        ExecutorService toolExecutor = Executors.newFixedThreadPool(4);
+        ParallelToolExecution parallelTools = ParallelToolExecution.builder()
+                .executor(toolExecutor)
+                .build();
+
+        ReactAgent agent = ReactAgent.builder()
+                .name("data_loader_agent")
+                .model(chatModel)
+                .instruction("You are a helpful assistant. Use get_user_profile to look up users.")
+                .tools(userProfileTool)
+                .interceptors(parallelTools.toolInterceptor(), parallelTools.modelInterceptor(), dataLoaders)
+                .saver(new MemorySaver())
+                .build();
+
+        RunnableConfig config = RunnableConfig.builder()
+                .threadId("data_loader_session")
+                .build();
+
+        AssistantMessage call = agent.call("Compare the profiles of users u1, u2 and u3.", config);
+        System.out.println(call.getText());
+        toolExecutor.shutdown();
+    }
+
+    /**
+     * 示例12.6：returnDirect 工具跳过工具之后的模型调用
+     * OrderTools 的工具标注了 returnDirect，工具结果直接作为最终回复；对比开启前后每轮对话的平均耗时
+     */
+    @Test
+    public void returnDirectBenchmark() throws GraphRunnerException {
+        ChatModel chatModel = getChatModel();
+        OrderTools orderTools = new OrderTools();
+
+        ReturnDirectInterceptor returnDirect = ReturnDirectInterceptor.builder()
+                .toolObjects(orderTools)
+                .build();
+
+        ReactAgent baseline = ReactAgent.builder()
+                .name("order_agent")
+                .model(chatModel)
+                .instruction("You are an order assistant. Use get_order_status to answer order questions.")
+                .methodTools(orderTools)
+                .build();
+
+        ReactAgent direct = ReactAgent.builder()
+                .name("order_agent_direct")
+                .model(chatModel)
+                .instruction("You are an order assistant. Use get_order_status to answer order questions.")
+                .methodTools(orderTools)
+                .interceptors(returnDirect)
+                .build();
+
+        int turns = 5;
+        log.info("普通: 平均每轮 {}ms", averageTurnMillis(baseline, turns));
+        log.info("returnDirect: 平均每轮 {}ms", averageTurnMillis(direct, turns));
+        log.info("省下的模型调用: {}", returnDirect.savedCalls());
+    }
+
+    private static long averageTurnMillis(ReactAgent agent, int turns) throws GraphRunnerException {
+        long start = System.nanoTime();
+        for (int i = 0; i < turns; i++) {
+            AssistantMessage reply = agent.call("What is the status of order A" + (1000 + i) + "?");
+            log.info(reply.getText());
+        }
+        return (System.nanoTime() - start) / turns / 1_000_000;
+    }
+
+    private static ToolCallback findTool(ToolCallback[] tools, String name) {
+        for (ToolCallback tool : tools) {
+            if (tool.getToolDefinition().name().equals(name)) {
+                return tool;
+            }
+        }
+        throw new IllegalArgumentException("Tool not found: " + name);
+    }
+
+    private static void measure(String name, Supplier<Object> call) {
+        int iterations = 200_000;
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        Object sink = null;
+        long allocated = threads.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            sink = call.get();
+        }
+        long nanos = System.nanoTime() - start;
+        allocated = threads.getThreadAllocatedBytes(threadId) - allocated;
+        System.out.printf("  %-26s %8.1f ns/op %8d B/op  (%s)%n", name, (double) nanos / iterations,
+                allocated / iterations, sink == null ? "null" : sink.getClass().getSimpleName());
+    }
+
     /**
      * 示例13：使用 ToolCallbackProvider
      *
@@ -467,6 +782,140 @@ public class ToolsExampleOllama {
         System.out.println(call.getText());
     }
 
+    /**
+     * 示例13.1：运行时可更新的 ToolCallbackProvider
+     * 修改时发布新的不可变快照，读取无锁；变更事件只让变化的工具失效 schema 缓存和结果缓存。
+     * ReactAgent 在 build() 时复制一次 provider 的工具，之后的修改不会影响已创建的 agent，
+     * 工具变化后用同一个 saver 重新创建 agent，同一 threadId 的对话可以继续
+     */
+    @Test
+    public void dynamicToolCallbackProviderExample() throws GraphRunnerException {
+        ChatModel chatModel = getChatModel();
+
+        ToolSchemaRegistry schemaRegistry = ToolSchemaRegistry.builder().build();
+        ToolResultCacheInterceptor toolCache = ToolResultCacheInterceptor.builder()
+                .cacheable("search", Duration.ofMinutes(5))
+                .build();
+
+        DynamicToolCallbackProvider toolProvider = new DynamicToolCallbackProvider();
+        toolProvider.addListener(event -> {
+            log.info("工具变更: {} {} (v{})", event.type(), event.toolName(), event.version());
+            schemaRegistry.invalidate(event.toolName());
+            toolCache.invalidate(event.toolName());
+        });
+
+        // 例如来自某个 MCP 服务的工具
+        toolProvider.replaceSource("search-server", List.of(
+                FunctionToolCallback.builder("search", new SearchFunction())
+                        .description("Search for information")
+                        .inputType(JSONObject.class)
+                        .build()));
+
+        MemorySaver saver = new MemorySaver();
+        Supplier<ReactAgent> agentFactory = () -> ReactAgent.builder()
+                .name("dynamic_tools_agent")
+                .model(chatModel)
+                .instruction("You are a helpful assistant with search capabilities.")
+                .toolCallbackProviders(toolProvider)
+                .interceptors(toolCache)
+                .saver(saver)
+                .build();
+        ReactAgent agent = agentFactory.get();
+
+        RunnableConfig config = RunnableConfig.builder()
+                .threadId("dynamic_tools_session")
+                .build();
+
+        System.out.println(agent.call("Search for information about Spring AI", config).getText());
+
+        // 服务端更新了工具：search 被替换，新增 search_news
+        toolProvider.replaceSource("search-server", List.of(
+                FunctionToolCallback.builder("search", new SearchFunction())
+                        .description("Search the web for information, returns the top results")
+                        .inputType(JSONObject.class)
+                        .build(),
+                FunctionToolCallback.builder("search_news", new SearchFunction())
+                        .description("Search recent news articles")
+                        .inputType(JSONObject.class)
+                        .build()));
+        log.info("当前工具集版本 v{}，共 {} 个工具", toolProvider.version(), toolProvider.snapshot().size());
+
+        // 原来的 agent 仍然只有旧的 search，重新创建后才能看到 search_news
+        agent = agentFactory.get();
+        System.out.println(agent.call("Now search recent news about Spring AI", config).getText());
+    }
+
+    /**
+     * 示例13.2：MCP 长连接与工具列表缓存
+     * 每个 MCP 服务一个共享会话，并发的工具调用复用同一连接；tools/list 只在首次使用、
+     * 收到 tools/list_changed 通知或重连后才请求。MCP 服务在进程内启动（WebFlux SSE，随机端口），不需要另外部署
+     */
+    @Test
+    public void mcpConnectionPoolExample() throws GraphRunnerException {
+        ChatModel chatModel = getChatModel();
+
+        WebFluxSseServerTransportProvider transportProvider = WebFluxSseServerTransportProvider.builder()
+                .messageEndpoint("/mcp/message")
+                .build();
+        McpSchema.Tool searchTool = McpSchema.Tool.builder()
+                .name("search")
+                .description("Search the web for information")
+                .inputSchema(new McpSchema.JsonSchema("object",
+                        Map.of("query", Map.of("type", "string", "description", "Search keywords")),
+                        List.of("query"), null, null, null))
+                .build();
+        McpSyncServer mcpServer = McpServer.sync(transportProvider)
+                .serverInfo("local-tools", "1.0.0")
+                .capabilities(McpSchema.ServerCapabilities.builder().tools(true).build())
+                .toolCall(searchTool, (exchange, request) -> McpSchema.CallToolResult.builder()
+                        .addTextContent("Search results for: " + request.arguments().get("query"))
+                        .build())
+                .build();
+        DisposableServer httpServer = HttpServer.create()
+                .port(0)
+                .handle(new ReactorHttpHandlerAdapter(RouterFunctions.toHttpHandler(transportProvider.getRouterFunction())))
+                .bindNow();
+        String serverUrl = "http://localhost:" + httpServer.port();
+
+        try (McpConnectionPool mcpPool = McpConnectionPool.builder()
+                .server("local-tools", () -> HttpClientSseClientTransport.builder(serverUrl).build())
+                .requestTimeout(Duration.ofSeconds(20))
+                .build()) {
+
+            DynamicToolCallbackProvider toolProvider = new DynamicToolCallbackProvider();
+            toolProvider.addListener(event -> log.info("MCP 工具变更: {} {}", event.type(), event.toolName()));
+            mcpPool.publishTo(toolProvider);
+
+            ExecutorService toolExecutor = Executors.newFixedThreadPool(4);
+            ParallelToolExecution parallelTools = ParallelToolExecution.builder()
+                    .executor(toolExecutor)
+                    .build();
+
+            ReactAgent agent = ReactAgent.builder()
+                    .name("mcp_agent")
+                    .model(chatModel)
+                    .instruction("You are a helpful assistant. Use the available tools when needed.")
+                    .toolCallbackProviders(toolProvider)
+                    .interceptors(parallelTools.toolInterceptor(), parallelTools.modelInterceptor())
+                    .saver(new MemorySaver())
+                    .build();
+
+            for (int i = 0; i < 3; i++) {
+                RunnableConfig config = RunnableConfig.builder()
+                        .threadId("mcp_session_" + i)
+                        .build();
+                System.out.println(agent.call("What tools do you have? Try one of them.", config).getText());
+            }
+            // 三轮对话只发出一次 tools/list
+            mcpPool.stats().forEach(stats -> log.info(stats));
+            toolExecutor.shutdown();
+        }
+        finally {
+            mcpServer.closeGracefully();
+            httpServer.disposeNow();
+        }
+    }
+
     /**
      * 示例14：使用 toolNames 和 resolver（必须配合使用）
      * 使用 toolNames() 方法指定工具名称，配合 resolver() 方法提供的 ToolCallbackResolver 来解析工具。
@@ -510,6 +959,55 @@ public class ToolsExampleOllama {
         System.out.println(call.getText());
     }
 
+    /**
+     * 示例14.1：按需加载的索引 resolver
+     * 启动时只登记工具名，ToolCallback 在第一次被解析时才创建；不同 Agent 通过 view 共享同一个索引。
+     * 下面登记 1 万个工具，Agent 只看到其中的计算器、天气和搜索工具
+     */
+    @Test
+    public void indexedResolverExample() throws GraphRunnerException {
+        ChatModel chatModel = getChatModel();
+
+        ToolCallback searchTool = FunctionToolCallback.builder("search", new SearchFunctionWithRequest())
+                .description("Search for information")
+                .inputType(SearchRequest.class)
+                .build();
+
+        IndexedToolCallbackResolver.Builder builder = IndexedToolCallbackResolver.builder()
+                .methodTools(new CalculatorTools(), new WeatherTools())
+                .toolCallbackProviders(new CustomToolCallbackProvider(List.of(searchTool)));
+        for (int i = 0; i < 10_000; i++) {
+            String name = "catalog_tool_" + i;
+            builder.source(ToolSource.lazy(name, () -> FunctionToolCallback.builder(name, new SearchFunction())
+                    .description("Catalog tool " + name)
+                    .inputType(JSONObject.class)
+                    .build()));
+        }
+        long start = System.nanoTime();
+        IndexedToolCallbackResolver resolver = builder.build();
+        log.info("登记 {} 个工具耗时 {} ms，已创建 {} 个", resolver.size(),
+                (System.nanoTime() - start) / 1_000_000, resolver.loadedCount());
+
+        ToolView view = resolver.view("add", "multiply", "getWeather", "search");
+
+        ReactAgent agent = ReactAgent.builder()
+                .name("indexed_resolver_agent")
+                .model(chatModel)
+                .instruction("You are a helpful assistant with calculator, weather and search tools.")
+                .toolNames(view.toolNames())
+                .resolver(view)
+                .saver(new MemorySaver())
+                .build();
+
+        RunnableConfig config = RunnableConfig.builder()
+                .threadId("indexed_resolver_session")
+                .build();
+
+        AssistantMessage call = agent.call("What is 6 * 7, and what's the weather in Hangzhou?", config);
+        System.out.println(call.getText());
+        log.info("调用后已创建 {} 个 ToolCallback", resolver.loadedCount());
+    }
+
     /**
      * 示例15：使用 resolver 直接解析工具
      */
@@ -716,32 +1214,15 @@ public class ToolsExampleOllama {
 
         @Override
         public String apply(JSONObject input, ToolContext toolContext) {
-            OverAllState state = (OverAllState) toolContext.getContext().get(ToolContextConstants.AGENT_STATE_CONTEXT_KEY);
-            RunnableConfig config = (RunnableConfig) toolContext.getContext().get(ToolContextConstants.AGENT_CONFIG_CONTEXT_KEY);
-
-            // 从state中获取消息
-            Optional<Object> messagesOpt = state.value("messages");
-            List<Message> messages = messagesOpt.isPresent()
-                    ? (List<Message>) messagesOpt.get()
-                    : new ArrayList<>();
-
-            if (messages.isEmpty()) {
+            // ConversationStatsHook 维护的统计，O(1) 读取
+            ConversationStats stats = ConversationStats.from(toolContext);
+            if (stats.totalMessages() == 0) {
                 return "No conversation history available";
             }
 
-            long userMsgs = messages.stream()
-                    .filter(m -> m.getMessageType().getValue().equals("user"))
-                    .count();
-            long aiMsgs = messages.stream()
-                    .filter(m -> m.getMessageType().getValue().equals("assistant"))
-                    .count();
-            long toolMsgs = messages.stream()
-                    .filter(m -> m.getMessageType().getValue().equals("tool"))
-                    .count();
-
             return String.format(
-                    "Conversation has %d user messages, %d AI responses, and %d tool results",
-                    userMsgs, aiMsgs, toolMsgs
+                    "Conversation has %d user messages, %d AI responses, and %d tool results (about %d tokens)",
+                    stats.userMessages(), stats.assistantMessages(), stats.toolMessages(), stats.totalTokens()
             );
         }
     }
@@ -791,11 +1272,25 @@ public class ToolsExampleOllama {
         }
     }
 
+    /**
+     * 用户资料工具，通过 DataLoader 查询
+     */
+    public class UserProfileTool implements BiFunction<JSONObject, ToolContext, String> {
+        @Override
+        public String apply(JSONObject input, ToolContext toolContext) {
+            DataLoader<String, String> users = DataLoaderRegistry.from(toolContext).loader("users");
+            String profile = users.get(input.getString("user_id"));
+            return profile == null ? "User not found" : profile;
+        }
+    }
+
     // ==================== MethodTools 相关类 ====================
 
     /**
      * 计算器工具类 - 使用 @Tool 注解
+     * callCount 非线程安全，标注 @SequentialTool 避免被并发调用
      */
+    @SequentialTool
     public class CalculatorTools {
         public int callCount = 0;
 
@@ -828,6 +1323,7 @@ public class ToolsExampleOllama {
      * 天气工具类 - 使用 @Tool 注解
      */
     public class WeatherTools {
+        @CacheableTool(ttlSeconds = 300)
         @Tool(description = "Get current weather for a location")
         public String getWeather(@ToolParam(description = "City name") String city) {
             return "Sunny, 25°C in " + city;
@@ -841,6 +1337,16 @@ public class ToolsExampleOllama {
         }
     }
 
+    /**
+     * 订单工具类 - 结果直接返回给用户，不需要模型再加工
+     */
+    public class OrderTools {
+        @Tool(name = "get_order_status", description = "Get the status of an order", returnDirect = true)
+        public String getOrderStatus(@ToolParam(description = "Order id") String orderId) {
+            return "Order " + orderId + " has been shipped and will arrive in 2 days.";
+        }
+    }
+
     // ==================== ToolCallbackProvider 相关类 ====================
 
     /**
@@ -0,0 +1,28 @@
+package com.alibaba.cloud.ai.tool;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.serializer.SerializerFeature;
+
+/**
+ * 工具参数规范化
+ */
+public final class ToolArguments {
+
+    private ToolArguments() {
+    }
+
+    /**
+     * 按 key 排序、去掉空白后的 JSON，字段顺序或格式不同的相同参数得到相同结果；无法解析时返回去掉首尾空白的原文
+     */
+    public static String canonicalize(String arguments) {
+        if (arguments == null || arguments.isBlank()) {
+            return "{}";
+        }
+        try {
+            return JSON.toJSONString(JSON.parse(arguments), SerializerFeature.MapSortField, SerializerFeature.SortField);
+        }
+        catch (RuntimeException e) {
+            return arguments.trim();
+        }
+    }
+}
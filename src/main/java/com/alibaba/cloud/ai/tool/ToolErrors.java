@@ -0,0 +1,75 @@
+package com.alibaba.cloud.ai.tool;
+
+import com.alibaba.cloud.ai.graph.agent.interceptor.ToolCallRequest;
+import com.alibaba.cloud.ai.graph.agent.interceptor.ToolCallResponse;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 以文本形式返回给模型的工具错误
+ *
+ * ToolCallResponse 只有结果文本，没有错误标记。拦截器把异常转换成错误文本时通过 response 创建，
+ * ToolResultCacheInterceptor 等可以用 isError 区分错误文本和正常结果。
+ * 标记按对象身份（==）弱引用记录，内容相同的正常结果不会被误判，也不影响回收；
+ * 拦截器基于错误响应重新构建响应时标记不会带过去，需要再用 response 创建。
+ */
+public final class ToolErrors {
+
+    private static final ReferenceQueue<ToolCallResponse> CLEARED = new ReferenceQueue<>();
+    private static final Set<IdentityReference> ERRORS = ConcurrentHashMap.newKeySet();
+
+    private ToolErrors() {
+    }
+
+    public static ToolCallResponse response(ToolCallRequest request, String message) {
+        ToolCallResponse response = ToolCallResponse.of(request.getToolCallId(), request.getToolName(), message);
+        expungeCleared();
+        ERRORS.add(new IdentityReference(response, CLEARED));
+        return response;
+    }
+
+    public static boolean isError(ToolCallResponse response) {
+        return response != null && ERRORS.contains(new IdentityReference(response, null));
+    }
+
+    private static void expungeCleared() {
+        Reference<? extends ToolCallResponse> cleared;
+        while ((cleared = CLEARED.poll()) != null) {
+            ERRORS.remove(cleared);
+        }
+    }
+
+    /**
+     * 按引用对象的身份比较，引用被清除后只等于自身
+     */
+    private static final class IdentityReference extends WeakReference<ToolCallResponse> {
+
+        private final int hash;
+
+        private IdentityReference(ToolCallResponse response, ReferenceQueue<ToolCallResponse> queue) {
+            super(response, queue);
+            this.hash = System.identityHashCode(response);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) {
+                return true;
+            }
+            if (!(other instanceof IdentityReference reference) || hash != reference.hash) {
+                return false;
+            }
+            ToolCallResponse referent = get();
+            return referent != null && referent == reference.get();
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.alibaba.cloud.ai.tool;
+
+import org.springframework.ai.tool.annotation.Tool;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * @Tool 方法扫描工具
+ *
+ * 工具名与 MethodToolCallbackProvider 一致：@Tool(name) 为空时取方法名。
+ */
+public final class ToolMethods {
+
+    private ToolMethods() {
+    }
+
+    /**
+     * 对象中所有 @Tool 方法，按工具名索引
+     */
+    public static Map<String, Method> toolMethods(Object toolObject) {
+        Map<String, Method> methods = new LinkedHashMap<>();
+        for (Method method : toolObject.getClass().getMethods()) {
+            Tool tool = method.getAnnotation(Tool.class);
+            if (tool != null) {
+                methods.put(toolName(method, tool), method);
+            }
+        }
+        return methods;
+    }
+
+    public static String toolName(Method method, Tool tool) {
+        return tool.name().isEmpty() ? method.getName() : tool.name();
+    }
+
+    /**
+     * 方法上的注解优先，其次是所在类上的注解
+     */
+    public static <A extends Annotation> A findAnnotation(Method method, Class<A> annotationType) {
+        A annotation = method.getAnnotation(annotationType);
+        return annotation != null ? annotation : method.getDeclaringClass().getAnnotation(annotationType);
+    }
+}
@@ -0,0 +1,35 @@
+package com.alibaba.cloud.ai.tool;
+
+import com.alibaba.cloud.ai.graph.RunnableConfig;
+import com.alibaba.cloud.ai.graph.agent.interceptor.ToolCallRequest;
+import com.alibaba.cloud.ai.graph.agent.tools.ToolContextConstants;
+import com.alibaba.cloud.ai.memory.longterm.LongTermMemoryStore;
+
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * 从 ToolCallRequest 的上下文中读取 RunnableConfig 等信息
+ */
+public final class ToolRequests {
+
+    private ToolRequests() {
+    }
+
+    public static Optional<RunnableConfig> config(ToolCallRequest request) {
+        Map<String, Object> context = request.getContext();
+        if (context != null && context.get(ToolContextConstants.AGENT_CONFIG_CONTEXT_KEY) instanceof RunnableConfig config) {
+            return Optional.of(config);
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * RunnableConfig 元数据中的 user_id，没有时取 threadId
+     */
+    public static Optional<String> userId(ToolCallRequest request) {
+        return config(request).flatMap(config -> config.metadata(LongTermMemoryStore.USER_ID_METADATA_KEY)
+                .map(String::valueOf)
+                .or(config::threadId));
+    }
+}
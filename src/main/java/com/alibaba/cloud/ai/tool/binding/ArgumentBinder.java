@@ -0,0 +1,20 @@
+package com.alibaba.cloud.ai.tool.binding;
+
+/**
+ * 把工具参数 JSON 直接读成目标类型
+ */
+@FunctionalInterface
+public interface ArgumentBinder<T> {
+
+    /**
+     * 从 reader 当前位置读取一个值
+     */
+    T read(JsonReader reader);
+
+    default T bind(String json) {
+        JsonReader reader = new JsonReader(json == null || json.isBlank() ? "{}" : json);
+        T value = read(reader);
+        reader.end();
+        return value;
+    }
+}
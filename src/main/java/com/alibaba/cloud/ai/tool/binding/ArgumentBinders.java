@@ -0,0 +1,399 @@
+package com.alibaba.cloud.ai.tool.binding;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import org.springframework.ai.util.json.JsonParser;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.AccessibleObject;
+import java.lang.reflect.AnnotatedElement;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Parameter;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.RecordComponent;
+import java.lang.reflect.Type;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 按类型生成并缓存 ArgumentBinder
+ *
+ * record 通过规范构造器的 MethodHandle 创建，POJO 通过无参构造器 + setter（没有 setter 时用字段）的 MethodHandle 赋值，
+ * 反射只在生成 binder 时发生一次。属性名支持 @JsonProperty("...")。
+ * 支持字符串、数值、布尔、枚举、List / Set 和嵌套的 record / POJO，
+ * 其余类型（JSONObject、Map、接口等）取出原文交给 Spring AI 的 JsonParser（Jackson）解析，与 MethodToolCallback 一致。
+ */
+public final class ArgumentBinders {
+
+    private static final Map<Type, ArgumentBinder<?>> BINDERS = new ConcurrentHashMap<>();
+
+    private ArgumentBinders() {
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> ArgumentBinder<T> binder(Class<T> type) {
+        return (ArgumentBinder<T>) binder((Type) type);
+    }
+
+    public static ArgumentBinder<?> binder(Type type) {
+        ArgumentBinder<?> binder = BINDERS.get(type);
+        if (binder == null) {
+            // 不用 computeIfAbsent：生成嵌套类型的 binder 时会递归调用
+            binder = create(type);
+            ArgumentBinder<?> existing = BINDERS.putIfAbsent(type, binder);
+            if (existing != null) {
+                binder = existing;
+            }
+        }
+        return binder;
+    }
+
+    /**
+     * 按参数名读取一个 JSON 对象，返回与 names 对应的值数组，缺失的基本类型取默认值。
+     * binders 与 names 一一对应，为空的位置在首次遇到该属性时解析
+     */
+    static Object[] readObject(JsonReader reader, String[] names, Type[] types, ArgumentBinder<?>[] binders) {
+        Object[] values = readObject(reader, names, types, binders, new boolean[names.length]);
+        fillDefaults(values, types);
+        return values;
+    }
+
+    /**
+     * 不补默认值，present 中记录 JSON 里出现过的属性
+     */
+    private static Object[] readObject(JsonReader reader, String[] names, Type[] types, ArgumentBinder<?>[] binders,
+                                       boolean[] present) {
+        Object[] values = new Object[names.length];
+        reader.beginObject();
+        while (reader.hasNext()) {
+            int index = reader.nextName(names);
+            if (index < 0) {
+                reader.skipValue();
+                continue;
+            }
+            present[index] = true;
+            if (reader.nextNull()) {
+                values[index] = null;
+            }
+            else {
+                if (binders[index] == null) {
+                    binders[index] = binder(types[index]);
+                }
+                values[index] = binders[index].read(reader);
+            }
+        }
+        reader.endObject();
+        return values;
+    }
+
+    private static ArgumentBinder<?> create(Type type) {
+        Class<?> raw = rawType(type);
+        ArgumentBinder<?> scalar = scalar(raw);
+        if (scalar != null) {
+            return nullable(scalar);
+        }
+        if (raw.isEnum()) {
+            return nullable(enumBinder(raw));
+        }
+        if ((raw == List.class || raw == Collection.class || raw == Set.class) && type instanceof ParameterizedType parameterized) {
+            return nullable(collection(parameterized.getActualTypeArguments()[0], raw == Set.class));
+        }
+        if (raw.isRecord()) {
+            return recordBinder(raw);
+        }
+        if (isBean(raw)) {
+            return beanBinder(raw);
+        }
+        return reader -> JsonParser.fromJson(reader.nextRaw(), type);
+    }
+
+    private static ArgumentBinder<?> scalar(Class<?> type) {
+        if (type == String.class || type == CharSequence.class) {
+            return JsonReader::nextString;
+        }
+        if (type == int.class || type == Integer.class) {
+            return reader -> (int) nextInteger(reader, Integer.MIN_VALUE, Integer.MAX_VALUE, "int");
+        }
+        if (type == long.class || type == Long.class) {
+            return JsonReader::nextLong;
+        }
+        if (type == double.class || type == Double.class) {
+            return JsonReader::nextDouble;
+        }
+        if (type == float.class || type == Float.class) {
+            return reader -> (float) reader.nextDouble();
+        }
+        if (type == short.class || type == Short.class) {
+            return reader -> (short) nextInteger(reader, Short.MIN_VALUE, Short.MAX_VALUE, "short");
+        }
+        if (type == byte.class || type == Byte.class) {
+            return reader -> (byte) nextInteger(reader, Byte.MIN_VALUE, Byte.MAX_VALUE, "byte");
+        }
+        if (type == boolean.class || type == Boolean.class) {
+            return JsonReader::nextBoolean;
+        }
+        if (type == BigDecimal.class) {
+            return reader -> new BigDecimal(reader.nextString().trim());
+        }
+        return null;
+    }
+
+    private static long nextInteger(JsonReader reader, long min, long max, String typeName) {
+        long value = reader.nextLong();
+        if (value < min || value > max) {
+            throw reader.error("Value " + value + " is out of range for " + typeName);
+        }
+        return value;
+    }
+
+    private static ArgumentBinder<?> nullable(ArgumentBinder<?> binder) {
+        return reader -> reader.nextNull() ? null : binder.read(reader);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static ArgumentBinder<?> enumBinder(Class<?> type) {
+        Enum<?>[] constants = ((Class<? extends Enum>) type).getEnumConstants();
+        return reader -> {
+            String name = reader.nextString().trim();
+            for (Enum<?> constant : constants) {
+                if (constant.name().equals(name)) {
+                    return constant;
+                }
+            }
+            for (Enum<?> constant : constants) {
+                if (constant.name().equalsIgnoreCase(name)) {
+                    return constant;
+                }
+            }
+            throw reader.error("Unknown " + type.getSimpleName() + " value '" + name + "'");
+        };
+    }
+
+    private static ArgumentBinder<?> collection(Type elementType, boolean set) {
+        return reader -> {
+            ArgumentBinder<?> element = binder(elementType);
+            Collection<Object> values = set ? new LinkedHashSet<>() : new ArrayList<>();
+            if (reader.peek() != '[') {
+                // 模型有时把单个元素直接当作数组
+                values.add(element.read(reader));
+                return values;
+            }
+            reader.beginArray();
+            while (reader.hasNext()) {
+                values.add(reader.nextNull() ? null : element.read(reader));
+            }
+            reader.endArray();
+            return values;
+        };
+    }
+
+    private static ArgumentBinder<?> recordBinder(Class<?> type) {
+        RecordComponent[] components = type.getRecordComponents();
+        String[] names = new String[components.length];
+        Type[] types = new Type[components.length];
+        Class<?>[] rawTypes = new Class<?>[components.length];
+        for (int i = 0; i < components.length; i++) {
+            types[i] = components[i].getGenericType();
+            rawTypes[i] = components[i].getType();
+        }
+        MethodHandle constructor;
+        try {
+            Constructor<?> canonical = type.getDeclaredConstructor(rawTypes);
+            // @JsonProperty 不能标注在 record 组件上，编译器只把它传给规范构造器参数、字段和访问方法
+            Parameter[] parameters = canonical.getParameters();
+            for (int i = 0; i < components.length; i++) {
+                String name = propertyName(parameters[i], null);
+                names[i] = name != null ? name : propertyName(type.getDeclaredField(components[i].getName()), components[i].getName());
+            }
+            constructor = lookup(type).unreflectConstructor(accessible(canonical))
+                    .asSpreader(Object[].class, components.length)
+                    .asType(MethodType.methodType(Object.class, Object[].class));
+        }
+        catch (ReflectiveOperationException e) {
+            throw new IllegalArgumentException("Cannot bind record " + type.getName(), e);
+        }
+        // 嵌套类型的 binder 在首次读取时解析，自引用类型不会在生成阶段死循环
+        ArgumentBinder<?>[] binders = new ArgumentBinder<?>[names.length];
+        return reader -> {
+            if (reader.nextNull()) {
+                return null;
+            }
+            Object[] values = readObject(reader, names, types, binders);
+            try {
+                return constructor.invokeExact(values);
+            }
+            catch (RuntimeException | Error e) {
+                throw e;
+            }
+            catch (Throwable e) {
+                throw new IllegalArgumentException("Cannot create " + type.getName(), e);
+            }
+        };
+    }
+
+    private static ArgumentBinder<?> beanBinder(Class<?> type) {
+        List<String> names = new ArrayList<>();
+        List<Type> types = new ArrayList<>();
+        List<MethodHandle> setters = new ArrayList<>();
+        MethodHandle constructor;
+        try {
+            MethodHandles.Lookup lookup = lookup(type);
+            constructor = lookup.unreflectConstructor(accessible(type.getDeclaredConstructor()))
+                    .asType(MethodType.methodType(Object.class));
+            for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+                for (Field field : current.getDeclaredFields()) {
+                    int modifiers = field.getModifiers();
+                    if (Modifier.isStatic(modifiers) || Modifier.isTransient(modifiers) || field.isSynthetic()) {
+                        continue;
+                    }
+                    String name = propertyName(field, field.getName());
+                    if (names.contains(name)) {
+                        continue;
+                    }
+                    Method setter = setter(current, field);
+                    MethodHandle handle;
+                    if (setter != null) {
+                        handle = lookup(current).unreflect(accessible(setter));
+                    }
+                    else if (!Modifier.isFinal(modifiers)) {
+                        handle = lookup(current).unreflectSetter(accessible(field));
+                    }
+                    else {
+                        continue;
+                    }
+                    names.add(name);
+                    types.add(field.getGenericType());
+                    setters.add(handle.asType(MethodType.methodType(void.class, Object.class, Object.class)));
+                }
+            }
+        }
+        catch (ReflectiveOperationException e) {
+            throw new IllegalArgumentException("Cannot bind " + type.getName(), e);
+        }
+        String[] nameArray = names.toArray(new String[0]);
+        Type[] typeArray = types.toArray(new Type[0]);
+        MethodHandle[] setterArray = setters.toArray(new MethodHandle[0]);
+        ArgumentBinder<?>[] binders = new ArgumentBinder<?>[nameArray.length];
+        return reader -> {
+            if (reader.nextNull()) {
+                return null;
+            }
+            boolean[] present = new boolean[nameArray.length];
+            Object[] values = readObject(reader, nameArray, typeArray, binders, present);
+            try {
+                Object bean = constructor.invokeExact();
+                // 只设置 JSON 中出现的属性，其余保留字段的初始值
+                for (int i = 0; i < setterArray.length; i++) {
+                    if (present[i]) {
+                        Object value = values[i] == null && typeArray[i] instanceof Class<?> cls && cls.isPrimitive()
+                                ? primitiveDefault(cls) : values[i];
+                        setterArray[i].invokeExact(bean, value);
+                    }
+                }
+                return bean;
+            }
+            catch (RuntimeException | Error e) {
+                throw e;
+            }
+            catch (Throwable e) {
+                throw new IllegalArgumentException("Cannot create " + type.getName(), e);
+            }
+        };
+    }
+
+    private static boolean isBean(Class<?> type) {
+        if (type.isInterface() || Modifier.isAbstract(type.getModifiers()) || type.isArray() || type.isPrimitive()
+                || Map.class.isAssignableFrom(type) || Collection.class.isAssignableFrom(type)
+                || type.getName().startsWith("java.")) {
+            return false;
+        }
+        if (type.isMemberClass() && !Modifier.isStatic(type.getModifiers())) {
+            // 非静态内部类没有无参构造器
+            return false;
+        }
+        try {
+            type.getDeclaredConstructor();
+            return true;
+        }
+        catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    private static Method setter(Class<?> type, Field field) {
+        String name = "set" + Character.toUpperCase(field.getName().charAt(0)) + field.getName().substring(1);
+        try {
+            return type.getDeclaredMethod(name, field.getType());
+        }
+        catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+    private static String propertyName(AnnotatedElement element, String defaultName) {
+        JsonProperty property = element.getAnnotation(JsonProperty.class);
+        return property == null || property.value().isEmpty() ? defaultName : property.value();
+    }
+
+    private static MethodHandles.Lookup lookup(Class<?> type) throws IllegalAccessException {
+        return MethodHandles.privateLookupIn(type, MethodHandles.lookup());
+    }
+
+    private static <T extends AccessibleObject> T accessible(T member) {
+        member.trySetAccessible();
+        return member;
+    }
+
+    static Class<?> rawType(Type type) {
+        if (type instanceof Class<?> cls) {
+            return cls;
+        }
+        if (type instanceof ParameterizedType parameterized) {
+            return (Class<?>) parameterized.getRawType();
+        }
+        return Object.class;
+    }
+
+    private static void fillDefaults(Object[] values, Type[] types) {
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] == null && types[i] instanceof Class<?> cls && cls.isPrimitive()) {
+                values[i] = primitiveDefault(cls);
+            }
+        }
+    }
+
+    private static Object primitiveDefault(Class<?> type) {
+        if (type == boolean.class) {
+            return false;
+        }
+        if (type == char.class) {
+            return '\0';
+        }
+        if (type == long.class) {
+            return 0L;
+        }
+        if (type == double.class) {
+            return 0d;
+        }
+        if (type == float.class) {
+            return 0f;
+        }
+        if (type == short.class) {
+            return (short) 0;
+        }
+        if (type == byte.class) {
+            return (byte) 0;
+        }
+        return 0;
+    }
+}
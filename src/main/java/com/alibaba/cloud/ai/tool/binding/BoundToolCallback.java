@@ -0,0 +1,83 @@
+package com.alibaba.cloud.ai.tool.binding;
+
+import org.springframework.ai.chat.model.ToolContext;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.definition.ToolDefinition;
+import org.springframework.ai.tool.execution.DefaultToolCallResultConverter;
+import org.springframework.ai.tool.execution.ToolCallResultConverter;
+import org.springframework.ai.tool.execution.ToolExecutionException;
+import org.springframework.ai.tool.metadata.ToolMetadata;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.Type;
+
+/**
+ * 使用预生成 binder 和 MethodHandle 调用的 ToolCallback
+ *
+ * 参数 JSON 按参数名直接读入 Object[]，经 spreader 形式的 MethodHandle 调用，
+ * 结果直接交给 Spring AI 的 DefaultToolCallResultConverter（Jackson）序列化，与 MethodToolCallback 的输出一致。
+ */
+public class BoundToolCallback implements ToolCallback {
+
+    static final ToolCallResultConverter RESULT_CONVERTER = new DefaultToolCallResultConverter();
+
+    private final ToolDefinition definition;
+    private final ToolMetadata metadata;
+    private final String[] names;
+    private final Type[] types;
+    private final ArgumentBinder<?>[] binders;
+    private final int contextIndex;
+    private final MethodHandle invoker;
+    private final Type returnType;
+
+    /**
+     * @param names        JSON 中的参数名，contextIndex 位置的名称不会被读取
+     * @param contextIndex ToolContext 参数的位置，没有时为 -1
+     * @param invoker      类型为 (Object[])Object 的 MethodHandle
+     * @param returnType   方法的返回类型，void 方法的结果为 "Done"
+     */
+    BoundToolCallback(ToolDefinition definition, ToolMetadata metadata, String[] names, Type[] types,
+                      int contextIndex, MethodHandle invoker, Type returnType) {
+        this.definition = definition;
+        this.metadata = metadata;
+        this.names = names;
+        this.types = types;
+        this.binders = new ArgumentBinder<?>[names.length];
+        this.contextIndex = contextIndex;
+        this.invoker = invoker;
+        this.returnType = returnType;
+    }
+
+    @Override
+    public ToolDefinition getToolDefinition() {
+        return definition;
+    }
+
+    @Override
+    public ToolMetadata getToolMetadata() {
+        return metadata;
+    }
+
+    @Override
+    public String call(String toolInput) {
+        return call(toolInput, null);
+    }
+
+    @Override
+    public String call(String toolInput, ToolContext toolContext) {
+        JsonReader reader = new JsonReader(toolInput == null || toolInput.isBlank() ? "{}" : toolInput);
+        Object[] args = ArgumentBinders.readObject(reader, names, types, binders);
+        reader.end();
+        if (contextIndex >= 0) {
+            args[contextIndex] = toolContext;
+        }
+        Object result;
+        try {
+            result = invoker.invokeExact(args);
+        }
+        catch (Throwable e) {
+            throw new ToolExecutionException(definition, e);
+        }
+        return RESULT_CONVERTER.convert(result, returnType);
+    }
+}
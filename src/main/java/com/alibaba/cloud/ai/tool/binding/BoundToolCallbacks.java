@@ -0,0 +1,165 @@
+package com.alibaba.cloud.ai.tool.binding;
+
+import com.alibaba.cloud.ai.tool.ToolMethods;
+import org.springframework.ai.chat.model.ToolContext;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.annotation.Tool;
+import org.springframework.ai.tool.definition.DefaultToolDefinition;
+import org.springframework.ai.tool.definition.ToolDefinition;
+import org.springframework.ai.tool.execution.ToolExecutionException;
+import org.springframework.ai.tool.metadata.ToolMetadata;
+import org.springframework.ai.util.json.schema.JsonSchemaGenerator;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Parameter;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * 创建 BoundToolCallback
+ *
+ * 对应 ToolCallbacks.from / FunctionToolCallback.builder，定义（名称、描述、schema）的生成方式相同，
+ * 区别是参数绑定和方法调用在创建时生成一次，之后每次调用不再反射。
+ */
+public final class BoundToolCallbacks {
+
+    private static final MethodHandle APPLY_FUNCTION;
+    private static final MethodHandle APPLY_BI_FUNCTION;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            APPLY_FUNCTION = lookup.findVirtual(Function.class, "apply",
+                    MethodType.methodType(Object.class, Object.class));
+            APPLY_BI_FUNCTION = lookup.findVirtual(BiFunction.class, "apply",
+                    MethodType.methodType(Object.class, Object.class, Object.class));
+        }
+        catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private BoundToolCallbacks() {
+    }
+
+    /**
+     * 对象中的所有 @Tool 方法
+     */
+    public static ToolCallback[] from(Object... toolObjects) {
+        List<ToolCallback> callbacks = new ArrayList<>();
+        for (Object toolObject : toolObjects) {
+            for (Map.Entry<String, Method> entry : ToolMethods.toolMethods(toolObject).entrySet()) {
+                callbacks.add(method(entry.getKey(), toolObject, entry.getValue()));
+            }
+        }
+        return callbacks.toArray(new ToolCallback[0]);
+    }
+
+    public static ToolCallback method(String toolName, Object toolObject, Method method) {
+        Tool tool = method.getAnnotation(Tool.class);
+        String description = tool == null || tool.description().isEmpty() ? method.getName() : tool.description();
+        ToolDefinition definition = new DefaultToolDefinition(toolName, description,
+                JsonSchemaGenerator.generateForMethodInput(method));
+
+        Parameter[] parameters = method.getParameters();
+        String[] names = new String[parameters.length];
+        Type[] types = new Type[parameters.length];
+        int contextIndex = -1;
+        for (int i = 0; i < parameters.length; i++) {
+            // 与 JsonSchemaGenerator 一样取参数名，和模型看到的 schema 保持一致
+            names[i] = parameters[i].getName();
+            types[i] = parameters[i].getParameterizedType();
+            if (ToolContext.class.isAssignableFrom(parameters[i].getType())) {
+                contextIndex = i;
+                names[i] = "";
+            }
+        }
+
+        MethodHandle invoker;
+        try {
+            method.trySetAccessible();
+            invoker = MethodHandles.privateLookupIn(method.getDeclaringClass(), MethodHandles.lookup()).unreflect(method);
+        }
+        catch (IllegalAccessException e) {
+            throw new IllegalArgumentException("Cannot access tool method " + method, e);
+        }
+        if (!Modifier.isStatic(method.getModifiers())) {
+            invoker = invoker.bindTo(toolObject);
+        }
+        invoker = invoker.asSpreader(Object[].class, parameters.length)
+                .asType(MethodType.methodType(Object.class, Object[].class));
+        return new BoundToolCallback(definition, metadata(tool != null && tool.returnDirect()), names, types,
+                contextIndex, invoker, method.getGenericReturnType());
+    }
+
+    public static <I> ToolCallback function(String name, String description, Class<I> inputType,
+                                            Function<I, ?> function) {
+        return single(name, description, inputType, APPLY_FUNCTION.bindTo(function), false);
+    }
+
+    /**
+     * 带 ToolContext 的函数，对应 FunctionToolCallback.builder(name, BiFunction)
+     */
+    public static <I> ToolCallback function(String name, String description, Class<I> inputType,
+                                            BiFunction<I, ToolContext, ?> function) {
+        return single(name, description, inputType, APPLY_BI_FUNCTION.bindTo(function), true);
+    }
+
+    /**
+     * 单个输入对象的工具：整个参数 JSON 绑定为 inputType，包装成只有一个参数的调用
+     */
+    private static ToolCallback single(String name, String description, Class<?> inputType, MethodHandle apply,
+                                       boolean withContext) {
+        ToolDefinition definition = new DefaultToolDefinition(name, description,
+                JsonSchemaGenerator.generateForType(inputType));
+        ArgumentBinder<?> binder = ArgumentBinders.binder(inputType);
+        ToolMetadata metadata = metadata(false);
+        return new ToolCallback() {
+
+            @Override
+            public ToolDefinition getToolDefinition() {
+                return definition;
+            }
+
+            @Override
+            public ToolMetadata getToolMetadata() {
+                return metadata;
+            }
+
+            @Override
+            public String call(String toolInput) {
+                return call(toolInput, null);
+            }
+
+            @Override
+            public String call(String toolInput, ToolContext toolContext) {
+                Object input = binder.bind(toolInput);
+                Object result;
+                try {
+                    result = withContext ? apply.invokeExact(input, (Object) toolContext) : apply.invokeExact(input);
+                }
+                catch (Throwable e) {
+                    throw new ToolExecutionException(definition, e);
+                }
+                return BoundToolCallback.RESULT_CONVERTER.convert(result, null);
+            }
+        };
+    }
+
+    private static ToolMetadata metadata(boolean returnDirect) {
+        return new ToolMetadata() {
+            @Override
+            public boolean returnDirect() {
+                return returnDirect;
+            }
+        };
+    }
+}
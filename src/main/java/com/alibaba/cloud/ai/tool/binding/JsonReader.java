@@ -0,0 +1,355 @@
+package com.alibaba.cloud.ai.tool.binding;
+
+/**
+ * 流式 JSON 读取器
+ *
+ * 直接在输入字符串上按 token 读取，不构建 Map / JSONObject 树。
+ * 属性名通过 nextName(String[]) 原地与候选名比较，没有转义时不分配字符串。
+ * 对模型输出做了少量容错：逗号可省略，数字和布尔值可以写成字符串。
+ */
+public final class JsonReader {
+
+    private final String json;
+    private final int length;
+    private int pos;
+
+    public JsonReader(String json) {
+        this.json = json;
+        this.length = json.length();
+    }
+
+    public void beginObject() {
+        expect('{');
+    }
+
+    public void endObject() {
+        expect('}');
+    }
+
+    public void beginArray() {
+        expect('[');
+    }
+
+    public void endArray() {
+        expect(']');
+    }
+
+    /**
+     * 当前对象或数组是否还有元素，会跳过元素之间的逗号
+     */
+    public boolean hasNext() {
+        skipWhitespace();
+        if (pos < length && json.charAt(pos) == ',') {
+            pos++;
+            skipWhitespace();
+        }
+        if (pos >= length) {
+            throw error("Unexpected end of input");
+        }
+        char c = json.charAt(pos);
+        return c != '}' && c != ']';
+    }
+
+    /**
+     * 读取属性名和冒号，返回它在 names 中的下标，不在其中时返回 -1
+     */
+    public int nextName(String[] names) {
+        skipWhitespace();
+        expect('"');
+        int start = pos;
+        boolean escaped = false;
+        while (pos < length) {
+            char c = json.charAt(pos);
+            if (c == '"') {
+                break;
+            }
+            if (c == '\\') {
+                escaped = true;
+                pos++;
+            }
+            pos++;
+        }
+        int end = pos;
+        expect('"');
+        expect(':');
+        if (escaped) {
+            String name = unescape(start, end);
+            for (int i = 0; i < names.length; i++) {
+                if (names[i].equals(name)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+        int nameLength = end - start;
+        for (int i = 0; i < names.length; i++) {
+            if (names[i].length() == nameLength && json.regionMatches(start, names[i], 0, nameLength)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 下一个值是 null 时消费并返回 true
+     */
+    public boolean nextNull() {
+        skipWhitespace();
+        if (json.startsWith("null", pos)) {
+            pos += 4;
+            return true;
+        }
+        return false;
+    }
+
+    public char peek() {
+        skipWhitespace();
+        if (pos >= length) {
+            throw error("Unexpected end of input");
+        }
+        return json.charAt(pos);
+    }
+
+    /**
+     * 读取字符串；下一个值是数字或布尔值时返回其原文
+     */
+    public String nextString() {
+        char c = peek();
+        if (c != '"') {
+            int start = pos;
+            skipValue();
+            return json.substring(start, pos);
+        }
+        pos++;
+        int start = pos;
+        while (pos < length) {
+            char ch = json.charAt(pos);
+            if (ch == '"') {
+                String value = json.substring(start, pos);
+                pos++;
+                return value;
+            }
+            if (ch == '\\') {
+                int end = closingQuote(start);
+                String value = unescape(start, end);
+                pos = end + 1;
+                return value;
+            }
+            pos++;
+        }
+        throw error("Unterminated string");
+    }
+
+    public long nextLong() {
+        boolean quoted = peek() == '"';
+        if (quoted) {
+            pos++;
+            skipWhitespace();
+        }
+        int start = pos;
+        boolean negative = false;
+        if (pos < length && (json.charAt(pos) == '-' || json.charAt(pos) == '+')) {
+            negative = json.charAt(pos) == '-';
+            pos++;
+        }
+        long value = 0;
+        int digits = 0;
+        while (pos < length) {
+            char c = json.charAt(pos);
+            if (c < '0' || c > '9') {
+                break;
+            }
+            value = value * 10 + (c - '0');
+            digits++;
+            pos++;
+        }
+        if (digits == 0 || digits > 18 || (pos < length && isFractionOrExponent(json.charAt(pos)))) {
+            // 小数、科学计数法或超长数字，按 double 解析后取整
+            pos = start;
+            double number = readDouble();
+            value = (long) number;
+            negative = false;
+        }
+        if (quoted) {
+            skipWhitespace();
+            expect('"');
+        }
+        return negative ? -value : value;
+    }
+
+    public double nextDouble() {
+        boolean quoted = peek() == '"';
+        if (quoted) {
+            pos++;
+            skipWhitespace();
+        }
+        double value = readDouble();
+        if (quoted) {
+            skipWhitespace();
+            expect('"');
+        }
+        return value;
+    }
+
+    public boolean nextBoolean() {
+        char c = peek();
+        if (c == '"') {
+            return Boolean.parseBoolean(nextString().trim());
+        }
+        if (json.startsWith("true", pos)) {
+            pos += 4;
+            return true;
+        }
+        if (json.startsWith("false", pos)) {
+            pos += 5;
+            return false;
+        }
+        throw error("Expected boolean");
+    }
+
+    /**
+     * 跳过下一个值，返回它的原文，供回退到 JsonParser 的类型使用
+     */
+    public String nextRaw() {
+        skipWhitespace();
+        int start = pos;
+        skipValue();
+        return json.substring(start, pos);
+    }
+
+    public void skipValue() {
+        char c = peek();
+        switch (c) {
+            case '"':
+                pos = closingQuote(pos + 1) + 1;
+                break;
+            case '{':
+            case '[':
+                int depth = 0;
+                while (pos < length) {
+                    char ch = json.charAt(pos);
+                    if (ch == '"') {
+                        pos = closingQuote(pos + 1);
+                    }
+                    else if (ch == '{' || ch == '[') {
+                        depth++;
+                    }
+                    else if (ch == '}' || ch == ']') {
+                        if (--depth == 0) {
+                            pos++;
+                            return;
+                        }
+                    }
+                    pos++;
+                }
+                throw error("Unterminated " + (c == '{' ? "object" : "array"));
+            default:
+                while (pos < length) {
+                    char ch = json.charAt(pos);
+                    if (ch == ',' || ch == '}' || ch == ']' || Character.isWhitespace(ch)) {
+                        break;
+                    }
+                    pos++;
+                }
+        }
+    }
+
+    /**
+     * 读取完顶层值后确认后面只剩空白
+     */
+    public void end() {
+        skipWhitespace();
+        if (pos < length) {
+            throw error("Unexpected trailing content");
+        }
+    }
+
+    IllegalArgumentException error(String message) {
+        return new IllegalArgumentException(message + " at position " + pos + " of tool arguments: "
+                + (length > 200 ? json.substring(0, 200) + "..." : json));
+    }
+
+    private double readDouble() {
+        int start = pos;
+        while (pos < length) {
+            char c = json.charAt(pos);
+            if ((c >= '0' && c <= '9') || c == '-' || c == '+' || isFractionOrExponent(c)) {
+                pos++;
+            }
+            else {
+                break;
+            }
+        }
+        if (start == pos) {
+            throw error("Expected number");
+        }
+        try {
+            return Double.parseDouble(json.substring(start, pos));
+        }
+        catch (NumberFormatException e) {
+            throw error("Invalid number");
+        }
+    }
+
+    private static boolean isFractionOrExponent(char c) {
+        return c == '.' || c == 'e' || c == 'E';
+    }
+
+    private int closingQuote(int from) {
+        int i = from;
+        while (i < length) {
+            char c = json.charAt(i);
+            if (c == '\\') {
+                i += 2;
+                continue;
+            }
+            if (c == '"') {
+                return i;
+            }
+            i++;
+        }
+        throw error("Unterminated string");
+    }
+
+    private String unescape(int start, int end) {
+        StringBuilder builder = new StringBuilder(end - start);
+        for (int i = start; i < end; i++) {
+            char c = json.charAt(i);
+            if (c != '\\' || i + 1 >= end) {
+                builder.append(c);
+                continue;
+            }
+            char escape = json.charAt(++i);
+            switch (escape) {
+                case 'n' -> builder.append('\n');
+                case 't' -> builder.append('\t');
+                case 'r' -> builder.append('\r');
+                case 'b' -> builder.append('\b');
+                case 'f' -> builder.append('\f');
+                case 'u' -> {
+                    if (i + 4 >= end) {
+                        throw error("Invalid unicode escape");
+                    }
+                    builder.append((char) Integer.parseInt(json.substring(i + 1, i + 5), 16));
+                    i += 4;
+                }
+                default -> builder.append(escape);
+            }
+        }
+        return builder.toString();
+    }
+
+    private void expect(char expected) {
+        skipWhitespace();
+        if (pos >= length || json.charAt(pos) != expected) {
+            throw error("Expected '" + expected + "'");
+        }
+        pos++;
+    }
+
+    private void skipWhitespace() {
+        while (pos < length && Character.isWhitespace(json.charAt(pos))) {
+            pos++;
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.alibaba.cloud.ai.tool.cache;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 声明 @Tool 方法（或整个工具类）是幂等的，结果可以被 ToolResultCacheInterceptor 缓存
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.TYPE, ElementType.METHOD})
+public @interface CacheableTool {
+
+    /**
+     * 缓存有效期（秒）
+     */
+    long ttlSeconds() default 60;
+
+    /**
+     * 结果与用户相关时按 user_id（没有时按 threadId）隔离缓存
+     */
+    boolean userScoped() default false;
+}
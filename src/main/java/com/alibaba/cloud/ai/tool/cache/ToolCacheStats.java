@@ -0,0 +1,64 @@
+package com.alibaba.cloud.ai.tool.cache;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 单个工具的缓存统计
+ */
+public class ToolCacheStats {
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    void recordHit() {
+        hits.increment();
+    }
+
+    void recordMiss() {
+        misses.increment();
+    }
+
+    void recordCoalesced() {
+        coalesced.increment();
+    }
+
+    void recordEviction() {
+        evictions.increment();
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    /**
+     * 等待同一参数正在进行的调用、未重复执行的次数
+     */
+    public long coalesced() {
+        return coalesced.sum();
+    }
+
+    public long evictions() {
+        return evictions.sum();
+    }
+
+    /**
+     * 命中率，合并的并发调用也算命中
+     */
+    public double hitRate() {
+        long served = hits() + coalesced();
+        long total = served + misses();
+        return total == 0 ? 0 : (double) served / total;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("hits=%d misses=%d coalesced=%d evictions=%d hitRate=%.1f%%",
+                hits(), misses(), coalesced(), evictions(), hitRate() * 100);
+    }
+}
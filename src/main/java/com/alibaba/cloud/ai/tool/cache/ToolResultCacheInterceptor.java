@@ -0,0 +1,257 @@
+package com.alibaba.cloud.ai.tool.cache;
+
+import com.alibaba.cloud.ai.graph.agent.interceptor.ToolCallHandler;
+import com.alibaba.cloud.ai.graph.agent.interceptor.ToolCallRequest;
+import com.alibaba.cloud.ai.graph.agent.interceptor.ToolCallResponse;
+import com.alibaba.cloud.ai.graph.agent.interceptor.ToolInterceptor;
+import com.alibaba.cloud.ai.tool.ToolArguments;
+import com.alibaba.cloud.ai.tool.ToolErrors;
+import com.alibaba.cloud.ai.tool.ToolMethods;
+import com.alibaba.cloud.ai.tool.ToolRequests;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * 工具结果缓存拦截器
+ *
+ * 只缓存声明为可缓存的工具（@CacheableTool 或 builder.cacheable），键为 工具名 + 规范化 JSON 参数，
+ * 可选按 user_id 隔离。缓存按 LRU 限制条目数，过大的结果不缓存。
+ * 相同键的并发调用只执行一次，其余调用等待同一个结果（防止缓存击穿）。
+ *
+ * 异常和错误文本都不缓存：通过 {@link ToolErrors} 创建的响应（BudgetedRetryInterceptor 的 returnErrorMessage、
+ * ToolResilienceInterceptor 的拒绝消息）会被识别；其他以文本返回错误的拦截器（例如框架 ToolRetryInterceptor
+ * 的 RETURN_MESSAGE）无法区分，需要把本拦截器放在它们之后（内层），让内层异常直接抛到本拦截器，或配置 errorResult。
+ */
+public class ToolResultCacheInterceptor extends ToolInterceptor implements MeterBinder {
+
+    private final Map<String, CachePolicy> policies;
+    private final int maxResultChars;
+    private final Predicate<String> errorResult;
+    private final Map<String, ToolCacheStats> stats = new ConcurrentHashMap<>();
+    private final Map<CacheKey, CompletableFuture<String>> inFlight = new ConcurrentHashMap<>();
+    private final Map<CacheKey, CacheEntry> entries;
+
+    private ToolResultCacheInterceptor(Builder builder) {
+        this.policies = Map.copyOf(builder.policies);
+        this.maxResultChars = builder.maxResultChars;
+        this.errorResult = builder.errorResult;
+        int maxEntries = builder.maxEntries;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<CacheKey, CacheEntry> eldest) {
+                if (size() > maxEntries) {
+                    stats(eldest.getKey().toolName()).recordEviction();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    @Override
+    public String getName() {
+        return "tool_result_cache";
+    }
+
+    @Override
+    public ToolCallResponse interceptToolCall(ToolCallRequest request, ToolCallHandler handler) {
+        CachePolicy policy = policies.get(request.getToolName());
+        if (policy == null) {
+            return handler.call(request);
+        }
+        String scope = policy.userScoped() ? ToolRequests.userId(request).orElse(null) : "";
+        if (scope == null) {
+            // 需要按用户隔离但拿不到用户标识，不缓存
+            return handler.call(request);
+        }
+        CacheKey key = new CacheKey(request.getToolName(), scope, ToolArguments.canonicalize(request.getArguments()));
+        ToolCacheStats toolStats = stats(key.toolName());
+
+        String cached = get(key);
+        if (cached != null) {
+            toolStats.recordHit();
+            return ToolCallResponse.of(request.getToolCallId(), request.getToolName(), cached);
+        }
+
+        CompletableFuture<String> pending = new CompletableFuture<>();
+        CompletableFuture<String> existing = inFlight.putIfAbsent(key, pending);
+        if (existing != null) {
+            toolStats.recordCoalesced();
+            return ToolCallResponse.of(request.getToolCallId(), request.getToolName(), join(existing));
+        }
+        try {
+            // 抢到执行权前可能刚有调用写入缓存
+            cached = get(key);
+            if (cached != null) {
+                toolStats.recordHit();
+                pending.complete(cached);
+                return ToolCallResponse.of(request.getToolCallId(), request.getToolName(), cached);
+            }
+            toolStats.recordMiss();
+            ToolCallResponse response = handler.call(request);
+            String result = response.getResult();
+            if (result != null && result.length() <= maxResultChars
+                    && !ToolErrors.isError(response) && !errorResult.test(result)) {
+                put(key, new CacheEntry(result, System.nanoTime() + policy.ttl().toNanos()));
+            }
+            pending.complete(result);
+            return response;
+        }
+        catch (RuntimeException e) {
+            pending.completeExceptionally(e);
+            throw e;
+        }
+        finally {
+            inFlight.remove(key, pending);
+        }
+    }
+
+    public Map<String, ToolCacheStats> stats() {
+        return Map.copyOf(stats);
+    }
+
+    public void invalidate(String toolName) {
+        synchronized (entries) {
+            entries.keySet().removeIf(key -> key.toolName().equals(toolName));
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        policies.keySet().forEach(toolName -> {
+            ToolCacheStats toolStats = stats(toolName);
+            FunctionCounter.builder("agent.tool.cache.requests", toolStats, ToolCacheStats::hits)
+                    .tags("tool", toolName, "result", "hit")
+                    .register(registry);
+            FunctionCounter.builder("agent.tool.cache.requests", toolStats, ToolCacheStats::coalesced)
+                    .tags("tool", toolName, "result", "coalesced")
+                    .register(registry);
+            FunctionCounter.builder("agent.tool.cache.requests", toolStats, ToolCacheStats::misses)
+                    .tags("tool", toolName, "result", "miss")
+                    .register(registry);
+            FunctionCounter.builder("agent.tool.cache.evictions", toolStats, ToolCacheStats::evictions)
+                    .tags("tool", toolName)
+                    .register(registry);
+        });
+    }
+
+    private ToolCacheStats stats(String toolName) {
+        return stats.computeIfAbsent(toolName, name -> new ToolCacheStats());
+    }
+
+    private String get(CacheKey key) {
+        synchronized (entries) {
+            CacheEntry entry = entries.get(key);
+            if (entry == null) {
+                return null;
+            }
+            if (System.nanoTime() - entry.expiresAt() > 0) {
+                entries.remove(key);
+                return null;
+            }
+            return entry.result();
+        }
+    }
+
+    private void put(CacheKey key, CacheEntry entry) {
+        synchronized (entries) {
+            entries.put(key, entry);
+        }
+    }
+
+    private static String join(CompletableFuture<String> future) {
+        try {
+            return future.join();
+        }
+        catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private record CacheKey(String toolName, String scope, String arguments) {
+    }
+
+    private record CacheEntry(String result, long expiresAt) {
+    }
+
+    private record CachePolicy(Duration ttl, boolean userScoped) {
+    }
+
+    public static class Builder {
+
+        private final Map<String, CachePolicy> policies = new HashMap<>();
+        private int maxEntries = 10_000;
+        private int maxResultChars = 64 * 1024;
+        private Predicate<String> errorResult = result -> false;
+
+        /**
+         * 声明可缓存的工具，用于 FunctionToolCallback 等没有 @Tool 方法的工具
+         */
+        public Builder cacheable(String toolName, Duration ttl) {
+            return cacheable(toolName, ttl, false);
+        }
+
+        public Builder cacheable(String toolName, Duration ttl, boolean userScoped) {
+            policies.put(toolName, new CachePolicy(ttl, userScoped));
+            return this;
+        }
+
+        /**
+         * 扫描 @Tool 方法对象，读取 @CacheableTool 声明
+         */
+        public Builder toolObjects(Object... toolObjects) {
+            for (Object toolObject : toolObjects) {
+                for (Map.Entry<String, Method> entry : ToolMethods.toolMethods(toolObject).entrySet()) {
+                    CacheableTool cacheable = ToolMethods.findAnnotation(entry.getValue(), CacheableTool.class);
+                    if (cacheable != null) {
+                        cacheable(entry.getKey(), Duration.ofSeconds(cacheable.ttlSeconds()), cacheable.userScoped());
+                    }
+                }
+            }
+            return this;
+        }
+
+        public Builder maxEntries(int maxEntries) {
+            this.maxEntries = maxEntries;
+            return this;
+        }
+
+        /**
+         * 超过该长度的结果不缓存
+         */
+        public Builder maxResultChars(int maxResultChars) {
+            this.maxResultChars = maxResultChars;
+            return this;
+        }
+
+        /**
+         * 识别工具或内层拦截器以文本形式返回的错误，匹配的结果不缓存
+         */
+        public Builder errorResult(Predicate<String> errorResult) {
+            this.errorResult = errorResult;
+            return this;
+        }
+
+        public ToolResultCacheInterceptor build() {
+            return new ToolResultCacheInterceptor(this);
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.alibaba.cloud.ai.tool.loader;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 一个 BatchLoader 的批量队列，所有会话共用
+ *
+ * 在 batchWindow 时间窗口内（或攒满 maxBatchSize 个 key 时）收集的 key 通过一次 BatchLoader 调用查询，
+ * 同一批次中相同的 key 只查询一次。
+ */
+class BatchDispatcher<K, V> {
+
+    private final BatchLoader<K, V> batchLoader;
+    private final long windowNanos;
+    private final int maxBatchSize;
+    private final ScheduledExecutorService scheduler;
+    private final Executor executor;
+
+    private final Object lock = new Object();
+    private Map<K, CompletableFuture<V>> pending = new LinkedHashMap<>();
+    private boolean scheduled;
+
+    BatchDispatcher(BatchLoader<K, V> batchLoader, Duration batchWindow, int maxBatchSize,
+                    ScheduledExecutorService scheduler, Executor executor) {
+        this.batchLoader = batchLoader;
+        this.windowNanos = batchWindow.toNanos();
+        this.maxBatchSize = maxBatchSize;
+        this.scheduler = scheduler;
+        this.executor = executor;
+    }
+
+    CompletableFuture<V> load(K key) {
+        Map<K, CompletableFuture<V>> batch = null;
+        CompletableFuture<V> future;
+        synchronized (lock) {
+            future = pending.get(key);
+            if (future != null) {
+                return future;
+            }
+            future = new CompletableFuture<>();
+            pending.put(key, future);
+            if (pending.size() >= maxBatchSize) {
+                batch = takePending();
+            }
+            else if (!scheduled) {
+                scheduled = true;
+                scheduler.schedule(this::dispatch, windowNanos, TimeUnit.NANOSECONDS);
+            }
+        }
+        if (batch != null) {
+            submit(batch);
+        }
+        return future;
+    }
+
+    void dispatch() {
+        Map<K, CompletableFuture<V>> batch;
+        synchronized (lock) {
+            batch = takePending();
+        }
+        if (batch != null) {
+            submit(batch);
+        }
+    }
+
+    private Map<K, CompletableFuture<V>> takePending() {
+        scheduled = false;
+        if (pending.isEmpty()) {
+            return null;
+        }
+        Map<K, CompletableFuture<V>> batch = pending;
+        pending = new LinkedHashMap<>();
+        return batch;
+    }
+
+    private void submit(Map<K, CompletableFuture<V>> batch) {
+        try {
+            executor.execute(() -> run(batch));
+        }
+        catch (RejectedExecutionException e) {
+            batch.values().forEach(future -> future.completeExceptionally(e));
+        }
+    }
+
+    private void run(Map<K, CompletableFuture<V>> batch) {
+        Map<K, V> results;
+        try {
+            results = batchLoader.load(batch.keySet());
+        }
+        catch (Throwable e) {
+            // Error 也要结束等待中的调用，否则它们会一直阻塞
+            batch.values().forEach(future -> future.completeExceptionally(e));
+            if (e instanceof Error error) {
+                throw error;
+            }
+            return;
+        }
+        batch.forEach((key, future) -> future.complete(results == null ? null : results.get(key)));
+    }
+}
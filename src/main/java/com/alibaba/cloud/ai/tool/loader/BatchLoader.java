@@ -0,0 +1,13 @@
+package com.alibaba.cloud.ai.tool.loader;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 一次批量查询后端，返回 key 到结果的映射，缺少的 key 视为 null
+ */
+@FunctionalInterface
+public interface BatchLoader<K, V> {
+
+    Map<K, V> load(Set<K> keys);
+}
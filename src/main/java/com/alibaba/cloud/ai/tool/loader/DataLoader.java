@@ -0,0 +1,73 @@
+package com.alibaba.cloud.ai.tool.loader;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 合并查询的数据加载器
+ *
+ * key 交给该 BatchLoader 所有会话共用的批量队列，在 batchWindow 时间窗口内（或攒满 maxBatchSize 个 key 时）
+ * 通过一次 BatchLoader 调用查询，结果分发给各个等待的调用。
+ * 只有并发的调用（并行工具调用或多个线程）才能被合并，串行调用每次只会多等待一个窗口。
+ * 有会话（threadId）时同一个 DataLoader 内相同 key 只查询一次（memo），失败的结果不保留；
+ * 没有会话时不做 memo，避免不同请求之间共享结果。
+ */
+public class DataLoader<K, V> {
+
+    private final BatchDispatcher<K, V> dispatcher;
+    private final Map<K, CompletableFuture<V>> memo;
+
+    DataLoader(BatchDispatcher<K, V> dispatcher, boolean memoize) {
+        this.dispatcher = dispatcher;
+        this.memo = memoize ? new ConcurrentHashMap<>() : null;
+    }
+
+    public CompletableFuture<V> load(K key) {
+        if (memo == null) {
+            return dispatcher.load(key);
+        }
+        CompletableFuture<V> future = memo.get(key);
+        if (future != null) {
+            return future;
+        }
+        CompletableFuture<V> created = new CompletableFuture<>();
+        future = memo.putIfAbsent(key, created);
+        if (future != null) {
+            return future;
+        }
+        dispatcher.load(key).whenComplete((value, error) -> {
+            if (error != null) {
+                memo.remove(key, created);
+                created.completeExceptionally(error);
+            }
+            else {
+                created.complete(value);
+            }
+        });
+        return created;
+    }
+
+    /**
+     * 同步获取，供工具方法使用
+     */
+    public V get(K key) {
+        try {
+            return load(key).join();
+        }
+        catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * 立即查询队列中已收集的 key，不再等待窗口结束
+     */
+    public void dispatch() {
+        dispatcher.dispatch();
+    }
+}
@@ -0,0 +1,147 @@
+package com.alibaba.cloud.ai.tool.loader;
+
+import com.alibaba.cloud.ai.graph.RunnableConfig;
+import com.alibaba.cloud.ai.graph.agent.interceptor.ToolCallHandler;
+import com.alibaba.cloud.ai.graph.agent.interceptor.ToolCallRequest;
+import com.alibaba.cloud.ai.graph.agent.interceptor.ToolCallResponse;
+import com.alibaba.cloud.ai.graph.agent.interceptor.ToolInterceptor;
+import com.alibaba.cloud.ai.tool.ToolRequests;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ScheduledExecutorService;
+
+/**
+ * 把请求范围的 DataLoaderRegistry 放入 ToolContext 的拦截器
+ *
+ * 每个 BatchLoader 只有一个批量队列，所有会话并发的查询合并到同一批次。
+ * memo 按会话（threadId）隔离：同一个会话中连续的工具调用共享一个 DataLoaderRegistry 及其 memo，
+ * 超过 scopeIdle 没有工具调用后重新创建，下一轮对话读到的是新数据；没有 threadId 的调用每次使用新的
+ * DataLoaderRegistry，不做 memo。
+ * 工具通过 DataLoaderRegistry.from(toolContext).loader(name).get(key) 查询。
+ */
+public class DataLoaderInterceptor extends ToolInterceptor {
+
+    private static final int SWEEP_THRESHOLD = 256;
+
+    private final Map<String, BatchDispatcher<?, ?>> dispatchers = new HashMap<>();
+    private final long scopeIdleNanos;
+    private final ScheduledExecutorService scheduler;
+
+    private final Map<String, Scope> scopes = new ConcurrentHashMap<>();
+
+    private DataLoaderInterceptor(Builder builder) {
+        this.scopeIdleNanos = builder.scopeIdle.toNanos();
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "data-loader-scheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        builder.batchLoaders.forEach((name, batchLoader) -> dispatchers.put(name,
+                new BatchDispatcher<>(batchLoader, builder.batchWindow, builder.maxBatchSize, scheduler, builder.executor)));
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    @Override
+    public String getName() {
+        return "data_loader";
+    }
+
+    @Override
+    public ToolCallResponse interceptToolCall(ToolCallRequest request, ToolCallHandler handler) {
+        DataLoaderRegistry registry = ToolRequests.config(request)
+                .flatMap(RunnableConfig::threadId)
+                .map(this::scope)
+                .orElseGet(() -> newRegistry(false));
+        Map<String, Object> context = request.getContext() == null
+                ? new HashMap<>() : new HashMap<>(request.getContext());
+        context.put(DataLoaderRegistry.CONTEXT_KEY, registry);
+        return handler.call(ToolCallRequest.builder(request).context(context).build());
+    }
+
+    private DataLoaderRegistry scope(String scopeKey) {
+        long now = System.nanoTime();
+        if (scopes.size() > SWEEP_THRESHOLD) {
+            scopes.values().removeIf(scope -> now - scope.lastUsed > scopeIdleNanos);
+        }
+        Scope scope = scopes.compute(scopeKey, (key, existing) ->
+                existing == null || now - existing.lastUsed > scopeIdleNanos ? new Scope(newRegistry(true)) : existing);
+        scope.lastUsed = now;
+        return scope.registry;
+    }
+
+    private DataLoaderRegistry newRegistry(boolean memoize) {
+        return new DataLoaderRegistry(name -> {
+            BatchDispatcher<?, ?> dispatcher = dispatchers.get(name);
+            if (dispatcher == null) {
+                throw new IllegalArgumentException("Unknown data loader: " + name);
+            }
+            return new DataLoader<>(dispatcher, memoize);
+        });
+    }
+
+    private static final class Scope {
+
+        private final DataLoaderRegistry registry;
+        private volatile long lastUsed;
+
+        private Scope(DataLoaderRegistry registry) {
+            this.registry = registry;
+        }
+    }
+
+    public static class Builder {
+
+        private final Map<String, BatchLoader<?, ?>> batchLoaders = new HashMap<>();
+        private Duration batchWindow = Duration.ofMillis(5);
+        private int maxBatchSize = 100;
+        private Duration scopeIdle = Duration.ofSeconds(2);
+        private Executor executor = ForkJoinPool.commonPool();
+
+        public <K, V> Builder loader(String name, BatchLoader<K, V> batchLoader) {
+            batchLoaders.put(name, batchLoader);
+            return this;
+        }
+
+        /**
+         * 收集 key 的时间窗口，默认 5ms
+         */
+        public Builder batchWindow(Duration batchWindow) {
+            this.batchWindow = batchWindow;
+            return this;
+        }
+
+        public Builder maxBatchSize(int maxBatchSize) {
+            this.maxBatchSize = maxBatchSize;
+            return this;
+        }
+
+        /**
+         * 会话超过该时间没有工具调用时丢弃 memo，默认 2 秒
+         */
+        public Builder scopeIdle(Duration scopeIdle) {
+            this.scopeIdle = scopeIdle;
+            return this;
+        }
+
+        /**
+         * 执行 BatchLoader 的线程池
+         */
+        public Builder executor(Executor executor) {
+            this.executor = executor;
+            return this;
+        }
+
+        public DataLoaderInterceptor build() {
+            return new DataLoaderInterceptor(this);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.alibaba.cloud.ai.tool.loader;
+
+import org.springframework.ai.chat.model.ToolContext;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * 一个请求范围内的 DataLoader 集合，由 DataLoaderInterceptor 放入 ToolContext
+ */
+public class DataLoaderRegistry {
+
+    public static final String CONTEXT_KEY = "_DATA_LOADERS_";
+
+    private final Map<String, DataLoader<?, ?>> loaders = new ConcurrentHashMap<>();
+    private final Function<String, DataLoader<?, ?>> factory;
+
+    DataLoaderRegistry(Function<String, DataLoader<?, ?>> factory) {
+        this.factory = factory;
+    }
+
+    /**
+     * 从工具的 ToolContext 中取出当前请求的 DataLoaderRegistry
+     */
+    public static DataLoaderRegistry from(ToolContext toolContext) {
+        Object registry = toolContext == null || toolContext.getContext() == null
+                ? null : toolContext.getContext().get(CONTEXT_KEY);
+        if (registry instanceof DataLoaderRegistry dataLoaders) {
+            return dataLoaders;
+        }
+        throw new IllegalStateException("No DataLoaderRegistry in ToolContext, is DataLoaderInterceptor configured?");
+    }
+
+    @SuppressWarnings("unchecked")
+    public <K, V> DataLoader<K, V> loader(String name) {
+        return (DataLoader<K, V>) loaders.computeIfAbsent(name, factory);
+    }
+}
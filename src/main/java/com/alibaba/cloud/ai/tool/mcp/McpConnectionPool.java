@@ -0,0 +1,159 @@
+package com.alibaba.cloud.ai.tool.mcp;
+
+import com.alibaba.cloud.ai.tool.provider.DynamicToolCallbackProvider;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.modelcontextprotocol.spec.McpClientTransport;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.ToolCallbackProvider;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * 多个 MCP 服务的连接池
+ *
+ * 每个服务一个 McpServerConnection，会话在服务之间独立、在调用之间共享。
+ * getToolCallbacks() 直接返回各连接缓存的工具，不会每次都发 tools/list；
+ * publishTo 把每个服务的工具同步到 DynamicToolCallbackProvider，服务端工具变化时按服务整体替换。
+ * 通过 bindTo 暴露每个服务的调用次数、错误次数、延迟和进行中的调用数。
+ */
+public class McpConnectionPool implements ToolCallbackProvider, MeterBinder, AutoCloseable {
+
+    private final Map<String, McpServerConnection> connections = new LinkedHashMap<>();
+    private final List<DynamicToolCallbackProvider> targets = new CopyOnWriteArrayList<>();
+
+    private McpConnectionPool(Builder builder) {
+        builder.servers.forEach((name, transportFactory) -> connections.put(name,
+                new McpServerConnection(name, transportFactory, builder.requestTimeout, builder.prefixToolNames,
+                        this::onToolsChanged)));
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public McpServerConnection connection(String server) {
+        McpServerConnection connection = connections.get(server);
+        if (connection == null) {
+            throw new IllegalArgumentException("Unknown MCP server: " + server);
+        }
+        return connection;
+    }
+
+    @Override
+    public ToolCallback[] getToolCallbacks() {
+        List<ToolCallback> callbacks = new ArrayList<>();
+        for (McpServerConnection connection : connections.values()) {
+            callbacks.addAll(Arrays.asList(connection.toolCallbacks()));
+        }
+        return callbacks.toArray(new ToolCallback[0]);
+    }
+
+    /**
+     * 把各服务的工具注册到 provider（来源为服务名），之后随 tools/list_changed 通知自动更新
+     * 不同服务的工具重名时 replaceSource 抛出 IllegalArgumentException
+     */
+    public void publishTo(DynamicToolCallbackProvider provider) {
+        targets.add(provider);
+        for (McpServerConnection connection : connections.values()) {
+            provider.replaceSource(connection.name(), List.of(connection.toolCallbacks()));
+        }
+    }
+
+    private void onToolsChanged(McpServerConnection connection) {
+        if (targets.isEmpty()) {
+            return;
+        }
+        List<ToolCallback> callbacks = List.of(connection.toolCallbacks());
+        targets.forEach(provider -> provider.replaceSource(connection.name(), callbacks));
+    }
+
+    public List<McpServerStats> stats() {
+        List<McpServerStats> stats = new ArrayList<>(connections.size());
+        connections.values().forEach(connection -> stats.add(connection.stats()));
+        return stats;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (McpServerConnection connection : connections.values()) {
+            String[] tags = {"server", connection.name()};
+            FunctionCounter.builder("agent.mcp.calls", connection, McpServerConnection::calls)
+                    .tags(tags)
+                    .description("MCP 工具调用次数")
+                    .register(registry);
+            FunctionCounter.builder("agent.mcp.errors", connection, McpServerConnection::errors)
+                    .tags(tags)
+                    .description("MCP 工具调用失败次数")
+                    .register(registry);
+            FunctionTimer.builder("agent.mcp.latency", connection,
+                            McpServerConnection::calls, c -> c.latency().totalNanos(), TimeUnit.NANOSECONDS)
+                    .tags(tags)
+                    .description("MCP 工具调用耗时")
+                    .register(registry);
+            Gauge.builder("agent.mcp.inflight", connection, McpServerConnection::inFlight)
+                    .tags(tags)
+                    .description("共享会话上进行中的调用数")
+                    .register(registry);
+            FunctionCounter.builder("agent.mcp.connects", connection, McpServerConnection::connects)
+                    .tags(tags)
+                    .description("建立 MCP 会话的次数")
+                    .register(registry);
+            FunctionCounter.builder("agent.mcp.tool.lists", connection, McpServerConnection::toolListRequests)
+                    .tags(tags)
+                    .description("实际发出的 tools/list 请求数")
+                    .register(registry);
+        }
+    }
+
+    @Override
+    public void close() {
+        connections.values().forEach(McpServerConnection::close);
+    }
+
+    public static class Builder {
+
+        private final Map<String, Supplier<McpClientTransport>> servers = new LinkedHashMap<>();
+        private Duration requestTimeout = Duration.ofSeconds(30);
+        private boolean prefixToolNames;
+
+        /**
+         * 添加一个 MCP 服务，transportFactory 在建立和重连会话时各调用一次
+         */
+        public Builder server(String name, Supplier<McpClientTransport> transportFactory) {
+            servers.put(name, transportFactory);
+            return this;
+        }
+
+        public Builder requestTimeout(Duration requestTimeout) {
+            this.requestTimeout = requestTimeout;
+            return this;
+        }
+
+        /**
+         * 工具名加上 "服务名_" 前缀，多个服务有同名工具时使用
+         */
+        public Builder prefixToolNames(boolean prefixToolNames) {
+            this.prefixToolNames = prefixToolNames;
+            return this;
+        }
+
+        public McpConnectionPool build() {
+            if (servers.isEmpty()) {
+                throw new IllegalArgumentException("at least one MCP server is required");
+            }
+            return new McpConnectionPool(this);
+        }
+    }
+}
@@ -0,0 +1,291 @@
+package com.alibaba.cloud.ai.tool.mcp;
+
+import com.alibaba.cloud.ai.metrics.LatencyHistogram;
+import io.modelcontextprotocol.client.McpClient;
+import io.modelcontextprotocol.client.McpSyncClient;
+import io.modelcontextprotocol.spec.McpClientTransport;
+import io.modelcontextprotocol.spec.McpError;
+import io.modelcontextprotocol.spec.McpSchema;
+import org.springframework.ai.tool.ToolCallback;
+
+import java.net.http.HttpConnectTimeoutException;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * 单个 MCP 服务的长连接
+ *
+ * 第一次使用时建立并初始化会话，之后所有工具调用共用这一个会话：MCP 请求按 id 复用同一连接，
+ * 多个线程可以同时发起调用，不需要每次调用各开一个会话。
+ * tools/list 的结果缓存在连接上，只在服务端发送 tools/list_changed 通知或重新连接后才重新获取。
+ * 调用因传输层异常或会话已关闭而失败时关闭当前会话，下一次调用重新连接；协议错误（McpError）和单个请求超时
+ * 不会触发重连，共享会话上的其他请求不受影响。
+ */
+public class McpServerConnection implements AutoCloseable {
+
+    private final String name;
+    private final Supplier<McpClientTransport> transportFactory;
+    private final Duration requestTimeout;
+    private final boolean prefixToolNames;
+    private final Consumer<McpServerConnection> toolsListener;
+
+    private volatile McpSyncClient client;
+    private volatile Tools tools;
+    private volatile int generation;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder connects = new LongAdder();
+    private final LongAdder toolListRequests = new LongAdder();
+
+    McpServerConnection(String name, Supplier<McpClientTransport> transportFactory, Duration requestTimeout,
+                        boolean prefixToolNames, Consumer<McpServerConnection> toolsListener) {
+        this.name = name;
+        this.transportFactory = transportFactory;
+        this.requestTimeout = requestTimeout;
+        this.prefixToolNames = prefixToolNames;
+        this.toolsListener = toolsListener;
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public boolean isConnected() {
+        return client != null;
+    }
+
+    /**
+     * 服务提供的工具，优先使用缓存
+     */
+    public List<McpSchema.Tool> tools() {
+        return loadTools().tools;
+    }
+
+    /**
+     * 服务工具对应的 ToolCallback，与工具列表一起缓存
+     */
+    public ToolCallback[] toolCallbacks() {
+        return loadTools().callbacks.clone();
+    }
+
+    /**
+     * 丢弃工具列表缓存，下次使用时重新获取
+     */
+    public void invalidateTools() {
+        tools = null;
+    }
+
+    /**
+     * 在共享会话上调用工具，可以多个线程并发调用
+     */
+    public McpSchema.CallToolResult callTool(String toolName, Map<String, Object> arguments) {
+        McpSyncClient current = client();
+        inFlight.incrementAndGet();
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            McpSchema.CallToolResult result = current.callTool(new McpSchema.CallToolRequest(toolName, arguments));
+            failed = Boolean.TRUE.equals(result.isError());
+            return result;
+        }
+        catch (McpError e) {
+            throw e;
+        }
+        catch (RuntimeException e) {
+            if (!isTimeout(e)) {
+                reset(current);
+            }
+            throw e;
+        }
+        finally {
+            inFlight.decrementAndGet();
+            latency.record(System.nanoTime() - start);
+            calls.increment();
+            if (failed) {
+                errors.increment();
+            }
+        }
+    }
+
+    private Tools loadTools() {
+        Tools cached = tools;
+        if (cached != null) {
+            return cached;
+        }
+        McpSyncClient current = client();
+        synchronized (this) {
+            if (tools != null) {
+                return tools;
+            }
+            List<McpSchema.Tool> listed = new ArrayList<>();
+            String cursor = null;
+            try {
+                do {
+                    McpSchema.ListToolsResult result = current.listTools(cursor);
+                    toolListRequests.increment();
+                    listed.addAll(result.tools());
+                    cursor = result.nextCursor();
+                }
+                while (cursor != null);
+            }
+            catch (McpError e) {
+                throw e;
+            }
+            catch (RuntimeException e) {
+                if (!isTimeout(e)) {
+                    reset(current);
+                }
+                throw e;
+            }
+            Tools loaded = new Tools(listed, callbacks(listed));
+            tools = loaded;
+            return loaded;
+        }
+    }
+
+    private McpSyncClient client() {
+        McpSyncClient current = client;
+        if (current != null) {
+            return current;
+        }
+        synchronized (this) {
+            if (client != null) {
+                return client;
+            }
+            int clientGeneration = ++generation;
+            McpSyncClient created = McpClient.sync(transportFactory.get())
+                    .requestTimeout(requestTimeout)
+                    .toolsChangeConsumer(changed -> onToolsChanged(clientGeneration, changed))
+                    .build();
+            try {
+                created.initialize();
+            }
+            catch (RuntimeException e) {
+                // 初始化失败时关闭客户端及其传输，避免每次重连泄漏连接或子进程
+                closeQuietly(created);
+                throw e;
+            }
+            connects.increment();
+            // 重新连接后服务端的工具可能已经变化
+            tools = null;
+            client = created;
+            return created;
+        }
+    }
+
+    /**
+     * 在 MCP 客户端的通知线程上执行，不获取连接锁，避免与正在进行的初始化互相等待
+     */
+    private void onToolsChanged(int clientGeneration, List<McpSchema.Tool> changed) {
+        if (clientGeneration != generation) {
+            // 已经关闭或重连的旧会话
+            return;
+        }
+        List<McpSchema.Tool> copy = List.copyOf(changed);
+        tools = new Tools(copy, callbacks(copy));
+        toolsListener.accept(this);
+    }
+
+    private void reset(McpSyncClient failed) {
+        synchronized (this) {
+            if (client != failed) {
+                return;
+            }
+            client = null;
+            tools = null;
+        }
+        closeQuietly(failed);
+    }
+
+    /**
+     * 请求超时只说明这一次调用没有及时返回，不代表连接已经断开；建立连接超时仍然按传输层异常处理
+     */
+    private static boolean isTimeout(Throwable failure) {
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            if (cause instanceof HttpConnectTimeoutException) {
+                return false;
+            }
+            if (cause instanceof TimeoutException || cause instanceof HttpTimeoutException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private ToolCallback[] callbacks(List<McpSchema.Tool> listed) {
+        ToolCallback[] callbacks = new ToolCallback[listed.size()];
+        for (int i = 0; i < callbacks.length; i++) {
+            McpSchema.Tool tool = listed.get(i);
+            String toolName = prefixToolNames ? name + "_" + tool.name() : tool.name();
+            callbacks[i] = new McpToolCallback(this, tool, toolName);
+        }
+        return callbacks;
+    }
+
+    public McpServerStats stats() {
+        Tools cached = tools;
+        return new McpServerStats(name, isConnected(), cached == null ? -1 : cached.tools.size(), inFlight.get(),
+                calls.sum(), errors.sum(), connects.sum(), toolListRequests.sum(), latency.snapshot());
+    }
+
+    int inFlight() {
+        return inFlight.get();
+    }
+
+    long calls() {
+        return calls.sum();
+    }
+
+    long errors() {
+        return errors.sum();
+    }
+
+    long connects() {
+        return connects.sum();
+    }
+
+    long toolListRequests() {
+        return toolListRequests.sum();
+    }
+
+    LatencyHistogram latency() {
+        return latency;
+    }
+
+    @Override
+    public void close() {
+        McpSyncClient current;
+        synchronized (this) {
+            current = client;
+            client = null;
+            tools = null;
+            generation++;
+        }
+        if (current != null) {
+            closeQuietly(current);
+        }
+    }
+
+    private static void closeQuietly(McpSyncClient client) {
+        try {
+            client.closeGracefully();
+        }
+        catch (RuntimeException ignored) {
+            // 连接已经不可用，关闭失败没有影响
+        }
+    }
+
+    private record Tools(List<McpSchema.Tool> tools, ToolCallback[] callbacks) {
+    }
+}
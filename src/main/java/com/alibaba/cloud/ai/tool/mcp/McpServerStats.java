@@ -0,0 +1,22 @@
+package com.alibaba.cloud.ai.tool.mcp;
+
+import com.alibaba.cloud.ai.metrics.LatencyHistogram;
+
+/**
+ * 单个 MCP 服务的连接状态和调用统计
+ *
+ * @param tools            缓存的工具数，未缓存时为 -1
+ * @param connects         建立会话的次数，大于 1 说明发生过重连
+ * @param toolListRequests 实际发出的 tools/list 请求数
+ */
+public record McpServerStats(String server, boolean connected, int tools, int inFlight, long calls, long errors,
+                             long connects, long toolListRequests, LatencyHistogram.Snapshot latency) {
+
+    @Override
+    public String toString() {
+        return String.format("mcp[%s] connected=%s tools=%d inFlight=%d calls=%d errors=%d connects=%d "
+                        + "toolLists=%d p50=%.3fms p99=%.3fms max=%.3fms",
+                server, connected, tools, inFlight, calls, errors, connects, toolListRequests,
+                latency.p50Nanos() / 1e6, latency.p99Nanos() / 1e6, latency.maxNanos() / 1e6);
+    }
+}
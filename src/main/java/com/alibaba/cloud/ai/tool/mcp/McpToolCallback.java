@@ -0,0 +1,64 @@
+package com.alibaba.cloud.ai.tool.mcp;
+
+import io.modelcontextprotocol.spec.McpSchema;
+import org.springframework.ai.chat.model.ToolContext;
+import org.springframework.ai.model.ModelOptionsUtils;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.definition.DefaultToolDefinition;
+import org.springframework.ai.tool.definition.ToolDefinition;
+import org.springframework.ai.tool.execution.ToolExecutionException;
+
+import java.util.Map;
+
+/**
+ * 通过 McpServerConnection 调用的 MCP 工具
+ *
+ * 与 Spring AI 的 SyncMcpToolCallback 行为一致（参数和结果的 JSON 转换、isError 时抛出 ToolExecutionException），
+ * 区别是调用时才取连接上的当前会话，重连后不需要重新创建回调。
+ */
+public class McpToolCallback implements ToolCallback {
+
+    private final McpServerConnection connection;
+    private final String mcpToolName;
+    private final ToolDefinition definition;
+
+    McpToolCallback(McpServerConnection connection, McpSchema.Tool tool, String toolName) {
+        this.connection = connection;
+        this.mcpToolName = tool.name();
+        this.definition = new DefaultToolDefinition(toolName, tool.description(),
+                ModelOptionsUtils.toJsonString(tool.inputSchema()));
+    }
+
+    @Override
+    public ToolDefinition getToolDefinition() {
+        return definition;
+    }
+
+    /**
+     * MCP 工具不使用 ToolContext；默认实现在 context 非空时会抛异常，而 ReactAgent 总会传入 context
+     */
+    @Override
+    public String call(String toolInput, ToolContext toolContext) {
+        return call(toolInput);
+    }
+
+    @Override
+    public String call(String toolInput) {
+        Map<String, Object> arguments = toolInput == null || toolInput.isBlank()
+                ? Map.of()
+                : ModelOptionsUtils.jsonToMap(toolInput);
+        McpSchema.CallToolResult result = connection.callTool(mcpToolName, arguments);
+        if (Boolean.TRUE.equals(result.isError())) {
+            throw new ToolExecutionException(definition,
+                    new IllegalStateException("Error calling tool: " + result.content()));
+        }
+        return ModelOptionsUtils.toJsonString(result.content());
+    }
+
+    /**
+     * 所属的 MCP 服务名
+     */
+    public String server() {
+        return connection.name();
+    }
+}
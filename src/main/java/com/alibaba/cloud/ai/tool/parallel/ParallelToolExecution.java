@@ -0,0 +1,240 @@
+package com.alibaba.cloud.ai.tool.parallel;
+
+import com.alibaba.cloud.ai.graph.agent.interceptor.ModelCallHandler;
+import com.alibaba.cloud.ai.graph.agent.interceptor.ModelInterceptor;
+import com.alibaba.cloud.ai.graph.agent.interceptor.ModelRequest;
+import com.alibaba.cloud.ai.graph.agent.interceptor.ModelResponse;
+import com.alibaba.cloud.ai.graph.agent.interceptor.ToolCallHandler;
+import com.alibaba.cloud.ai.graph.agent.interceptor.ToolCallRequest;
+import com.alibaba.cloud.ai.graph.agent.interceptor.ToolCallResponse;
+import com.alibaba.cloud.ai.graph.agent.interceptor.ToolInterceptor;
+import com.alibaba.cloud.ai.tool.ToolMethods;
+import org.springframework.ai.chat.messages.AssistantMessage;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 同一条 AI 消息中多个工具调用的并行执行
+ *
+ * 工具节点按顺序逐个执行工具调用，这里用一对拦截器在外部实现并行：
+ * modelInterceptor() 记录模型返回的全部工具调用；toolInterceptor() 收到一段连续的可并行调用中的第一个时，
+ * 用同一个 ToolCallHandler 把这一段的其余调用提交到 executor，之后的调用直接等待各自的结果。
+ * 工具节点仍按原顺序取结果，ToolResponseMessage 顺序不变；后续 ToolInterceptor 链对每个调用都完整执行。
+ * 批次按工具调用 id 关联。Ollama 返回的工具调用 id 总是为空，id 为空或重复时 modelInterceptor() 会先生成唯一 id
+ * 写回 AI 消息，工具节点和 ToolResponseMessage 使用同一组 id。
+ *
+ * toolInterceptor() 需要放在 interceptors 的最前面，这样其余 ToolInterceptor 都在 handler 内部。
+ * 标注了 @SequentialTool 或通过 sequentialTools 声明的工具把调用分成前后两段：轮到它时先等前面已提交的调用全部结束，
+ * 再在工具节点线程上执行，执行期间不提交任何调用，它后面的调用在它结束后才开始。
+ */
+public class ParallelToolExecution {
+
+    private static final long BATCH_EXPIRE_NANOS = TimeUnit.MINUTES.toNanos(10);
+
+    private final Executor executor;
+    private final Set<String> sequentialTools;
+    private final Map<String, Batch> batches = new ConcurrentHashMap<>();
+
+    private final ModelInterceptor modelInterceptor = new ModelInterceptor() {
+        @Override
+        public ModelResponse interceptModel(ModelRequest request, ModelCallHandler handler) {
+            ModelResponse response = handler.call(request);
+            if (!(response.getMessage() instanceof AssistantMessage message) || message.getToolCalls().size() <= 1) {
+                return response;
+            }
+            AssistantMessage identified = withUniqueCallIds(message);
+            register(identified.getToolCalls());
+            return identified == message ? response : ModelResponse.of(identified, response.getChatResponse());
+        }
+
+        @Override
+        public String getName() {
+            return "parallel_tool_calls_collector";
+        }
+    };
+
+    private final ToolInterceptor toolInterceptor = new ToolInterceptor() {
+        @Override
+        public ToolCallResponse interceptToolCall(ToolCallRequest request, ToolCallHandler handler) {
+            Batch batch = batches.remove(request.getToolCallId());
+            if (batch == null) {
+                return handler.call(request);
+            }
+            return batch.call(request, handler);
+        }
+
+        @Override
+        public String getName() {
+            return "parallel_tool_calls";
+        }
+    };
+
+    private ParallelToolExecution(Builder builder) {
+        this.executor = builder.executor;
+        this.sequentialTools = builder.sequentialTools;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public ModelInterceptor modelInterceptor() {
+        return modelInterceptor;
+    }
+
+    public ToolInterceptor toolInterceptor() {
+        return toolInterceptor;
+    }
+
+    /**
+     * 工具调用 id 为空或重复时无法区分同一批次中的调用，也会和其他会话的批次冲突，为这些调用生成唯一 id
+     */
+    private static AssistantMessage withUniqueCallIds(AssistantMessage message) {
+        Set<String> ids = new HashSet<>();
+        boolean unique = true;
+        for (AssistantMessage.ToolCall toolCall : message.getToolCalls()) {
+            unique &= toolCall.id() != null && !toolCall.id().isBlank() && ids.add(toolCall.id());
+        }
+        if (unique) {
+            return message;
+        }
+        List<AssistantMessage.ToolCall> toolCalls = new ArrayList<>(message.getToolCalls().size());
+        for (AssistantMessage.ToolCall toolCall : message.getToolCalls()) {
+            toolCalls.add(new AssistantMessage.ToolCall("call_" + UUID.randomUUID(), toolCall.type(),
+                    toolCall.name(), toolCall.arguments()));
+        }
+        return new AssistantMessage(message.getText(), message.getMetadata(), toolCalls);
+    }
+
+    private void register(List<AssistantMessage.ToolCall> toolCalls) {
+        long now = System.nanoTime();
+        // 被中断的会话留下的批次不会再被取走，顺带清理
+        batches.values().removeIf(batch -> now - batch.createdAt > BATCH_EXPIRE_NANOS);
+        Batch batch = new Batch(toolCalls, now);
+        for (AssistantMessage.ToolCall toolCall : toolCalls) {
+            batches.put(toolCall.id(), batch);
+        }
+    }
+
+    private final class Batch {
+
+        private final List<AssistantMessage.ToolCall> toolCalls;
+        private final long createdAt;
+        private final Map<String, CompletableFuture<ToolCallResponse>> futures = new HashMap<>();
+        private final List<CompletableFuture<ToolCallResponse>> submitted = new ArrayList<>();
+
+        private Batch(List<AssistantMessage.ToolCall> toolCalls, long createdAt) {
+            this.toolCalls = toolCalls;
+            this.createdAt = createdAt;
+        }
+
+        private ToolCallResponse call(ToolCallRequest request, ToolCallHandler handler) {
+            CompletableFuture<ToolCallResponse> future;
+            List<CompletableFuture<ToolCallResponse>> running = List.of();
+            synchronized (this) {
+                future = futures.remove(request.getToolCallId());
+                if (future == null) {
+                    if (sequentialTools.contains(request.getToolName())) {
+                        running = List.copyOf(submitted);
+                    }
+                    else {
+                        startWave(request, handler);
+                    }
+                }
+            }
+            if (future == null) {
+                // 顺序执行的工具先等已提交的调用结束（结果和异常由各自的调用取走），当前线程执行当前调用
+                CompletableFuture.allOf(running.toArray(new CompletableFuture<?>[0])).exceptionally(e -> null).join();
+                return handler.call(request);
+            }
+            try {
+                return future.join();
+            }
+            catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                throw e;
+            }
+        }
+
+        /**
+         * 当前调用在工具节点线程执行，它后面直到下一个顺序执行的工具之前的调用提交到 executor
+         */
+        private void startWave(ToolCallRequest current, ToolCallHandler handler) {
+            int index = 0;
+            while (index < toolCalls.size() && !toolCalls.get(index).id().equals(current.getToolCallId())) {
+                index++;
+            }
+            for (int i = index + 1; i < toolCalls.size(); i++) {
+                AssistantMessage.ToolCall toolCall = toolCalls.get(i);
+                if (sequentialTools.contains(toolCall.name())) {
+                    break;
+                }
+                ToolCallRequest sibling = ToolCallRequest.builder(current)
+                        .toolCallId(toolCall.id())
+                        .toolName(toolCall.name())
+                        .arguments(toolCall.arguments())
+                        .build();
+                CompletableFuture<ToolCallResponse> future = CompletableFuture.supplyAsync(() -> handler.call(sibling), executor);
+                futures.put(toolCall.id(), future);
+                submitted.add(future);
+            }
+        }
+    }
+
+    public static class Builder {
+
+        private Executor executor;
+        private final Set<String> sequentialTools = new HashSet<>();
+
+        /**
+         * 执行工具调用的线程池，必须设置；工具多为 IO 调用，应使用独立的有界线程池，不要用 ForkJoinPool.commonPool()
+         */
+        public Builder executor(Executor executor) {
+            this.executor = executor;
+            return this;
+        }
+
+        /**
+         * 声明不能并发执行的工具名
+         */
+        public Builder sequentialTools(String... toolNames) {
+            this.sequentialTools.addAll(List.of(toolNames));
+            return this;
+        }
+
+        /**
+         * 扫描 @Tool 方法对象，类或方法上标注了 @SequentialTool 的工具不并发执行
+         */
+        public Builder toolObjects(Object... toolObjects) {
+            for (Object toolObject : toolObjects) {
+                for (Map.Entry<String, Method> entry : ToolMethods.toolMethods(toolObject).entrySet()) {
+                    if (ToolMethods.findAnnotation(entry.getValue(), SequentialTool.class) != null) {
+                        sequentialTools.add(entry.getKey());
+                    }
+                }
+            }
+            return this;
+        }
+
+        public ParallelToolExecution build() {
+            if (executor == null) {
+                throw new IllegalArgumentException("executor must not be null");
+            }
+            return new ParallelToolExecution(this);
+        }
+    }
+}
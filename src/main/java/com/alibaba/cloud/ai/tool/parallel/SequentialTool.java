@@ -0,0 +1,16 @@
+package com.alibaba.cloud.ai.tool.parallel;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 标记非线程安全的工具（类或 @Tool 方法），ParallelToolExecution 不会把它和其他工具并发执行
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.TYPE, ElementType.METHOD})
+public @interface SequentialTool {
+}
@@ -0,0 +1,214 @@
+package com.alibaba.cloud.ai.tool.provider;
+
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.ToolCallbackProvider;
+import org.springframework.ai.tool.resolution.ToolCallbackResolver;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * 可在运行时增删、替换工具的 ToolCallbackProvider
+ *
+ * 每次修改生成一个不可变的 Snapshot，通过 volatile 引用发布。读取方（每轮对话）无锁、不分配数组，
+ * 同一个 Snapshot 内的工具集是一致的；写入方串行执行。getToolCallbacks 返回副本，调用方可以随意修改。
+ * 工具可以按来源分组（例如一个 MCP 服务），replaceSource 整体替换一组工具，不允许接管其他来源的同名工具。
+ * 每次修改后把逐个工具的变更事件通知给监听器，例如让 ToolSchemaRegistry / ToolResultCacheInterceptor 只失效变化的工具。
+ * 监听器在释放写锁之后、由执行修改的线程调用，可以在监听器里再次修改工具集；
+ * 并发修改时不同版本的事件可能交错到达，需要时按 ToolChangeEvent.version 判断先后。
+ *
+ * ReactAgent.builder().toolCallbackProviders(...) 在 build() 时只读取一次 getToolCallbacks()，
+ * 之后的修改不会反映到已经创建的 agent 上；工具变化后需要重新创建 agent（可以共用同一个 saver）。
+ */
+public class DynamicToolCallbackProvider implements ToolCallbackProvider, ToolCallbackResolver {
+
+    private final List<Consumer<ToolChangeEvent>> listeners = new CopyOnWriteArrayList<>();
+
+    private volatile Snapshot snapshot = new Snapshot(0, Map.of());
+
+    @Override
+    public ToolCallback[] getToolCallbacks() {
+        return snapshot.callbacks.clone();
+    }
+
+    @Override
+    public ToolCallback resolve(String toolName) {
+        Entry entry = snapshot.entries.get(toolName);
+        return entry == null ? null : entry.callback();
+    }
+
+    /**
+     * 当前工具集，一轮对话内应只读取一次并使用同一个 Snapshot
+     */
+    public Snapshot snapshot() {
+        return snapshot;
+    }
+
+    public long version() {
+        return snapshot.version;
+    }
+
+    public void addListener(Consumer<ToolChangeEvent> listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(Consumer<ToolChangeEvent> listener) {
+        listeners.remove(listener);
+    }
+
+    public void register(ToolCallback... callbacks) {
+        register(null, List.of(callbacks));
+    }
+
+    /**
+     * 注册或替换同名工具
+     */
+    public void register(String source, Collection<ToolCallback> callbacks) {
+        notifyListeners(doRegister(source, callbacks));
+    }
+
+    public void remove(String... toolNames) {
+        notifyListeners(doRemove(toolNames));
+    }
+
+    /**
+     * 用 callbacks 整体替换 source 下的工具：新增的登记，缺少的删除，未变化（同一实例）的不产生事件
+     *
+     * @throws IllegalArgumentException 某个工具名已属于其他来源，此时不做任何修改
+     */
+    public void replaceSource(String source, Collection<ToolCallback> callbacks) {
+        notifyListeners(doReplaceSource(source, callbacks));
+    }
+
+    private synchronized List<ToolChangeEvent> doRegister(String source, Collection<ToolCallback> callbacks) {
+        Map<String, Entry> entries = new LinkedHashMap<>(snapshot.entries);
+        List<ToolChangeEvent> events = new ArrayList<>();
+        long version = snapshot.version + 1;
+        for (ToolCallback callback : callbacks) {
+            put(entries, events, source, callback, version);
+        }
+        return publish(version, entries, events);
+    }
+
+    private synchronized List<ToolChangeEvent> doRemove(String... toolNames) {
+        Map<String, Entry> entries = new LinkedHashMap<>(snapshot.entries);
+        List<ToolChangeEvent> events = new ArrayList<>();
+        long version = snapshot.version + 1;
+        for (String toolName : toolNames) {
+            Entry removed = entries.remove(toolName);
+            if (removed != null) {
+                events.add(new ToolChangeEvent(ToolChangeEvent.Type.REMOVED, toolName, removed.source(), version));
+            }
+        }
+        return publish(version, entries, events);
+    }
+
+    private synchronized List<ToolChangeEvent> doReplaceSource(String source, Collection<ToolCallback> callbacks) {
+        Map<String, Entry> entries = new LinkedHashMap<>(snapshot.entries);
+        List<ToolChangeEvent> events = new ArrayList<>();
+        long version = snapshot.version + 1;
+        Map<String, ToolCallback> incoming = new LinkedHashMap<>();
+        for (ToolCallback callback : callbacks) {
+            String name = callback.getToolDefinition().name();
+            Entry existing = entries.get(name);
+            if (existing != null && !Objects.equals(existing.source(), source)) {
+                throw new IllegalArgumentException("Tool " + name + " from source " + source
+                        + " conflicts with the tool registered by source " + existing.source());
+            }
+            incoming.put(name, callback);
+        }
+        entries.values().removeIf(entry -> {
+            if (Objects.equals(entry.source(), source) && !incoming.containsKey(entry.name())) {
+                events.add(new ToolChangeEvent(ToolChangeEvent.Type.REMOVED, entry.name(), source, version));
+                return true;
+            }
+            return false;
+        });
+        incoming.values().forEach(callback -> put(entries, events, source, callback, version));
+        return publish(version, entries, events);
+    }
+
+    private static void put(Map<String, Entry> entries, List<ToolChangeEvent> events, String source,
+                            ToolCallback callback, long version) {
+        String name = callback.getToolDefinition().name();
+        Entry previous = entries.get(name);
+        if (previous != null && previous.callback() == callback) {
+            return;
+        }
+        entries.put(name, new Entry(name, source, callback, version));
+        events.add(new ToolChangeEvent(previous == null ? ToolChangeEvent.Type.ADDED : ToolChangeEvent.Type.UPDATED,
+                name, source, version));
+    }
+
+    /**
+     * 持有写锁时调用，只发布 Snapshot；事件由调用方在释放锁之后通知
+     */
+    private List<ToolChangeEvent> publish(long version, Map<String, Entry> entries, List<ToolChangeEvent> events) {
+        if (!events.isEmpty()) {
+            snapshot = new Snapshot(version, entries);
+        }
+        return events;
+    }
+
+    private void notifyListeners(List<ToolChangeEvent> events) {
+        for (ToolChangeEvent event : events) {
+            listeners.forEach(listener -> listener.accept(event));
+        }
+    }
+
+    /**
+     * 单个工具及其最后一次变更时的版本号
+     */
+    public record Entry(String name, String source, ToolCallback callback, long version) {
+    }
+
+    /**
+     * 不可变的工具集
+     */
+    public static final class Snapshot {
+
+        private final long version;
+        private final Map<String, Entry> entries;
+        private final ToolCallback[] callbacks;
+        private final List<ToolCallback> callbackList;
+
+        /**
+         * entries 由调用方新建且不再修改，保持插入顺序
+         */
+        private Snapshot(long version, Map<String, Entry> entries) {
+            this.version = version;
+            this.entries = Collections.unmodifiableMap(entries);
+            List<ToolCallback> callbacks = new ArrayList<>(entries.size());
+            entries.values().forEach(entry -> callbacks.add(entry.callback()));
+            this.callbacks = callbacks.toArray(new ToolCallback[0]);
+            this.callbackList = Collections.unmodifiableList(Arrays.asList(this.callbacks));
+        }
+
+        public long version() {
+            return version;
+        }
+
+        public Entry entry(String toolName) {
+            return entries.get(toolName);
+        }
+
+        /**
+         * 只读视图，不复制
+         */
+        public List<ToolCallback> callbacks() {
+            return callbackList;
+        }
+
+        public int size() {
+            return callbacks.length;
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.alibaba.cloud.ai.tool.provider;
+
+/**
+ * 工具集变更事件
+ *
+ * @param type     变更类型
+ * @param toolName 工具名
+ * @param source   工具来源（例如 MCP 服务名），直接注册的工具为 null
+ * @param version  变更后工具集的版本号
+ */
+public record ToolChangeEvent(Type type, String toolName, String source, long version) {
+
+    public enum Type {
+        ADDED, UPDATED, REMOVED
+    }
+}
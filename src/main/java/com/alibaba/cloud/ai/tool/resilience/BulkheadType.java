@@ -0,0 +1,22 @@
+package com.alibaba.cloud.ai.tool.resilience;
+
+/**
+ * 舱壁隔离方式
+ */
+public enum BulkheadType {
+
+    /**
+     * 不限制并发
+     */
+    NONE,
+
+    /**
+     * 信号量限制并发数，调用在调用方线程（或共享的超时线程池）上执行
+     */
+    SEMAPHORE,
+
+    /**
+     * 每个工具一个独立的有界线程池，慢工具只会占满自己的线程
+     */
+    THREAD_POOL
+}
@@ -0,0 +1,146 @@
+package com.alibaba.cloud.ai.tool.resilience;
+
+/**
+ * 基于最近 N 次调用失败率的熔断器
+ *
+ * CLOSED 时记录每次调用结果，失败率超过阈值进入 OPEN；OPEN 期间直接拒绝，
+ * openDuration 之后进入 HALF_OPEN 放行 halfOpenCalls 次试探，全部成功回到 CLOSED，任意一次失败重新 OPEN。
+ */
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED(0), HALF_OPEN(1), OPEN(2);
+
+        private final int code;
+
+        State(int code) {
+            this.code = code;
+        }
+
+        /**
+         * 用于指标的数值：0 关闭，1 半开，2 打开
+         */
+        public int code() {
+            return code;
+        }
+    }
+
+    private final double failureRateThreshold;
+    private final int minimumCalls;
+    private final long openNanos;
+    private final int halfOpenCalls;
+
+    private final boolean[] window;
+    private int windowIndex;
+    private int windowCount;
+    private int windowFailures;
+
+    private State state = State.CLOSED;
+    private long openedAt;
+    private int halfOpenPermits;
+    private int halfOpenSuccesses;
+
+    public CircuitBreaker(ResiliencePolicy policy) {
+        this.failureRateThreshold = policy.failureRateThreshold();
+        this.minimumCalls = Math.min(policy.minimumCalls(), policy.slidingWindowSize());
+        this.openNanos = policy.openDuration().toNanos();
+        this.halfOpenCalls = policy.halfOpenCalls();
+        this.window = new boolean[policy.slidingWindowSize()];
+    }
+
+    /**
+     * 是否放行本次调用，放行后必须调用 onSuccess / onFailure / release 之一
+     */
+    public synchronized boolean tryAcquire() {
+        switch (state) {
+            case CLOSED:
+                return true;
+            case OPEN:
+                if (System.nanoTime() - openedAt < openNanos) {
+                    return false;
+                }
+                transition(State.HALF_OPEN);
+                halfOpenPermits--;
+                return true;
+            default:
+                if (halfOpenPermits > 0) {
+                    halfOpenPermits--;
+                    return true;
+                }
+                return false;
+        }
+    }
+
+    public synchronized void onSuccess() {
+        if (state == State.HALF_OPEN) {
+            if (++halfOpenSuccesses >= halfOpenCalls) {
+                transition(State.CLOSED);
+            }
+        }
+        else if (state == State.CLOSED) {
+            record(false);
+        }
+    }
+
+    public synchronized void onFailure() {
+        if (state == State.HALF_OPEN) {
+            transition(State.OPEN);
+        }
+        else if (state == State.CLOSED) {
+            record(true);
+            if (windowCount >= minimumCalls && failureRate() >= failureRateThreshold) {
+                transition(State.OPEN);
+            }
+        }
+    }
+
+    /**
+     * 放行后调用没有真正执行（例如被舱壁拒绝），归还半开状态的试探名额
+     */
+    public synchronized void release() {
+        if (state == State.HALF_OPEN) {
+            halfOpenPermits++;
+        }
+    }
+
+    public synchronized State state() {
+        return state;
+    }
+
+    public synchronized double failureRate() {
+        return windowCount == 0 ? 0 : (double) windowFailures / windowCount;
+    }
+
+    private void record(boolean failure) {
+        if (windowCount == window.length) {
+            if (window[windowIndex]) {
+                windowFailures--;
+            }
+        }
+        else {
+            windowCount++;
+        }
+        window[windowIndex] = failure;
+        if (failure) {
+            windowFailures++;
+        }
+        windowIndex = (windowIndex + 1) % window.length;
+    }
+
+    private void transition(State target) {
+        state = target;
+        switch (target) {
+            case OPEN:
+                openedAt = System.nanoTime();
+                break;
+            case HALF_OPEN:
+                halfOpenPermits = halfOpenCalls;
+                halfOpenSuccesses = 0;
+                break;
+            default:
+                windowIndex = 0;
+                windowCount = 0;
+                windowFailures = 0;
+        }
+    }
+}
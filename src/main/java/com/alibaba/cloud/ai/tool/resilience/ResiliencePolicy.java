@@ -0,0 +1,131 @@
+package com.alibaba.cloud.ai.tool.resilience;
+
+import java.time.Duration;
+
+/**
+ * 单个工具的超时、舱壁和熔断配置
+ *
+ * @param timeout              调用超时，null（默认）表示不限制；设置后调用改在 executor 线程上执行
+ * @param interruptOnTimeout   超时后是否中断执行线程，false 时只放弃等待
+ * @param bulkhead             舱壁类型
+ * @param maxConcurrentCalls   舱壁允许的最大并发数
+ * @param maxWait              SEMAPHORE 舱壁等待许可的最长时间
+ * @param queueCapacity        THREAD_POOL 舱壁的排队容量，0 表示不排队
+ * @param circuitBreaker       是否启用熔断
+ * @param failureRateThreshold 失败率达到该值时熔断
+ * @param slidingWindowSize    统计失败率的最近调用数
+ * @param minimumCalls         窗口内至少有这么多次调用才计算失败率
+ * @param openDuration         熔断持续时间，之后进入半开状态
+ * @param halfOpenCalls        半开状态允许的试探调用数，全部成功后恢复
+ */
+public record ResiliencePolicy(Duration timeout, boolean interruptOnTimeout,
+                               BulkheadType bulkhead, int maxConcurrentCalls, Duration maxWait, int queueCapacity,
+                               boolean circuitBreaker, double failureRateThreshold, int slidingWindowSize,
+                               int minimumCalls, Duration openDuration, int halfOpenCalls) {
+
+    public static final ResiliencePolicy DEFAULT = builder().build();
+
+    public ResiliencePolicy {
+        if (maxConcurrentCalls < 1) {
+            throw new IllegalArgumentException("maxConcurrentCalls must be positive");
+        }
+        if (failureRateThreshold <= 0 || failureRateThreshold > 1) {
+            throw new IllegalArgumentException("failureRateThreshold must be in (0, 1]");
+        }
+        if (slidingWindowSize < 1 || minimumCalls < 1 || halfOpenCalls < 1) {
+            throw new IllegalArgumentException("slidingWindowSize, minimumCalls and halfOpenCalls must be positive");
+        }
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static class Builder {
+
+        private Duration timeout;
+        private boolean interruptOnTimeout = true;
+        private BulkheadType bulkhead = BulkheadType.SEMAPHORE;
+        private int maxConcurrentCalls = 10;
+        private Duration maxWait = Duration.ZERO;
+        private int queueCapacity = 0;
+        private boolean circuitBreaker = true;
+        private double failureRateThreshold = 0.5;
+        private int slidingWindowSize = 20;
+        private int minimumCalls = 10;
+        private Duration openDuration = Duration.ofSeconds(30);
+        private int halfOpenCalls = 3;
+
+        /**
+         * 调用超时，默认不限制
+         *
+         * 设置后每次调用都要提交到 executor 线程并在当前线程等待：多一次线程切换，
+         * ThreadLocal / MDC 等线程上下文不会带到工具执行线程上。不设置超时且不使用 THREAD_POOL 舱壁时，
+         * 工具在调用线程上直接执行。
+         */
+        public Builder timeout(Duration timeout) {
+            this.timeout = timeout;
+            return this;
+        }
+
+        public Builder interruptOnTimeout(boolean interruptOnTimeout) {
+            this.interruptOnTimeout = interruptOnTimeout;
+            return this;
+        }
+
+        public Builder semaphoreBulkhead(int maxConcurrentCalls, Duration maxWait) {
+            this.bulkhead = BulkheadType.SEMAPHORE;
+            this.maxConcurrentCalls = maxConcurrentCalls;
+            this.maxWait = maxWait;
+            return this;
+        }
+
+        public Builder threadPoolBulkhead(int maxConcurrentCalls, int queueCapacity) {
+            this.bulkhead = BulkheadType.THREAD_POOL;
+            this.maxConcurrentCalls = maxConcurrentCalls;
+            this.queueCapacity = queueCapacity;
+            return this;
+        }
+
+        public Builder noBulkhead() {
+            this.bulkhead = BulkheadType.NONE;
+            return this;
+        }
+
+        public Builder circuitBreaker(boolean circuitBreaker) {
+            this.circuitBreaker = circuitBreaker;
+            return this;
+        }
+
+        public Builder failureRateThreshold(double failureRateThreshold) {
+            this.failureRateThreshold = failureRateThreshold;
+            return this;
+        }
+
+        public Builder slidingWindowSize(int slidingWindowSize) {
+            this.slidingWindowSize = slidingWindowSize;
+            return this;
+        }
+
+        public Builder minimumCalls(int minimumCalls) {
+            this.minimumCalls = minimumCalls;
+            return this;
+        }
+
+        public Builder openDuration(Duration openDuration) {
+            this.openDuration = openDuration;
+            return this;
+        }
+
+        public Builder halfOpenCalls(int halfOpenCalls) {
+            this.halfOpenCalls = halfOpenCalls;
+            return this;
+        }
+
+        public ResiliencePolicy build() {
+            return new ResiliencePolicy(timeout, interruptOnTimeout, bulkhead, maxConcurrentCalls, maxWait,
+                    queueCapacity, circuitBreaker, failureRateThreshold, slidingWindowSize, minimumCalls,
+                    openDuration, halfOpenCalls);
+        }
+    }
+}
@@ -0,0 +1,376 @@
+package com.alibaba.cloud.ai.tool.resilience;
+
+import com.alibaba.cloud.ai.graph.agent.interceptor.ToolCallHandler;
+import com.alibaba.cloud.ai.graph.agent.interceptor.ToolCallRequest;
+import com.alibaba.cloud.ai.graph.agent.interceptor.ToolCallResponse;
+import com.alibaba.cloud.ai.graph.agent.interceptor.ToolInterceptor;
+import com.alibaba.cloud.ai.tool.ToolErrors;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 工具调用的超时、舱壁隔离与熔断拦截器
+ *
+ * 熔断打开、舱壁已满、调用超时时不抛异常，而是返回一条模型可以理解的 ToolCallResponse，
+ * 让 ReAct 循环继续（换个工具或直接回答），不会被一个慢工具拖住。
+ * 工具自身抛出的异常计入熔断失败率后原样抛出，交给外层的重试等拦截器处理。
+ * 超时后调用被放弃（可选中断），仍在运行的调用继续占用舱壁名额，直到真正结束。
+ */
+public class ToolResilienceInterceptor extends ToolInterceptor implements MeterBinder {
+
+    public enum Rejection {
+        CIRCUIT_OPEN, BULKHEAD_FULL, TIMEOUT
+    }
+
+    private final ResiliencePolicy defaultPolicy;
+    private final Map<String, ResiliencePolicy> policies;
+    private final ExecutorService executor;
+    private final boolean ownsExecutor;
+
+    private final Map<String, ToolState> tools = new ConcurrentHashMap<>();
+    private final List<MeterRegistry> registries = new CopyOnWriteArrayList<>();
+
+    private ToolResilienceInterceptor(Builder builder) {
+        this.defaultPolicy = builder.defaultPolicy;
+        this.policies = Map.copyOf(builder.policies);
+        this.ownsExecutor = builder.executor == null;
+        this.executor = ownsExecutor ? Executors.newCachedThreadPool(daemonThreads("tool-timeout")) : builder.executor;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    @Override
+    public String getName() {
+        return "tool_resilience";
+    }
+
+    @Override
+    public ToolCallResponse interceptToolCall(ToolCallRequest request, ToolCallHandler handler) {
+        ToolState tool = tool(request.getToolName());
+        ResiliencePolicy policy = tool.policy;
+
+        if (tool.breaker != null && !tool.breaker.tryAcquire()) {
+            return reject(tool, request, Rejection.CIRCUIT_OPEN);
+        }
+        if (tool.semaphore != null && !acquire(tool.semaphore, policy)) {
+            releaseBreaker(tool);
+            return reject(tool, request, Rejection.BULKHEAD_FULL);
+        }
+
+        if (policy.timeout() == null && tool.pool == null) {
+            // 不需要超时也不需要独立线程池，直接在当前线程执行
+            tool.active.incrementAndGet();
+            try {
+                ToolCallResponse response = handler.call(request);
+                onSuccess(tool);
+                return response;
+            }
+            catch (RuntimeException | Error e) {
+                onFailure(tool);
+                throw e;
+            }
+            finally {
+                tool.active.decrementAndGet();
+                if (tool.semaphore != null) {
+                    tool.semaphore.release();
+                }
+            }
+        }
+
+        Call call = new Call(tool, request, handler);
+        Future<ToolCallResponse> future;
+        try {
+            future = (tool.pool != null ? tool.pool : executor).submit(call::run);
+        }
+        catch (RejectedExecutionException e) {
+            call.abandon();
+            releaseBreaker(tool);
+            return reject(tool, request, Rejection.BULKHEAD_FULL);
+        }
+
+        try {
+            ToolCallResponse response = policy.timeout() == null
+                    ? future.get()
+                    : future.get(policy.timeout().toNanos(), TimeUnit.NANOSECONDS);
+            onSuccess(tool);
+            return response;
+        }
+        catch (TimeoutException e) {
+            future.cancel(policy.interruptOnTimeout());
+            call.abandon();
+            onFailure(tool);
+            return reject(tool, request, Rejection.TIMEOUT);
+        }
+        catch (ExecutionException e) {
+            onFailure(tool);
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+        catch (InterruptedException e) {
+            future.cancel(true);
+            call.abandon();
+            releaseBreaker(tool);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for tool " + request.getToolName(), e);
+        }
+    }
+
+    public CircuitBreaker.State circuitState(String toolName) {
+        ToolState tool = tools.get(toolName);
+        return tool == null || tool.breaker == null ? CircuitBreaker.State.CLOSED : tool.breaker.state();
+    }
+
+    public Map<String, Snapshot> snapshot() {
+        Map<String, Snapshot> snapshots = new HashMap<>();
+        tools.forEach((name, tool) -> snapshots.put(name, tool.snapshot()));
+        return snapshots;
+    }
+
+    /**
+     * 关闭各工具的独立线程池，以及未通过 builder 传入的超时线程池
+     */
+    public void shutdown() {
+        tools.values().forEach(tool -> {
+            if (tool.pool != null) {
+                tool.pool.shutdown();
+            }
+        });
+        if (ownsExecutor) {
+            executor.shutdown();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        registries.add(registry);
+        tools.values().forEach(tool -> register(registry, tool));
+    }
+
+    private ToolState tool(String toolName) {
+        return tools.computeIfAbsent(toolName, name -> {
+            ToolState tool = new ToolState(name, policies.getOrDefault(name, defaultPolicy));
+            registries.forEach(registry -> register(registry, tool));
+            return tool;
+        });
+    }
+
+    private static void register(MeterRegistry registry, ToolState tool) {
+        if (tool.breaker != null) {
+            Gauge.builder("agent.tool.circuit.state", tool.breaker, breaker -> breaker.state().code())
+                    .tag("tool", tool.name)
+                    .description("熔断器状态：0 关闭，1 半开，2 打开")
+                    .register(registry);
+            Gauge.builder("agent.tool.circuit.failure.rate", tool.breaker, CircuitBreaker::failureRate)
+                    .tag("tool", tool.name)
+                    .register(registry);
+        }
+        Gauge.builder("agent.tool.bulkhead.active", tool.active, AtomicInteger::get)
+                .tag("tool", tool.name)
+                .description("正在执行（含已超时放弃但仍在运行）的调用数")
+                .register(registry);
+        for (Rejection rejection : Rejection.values()) {
+            FunctionCounter.builder("agent.tool.resilience.rejections", tool.rejections.get(rejection), LongAdder::sum)
+                    .tags("tool", tool.name, "reason", rejection.name().toLowerCase())
+                    .register(registry);
+        }
+    }
+
+    private static boolean acquire(Semaphore semaphore, ResiliencePolicy policy) {
+        if (policy.maxWait() == null || policy.maxWait().isZero()) {
+            return semaphore.tryAcquire();
+        }
+        try {
+            return semaphore.tryAcquire(policy.maxWait().toNanos(), TimeUnit.NANOSECONDS);
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static void onSuccess(ToolState tool) {
+        if (tool.breaker != null) {
+            tool.breaker.onSuccess();
+        }
+    }
+
+    private static void onFailure(ToolState tool) {
+        if (tool.breaker != null) {
+            tool.breaker.onFailure();
+        }
+    }
+
+    private static void releaseBreaker(ToolState tool) {
+        if (tool.breaker != null) {
+            tool.breaker.release();
+        }
+    }
+
+    private static ToolCallResponse reject(ToolState tool, ToolCallRequest request, Rejection rejection) {
+        tool.rejections.get(rejection).increment();
+        String reason = switch (rejection) {
+            case CIRCUIT_OPEN -> "it has been failing repeatedly and is temporarily disabled";
+            case BULKHEAD_FULL -> "it is busy with too many concurrent calls";
+            case TIMEOUT -> "it did not respond within " + tool.policy.timeout().toMillis() + " ms";
+        };
+        return ToolErrors.response(request,
+                "Tool '" + request.getToolName() + "' is unavailable: " + reason
+                        + ". Do not call it again right now; continue with other tools or answer with what you have.");
+    }
+
+    private static ThreadFactory daemonThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * 提交到线程池的一次调用。排队中被放弃时不再执行，并由放弃方归还舱壁名额；
+     * 已开始执行的调用在结束时自己归还
+     */
+    private static final class Call {
+
+        private final ToolState tool;
+        private final ToolCallRequest request;
+        private final ToolCallHandler handler;
+        private final AtomicBoolean claimed = new AtomicBoolean();
+
+        private Call(ToolState tool, ToolCallRequest request, ToolCallHandler handler) {
+            this.tool = tool;
+            this.request = request;
+            this.handler = handler;
+        }
+
+        private ToolCallResponse run() {
+            if (!claimed.compareAndSet(false, true)) {
+                return null;
+            }
+            tool.active.incrementAndGet();
+            try {
+                return handler.call(request);
+            }
+            finally {
+                tool.active.decrementAndGet();
+                if (tool.semaphore != null) {
+                    tool.semaphore.release();
+                }
+            }
+        }
+
+        private void abandon() {
+            if (claimed.compareAndSet(false, true) && tool.semaphore != null) {
+                tool.semaphore.release();
+            }
+        }
+    }
+
+    private static final class ToolState {
+
+        private final String name;
+        private final ResiliencePolicy policy;
+        private final CircuitBreaker breaker;
+        private final Semaphore semaphore;
+        private final ThreadPoolExecutor pool;
+        private final AtomicInteger active = new AtomicInteger();
+        private final Map<Rejection, LongAdder> rejections = new HashMap<>();
+
+        private ToolState(String name, ResiliencePolicy policy) {
+            this.name = name;
+            this.policy = policy;
+            this.breaker = policy.circuitBreaker() ? new CircuitBreaker(policy) : null;
+            this.semaphore = policy.bulkhead() == BulkheadType.SEMAPHORE
+                    ? new Semaphore(policy.maxConcurrentCalls()) : null;
+            if (policy.bulkhead() == BulkheadType.THREAD_POOL) {
+                BlockingQueue<Runnable> queue = policy.queueCapacity() > 0
+                        ? new ArrayBlockingQueue<>(policy.queueCapacity()) : new SynchronousQueue<>();
+                this.pool = new ThreadPoolExecutor(policy.maxConcurrentCalls(), policy.maxConcurrentCalls(),
+                        60, TimeUnit.SECONDS, queue, daemonThreads("tool-" + name));
+                this.pool.allowCoreThreadTimeOut(true);
+            }
+            else {
+                this.pool = null;
+            }
+            for (Rejection rejection : Rejection.values()) {
+                rejections.put(rejection, new LongAdder());
+            }
+        }
+
+        private Snapshot snapshot() {
+            return new Snapshot(breaker == null ? CircuitBreaker.State.CLOSED : breaker.state(),
+                    breaker == null ? 0 : breaker.failureRate(), active.get(),
+                    rejections.get(Rejection.CIRCUIT_OPEN).sum(),
+                    rejections.get(Rejection.BULKHEAD_FULL).sum(),
+                    rejections.get(Rejection.TIMEOUT).sum());
+        }
+    }
+
+    public record Snapshot(CircuitBreaker.State state, double failureRate, int activeCalls,
+                           long circuitOpenRejections, long bulkheadRejections, long timeouts) {
+    }
+
+    public static class Builder {
+
+        private ResiliencePolicy defaultPolicy = ResiliencePolicy.DEFAULT;
+        private final Map<String, ResiliencePolicy> policies = new HashMap<>();
+        private ExecutorService executor;
+
+        /**
+         * 未单独配置的工具使用的策略
+         */
+        public Builder defaultPolicy(ResiliencePolicy defaultPolicy) {
+            this.defaultPolicy = defaultPolicy;
+            return this;
+        }
+
+        public Builder policy(String toolName, ResiliencePolicy policy) {
+            policies.put(toolName, policy);
+            return this;
+        }
+
+        /**
+         * 执行带超时的 SEMAPHORE / NONE 舱壁调用的线程池，不设置时使用内部的守护线程池
+         */
+        public Builder executor(ExecutorService executor) {
+            this.executor = executor;
+            return this;
+        }
+
+        public ToolResilienceInterceptor build() {
+            return new ToolResilienceInterceptor(this);
+        }
+    }
+}
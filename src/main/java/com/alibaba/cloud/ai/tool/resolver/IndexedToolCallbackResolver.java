@@ -0,0 +1,171 @@
+package com.alibaba.cloud.ai.tool.resolver;
+
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.ToolCallbackProvider;
+import org.springframework.ai.tool.resolution.ToolCallbackResolver;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Predicate;
+
+/**
+ * 基于哈希索引、按需加载的 ToolCallbackResolver
+ *
+ * 构建时只登记工具名（重复名称直接报错），ToolCallback 在第一次 resolve 时才创建并缓存，
+ * 解析是一次哈希查找。view 为不同 Agent 提供只包含部分工具的视图，共享同一个索引，不复制工具。
+ */
+public class IndexedToolCallbackResolver implements ToolCallbackResolver {
+
+    private final Map<String, Slot> index = new ConcurrentHashMap<>();
+    private final List<ToolSource> pendingSources;
+
+    private IndexedToolCallbackResolver(Builder builder) {
+        List<ToolSource> pending = new ArrayList<>();
+        for (ToolSource source : builder.sources) {
+            if (!source.indexed()) {
+                pending.add(source);
+                continue;
+            }
+            for (String name : source.toolNames()) {
+                if (index.putIfAbsent(name, new Slot(name, source)) != null) {
+                    throw new IllegalStateException("Duplicate tool name: " + name);
+                }
+            }
+        }
+        this.pendingSources = new CopyOnWriteArrayList<>(pending);
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    @Override
+    public ToolCallback resolve(String toolName) {
+        Slot slot = index.get(toolName);
+        if (slot == null && !pendingSources.isEmpty()) {
+            indexPendingSources();
+            slot = index.get(toolName);
+        }
+        return slot == null ? null : slot.callback();
+    }
+
+    /**
+     * 已登记的工具名，不包含尚未加载的 ToolCallbackProvider 中的工具
+     */
+    public Set<String> toolNames() {
+        return index.keySet();
+    }
+
+    public int size() {
+        return index.size();
+    }
+
+    /**
+     * 已经创建了 ToolCallback 的工具数
+     */
+    public int loadedCount() {
+        int loaded = 0;
+        for (Slot slot : index.values()) {
+            if (slot.callback != null) {
+                loaded++;
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * 只包含指定工具的视图
+     */
+    public ToolView view(String... toolNames) {
+        Set<String> names = Set.of(toolNames);
+        return new ToolView(this, names::contains, toolNames.clone());
+    }
+
+    /**
+     * 按条件筛选的视图，例如按名称前缀为不同 Agent 划分工具。toolNames 只包含已登记的工具
+     */
+    public ToolView view(Predicate<String> filter) {
+        return new ToolView(this, filter, null);
+    }
+
+    /**
+     * 后加载的来源中与已有工具同名的工具被忽略，先登记的优先
+     */
+    private synchronized void indexPendingSources() {
+        for (ToolSource source : pendingSources) {
+            for (String name : source.toolNames()) {
+                index.putIfAbsent(name, new Slot(name, source));
+            }
+        }
+        pendingSources.clear();
+    }
+
+    private static final class Slot {
+
+        private final String name;
+        private final ToolSource source;
+        private volatile ToolCallback callback;
+
+        private Slot(String name, ToolSource source) {
+            this.name = name;
+            this.source = source;
+        }
+
+        private ToolCallback callback() {
+            ToolCallback loaded = callback;
+            if (loaded == null) {
+                synchronized (this) {
+                    loaded = callback;
+                    if (loaded == null) {
+                        loaded = source.load(name);
+                        callback = loaded;
+                    }
+                }
+            }
+            return loaded;
+        }
+    }
+
+    public static class Builder {
+
+        private final List<ToolSource> sources = new ArrayList<>();
+
+        public Builder source(ToolSource source) {
+            sources.add(source);
+            return this;
+        }
+
+        public Builder methodTools(Object... toolObjects) {
+            for (Object toolObject : toolObjects) {
+                sources.add(ToolSource.methods(toolObject));
+            }
+            return this;
+        }
+
+        public Builder tools(ToolCallback... tools) {
+            sources.add(ToolSource.callbacks(List.of(tools)));
+            return this;
+        }
+
+        public Builder tools(Collection<ToolCallback> tools) {
+            sources.add(ToolSource.callbacks(List.copyOf(tools)));
+            return this;
+        }
+
+        public Builder toolCallbackProviders(ToolCallbackProvider... providers) {
+            for (ToolCallbackProvider provider : providers) {
+                sources.add(ToolSource.provider(provider));
+            }
+            return this;
+        }
+
+        public IndexedToolCallbackResolver build() {
+            return new IndexedToolCallbackResolver(this);
+        }
+    }
+}
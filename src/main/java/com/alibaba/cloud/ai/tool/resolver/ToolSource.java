@@ -0,0 +1,127 @@
+package com.alibaba.cloud.ai.tool.resolver;
+
+import com.alibaba.cloud.ai.tool.ToolMethods;
+import com.alibaba.cloud.ai.tool.binding.BoundToolCallbacks;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.ToolCallbackProvider;
+
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * IndexedToolCallbackResolver 的工具来源
+ *
+ * toolNames 应当只返回名称、不创建 ToolCallback；load 在某个工具第一次被解析时才调用。
+ * indexed 为 false 的来源（例如普通的 ToolCallbackProvider）事先不知道名称，
+ * 在第一次解析未命中时整体加载一次。
+ */
+public interface ToolSource {
+
+    Collection<String> toolNames();
+
+    ToolCallback load(String toolName);
+
+    default boolean indexed() {
+        return true;
+    }
+
+    /**
+     * 单个工具，第一次解析时通过 factory 创建
+     */
+    static ToolSource lazy(String toolName, Supplier<ToolCallback> factory) {
+        return new ToolSource() {
+            @Override
+            public Collection<String> toolNames() {
+                return List.of(toolName);
+            }
+
+            @Override
+            public ToolCallback load(String name) {
+                return factory.get();
+            }
+        };
+    }
+
+    /**
+     * 对象中的 @Tool 方法，启动时只扫描方法名，解析时为单个方法生成 BoundToolCallback
+     */
+    static ToolSource methods(Object toolObject) {
+        Map<String, Method> methods = ToolMethods.toolMethods(toolObject);
+        return new ToolSource() {
+            @Override
+            public Collection<String> toolNames() {
+                return methods.keySet();
+            }
+
+            @Override
+            public ToolCallback load(String toolName) {
+                return BoundToolCallbacks.method(toolName, toolObject, methods.get(toolName));
+            }
+        };
+    }
+
+    /**
+     * 已经创建好的工具
+     */
+    static ToolSource callbacks(List<ToolCallback> callbacks) {
+        Map<String, ToolCallback> byName = new LinkedHashMap<>();
+        callbacks.forEach(callback -> byName.put(callback.getToolDefinition().name(), callback));
+        return new ToolSource() {
+            @Override
+            public Collection<String> toolNames() {
+                return byName.keySet();
+            }
+
+            @Override
+            public ToolCallback load(String toolName) {
+                return byName.get(toolName);
+            }
+        };
+    }
+
+    /**
+     * ToolCallbackProvider 只能整体获取，第一次解析未命中时调用一次 getToolCallbacks
+     */
+    static ToolSource provider(ToolCallbackProvider provider) {
+        return new ToolSource() {
+
+            private volatile Map<String, ToolCallback> callbacks;
+
+            @Override
+            public Collection<String> toolNames() {
+                return callbacks().keySet();
+            }
+
+            @Override
+            public ToolCallback load(String toolName) {
+                return callbacks().get(toolName);
+            }
+
+            @Override
+            public boolean indexed() {
+                return false;
+            }
+
+            private Map<String, ToolCallback> callbacks() {
+                Map<String, ToolCallback> loaded = callbacks;
+                if (loaded == null) {
+                    synchronized (this) {
+                        loaded = callbacks;
+                        if (loaded == null) {
+                            loaded = new LinkedHashMap<>();
+                            for (ToolCallback callback : provider.getToolCallbacks()) {
+                                loaded.put(callback.getToolDefinition().name(), callback);
+                            }
+                            callbacks = loaded;
+                        }
+                    }
+                }
+                return loaded;
+            }
+        };
+    }
+}
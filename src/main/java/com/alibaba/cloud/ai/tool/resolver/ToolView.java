@@ -0,0 +1,48 @@
+package com.alibaba.cloud.ai.tool.resolver;
+
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.resolution.ToolCallbackResolver;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * IndexedToolCallbackResolver 的只读视图，只解析满足条件的工具
+ */
+public class ToolView implements ToolCallbackResolver {
+
+    private final IndexedToolCallbackResolver resolver;
+    private final Predicate<String> filter;
+    private final String[] explicitNames;
+
+    /**
+     * @param explicitNames 按名称创建的视图的工具名，按条件创建时为 null
+     */
+    ToolView(IndexedToolCallbackResolver resolver, Predicate<String> filter, String[] explicitNames) {
+        this.resolver = resolver;
+        this.filter = filter;
+        this.explicitNames = explicitNames;
+    }
+
+    @Override
+    public ToolCallback resolve(String toolName) {
+        return filter.test(toolName) ? resolver.resolve(toolName) : null;
+    }
+
+    /**
+     * 视图中的工具名，配合 ReactAgent.builder().toolNames(...) 使用
+     */
+    public String[] toolNames() {
+        if (explicitNames != null) {
+            return explicitNames.clone();
+        }
+        List<String> names = new ArrayList<>();
+        for (String name : resolver.toolNames()) {
+            if (filter.test(name)) {
+                names.add(name);
+            }
+        }
+        return names.toArray(new String[0]);
+    }
+}
@@ -0,0 +1,280 @@
+package com.alibaba.cloud.ai.tool.retry;
+
+import com.alibaba.cloud.ai.graph.agent.interceptor.ToolCallHandler;
+import com.alibaba.cloud.ai.graph.agent.interceptor.ToolCallRequest;
+import com.alibaba.cloud.ai.graph.agent.interceptor.ToolCallResponse;
+import com.alibaba.cloud.ai.graph.agent.interceptor.ToolInterceptor;
+import com.alibaba.cloud.ai.tool.ToolErrors;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 带重试预算的工具重试拦截器
+ *
+ * 只重试 RetryPolicy 判定为暂时性的异常，重试前按指数退避 + 全抖动等待。
+ * 每次重试要同时从单个工具的预算和全局预算中取到令牌，取不到时不再重试，直接失败，
+ * 避免下游故障时重试把流量放大。
+ * interceptToolCall 在调用线程上退避并重试，不占用其他线程，ThreadLocal / MDC 等线程上下文保持不变；
+ * executeAsync 的退避通过 CompletableFuture.delayedExecutor 调度到调用方提供的 executor，等待期间不占用线程。
+ */
+public class BudgetedRetryInterceptor extends ToolInterceptor implements MeterBinder {
+
+    private final RetryPolicy defaultPolicy;
+    private final Map<String, RetryPolicy> policies;
+    private final RetryBudget globalBudget;
+    private final double toolBudgetRatio;
+    private final int toolBudgetTokens;
+    private final boolean returnErrorMessage;
+
+    private final Map<String, ToolState> tools = new ConcurrentHashMap<>();
+    private final List<MeterRegistry> registries = new CopyOnWriteArrayList<>();
+
+    private BudgetedRetryInterceptor(Builder builder) {
+        this.defaultPolicy = builder.defaultPolicy;
+        this.policies = Map.copyOf(builder.policies);
+        this.globalBudget = builder.globalBudget;
+        this.toolBudgetRatio = builder.toolBudgetRatio;
+        this.toolBudgetTokens = builder.toolBudgetTokens;
+        this.returnErrorMessage = builder.returnErrorMessage;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    @Override
+    public String getName() {
+        return "budgeted_tool_retry";
+    }
+
+    @Override
+    public ToolCallResponse interceptToolCall(ToolCallRequest request, ToolCallHandler handler) {
+        ToolState tool = tool(request.getToolName());
+        for (int retry = 0; ; retry++) {
+            try {
+                ToolCallResponse response = handler.call(request);
+                onSuccess(tool);
+                return response;
+            }
+            catch (RuntimeException | Error e) {
+                long delayNanos = retryDelay(tool, retry, e);
+                if (delayNanos < 0) {
+                    return fail(request, e);
+                }
+                try {
+                    TimeUnit.NANOSECONDS.sleep(delayNanos);
+                }
+                catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return fail(request, e);
+                }
+            }
+        }
+    }
+
+    /**
+     * 首次调用在当前线程执行，重试在退避结束后由 executor 执行
+     */
+    public CompletableFuture<ToolCallResponse> executeAsync(ToolCallRequest request, ToolCallHandler handler,
+                                                            Executor executor) {
+        CompletableFuture<ToolCallResponse> result = new CompletableFuture<>();
+        attempt(tool(request.getToolName()), request, handler, executor, 0, result);
+        return result;
+    }
+
+    public Map<String, Snapshot> snapshot() {
+        Map<String, Snapshot> snapshots = new HashMap<>();
+        tools.forEach((name, tool) -> snapshots.put(name, tool.snapshot()));
+        return snapshots;
+    }
+
+    public RetryBudget globalBudget() {
+        return globalBudget;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        registries.add(registry);
+        Gauge.builder("agent.tool.retry.budget.available", globalBudget, RetryBudget::available)
+                .tag("tool", "_global")
+                .register(registry);
+        tools.values().forEach(tool -> register(registry, tool));
+    }
+
+    private void attempt(ToolState tool, ToolCallRequest request, ToolCallHandler handler, Executor executor,
+                         int retry, CompletableFuture<ToolCallResponse> result) {
+        ToolCallResponse response;
+        try {
+            response = handler.call(request);
+        }
+        catch (Throwable e) {
+            long delayNanos = retryDelay(tool, retry, e);
+            if (delayNanos < 0) {
+                result.completeExceptionally(e);
+                return;
+            }
+            Executor delayed = CompletableFuture.delayedExecutor(delayNanos, TimeUnit.NANOSECONDS, executor);
+            delayed.execute(() -> attempt(tool, request, handler, executor, retry + 1, result));
+            return;
+        }
+        onSuccess(tool);
+        result.complete(response);
+    }
+
+    private void onSuccess(ToolState tool) {
+        tool.budget.onSuccess();
+        globalBudget.onSuccess();
+    }
+
+    /**
+     * 允许重试时返回退避时间（纳秒），否则返回 -1
+     */
+    private long retryDelay(ToolState tool, int retry, Throwable error) {
+        if (!tool.policy.retryOn().test(error)) {
+            return -1;
+        }
+        if (retry >= tool.policy.maxRetries()) {
+            tool.exhausted.increment();
+            return -1;
+        }
+        if (!acquireBudget(tool)) {
+            tool.suppressed.increment();
+            return -1;
+        }
+        tool.attempted.increment();
+        return tool.policy.delayNanos(retry);
+    }
+
+    private ToolCallResponse fail(ToolCallRequest request, Throwable error) {
+        if (returnErrorMessage) {
+            return ToolErrors.response(request, "Tool '" + request.getToolName() + "' failed: " + error.getMessage());
+        }
+        if (error instanceof Error e) {
+            throw e;
+        }
+        throw (RuntimeException) error;
+    }
+
+    private boolean acquireBudget(ToolState tool) {
+        if (!tool.budget.tryAcquire()) {
+            return false;
+        }
+        if (!globalBudget.tryAcquire()) {
+            tool.budget.refund();
+            return false;
+        }
+        return true;
+    }
+
+    private ToolState tool(String toolName) {
+        return tools.computeIfAbsent(toolName, name -> {
+            ToolState tool = new ToolState(name, policies.getOrDefault(name, defaultPolicy),
+                    new RetryBudget(toolBudgetRatio, toolBudgetTokens));
+            registries.forEach(registry -> register(registry, tool));
+            return tool;
+        });
+    }
+
+    private static void register(MeterRegistry registry, ToolState tool) {
+        FunctionCounter.builder("agent.tool.retry.attempts", tool.attempted, LongAdder::sum)
+                .tag("tool", tool.name)
+                .description("已发起的重试次数")
+                .register(registry);
+        FunctionCounter.builder("agent.tool.retry.suppressed", tool.suppressed, LongAdder::sum)
+                .tag("tool", tool.name)
+                .description("因预算不足放弃的重试次数")
+                .register(registry);
+        FunctionCounter.builder("agent.tool.retry.exhausted", tool.exhausted, LongAdder::sum)
+                .tag("tool", tool.name)
+                .description("重试次数用尽仍失败的调用数")
+                .register(registry);
+        Gauge.builder("agent.tool.retry.budget.available", tool.budget, RetryBudget::available)
+                .tag("tool", tool.name)
+                .register(registry);
+    }
+
+    private static final class ToolState {
+
+        private final String name;
+        private final RetryPolicy policy;
+        private final RetryBudget budget;
+        private final LongAdder attempted = new LongAdder();
+        private final LongAdder suppressed = new LongAdder();
+        private final LongAdder exhausted = new LongAdder();
+
+        private ToolState(String name, RetryPolicy policy, RetryBudget budget) {
+            this.name = name;
+            this.policy = policy;
+            this.budget = budget;
+        }
+
+        private Snapshot snapshot() {
+            return new Snapshot(attempted.sum(), suppressed.sum(), exhausted.sum(), budget.available());
+        }
+    }
+
+    public record Snapshot(long retriesAttempted, long retriesSuppressed, long retriesExhausted,
+                           double budgetAvailable) {
+    }
+
+    public static class Builder {
+
+        private RetryPolicy defaultPolicy = RetryPolicy.DEFAULT;
+        private final Map<String, RetryPolicy> policies = new HashMap<>();
+        private RetryBudget globalBudget = new RetryBudget(0.1, 100);
+        private double toolBudgetRatio = 0.2;
+        private int toolBudgetTokens = 10;
+        private boolean returnErrorMessage = false;
+
+        public Builder defaultPolicy(RetryPolicy defaultPolicy) {
+            this.defaultPolicy = defaultPolicy;
+            return this;
+        }
+
+        public Builder policy(String toolName, RetryPolicy policy) {
+            policies.put(toolName, policy);
+            return this;
+        }
+
+        /**
+         * 所有工具共享的重试预算，默认每 10 次成功允许 1 次重试，最多积累 100 次
+         */
+        public Builder globalBudget(RetryBudget globalBudget) {
+            this.globalBudget = globalBudget;
+            return this;
+        }
+
+        /**
+         * 每个工具单独的重试预算，默认每 5 次成功允许 1 次重试，最多积累 10 次
+         */
+        public Builder toolBudget(double ratio, int maxTokens) {
+            this.toolBudgetRatio = ratio;
+            this.toolBudgetTokens = maxTokens;
+            return this;
+        }
+
+        /**
+         * 最终失败时返回错误信息给模型，而不是抛出异常
+         */
+        public Builder returnErrorMessage(boolean returnErrorMessage) {
+            this.returnErrorMessage = returnErrorMessage;
+            return this;
+        }
+
+        public BudgetedRetryInterceptor build() {
+            return new BudgetedRetryInterceptor(this);
+        }
+    }
+}
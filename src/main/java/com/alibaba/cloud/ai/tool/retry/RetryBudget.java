@@ -0,0 +1,64 @@
+package com.alibaba.cloud.ai.tool.retry;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 重试预算（令牌桶）
+ *
+ * 每次成功调用存入 ratio 个令牌，每次重试消耗 1 个，令牌数不超过 maxTokens。
+ * 下游故障时成功调用变少，令牌很快耗尽，重试被抑制，重试流量最多约为成功流量的 ratio 倍。
+ */
+public class RetryBudget {
+
+    private static final long SCALE = 1000;
+
+    private final long deposit;
+    private final long capacity;
+    private final AtomicLong tokens;
+
+    /**
+     * @param ratio     每次成功调用增加的重试额度，例如 0.1 表示每 10 次成功允许 1 次重试
+     * @param maxTokens 令牌上限，也是初始令牌数
+     */
+    public RetryBudget(double ratio, int maxTokens) {
+        if (ratio < 0 || maxTokens < 0) {
+            throw new IllegalArgumentException("ratio and maxTokens must not be negative");
+        }
+        this.deposit = Math.round(ratio * SCALE);
+        this.capacity = maxTokens * SCALE;
+        this.tokens = new AtomicLong(capacity);
+    }
+
+    public void onSuccess() {
+        if (deposit == 0) {
+            return;
+        }
+        tokens.getAndUpdate(current -> Math.min(capacity, current + deposit));
+    }
+
+    /**
+     * 取出一次重试的令牌，不足时返回 false
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            long current = tokens.get();
+            if (current < SCALE) {
+                return false;
+            }
+            if (tokens.compareAndSet(current, current - SCALE)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * 归还 tryAcquire 取出的令牌
+     */
+    public void refund() {
+        tokens.getAndUpdate(current -> Math.min(capacity, current + SCALE));
+    }
+
+    public double available() {
+        return (double) tokens.get() / SCALE;
+    }
+}
@@ -0,0 +1,79 @@
+package com.alibaba.cloud.ai.tool.retry;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Predicate;
+
+/**
+ * 指数退避 + 全抖动（full jitter）的重试策略
+ *
+ * 第 n 次重试前等待 random(0, min(maxDelay, baseDelay * multiplier^n))，
+ * 避免大量调用在下游恢复的瞬间同时重试。
+ *
+ * @param maxRetries 最多重试次数（不含首次调用）
+ * @param retryOn    判断异常是否可以重试
+ */
+public record RetryPolicy(int maxRetries, Duration baseDelay, Duration maxDelay, double multiplier,
+                          Predicate<Throwable> retryOn) {
+
+    public static final RetryPolicy DEFAULT = builder().build();
+
+    public RetryPolicy {
+        if (maxRetries < 0) {
+            throw new IllegalArgumentException("maxRetries must not be negative");
+        }
+        if (multiplier < 1) {
+            throw new IllegalArgumentException("multiplier must be >= 1");
+        }
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * 第 retry 次重试（从 0 开始）前的等待时间（纳秒）
+     */
+    public long delayNanos(int retry) {
+        double ceiling = Math.min(maxDelay.toNanos(), baseDelay.toNanos() * Math.pow(multiplier, retry));
+        return ceiling <= 0 ? 0 : (long) (ThreadLocalRandom.current().nextDouble() * ceiling);
+    }
+
+    public static class Builder {
+
+        private int maxRetries = 2;
+        private Duration baseDelay = Duration.ofMillis(200);
+        private Duration maxDelay = Duration.ofSeconds(5);
+        private double multiplier = 2.0;
+        private Predicate<Throwable> retryOn = RetryableErrors.DEFAULT;
+
+        public Builder maxRetries(int maxRetries) {
+            this.maxRetries = maxRetries;
+            return this;
+        }
+
+        public Builder baseDelay(Duration baseDelay) {
+            this.baseDelay = baseDelay;
+            return this;
+        }
+
+        public Builder maxDelay(Duration maxDelay) {
+            this.maxDelay = maxDelay;
+            return this;
+        }
+
+        public Builder multiplier(double multiplier) {
+            this.multiplier = multiplier;
+            return this;
+        }
+
+        public Builder retryOn(Predicate<Throwable> retryOn) {
+            this.retryOn = retryOn;
+            return this;
+        }
+
+        public RetryPolicy build() {
+            return new RetryPolicy(maxRetries, baseDelay, maxDelay, multiplier, retryOn);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.alibaba.cloud.ai.tool.retry;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Locale;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Predicate;
+
+/**
+ * 工具异常的重试分类
+ *
+ * 沿 cause 链查找：I/O、超时、限流（429）和 5xx 网关类错误视为暂时性错误可以重试；
+ * 参数错误、空指针、权限错误等重试也不会成功的异常不重试。
+ */
+public final class RetryableErrors {
+
+    /**
+     * 默认分类规则
+     */
+    public static final Predicate<Throwable> DEFAULT = RetryableErrors::isTransient;
+
+    private static final String[] TRANSIENT_HINTS = {
+            "timeout", "timed out", "temporarily", "unavailable", "connection reset", "connection refused",
+            "too many requests", "rate limit", " 429", " 502", " 503", " 504"
+    };
+
+    private RetryableErrors() {
+    }
+
+    public static boolean isTransient(Throwable error) {
+        for (Throwable current = error; current != null; current = current.getCause()) {
+            String type = current.getClass().getSimpleName();
+            if ("NonTransientAiException".equals(type)
+                    || current instanceof IllegalArgumentException
+                    || current instanceof NullPointerException
+                    || current instanceof UnsupportedOperationException
+                    || current instanceof SecurityException) {
+                return false;
+            }
+            if ("TransientAiException".equals(type)
+                    || current instanceof IOException
+                    || current instanceof UncheckedIOException
+                    || current instanceof TimeoutException) {
+                return true;
+            }
+            String message = current.getMessage();
+            if (message != null) {
+                String lower = " " + message.toLowerCase(Locale.ROOT);
+                for (String hint : TRANSIENT_HINTS) {
+                    if (lower.contains(hint)) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,44 @@
+package com.alibaba.cloud.ai.tool.schema;
+
+import org.springframework.ai.chat.model.ToolContext;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.definition.ToolDefinition;
+import org.springframework.ai.tool.metadata.ToolMetadata;
+
+/**
+ * 使用注册表中缓存的压缩定义的 ToolCallback，调用逻辑委托给原工具
+ */
+public class CompactToolCallback implements ToolCallback {
+
+    private final ToolCallback delegate;
+    private final ToolDefinition definition;
+
+    CompactToolCallback(ToolCallback delegate, ToolDefinition definition) {
+        this.delegate = delegate;
+        this.definition = definition;
+    }
+
+    public ToolCallback delegate() {
+        return delegate;
+    }
+
+    @Override
+    public ToolDefinition getToolDefinition() {
+        return definition;
+    }
+
+    @Override
+    public ToolMetadata getToolMetadata() {
+        return delegate.getToolMetadata();
+    }
+
+    @Override
+    public String call(String toolInput) {
+        return delegate.call(toolInput);
+    }
+
+    @Override
+    public String call(String toolInput, ToolContext toolContext) {
+        return delegate.call(toolInput, toolContext);
+    }
+}
@@ -0,0 +1,124 @@
+package com.alibaba.cloud.ai.tool.schema;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.parser.Feature;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 工具 JSON Schema 压缩
+ *
+ * 去掉对模型没有作用的关键字（$schema、title、examples、数值类型的 format 等），
+ * 超过长度预算的属性描述截断，空的 required 去掉，最后输出不带空白的 JSON。
+ * 只按 schema 结构递归，不会误删名为 title / format 的属性。
+ */
+public class SchemaCompactor {
+
+    private static final Set<String> REDUNDANT_KEYWORDS = Set.of("$schema", "$id", "$comment", "title", "examples");
+    private static final Set<String> SCHEMA_MAPS = Set.of("properties", "$defs", "definitions", "patternProperties");
+    private static final Set<String> SCHEMA_LISTS = Set.of("anyOf", "oneOf", "allOf", "prefixItems");
+    private static final Set<String> SCHEMA_VALUES = Set.of("items", "not", "additionalItems", "contains");
+
+    private final int maxDescriptionChars;
+    private final boolean stripAdditionalProperties;
+
+    private SchemaCompactor(Builder builder) {
+        this.maxDescriptionChars = builder.maxDescriptionChars;
+        this.stripAdditionalProperties = builder.stripAdditionalProperties;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * 压缩 schema，无法解析时原样返回
+     */
+    public String compact(String schema) {
+        if (schema == null || schema.isBlank()) {
+            return schema;
+        }
+        Object root;
+        try {
+            root = JSON.parse(schema, Feature.OrderedField);
+        }
+        catch (RuntimeException e) {
+            return schema;
+        }
+        compactNode(root);
+        return JSON.toJSONString(root);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void compactNode(Object node) {
+        if (!(node instanceof Map)) {
+            return;
+        }
+        Map<String, Object> schema = (Map<String, Object>) node;
+        Object type = schema.get("type");
+        boolean numeric = "integer".equals(type) || "number".equals(type);
+
+        Iterator<Map.Entry<String, Object>> iterator = schema.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<String, Object> entry = iterator.next();
+            String keyword = entry.getKey();
+            Object value = entry.getValue();
+            if (REDUNDANT_KEYWORDS.contains(keyword)
+                    || (numeric && "format".equals(keyword))
+                    || ("required".equals(keyword) && value instanceof List<?> list && list.isEmpty())
+                    || ("additionalProperties".equals(keyword) && Boolean.FALSE.equals(value) && stripAdditionalProperties)) {
+                iterator.remove();
+            }
+            else if ("description".equals(keyword)) {
+                String description = value == null ? "" : value.toString().strip();
+                if (description.isEmpty()) {
+                    iterator.remove();
+                }
+                else if (maxDescriptionChars > 0 && description.length() > maxDescriptionChars) {
+                    entry.setValue(description.substring(0, maxDescriptionChars) + "…");
+                }
+                else {
+                    entry.setValue(description);
+                }
+            }
+            else if (SCHEMA_MAPS.contains(keyword) && value instanceof Map<?, ?> children) {
+                children.values().forEach(this::compactNode);
+            }
+            else if (SCHEMA_LISTS.contains(keyword) && value instanceof List<?> children) {
+                children.forEach(this::compactNode);
+            }
+            else if (SCHEMA_VALUES.contains(keyword) || "additionalProperties".equals(keyword)) {
+                compactNode(value);
+            }
+        }
+    }
+
+    public static class Builder {
+
+        private int maxDescriptionChars = 120;
+        private boolean stripAdditionalProperties = false;
+
+        /**
+         * 属性描述的长度预算，0 表示不截断
+         */
+        public Builder maxDescriptionChars(int maxDescriptionChars) {
+            this.maxDescriptionChars = maxDescriptionChars;
+            return this;
+        }
+
+        /**
+         * 去掉 "additionalProperties": false。使用 OpenAI strict 模式时需要保留
+         */
+        public Builder stripAdditionalProperties(boolean stripAdditionalProperties) {
+            this.stripAdditionalProperties = stripAdditionalProperties;
+            return this;
+        }
+
+        public SchemaCompactor build() {
+            return new SchemaCompactor(this);
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.alibaba.cloud.ai.tool.schema;
+
+/**
+ * 单个工具定义（名称 + 描述 + 参数 schema）每次请求占用的 token 估算
+ */
+public record ToolSchemaCost(String toolName, int originalTokens, int compactTokens) {
+
+    public int savedTokens() {
+        return originalTokens - compactTokens;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%-24s %6d -> %6d tokens (-%d)", toolName, originalTokens, compactTokens, savedTokens());
+    }
+}
@@ -0,0 +1,145 @@
+package com.alibaba.cloud.ai.tool.schema;
+
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.definition.DefaultToolDefinition;
+import org.springframework.ai.tool.definition.ToolDefinition;
+import org.springframework.ai.util.json.schema.JsonSchemaGenerator;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 工具 schema 注册表
+ *
+ * 每个输入类型的 schema 只生成一次，每个工具的压缩定义只计算一次并缓存，
+ * register 返回的 ToolCallback 每次请求直接返回缓存的定义，不再反射生成或重新序列化。
+ * report 给出每个工具压缩前后的 token 估算（字符数 / 4，与 ContextPlannerInterceptor 一致）。
+ */
+public class ToolSchemaRegistry {
+
+    private final SchemaCompactor compactor;
+    private final boolean compact;
+    private final Map<Type, String> typeSchemas = new ConcurrentHashMap<>();
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    private ToolSchemaRegistry(Builder builder) {
+        this.compactor = builder.compactor;
+        this.compact = builder.compact;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * 输入类型的 JSON schema，首次使用时生成
+     */
+    public String schemaFor(Type inputType) {
+        return typeSchemas.computeIfAbsent(inputType, type -> {
+            String schema = JsonSchemaGenerator.generateForType(type);
+            return compact ? compactor.compact(schema) : schema;
+        });
+    }
+
+    public ToolCallback register(ToolCallback tool) {
+        if (tool instanceof CompactToolCallback registered) {
+            tool = registered.delegate();
+        }
+        ToolDefinition original = tool.getToolDefinition();
+        Entry entry = entries.compute(original.name(), (name, existing) ->
+                existing != null && existing.original == original ? existing : new Entry(original, definition(original)));
+        return new CompactToolCallback(tool, entry.definition);
+    }
+
+    public ToolCallback[] register(ToolCallback... tools) {
+        ToolCallback[] registered = new ToolCallback[tools.length];
+        for (int i = 0; i < tools.length; i++) {
+            registered[i] = register(tools[i]);
+        }
+        return registered;
+    }
+
+    public List<ToolCallback> register(List<ToolCallback> tools) {
+        List<ToolCallback> registered = new ArrayList<>(tools.size());
+        for (ToolCallback tool : tools) {
+            registered.add(register(tool));
+        }
+        return registered;
+    }
+
+    /**
+     * 工具变更后丢弃它的缓存定义，下次 register 时重新计算
+     */
+    public void invalidate(String toolName) {
+        entries.remove(toolName);
+    }
+
+    public ToolDefinition definition(String toolName) {
+        Entry entry = entries.get(toolName);
+        return entry == null ? null : entry.definition;
+    }
+
+    /**
+     * 按压缩后 token 数从大到小排列
+     */
+    public List<ToolSchemaCost> report() {
+        List<ToolSchemaCost> costs = new ArrayList<>(entries.size());
+        entries.values().forEach(entry -> costs.add(new ToolSchemaCost(entry.definition.name(),
+                tokens(entry.original), tokens(entry.definition))));
+        costs.sort(Comparator.comparingInt(ToolSchemaCost::compactTokens).reversed());
+        return costs;
+    }
+
+    private ToolDefinition definition(ToolDefinition original) {
+        if (!compact) {
+            return original;
+        }
+        String description = original.description() == null ? null : original.description().strip();
+        return new DefaultToolDefinition(original.name(), description, compactor.compact(original.inputSchema()));
+    }
+
+    static int tokens(ToolDefinition definition) {
+        int length = definition.name().length()
+                + (definition.description() == null ? 0 : definition.description().length())
+                + (definition.inputSchema() == null ? 0 : definition.inputSchema().length());
+        return length / 4;
+    }
+
+    private static final class Entry {
+
+        private final ToolDefinition original;
+        private final ToolDefinition definition;
+
+        private Entry(ToolDefinition original, ToolDefinition definition) {
+            this.original = original;
+            this.definition = definition;
+        }
+    }
+
+    public static class Builder {
+
+        private SchemaCompactor compactor = SchemaCompactor.builder().build();
+        private boolean compact = true;
+
+        public Builder compactor(SchemaCompactor compactor) {
+            this.compactor = compactor;
+            return this;
+        }
+
+        /**
+         * 关闭后只缓存原始定义，仍可用于 token 统计
+         */
+        public Builder compact(boolean compact) {
+            this.compact = compact;
+            return this;
+        }
+
+        public ToolSchemaRegistry build() {
+            return new ToolSchemaRegistry(this);
+        }
+    }
+}
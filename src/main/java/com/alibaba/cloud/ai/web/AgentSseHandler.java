@@ -0,0 +1,62 @@
+package com.alibaba.cloud.ai.web;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.reactive.function.BodyInserters;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+/**
+ * SSE 端点：GET ?threadId=&message= 或 POST {"threadId": "...", "message": "..."}
+ *
+ * 每个事件的 event 为 StreamEvent.type，data 为事件 JSON；另外按 heartbeat 固定间隔发送注释行，与是否有事件无关。
+ * 请求体不是 JSON 对象或缺少 message 时返回 400。
+ * 流结束（done / error）后心跳随之停止，响应完成。
+ */
+public class AgentSseHandler {
+
+    private final AgentStreamService service;
+
+    public AgentSseHandler(AgentStreamService service) {
+        this.service = service;
+    }
+
+    public Mono<ServerResponse> handle(ServerRequest request) {
+        return StreamRequest.from(request).flatMap(streamRequest -> {
+            if (streamRequest.message() == null || streamRequest.message().isBlank()) {
+                return ServerResponse.badRequest().bodyValue("message is required");
+            }
+            if (service.isSaturated()) {
+                return ServerResponse.status(HttpStatus.SERVICE_UNAVAILABLE).bodyValue("too many concurrent streams");
+            }
+            return ServerResponse.ok()
+                    .contentType(MediaType.TEXT_EVENT_STREAM)
+                    .body(BodyInserters.fromServerSentEvents(events(streamRequest)));
+        }).onErrorResume(IllegalArgumentException.class, e -> ServerResponse.badRequest().bodyValue(e.getMessage()));
+    }
+
+    private Flux<ServerSentEvent<String>> events(StreamRequest request) {
+        return Flux.defer(() -> {
+            Sinks.Empty<Void> finished = Sinks.empty();
+            Flux<ServerSentEvent<String>> events = service.stream(request.threadId(), request.message())
+                    .onErrorResume(e -> Flux.just(StreamEvent.error(e.getMessage())))
+                    .map(AgentSseHandler::toEvent)
+                    .doFinally(signal -> finished.tryEmitEmpty());
+            Flux<ServerSentEvent<String>> heartbeats = Flux.interval(service.heartbeat())
+                    .onBackpressureDrop()
+                    .map(tick -> ServerSentEvent.<String>builder().comment("ping").build())
+                    .takeUntilOther(finished.asMono());
+            return Flux.merge(events, heartbeats);
+        });
+    }
+
+    private static ServerSentEvent<String> toEvent(StreamEvent event) {
+        return ServerSentEvent.<String>builder(event.toJson())
+                .event(event.type())
+                .build();
+    }
+}
@@ -0,0 +1,37 @@
+package com.alibaba.cloud.ai.web;
+
+import org.springframework.web.reactive.HandlerMapping;
+import org.springframework.web.reactive.function.server.RequestPredicates;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import org.springframework.web.reactive.handler.SimpleUrlHandlerMapping;
+
+import java.util.Map;
+
+/**
+ * WebFlux 路由，在配置类中注册为 Bean：
+ * <pre>
+ * &#64;Bean RouterFunction&lt;ServerResponse&gt; agentStreamRoutes() { return AgentStreamEndpoints.sse("/agent/stream", service); }
+ * &#64;Bean HandlerMapping agentWebSocket() { return AgentStreamEndpoints.webSocket("/agent/ws", service); }
+ * </pre>
+ * WebSocket 还需要一个 WebSocketHandlerAdapter Bean（Spring Boot 的 WebFlux 自动配置已经提供）。
+ */
+public final class AgentStreamEndpoints {
+
+    private AgentStreamEndpoints() {
+    }
+
+    public static RouterFunction<ServerResponse> sse(String path, AgentStreamService service) {
+        AgentSseHandler handler = new AgentSseHandler(service);
+        return RouterFunctions.route(RequestPredicates.GET(path), handler::handle)
+                .andRoute(RequestPredicates.POST(path), handler::handle);
+    }
+
+    public static HandlerMapping webSocket(String path, AgentStreamService service) {
+        SimpleUrlHandlerMapping mapping = new SimpleUrlHandlerMapping(Map.of(path, new AgentWebSocketHandler(service)));
+        // 优先于注解控制器的映射
+        mapping.setOrder(-1);
+        return mapping;
+    }
+}
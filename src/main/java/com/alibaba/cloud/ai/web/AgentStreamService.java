@@ -0,0 +1,189 @@
+package com.alibaba.cloud.ai.web;
+
+import com.alibaba.cloud.ai.graph.NodeOutput;
+import com.alibaba.cloud.ai.graph.RunnableConfig;
+import com.alibaba.cloud.ai.graph.exception.GraphRunnerException;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.ai.chat.messages.UserMessage;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.SignalType;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * agent.stream 的连接无关部分，SSE 和 WebSocket 共用
+ *
+ * <ul>
+ *     <li>背压：每个连接最多预取 bufferSize 个事件，之后客户端读走多少才向上游再请求多少；客户端不读时上游停止产生事件</li>
+ *     <li>上游不遵守请求量、在缓冲区已满时仍然推送事件的，以 {@link SlowConsumerException} 结束，只作为兜底</li>
+ *     <li>客户端断开时订阅被取消，取消沿 Flux 传到模型调用，Ollama 的生成随 HTTP 连接关闭而停止</li>
+ *     <li>同时进行的流超过 maxConcurrentStreams 时直接拒绝（{@link StreamLimitExceededException}），不排队</li>
+ * </ul>
+ * agent.stream 在订阅时可能执行阻塞操作（Hook、检查点读写），订阅放在 scheduler 上，不占用事件循环线程。
+ */
+public class AgentStreamService implements MeterBinder {
+
+    private final AgentStreamer streamer;
+    private final int bufferSize;
+    private final Duration heartbeat;
+    private final int maxConcurrentStreams;
+    private final Scheduler scheduler;
+
+    private final Semaphore permits;
+    private final LongAdder started = new LongAdder();
+    private final LongAdder cancelled = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder overflowed = new LongAdder();
+
+    private AgentStreamService(Builder builder) {
+        this.streamer = builder.streamer;
+        this.bufferSize = builder.bufferSize;
+        this.heartbeat = builder.heartbeat;
+        this.maxConcurrentStreams = builder.maxConcurrentStreams;
+        this.scheduler = builder.scheduler;
+        this.permits = new Semaphore(maxConcurrentStreams);
+    }
+
+    public static Builder builder(AgentStreamer streamer) {
+        return new Builder(streamer);
+    }
+
+    /**
+     * 执行一次对话，每次订阅开始一次新的执行，以 done 或 error 事件结束
+     */
+    public Flux<StreamEvent> stream(String threadId, String message) {
+        return Flux.defer(() -> {
+            if (!permits.tryAcquire()) {
+                rejected.increment();
+                return Flux.error(new StreamLimitExceededException(maxConcurrentStreams));
+            }
+            started.increment();
+            RunnableConfig config = RunnableConfig.builder()
+                    .threadId(threadId)
+                    .build();
+            return Flux.defer(() -> agentStream(message, config))
+                    .subscribeOn(scheduler)
+                    .concatMapIterable(output -> {
+                        StreamEvent event = StreamEvent.of(output);
+                        return event == null ? List.<StreamEvent>of() : List.of(event);
+                    })
+                    .concatWith(Flux.just(StreamEvent.done()))
+                    // 预取最多 bufferSize 个事件，之后按客户端的请求量补充，上游不会被无限制地请求
+                    .publishOn(scheduler, bufferSize)
+                    .onErrorMap(Exceptions::isOverflow, e -> {
+                        overflowed.increment();
+                        return new SlowConsumerException(bufferSize);
+                    })
+                    .doFinally(signal -> {
+                        permits.release();
+                        if (signal == SignalType.CANCEL) {
+                            cancelled.increment();
+                        }
+                    });
+        });
+    }
+
+    private Flux<NodeOutput> agentStream(String message, RunnableConfig config) {
+        try {
+            return streamer.stream(new UserMessage(message), config);
+        }
+        catch (GraphRunnerException e) {
+            return Flux.error(e);
+        }
+    }
+
+    public Duration heartbeat() {
+        return heartbeat;
+    }
+
+    /**
+     * 进行中的流已经达到上限，用于在建立 SSE 响应前直接返回 503
+     */
+    public boolean isSaturated() {
+        return permits.availablePermits() == 0;
+    }
+
+    /**
+     * 当前进行中的流数
+     */
+    public int activeStreams() {
+        return maxConcurrentStreams - permits.availablePermits();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("agent.stream.active", this, AgentStreamService::activeStreams)
+                .description("进行中的流式对话数")
+                .register(registry);
+        FunctionCounter.builder("agent.stream.started", started, LongAdder::sum)
+                .description("开始的流式对话数")
+                .register(registry);
+        FunctionCounter.builder("agent.stream.cancelled", cancelled, LongAdder::sum)
+                .description("客户端断开而取消的流式对话数")
+                .register(registry);
+        FunctionCounter.builder("agent.stream.rejected", rejected, LongAdder::sum)
+                .description("超过并发上限被拒绝的流式对话数")
+                .register(registry);
+        FunctionCounter.builder("agent.stream.overflow", overflowed, LongAdder::sum)
+                .description("缓冲区溢出而结束的流式对话数")
+                .register(registry);
+    }
+
+    public static class Builder {
+
+        private final AgentStreamer streamer;
+        private int bufferSize = 256;
+        private Duration heartbeat = Duration.ofSeconds(15);
+        private int maxConcurrentStreams = 10_000;
+        private Scheduler scheduler = Schedulers.boundedElastic();
+
+        private Builder(AgentStreamer streamer) {
+            this.streamer = streamer;
+        }
+
+        /**
+         * 每个连接最多预取的事件数
+         */
+        public Builder bufferSize(int bufferSize) {
+            this.bufferSize = bufferSize;
+            return this;
+        }
+
+        /**
+         * 心跳间隔，SSE 发送注释行，WebSocket 发送 ping 帧，防止代理断开空闲连接
+         */
+        public Builder heartbeat(Duration heartbeat) {
+            this.heartbeat = heartbeat;
+            return this;
+        }
+
+        public Builder maxConcurrentStreams(int maxConcurrentStreams) {
+            this.maxConcurrentStreams = maxConcurrentStreams;
+            return this;
+        }
+
+        /**
+         * 订阅 agent.stream 和向下游发送事件的线程，默认 boundedElastic
+         */
+        public Builder scheduler(Scheduler scheduler) {
+            this.scheduler = scheduler;
+            return this;
+        }
+
+        public AgentStreamService build() {
+            if (bufferSize <= 0 || maxConcurrentStreams <= 0) {
+                throw new IllegalArgumentException("bufferSize and maxConcurrentStreams must be positive");
+            }
+            return new AgentStreamService(this);
+        }
+    }
+}
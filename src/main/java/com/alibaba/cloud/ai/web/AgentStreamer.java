@@ -0,0 +1,16 @@
+package com.alibaba.cloud.ai.web;
+
+import com.alibaba.cloud.ai.graph.NodeOutput;
+import com.alibaba.cloud.ai.graph.RunnableConfig;
+import com.alibaba.cloud.ai.graph.exception.GraphRunnerException;
+import org.springframework.ai.chat.messages.UserMessage;
+import reactor.core.publisher.Flux;
+
+/**
+ * 流式执行一次对话，通常直接传入 {@code agent::stream}
+ */
+@FunctionalInterface
+public interface AgentStreamer {
+
+    Flux<NodeOutput> stream(UserMessage message, RunnableConfig config) throws GraphRunnerException;
+}
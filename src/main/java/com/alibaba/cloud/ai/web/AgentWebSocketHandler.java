@@ -0,0 +1,50 @@
+package com.alibaba.cloud.ai.web;
+
+import org.springframework.web.reactive.socket.WebSocketHandler;
+import org.springframework.web.reactive.socket.WebSocketMessage;
+import org.springframework.web.reactive.socket.WebSocketSession;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * WebSocket 端点
+ *
+ * 客户端每发送一条 {"threadId": "...", "message": "..."} 开始一次对话，事件以 JSON 文本帧返回，
+ * 同一连接上的对话依次执行。空闲时按 heartbeat 发送 ping 帧。
+ * 连接关闭时取消进行中的对话。
+ */
+public class AgentWebSocketHandler implements WebSocketHandler {
+
+    private final AgentStreamService service;
+
+    public AgentWebSocketHandler(AgentStreamService service) {
+        this.service = service;
+    }
+
+    @Override
+    public Mono<Void> handle(WebSocketSession session) {
+        Flux<WebSocketMessage> events = session.receive()
+                .map(WebSocketMessage::getPayloadAsText)
+                .concatMap(text -> conversation(text).map(event -> session.textMessage(event.toJson())), 1);
+        Flux<WebSocketMessage> pings = Flux.interval(service.heartbeat())
+                .onBackpressureDrop()
+                .map(tick -> session.pingMessage(factory -> factory.wrap(new byte[0])));
+        // 客户端关闭后 receive 结束，发送完成；连接断开时 send 被取消，进行中的对话随之取消
+        return session.send(Flux.merge(events, pings).takeUntilOther(session.closeStatus()));
+    }
+
+    private Flux<StreamEvent> conversation(String text) {
+        StreamRequest request;
+        try {
+            request = StreamRequest.parse(text);
+        }
+        catch (RuntimeException e) {
+            return Flux.just(StreamEvent.error("invalid request: " + e.getMessage()));
+        }
+        if (request.message() == null || request.message().isBlank()) {
+            return Flux.just(StreamEvent.error("message is required"));
+        }
+        return service.stream(request.threadId(), request.message())
+                .onErrorResume(e -> Flux.just(StreamEvent.error(e.getMessage())));
+    }
+}
@@ -0,0 +1,11 @@
+package com.alibaba.cloud.ai.web;
+
+/**
+ * 客户端读取过慢，连接的事件缓冲区已满
+ */
+public class SlowConsumerException extends RuntimeException {
+
+    public SlowConsumerException(int bufferSize) {
+        super("Client is too slow, " + bufferSize + " events buffered");
+    }
+}
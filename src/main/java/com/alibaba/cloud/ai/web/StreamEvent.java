@@ -0,0 +1,67 @@
+package com.alibaba.cloud.ai.web;
+
+import com.alibaba.cloud.ai.graph.NodeOutput;
+import com.alibaba.cloud.ai.graph.streaming.OutputType;
+import com.alibaba.cloud.ai.graph.streaming.StreamingOutput;
+import com.alibaba.fastjson.JSONObject;
+import org.springframework.ai.chat.messages.Message;
+
+/**
+ * 推送给客户端的流式事件
+ *
+ * @param type  chunk（模型输出分块）、message（模型完整输出）、tool（工具执行完成）、done、error
+ * @param agent 产生事件的 agent，done / error 时为 null
+ * @param node  产生事件的节点，done / error 时为 null
+ * @param text  文本内容
+ */
+public record StreamEvent(String type, String agent, String node, String text) {
+
+    public static final String CHUNK = "chunk";
+    public static final String MESSAGE = "message";
+    public static final String TOOL = "tool";
+    public static final String DONE = "done";
+    public static final String ERROR = "error";
+
+    /**
+     * 只转换模型和工具的流式输出，其余节点输出返回 null
+     */
+    public static StreamEvent of(NodeOutput output) {
+        if (!(output instanceof StreamingOutput<?> streamingOutput)) {
+            return null;
+        }
+        OutputType outputType = streamingOutput.getOutputType();
+        String type;
+        if (outputType == OutputType.AGENT_MODEL_STREAMING) {
+            type = CHUNK;
+        }
+        else if (outputType == OutputType.AGENT_MODEL_FINISHED) {
+            type = MESSAGE;
+        }
+        else if (outputType == OutputType.AGENT_TOOL_FINISHED) {
+            type = TOOL;
+        }
+        else {
+            return null;
+        }
+        Message message = streamingOutput.message();
+        String text = message != null ? message.getText() : streamingOutput.chunk();
+        return new StreamEvent(type, streamingOutput.agent(), streamingOutput.node(), text);
+    }
+
+    public static StreamEvent done() {
+        return new StreamEvent(DONE, null, null, null);
+    }
+
+    public static StreamEvent error(String message) {
+        return new StreamEvent(ERROR, null, null, message);
+    }
+
+    public String toJson() {
+        JSONObject json = new JSONObject(true);
+        json.put("type", type);
+        json.put("agent", agent);
+        json.put("node", node);
+        json.put("text", text);
+        return json.toJSONString();
+    }
+}
@@ -0,0 +1,11 @@
+package com.alibaba.cloud.ai.web;
+
+/**
+ * 同时进行的流式对话超过上限
+ */
+public class StreamLimitExceededException extends RuntimeException {
+
+    public StreamLimitExceededException(int maxConcurrentStreams) {
+        super("Too many concurrent streams, limit is " + maxConcurrentStreams);
+    }
+}
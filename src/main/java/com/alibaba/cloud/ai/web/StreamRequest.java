@@ -0,0 +1,46 @@
+package com.alibaba.cloud.ai.web;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONObject;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+
+/**
+ * 一次流式对话请求，没有 threadId 时生成一个新的会话
+ */
+record StreamRequest(String threadId, String message) {
+
+    /**
+     * 请求体不是 JSON 对象时抛出 IllegalArgumentException
+     */
+    static StreamRequest parse(String json) {
+        JSONObject body;
+        try {
+            body = JSON.parseObject(json);
+        }
+        catch (RuntimeException e) {
+            throw new IllegalArgumentException("request body is not a JSON object", e);
+        }
+        if (body == null) {
+            throw new IllegalArgumentException("request body is not a JSON object");
+        }
+        return of(body.getString("threadId"), body.getString("message"));
+    }
+
+    static Mono<StreamRequest> from(ServerRequest request) {
+        if (HttpMethod.GET.equals(request.method())) {
+            return Mono.just(of(request.queryParam("threadId").orElse(null), request.queryParam("message").orElse(null)));
+        }
+        return request.bodyToMono(String.class)
+                .map(StreamRequest::parse)
+                .defaultIfEmpty(of(null, null));
+    }
+
+    private static StreamRequest of(String threadId, String message) {
+        return new StreamRequest(threadId == null || threadId.isBlank() ? UUID.randomUUID().toString() : threadId,
+                message);
+    }
+}